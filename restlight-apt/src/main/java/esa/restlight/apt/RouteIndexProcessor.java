@@ -0,0 +1,570 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.apt;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor which generates the route index of the controllers annotated by the Spring MVC request
+ * mapping annotations at compile time, and the index would be loaded by {@code esa.restlight.core.util.RouteIndex}
+ * at runtime instead of resolving the mappings, schedulers and parameter names by reflection.
+ * <p>
+ * The mappings are also validated while compiling, such as the conflict of {@code path} and its alias {@code value}
+ * would be reported as an error, and the duplicate mappings in a controller would be reported as warnings.
+ * <p>
+ * !Note: Controllers which extend another class, implement any interface or use the composed mapping annotations
+ * are not indexed, because the mappings of them may be inherited or merged which could only be resolved at runtime.
+ */
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Keep in sync with {@code esa.restlight.core.util.RouteIndex}.
+     */
+    static final String LOCATION = "META-INF/restlight/route-index/";
+    static final String SUFFIX = ".properties";
+    static final String VERSION = "2";
+
+    private static final String[] PACKAGES = {"org.springframework.web.bind.annotation.",
+            "esa.restlight.spring.shaded.org.springframework.web.bind.annotation."};
+    private static final String REQUEST_MAPPING = "RequestMapping";
+    /**
+     * Shortcuts of @RequestMapping and their http methods, which are searched in the same order as the runtime.
+     */
+    private static final String[][] SHORTCUTS = {{"GetMapping", "GET"},
+            {"PostMapping", "POST"},
+            {"PutMapping", "PUT"},
+            {"DeleteMapping", "DELETE"},
+            {"PatchMapping", "PATCH"}};
+    private static final String SCHEDULED = "esa.restlight.core.annotation.Scheduled";
+
+    private final Set<String> indexed = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        final Set<String> types = new LinkedHashSet<>();
+        for (String pkg : PACKAGES) {
+            types.add(pkg + REQUEST_MAPPING);
+            for (String[] shortcut : SHORTCUTS) {
+                types.add(pkg + shortcut[0]);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.METHOD) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                } else if (element instanceof TypeElement) {
+                    types.add((TypeElement) element);
+                }
+            }
+        }
+        for (TypeElement type : types) {
+            final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (indexed.add(binaryName)) {
+                index(type, binaryName);
+            }
+        }
+        // do not claim the annotations
+        return false;
+    }
+
+    private void index(TypeElement type, String binaryName) {
+        final String unsupported = unsupported(type);
+        if (unsupported != null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Routes of " + binaryName + " are not indexed because " + unsupported
+                            + ", they will be resolved by reflection at runtime.", type);
+            return;
+        }
+        final List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        final Map<String, String> props = new LinkedHashMap<>();
+        props.put("version", VERSION);
+        props.put("type", binaryName);
+        final String fingerprint = fingerprint(type, methods);
+        if (fingerprint == null) {
+            return;
+        }
+        props.put("fingerprint", fingerprint);
+
+        boolean valid = true;
+        final Mapping typeMapping = mapping(type);
+        if (typeMapping != null) {
+            valid = typeMapping.valid;
+            props.put("class.mapped", "true");
+            typeMapping.writeTo(props, "class.");
+        }
+        final String typeScheduler = scheduler(type);
+        final Map<String, ExecutableElement> keys = new HashMap<>();
+        int i = 0;
+        for (ExecutableElement method : methods) {
+            final Mapping mapping = mapping(method);
+            if (mapping == null) {
+                continue;
+            }
+            valid &= mapping.valid;
+            checkDuplicate(method, mapping, keys);
+            final String prefix = "m." + i++ + ".";
+            props.put(prefix + "signature", signature(method));
+            mapping.writeTo(props, prefix);
+            final String scheduler = scheduler(method);
+            if (scheduler != null || typeScheduler != null) {
+                props.put(prefix + "scheduler", scheduler == null ? typeScheduler : scheduler);
+            }
+            final List<? extends VariableElement> parameters = method.getParameters();
+            props.put(prefix + "parameters", String.valueOf(parameters.size()));
+            for (int j = 0; j < parameters.size(); j++) {
+                props.put(prefix + "parameter." + j, parameters.get(j).getSimpleName().toString());
+            }
+        }
+        if (valid) {
+            write(type, binaryName, props);
+        }
+    }
+
+    /**
+     * Gets the reason why the given type could not be indexed.
+     *
+     * @return reason or {@code null} if the type could be indexed.
+     */
+    private String unsupported(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS) {
+            return "it is not a class";
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            return "it is a local or anonymous class";
+        }
+        final TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED
+                && !((TypeElement) ((DeclaredType) superclass).asElement())
+                .getQualifiedName().contentEquals(Object.class.getName())) {
+            return "it extends " + superclass;
+        }
+        if (!type.getInterfaces().isEmpty()) {
+            return "it implements " + type.getInterfaces();
+        }
+        final List<Element> elements = new ArrayList<>(ElementFilter.methodsIn(type.getEnclosedElements()));
+        elements.add(type);
+        for (Element element : elements) {
+            for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                final Element annotation = mirror.getAnnotationType().asElement();
+                if (!isMappingAnnotation(annotation) && hasMappingAnnotation(annotation)) {
+                    return "the composed annotation @" + annotation.getSimpleName() + " is used";
+                }
+            }
+        }
+        return null;
+    }
+
+    private Mapping mapping(Element element) {
+        for (String[] shortcut : SHORTCUTS) {
+            final AnnotationMirror mirror = findMapping(element, shortcut[0]);
+            if (mirror != null) {
+                return new Mapping(element, mirror, new String[]{shortcut[1]});
+            }
+        }
+        final AnnotationMirror mirror = findMapping(element, REQUEST_MAPPING);
+        if (mirror == null) {
+            return null;
+        }
+        final List<String> methods = new ArrayList<>();
+        for (Object method : values(mirror, "method")) {
+            // enum constant of RequestMethod
+            methods.add(((VariableElement) method).getSimpleName().toString());
+        }
+        return new Mapping(element, mirror, methods.toArray(new String[0]));
+    }
+
+    private void checkDuplicate(ExecutableElement method, Mapping mapping, Map<String, ExecutableElement> keys) {
+        final String conditions = Arrays.toString(mapping.params) + Arrays.toString(mapping.headers)
+                + Arrays.toString(mapping.consumes) + Arrays.toString(mapping.produces);
+        final String[] paths = mapping.path.length == 0 ? new String[]{""} : mapping.path;
+        final String[] httpMethods = mapping.method.length == 0 ? new String[]{"*"} : mapping.method;
+        for (String path : paths) {
+            for (String httpMethod : httpMethods) {
+                final ExecutableElement exist = keys.putIfAbsent(httpMethod + " " + path + conditions, method);
+                if (exist != null && exist != method) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "Duplicate mapping '" + httpMethod + " " + path + "' with " + exist, method);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the fingerprint of given type which must be the same as {@code RouteIndex#fingerprint(Class)}.
+     *
+     * @return fingerprint or {@code null} if the SHA-1 algorithm is unavailable.
+     */
+    private String fingerprint(TypeElement type, List<ExecutableElement> methods) {
+        final List<String> elements = new ArrayList<>(methods.size());
+        for (ExecutableElement method : methods) {
+            elements.add(signature(method) + annotations(method));
+        }
+        Collections.sort(elements);
+        final StringBuilder sb = new StringBuilder(annotations(type));
+        for (String element : elements) {
+            sb.append('\n').append(element);
+        }
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to compute the fingerprint of " + type + ": " + e, type);
+            return null;
+        }
+    }
+
+    private String annotations(Element element) {
+        final List<String> values = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!isMappingAnnotation(annotation) && !annotation.getQualifiedName().contentEquals(SCHEDULED)) {
+                continue;
+            }
+            final List<Map.Entry<? extends ExecutableElement, ? extends AnnotationValue>> attributes =
+                    new ArrayList<>(processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet());
+            attributes.sort(Comparator.comparing(e -> e.getKey().getSimpleName().toString()));
+            final StringBuilder sb = new StringBuilder("@")
+                    .append(processingEnv.getElementUtils().getBinaryName(annotation)).append('(');
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : attributes) {
+                sb.append(e.getKey().getSimpleName()).append('=');
+                appendValue(sb, e.getValue().getValue());
+                sb.append(';');
+            }
+            values.add(sb.append(')').toString());
+        }
+        Collections.sort(values);
+        return String.join("", values);
+    }
+
+    private void appendValue(StringBuilder sb, Object value) {
+        if (value instanceof List) {
+            sb.append('[');
+            final List<?> values = (List<?>) value;
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendValue(sb, ((AnnotationValue) values.get(i)).getValue());
+            }
+            sb.append(']');
+        } else if (value instanceof String) {
+            sb.append(((String) value).length()).append(':').append(value);
+        } else if (value instanceof VariableElement) {
+            // enum constant
+            sb.append(((VariableElement) value).getSimpleName());
+        } else if (value instanceof TypeMirror) {
+            sb.append(typeName(processingEnv.getTypeUtils().erasure((TypeMirror) value)));
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private String scheduler(Element element) {
+        final AnnotationMirror mirror = findAnnotation(element, SCHEDULED);
+        if (mirror == null) {
+            return null;
+        }
+        final Object value = value(mirror, "value");
+        return value == null ? null : value.toString();
+    }
+
+    private String signature(ExecutableElement method) {
+        final StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+        final List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(typeName(processingEnv.getTypeUtils().erasure(parameters.get(i).asType())));
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Gets the name of given type which is the same as {@link Class#getTypeName()}.
+     */
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getElementUtils()
+                    .getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        }
+        return type.toString();
+    }
+
+    private void write(TypeElement type, String binaryName, Map<String, String> props) {
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                    "",
+                    LOCATION + binaryName + SUFFIX,
+                    type);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.ISO_8859_1)) {
+                writer.write("# Generated by " + RouteIndexProcessor.class.getName() + ", do not edit.\n");
+                for (Map.Entry<String, String> e : props.entrySet()) {
+                    writer.write(e.getKey());
+                    writer.write('=');
+                    writer.write(escape(e.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to write the route index of " + binaryName + ": " + e, type);
+        }
+    }
+
+    /**
+     * Escapes the value in the format of {@link java.util.Properties#load(java.io.InputStream)}.
+     */
+    static String escape(String value) {
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case ' ':
+                    // leading whitespaces would be ignored
+                    sb.append(i == 0 ? "\\ " : " ");
+                    break;
+                case '=':
+                case ':':
+                case '#':
+                case '!':
+                    sb.append('\\').append(c);
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static AnnotationMirror findMapping(Element element, String simpleName) {
+        for (String pkg : PACKAGES) {
+            final AnnotationMirror mirror = findAnnotation(element, pkg + simpleName);
+            if (mirror != null) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isMappingAnnotation(Element annotation) {
+        final String name = ((TypeElement) annotation).getQualifiedName().toString();
+        for (String pkg : PACKAGES) {
+            if (name.equals(pkg + REQUEST_MAPPING)) {
+                return true;
+            }
+            for (String[] shortcut : SHORTCUTS) {
+                if (name.equals(pkg + shortcut[0])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasMappingAnnotation(Element annotation) {
+        for (AnnotationMirror mirror : annotation.getAnnotationMirrors()) {
+            if (isMappingAnnotation(mirror.getAnnotationType().asElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e
+                : mirror.getElementValues().entrySet()) {
+            if (e.getKey().getSimpleName().contentEquals(name)) {
+                return e.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static List<Object> values(AnnotationMirror mirror, String name) {
+        final Object value = value(mirror, name);
+        final List<Object> values = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object v : (List<?>) value) {
+                values.add(((AnnotationValue) v).getValue());
+            }
+        } else if (value != null) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static String[] strings(AnnotationMirror mirror, String name) {
+        final List<Object> values = values(mirror, name);
+        final String[] strings = new String[values.size()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = String.valueOf(values.get(i));
+        }
+        return strings;
+    }
+
+    private final class Mapping {
+
+        private final String name;
+        private final String[] path;
+        private final String[] method;
+        private final String[] params;
+        private final String[] headers;
+        private final String[] consumes;
+        private final String[] produces;
+        private boolean valid = true;
+
+        private Mapping(Element element, AnnotationMirror mirror, String[] method) {
+            final Object name = value(mirror, "name");
+            this.name = name == null ? "" : name.toString();
+            this.path = path(element, mirror);
+            this.method = method;
+            this.params = strings(mirror, "params");
+            this.headers = strings(mirror, "headers");
+            this.consumes = strings(mirror, "consumes");
+            this.produces = strings(mirror, "produces");
+        }
+
+        private String[] path(Element element, AnnotationMirror mirror) {
+            final String[] path = strings(mirror, "path");
+            final String[] value = strings(mirror, "value");
+            if (path.length > 0 && value.length > 0 && !Arrays.equals(path, value)) {
+                // the same as the runtime
+                valid = false;
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "attribute 'path' and its alias 'value' are present with different values," +
+                                " but only one is permitted.", element, mirror);
+            }
+            final String[] result = path.length > 0 ? path : value;
+            for (String p : result) {
+                int depth = 0;
+                for (int i = 0; i < p.length() && depth >= 0; i++) {
+                    if (p.charAt(i) == '{') {
+                        depth++;
+                    } else if (p.charAt(i) == '}') {
+                        depth--;
+                    }
+                }
+                if (depth != 0) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "Unbalanced braces in path '" + p + "'", element, mirror);
+                }
+            }
+            return result;
+        }
+
+        private void writeTo(Map<String, String> props, String prefix) {
+            if (!name.isEmpty()) {
+                props.put(prefix + "name", name);
+            }
+            writeTo(props, prefix + "path.", path);
+            writeTo(props, prefix + "method.", method);
+            writeTo(props, prefix + "params.", params);
+            writeTo(props, prefix + "headers.", headers);
+            writeTo(props, prefix + "consumes.", consumes);
+            writeTo(props, prefix + "produces.", produces);
+        }
+
+        private void writeTo(Map<String, String> props, String prefix, String[] values) {
+            for (int i = 0; i < values.length; i++) {
+                props.put(prefix + i, values[i]);
+            }
+        }
+    }
+}
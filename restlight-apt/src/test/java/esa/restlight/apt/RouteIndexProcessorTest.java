@@ -0,0 +1,334 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.apt;
+
+import esa.restlight.core.util.RouteIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteIndexProcessorTest {
+
+    private static final String[] ANNOTATIONS = {
+            "package org.springframework.web.bind.annotation;\n"
+                    + "public enum RequestMethod { GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS, TRACE }",
+            "package org.springframework.web.bind.annotation;\n"
+                    + "import java.lang.annotation.*;\n"
+                    + "@Target({ElementType.TYPE, ElementType.METHOD})\n"
+                    + "@Retention(RetentionPolicy.RUNTIME)\n"
+                    + "public @interface RequestMapping {\n"
+                    + "    String name() default \"\";\n"
+                    + "    String[] value() default {};\n"
+                    + "    String[] path() default {};\n"
+                    + "    RequestMethod[] method() default {};\n"
+                    + "    String[] params() default {};\n"
+                    + "    String[] headers() default {};\n"
+                    + "    String[] consumes() default {};\n"
+                    + "    String[] produces() default {};\n"
+                    + "}",
+            "package org.springframework.web.bind.annotation;\n"
+                    + "import java.lang.annotation.*;\n"
+                    + "@Target(ElementType.METHOD)\n"
+                    + "@Retention(RetentionPolicy.RUNTIME)\n"
+                    + "@RequestMapping(method = RequestMethod.GET)\n"
+                    + "public @interface GetMapping {\n"
+                    + "    String name() default \"\";\n"
+                    + "    String[] value() default {};\n"
+                    + "    String[] path() default {};\n"
+                    + "    String[] params() default {};\n"
+                    + "    String[] headers() default {};\n"
+                    + "    String[] consumes() default {};\n"
+                    + "    String[] produces() default {};\n"
+                    + "}",
+            "package esa.restlight.core.annotation;\n"
+                    + "import java.lang.annotation.*;\n"
+                    + "@Target({ElementType.METHOD, ElementType.TYPE})\n"
+                    + "@Retention(RetentionPolicy.RUNTIME)\n"
+                    + "public @interface Scheduled {\n"
+                    + "    String value();\n"
+                    + "}"
+    };
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testIndex() throws IOException {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "import esa.restlight.core.annotation.Scheduled;\n"
+                        + "@RequestMapping(\"/hello\")\n"
+                        + "@Scheduled(\"IO\")\n"
+                        + "public class Hello {\n"
+                        + "    @GetMapping(value = \"/list\", produces = \"application/json\")\n"
+                        + "    public java.util.List<String> list(String name, int[] ids) { return null; }\n"
+                        + "    @RequestMapping(path = {\"/a\", \"/b=c\"},"
+                        + "            method = {RequestMethod.POST, RequestMethod.PUT},"
+                        + "            params = \"x\", headers = \"y\", consumes = \"text/plain\")\n"
+                        + "    @Scheduled(\"BIZ\")\n"
+                        + "    public <T extends Number> void post(T t, Inner inner) { }\n"
+                        + "    public void helper() { }\n"
+                        + "    public static class Inner { }\n"
+                        + "}");
+        assertTrue(errors(diagnostics).isEmpty(), diagnostics::toString);
+
+        final Properties props = load("foo.Hello");
+        assertEquals(RouteIndexProcessor.VERSION, props.getProperty("version"));
+        assertEquals("foo.Hello", props.getProperty("type"));
+        assertNotNull(props.getProperty("fingerprint"));
+        assertEquals("true", props.getProperty("class.mapped"));
+        assertEquals("/hello", props.getProperty("class.path.0"));
+        assertNull(props.getProperty("class.method.0"));
+
+        assertEquals("list(java.lang.String,int[])", props.getProperty("m.0.signature"));
+        assertEquals("/list", props.getProperty("m.0.path.0"));
+        assertEquals("GET", props.getProperty("m.0.method.0"));
+        assertEquals("application/json", props.getProperty("m.0.produces.0"));
+        assertEquals("IO", props.getProperty("m.0.scheduler"));
+        assertEquals("2", props.getProperty("m.0.parameters"));
+        assertEquals("name", props.getProperty("m.0.parameter.0"));
+        assertEquals("ids", props.getProperty("m.0.parameter.1"));
+
+        assertEquals("post(java.lang.Number,foo.Hello$Inner)", props.getProperty("m.1.signature"));
+        assertEquals("/a", props.getProperty("m.1.path.0"));
+        assertEquals("/b=c", props.getProperty("m.1.path.1"));
+        assertEquals("POST", props.getProperty("m.1.method.0"));
+        assertEquals("PUT", props.getProperty("m.1.method.1"));
+        assertEquals("x", props.getProperty("m.1.params.0"));
+        assertEquals("y", props.getProperty("m.1.headers.0"));
+        assertEquals("text/plain", props.getProperty("m.1.consumes.0"));
+        assertEquals("BIZ", props.getProperty("m.1.scheduler"));
+
+        // helper() has no mapping
+        assertNull(props.getProperty("m.2.signature"));
+    }
+
+    @Test
+    void testFingerprintMatchesRuntime(@TempDir Path recompiled) throws Exception {
+        final String source = "package foo;\n"
+                + "import org.springframework.web.bind.annotation.*;\n"
+                + "import esa.restlight.core.annotation.Scheduled;\n"
+                + "@RequestMapping(\"/hello\")\n"
+                + "public class Hello {\n"
+                + "    @GetMapping(value = \"/list\", produces = \"application/json\")\n"
+                + "    @Scheduled(\"IO\")\n"
+                + "    public java.util.List<String> list(String name, int[] ids) { return null; }\n"
+                + "    @RequestMapping(path = \"/a\", method = {RequestMethod.POST, RequestMethod.PUT})\n"
+                + "    public void post(Inner inner) { }\n"
+                + "    public void helper() { }\n"
+                + "    public static class Inner { }\n"
+                + "}";
+        assertTrue(errors(compile(output, true, source)).isEmpty());
+        try (URLClassLoader cl = new URLClassLoader(new URL[]{output.toUri().toURL()}, null)) {
+            final Class<?> type = cl.loadClass("foo.Hello");
+            assertEquals(load("foo.Hello").getProperty("fingerprint"), RouteIndex.fingerprint(type));
+            assertNotNull(RouteIndex.of(type));
+        }
+
+        // recompiled without the processor after the path has been modified
+        assertTrue(errors(compile(recompiled, false, source.replace("\"/a\"", "\"/b\""))).isEmpty());
+        try (URLClassLoader cl = new URLClassLoader(new URL[]{recompiled.toUri().toURL(),
+                output.toUri().toURL()}, null)) {
+            final Class<?> type = cl.loadClass("foo.Hello");
+            // the stale index is still present
+            assertNotNull(cl.getResource(RouteIndex.LOCATION + "foo.Hello" + RouteIndex.SUFFIX));
+            assertNull(RouteIndex.of(type));
+        }
+    }
+
+    @Test
+    void testAliasConflict() {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "public class Conflict {\n"
+                        + "    @GetMapping(value = \"/a\", path = \"/b\")\n"
+                        + "    public void get() { }\n"
+                        + "}");
+        assertEquals(1, errors(diagnostics).size());
+        assertFalse(Files.exists(resource("foo.Conflict")));
+    }
+
+    @Test
+    void testDuplicateMapping() throws IOException {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "public class Duplicate {\n"
+                        + "    @GetMapping(\"/a\")\n"
+                        + "    public void a() { }\n"
+                        + "    @GetMapping(\"/a\")\n"
+                        + "    public void b() { }\n"
+                        + "}");
+        assertTrue(errors(diagnostics).isEmpty(), diagnostics::toString);
+        assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.WARNING
+                && d.getMessage(null).contains("Duplicate mapping")));
+        assertEquals("b()", load("foo.Duplicate").getProperty("m.1.signature"));
+    }
+
+    @Test
+    void testUnsupported() {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "public class Sub extends Base {\n"
+                        + "    @GetMapping(\"/sub\")\n"
+                        + "    public void sub() { }\n"
+                        + "}",
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "public class Base {\n"
+                        + "    @GetMapping(\"/base\")\n"
+                        + "    public void base() { }\n"
+                        + "}",
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "public interface Api {\n"
+                        + "    @GetMapping(\"/api\")\n"
+                        + "    void api();\n"
+                        + "}",
+                "package foo;\n"
+                        + "import java.lang.annotation.*;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "@Retention(RetentionPolicy.RUNTIME)\n"
+                        + "@RequestMapping(method = RequestMethod.GET)\n"
+                        + "public @interface Composed { }",
+                "package foo;\n"
+                        + "import org.springframework.web.bind.annotation.*;\n"
+                        + "@RequestMapping(\"/composed\")\n"
+                        + "public class UseComposed {\n"
+                        + "    @Composed\n"
+                        + "    public void composed() { }\n"
+                        + "}");
+        assertTrue(errors(diagnostics).isEmpty(), diagnostics::toString);
+        assertTrue(Files.exists(resource("foo.Base")));
+        assertFalse(Files.exists(resource("foo.Sub")));
+        assertFalse(Files.exists(resource("foo.Api")));
+        assertFalse(Files.exists(resource("foo.UseComposed")));
+    }
+
+    @Test
+    void testEscape() throws IOException {
+        final String raw = " a=b:c#d!e\\f\tg\nh中 ";
+        final Properties props = new Properties();
+        props.load(new ByteArrayInputStream(("k=" + RouteIndexProcessor.escape(raw))
+                .getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals(raw, props.getProperty("k"));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String... sources) {
+        return compile(output, true, sources);
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path output, boolean process,
+                                                                      String... sources) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final List<JavaFileObject> units = new ArrayList<>();
+        for (String source : ANNOTATIONS) {
+            units.add(new Source(source));
+        }
+        for (String source : sources) {
+            units.add(new Source(source));
+        }
+        final JavaCompiler.CompilationTask task = compiler.getTask(null,
+                null,
+                diagnostics,
+                process
+                        ? Arrays.asList("-d", output.toString())
+                        : Arrays.asList("-d", output.toString(), "-proc:none"),
+                null,
+                units);
+        if (process) {
+            task.setProcessors(Collections.singletonList(new RouteIndexProcessor()));
+        }
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> errors(
+            List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        final List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(d);
+            }
+        }
+        return errors;
+    }
+
+    private Path resource(String type) {
+        return output.resolve(RouteIndexProcessor.LOCATION + type + RouteIndexProcessor.SUFFIX);
+    }
+
+    private Properties load(String type) throws IOException {
+        final Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(resource(type))) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+
+        private final String content;
+
+        private Source(String content) {
+            super(URI.create("string:///" + name(content).replace('.', '/') + Kind.SOURCE.extension),
+                    Kind.SOURCE);
+            this.content = content;
+        }
+
+        private static String name(String content) {
+            final String pkg = content.substring("package ".length(), content.indexOf(';'));
+            final String[] tokens = content.substring(content.indexOf("public ")).split("\\s+");
+            // public class Foo / public @interface Foo / public enum Foo
+            return pkg + "." + tokens[2];
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
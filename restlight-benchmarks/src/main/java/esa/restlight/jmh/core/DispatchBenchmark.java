@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.annotation.QueryBean;
+import esa.restlight.core.annotation.ResponseCached;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.core.interceptor.HandlerInterceptor;
+import esa.restlight.core.serialize.JacksonSerializer;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.config.ResponseCacheOptionsConfigure;
+import esa.restlight.server.config.SchedulingOptionsConfigure;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark which dispatches the in-memory requests through the whole pipeline of a real {@link
+ * AbstractRestlight}, which contains the filters, routing, interceptors, argument resolving, handler invoking and
+ * response serializing, but no network.
+ * <p>
+ * Run with {@code -prof gc} to see the {@code gc.alloc.rate.norm} per request, such as {@code java -jar
+ * microbenchmarks.jar DispatchBenchmark -prof gc}, and the {@link #baseline()} which only builds the request and
+ * response should be subtracted from the others.
+ * <p>
+ * !Note: Allocations of the biz threads are not counted in the {@code gc.alloc.rate.norm} when the scheduler is
+ * {@link Schedulers#BIZ}, so use {@link Schedulers#IO} to compare the allocations.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    @Param({Schedulers.IO, Schedulers.BIZ, Schedulers.AFFINITY})
+    private String scheduler = Schedulers.IO;
+
+    /**
+     * Whether to deploy a filter and interceptors.
+     */
+    @Param({"false", "true"})
+    private boolean decorated;
+
+    /**
+     * Whether to enable the response cache, which responds the {@link #cached()} requests on the calling thread
+     * without scheduling.
+     */
+    @Param({"false", "true"})
+    private boolean responseCache;
+
+    private InProcessRestlight restlight;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        final RestlightOptions options = RestlightOptionsConfigure.newOpts()
+                .scheduling(SchedulingOptionsConfigure.newOpts().defaultScheduler(scheduler).configured())
+                .responseCache(ResponseCacheOptionsConfigure.newOpts().enable(responseCache).configured())
+                .configured();
+        restlight = InProcessRestlight.forServer(options);
+        restlight.deployments().addController(new BenchController());
+        if (decorated) {
+            restlight.addFilter(new Filter() {
+                @Override
+                public CompletableFuture<Void> doFilter(AsyncRequest request,
+                                                        AsyncResponse response,
+                                                        FilterChain chain) {
+                    response.setHeader("X-Filtered", "true");
+                    return chain.doFilter(request, response);
+                }
+            });
+            restlight.deployments()
+                    .addInterceptor(() -> request -> true)
+                    .addHandlerInterceptor(new HandlerInterceptor() {
+                        @Override
+                        public String[] includes() {
+                            return new String[]{"/bench/users/**"};
+                        }
+                    });
+        }
+        restlight.start();
+        body = JacksonSerializer.getDefaultMapper().writeValueAsBytes(new User(1L, "restlight"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        restlight.shutdown();
+    }
+
+    @Benchmark
+    public MockAsyncResponse baseline() {
+        final MockAsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withUri("/bench/hello")
+                .build();
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        request.setAttribute("$bench", response);
+        return response;
+    }
+
+    @Benchmark
+    public MockAsyncResponse plainText() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withUri("/bench/hello")
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse pathVariable() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withUri("/bench/users/1")
+                .withParameter("name", "restlight")
+                .withHeader(HttpHeaderNames.ACCEPT.toString(), MediaType.APPLICATION_JSON_UTF8.value())
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse queryBean() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withUri("/bench/query")
+                .withParameter("id", "1")
+                .withParameter("name", "restlight")
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse jsonBody() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/bench/users")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON_UTF8.value())
+                .withBody(body)
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse async() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withUri("/bench/async/1")
+                .build());
+    }
+
+    @Benchmark
+    public MockAsyncResponse cached() {
+        return dispatch(MockAsyncRequest.aMockRequest()
+                .withUri("/bench/cached/users/1")
+                .build());
+    }
+
+    private MockAsyncResponse dispatch(MockAsyncRequest request) {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        restlight.handler().process(request, response).join();
+        if (response.status() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.status() + " of " + request.uri());
+        }
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DispatchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Path("/bench")
+    public static class BenchController {
+
+        @GET
+        @Path("/hello")
+        @Produces(MediaType.TEXT_PLAIN_VALUE)
+        public String hello() {
+            return "Hello Restlight!";
+        }
+
+        @GET
+        @Path("/users/{id}")
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        public User user(@PathParam("id") long id, @QueryParam("name") String name) {
+            return new User(id, name);
+        }
+
+        @GET
+        @Path("/groups/{group}/users/{id}")
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        public User member(@PathParam("group") String group, @PathParam("id") long id) {
+            return new User(id, group);
+        }
+
+        @GET
+        @Path("/query")
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        public User query(@QueryBean User user) {
+            return user;
+        }
+
+        @POST
+        @Path("/users")
+        @Consumes(MediaType.APPLICATION_JSON_VALUE)
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        public User create(User user) {
+            return user;
+        }
+
+        @GET
+        @Path("/cached/users/{id}")
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        @ResponseCached(ttl = 1L, unit = TimeUnit.HOURS)
+        public User cached(@PathParam("id") long id) {
+            return new User(id, "cached");
+        }
+
+        @GET
+        @Path("/async/{id}")
+        @Produces(MediaType.APPLICATION_JSON_VALUE)
+        public CompletableFuture<User> async(@PathParam("id") long id) {
+            return CompletableFuture.completedFuture(new User(id, "async"));
+        }
+    }
+
+    public static class User {
+
+        private long id;
+        private String name;
+
+        public User() {
+        }
+
+        User(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.restlight.core.AbstractRestlight;
+import esa.restlight.core.Deployments;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.bootstrap.RestlightServer;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilteredHandler;
+import esa.restlight.server.handler.RestlightHandler;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Restlight which deploys the handler into an in-process server instead of binding a port, so the requests could be
+ * dispatched through the whole pipeline by calling {@link RestlightHandler#process} of {@link #handler()} directly.
+ */
+public final class InProcessRestlight extends AbstractRestlight<InProcessRestlight,
+        InProcessRestlight.InProcessDeployments, RestlightOptions> {
+
+    private volatile RestlightHandler handler;
+
+    private InProcessRestlight(RestlightOptions options) {
+        super(options);
+    }
+
+    public static InProcessRestlight forServer(RestlightOptions options) {
+        return new InProcessRestlight(options);
+    }
+
+    /**
+     * Gets the handler which is deployed, which has been wrapped by the {@link Filter}s if there's any.
+     *
+     * @return handler or {@code null} if current restlight has not been started.
+     */
+    public RestlightHandler handler() {
+        return handler;
+    }
+
+    @Override
+    protected InProcessDeployments createDeployments() {
+        return new InProcessDeployments(this, options);
+    }
+
+    @Override
+    protected RestlightServer doBuildServer(RestlightHandler handler) {
+        final List<Filter> filters = prepareFilters();
+        this.handler = filters.isEmpty() ? handler : new FilteredHandler(handler, filters);
+        return new InProcessServer(this.handler);
+    }
+
+    public static final class InProcessDeployments
+            extends Deployments<InProcessRestlight, InProcessDeployments, RestlightOptions> {
+
+        private InProcessDeployments(InProcessRestlight restlight, RestlightOptions options) {
+            super(restlight, options);
+        }
+    }
+
+    private static final class InProcessServer implements RestlightServer {
+
+        private final RestlightHandler handler;
+        private volatile boolean started;
+
+        private InProcessServer(RestlightHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean isStarted() {
+            return started;
+        }
+
+        @Override
+        public void start() {
+            handler.onStart();
+            started = true;
+        }
+
+        @Override
+        public void shutdown() {
+            started = false;
+            handler.shutdown();
+        }
+
+        @Override
+        public void await() {
+        }
+
+        @Override
+        public Executor ioExecutor() {
+            return null;
+        }
+
+        @Override
+        public Executor bizExecutor() {
+            return null;
+        }
+
+        @Override
+        public SocketAddress address() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import esa.commons.http.Cookie;
+import esa.commons.http.HttpHeaders;
+import esa.commons.netty.http.Http1HeadersImpl;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.HttpInputStream;
+import esa.httpserver.core.HttpOutputStream;
+import esa.httpserver.core.Response;
+import esa.httpserver.impl.AsyncResponseImpl;
+import esa.httpserver.impl.ByteBufHttpInputStream;
+import esa.restlight.core.serialize.FastJsonHttpBodySerializer;
+import esa.restlight.core.serialize.GsonHttpBodySerializer;
+import esa.restlight.core.serialize.HttpBodySerializer;
+import esa.restlight.core.serialize.JacksonHttpBodySerializer;
+import esa.restlight.core.serialize.ProtoBufHttpBodySerializer;
+import esa.restlight.core.serialize.Serializers;
+import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix of the {@link HttpBodySerializer}s which compares the serializers with each other by the same payload, and
+ * also compares the byte array mode with the stream mode({@link HttpBodySerializer#preferStream()}) of each serializer.
+ * <p>
+ * Serializing goes through {@link Serializers#serializeBySerializer(esa.restlight.core.serialize
+ * .HttpResponseSerializer, Object, AsyncResponse)} which writes the value into the {@code ByteBufHttpOutputStream} of
+ * a real {@link AsyncResponseImpl} in stream mode, and the written {@link ByteBuf}s are released by a sink {@link
+ * Response} instead of the network. Deserializing reads the value from a byte array or a {@link
+ * ByteBufHttpInputStream} just like the resolvers of the request body do.
+ * <p>
+ * Run with {@code -prof gc} to see the {@code gc.alloc.rate.norm} per operation, such as {@code java -jar
+ * microbenchmarks.jar SerializerBenchmark -prof gc}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    @Param({"jackson", "gson", "fastjson", "protobuf"})
+    private String serializer;
+
+    /**
+     * Count of the items in payload, 1 for small(about 180B of json), 32 for medium(about 3KB) and 1024 for
+     * large(about 96KB).
+     */
+    @Param({"1", "32", "1024"})
+    private int items;
+
+    /**
+     * Whether to use the stream mode.
+     */
+    @Param({"false", "true"})
+    private boolean stream;
+
+    private HttpBodySerializer target;
+    private Object payload;
+    private Type type;
+    private byte[] data;
+    private ByteBuf buf;
+    private SinkResponse sink;
+
+    @Setup
+    public void setUp() throws Exception {
+        final HttpBodySerializer s;
+        if ("protobuf".equals(serializer)) {
+            s = new ProtoBufHttpBodySerializer();
+            payload = Order.of(items).toProto();
+            type = Struct.class;
+        } else {
+            if ("jackson".equals(serializer)) {
+                s = new JacksonHttpBodySerializer();
+            } else if ("gson".equals(serializer)) {
+                s = new GsonHttpBodySerializer();
+            } else if ("fastjson".equals(serializer)) {
+                s = new FastJsonHttpBodySerializer();
+            } else {
+                throw new IllegalArgumentException("Unknown serializer: " + serializer);
+            }
+            payload = Order.of(items);
+            type = Order.class;
+        }
+        target = stream ? new StreamPreferred(s) : s;
+        data = s.serialize(payload);
+        buf = Unpooled.unreleasableBuffer(Unpooled.directBuffer(data.length).writeBytes(data));
+        sink = new SinkResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.unwrap().release();
+    }
+
+    @Benchmark
+    public long serialize() throws Exception {
+        sink.reset();
+        final byte[] bytes = Serializers.serializeBySerializer(target, payload, new AsyncResponseImpl(sink));
+        return Serializers.alreadyWrite(bytes) ? sink.written : bytes.length;
+    }
+
+    @Benchmark
+    public Object deSerialize() throws Exception {
+        if (target.preferStream()) {
+            try (HttpInputStream in = new ByteBufHttpInputStream(buf.duplicate(), false)) {
+                return target.deSerialize(in, type);
+            }
+        }
+        return target.deSerialize(data, type);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Enables the stream mode of the delegate.
+     */
+    private static final class StreamPreferred implements HttpBodySerializer {
+
+        private final HttpBodySerializer delegate;
+
+        private StreamPreferred(HttpBodySerializer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean preferStream() {
+            return true;
+        }
+
+        @Override
+        public boolean supportsRead(MediaType mediaType, Type type) {
+            return delegate.supportsRead(mediaType, type);
+        }
+
+        @Override
+        public boolean supportsWrite(MediaType mediaType, Type type) {
+            return delegate.supportsWrite(mediaType, type);
+        }
+
+        @Override
+        public Object customResponse(AsyncRequest request, AsyncResponse response, Object returnValue) {
+            return delegate.customResponse(request, response, returnValue);
+        }
+
+        @Override
+        public byte[] serialize(Object target) throws Exception {
+            return delegate.serialize(target);
+        }
+
+        @Override
+        public void serialize(Object target, HttpOutputStream outputStream) throws Exception {
+            delegate.serialize(target, outputStream);
+        }
+
+        @Override
+        public <T> T deSerialize(byte[] data, Type type) throws Exception {
+            return delegate.deSerialize(data, type);
+        }
+
+        @Override
+        public <T> T deSerialize(HttpInputStream inputStream, Type type) throws Exception {
+            return delegate.deSerialize(inputStream, type);
+        }
+    }
+
+    /**
+     * {@link Response} which counts and releases the written bytes instead of sending them.
+     */
+    private static final class SinkResponse implements Response {
+
+        private static final Future<Void> DONE = ImmediateEventExecutor.INSTANCE.newSucceededFuture(null);
+
+        private final HttpHeaders headers = new Http1HeadersImpl();
+        private final HttpHeaders trailers = new Http1HeadersImpl();
+        private long written;
+        private boolean ended;
+
+        private void reset() {
+            written = 0L;
+            ended = false;
+        }
+
+        @Override
+        public int status() {
+            return 200;
+        }
+
+        @Override
+        public Response setStatus(int code) {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpHeaders trailers() {
+            return trailers;
+        }
+
+        @Override
+        public Response addCookie(Cookie cookie) {
+            return this;
+        }
+
+        @Override
+        public Response addCookie(String name, String value) {
+            return this;
+        }
+
+        @Override
+        public boolean isKeepAlive() {
+            return true;
+        }
+
+        @Override
+        public Future<Void> write(byte[] data, int offset, int length) {
+            written += length;
+            return DONE;
+        }
+
+        @Override
+        public Future<Void> write(ByteBuf data) {
+            written += data.readableBytes();
+            data.release();
+            return DONE;
+        }
+
+        @Override
+        public Future<Void> end(byte[] data, int offset, int length) {
+            ended = true;
+            return write(data, offset, length);
+        }
+
+        @Override
+        public Future<Void> end(ByteBuf data) {
+            ended = true;
+            return write(data);
+        }
+
+        @Override
+        public Future<Void> sendFile(File file, long offset, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isWritable() {
+            return true;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public boolean isEnded() {
+            return ended;
+        }
+
+        @Override
+        public Future<Void> onEndFuture() {
+            return DONE;
+        }
+
+        @Override
+        public Future<Void> endFuture() {
+            return DONE;
+        }
+
+        @Override
+        public ByteBufAllocator alloc() {
+            return PooledByteBufAllocator.DEFAULT;
+        }
+    }
+
+    public static class Order {
+
+        private long id;
+        private String customer;
+        private String address;
+        private List<Item> items;
+
+        static Order of(int count) {
+            final Order order = new Order();
+            order.setId(20200101L);
+            order.setCustomer("restlight");
+            order.setAddress("No.1 Benchmark Street, Shenzhen");
+            final List<Item> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final Item item = new Item();
+                item.setSku("sku-" + i);
+                item.setName("item of the benchmark " + i);
+                item.setQuantity(i % 10 + 1);
+                item.setPrice(i * 1.25D + 0.99D);
+                item.setGift(i % 3 == 0);
+                items.add(item);
+            }
+            order.setItems(items);
+            return order;
+        }
+
+        Struct toProto() {
+            final ListValue.Builder list = ListValue.newBuilder();
+            for (Item item : items) {
+                list.addValues(Value.newBuilder().setStructValue(Struct.newBuilder()
+                        .putFields("sku", Value.newBuilder().setStringValue(item.getSku()).build())
+                        .putFields("name", Value.newBuilder().setStringValue(item.getName()).build())
+                        .putFields("quantity", Value.newBuilder().setNumberValue(item.getQuantity()).build())
+                        .putFields("price", Value.newBuilder().setNumberValue(item.getPrice()).build())
+                        .putFields("gift", Value.newBuilder().setBoolValue(item.isGift()).build())));
+            }
+            return Struct.newBuilder()
+                    .putFields("id", Value.newBuilder().setNumberValue(id).build())
+                    .putFields("customer", Value.newBuilder().setStringValue(customer).build())
+                    .putFields("address", Value.newBuilder().setStringValue(address).build())
+                    .putFields("items", Value.newBuilder().setListValue(list).build())
+                    .build();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Item {
+
+        private String sku;
+        private String name;
+        private int quantity;
+        private double price;
+        private boolean gift;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public boolean isGift() {
+            return gift;
+        }
+
+        public void setGift(boolean gift) {
+            this.gift = gift;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.ext;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.ext.filter.xss.XssFilter;
+import esa.restlight.ext.filter.xss.XssMode;
+import esa.restlight.ext.filter.xss.XssOptionsConfigure;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the single pass scanning of {@link XssFilter} with the regex cascade used before, run it with
+ * '-prof gc' to see the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XssFilterBenchmark {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 " +
+            "(KHTML, like Gecko) Chrome/90.0.4430.93 Safari/537.36";
+
+    @Param({"/search?keyword=iphone&page=1&size=20&sort=price,desc&brand=apple&brand=huawei",
+            "/api/v1/orders?userId=10086&status=PAID&from=2021-01-01&to=2021-06-30&token=a1b2c3d4e5f6",
+            "/search?keyword=%3Cscript%3Ealert(1)%3C%2Fscript%3E&page=1"})
+    private String uri;
+
+    private AsyncRequest request;
+    private AsyncResponse response;
+    private XssFilter filter;
+    private Blackhole bh;
+
+    @Setup
+    public void setUp(Blackhole bh) {
+        this.bh = bh;
+        this.request = MockAsyncRequest.aMockRequest()
+                .withUri(uri)
+                .withHeader("User-Agent", USER_AGENT)
+                .build();
+        this.response = MockAsyncResponse.aMockResponse().build();
+        this.filter = new XssFilter(XssOptionsConfigure.newOpts().mode(XssMode.FILTER).configured());
+    }
+
+    @Benchmark
+    public void scanner() {
+        filter.doFilter(request, response, chain);
+    }
+
+    @Benchmark
+    public void regexCascade() {
+        consume(RegexCascade.parameterMap(request), RegexCascade.xssEncoder(request.getHeader("User-Agent")));
+    }
+
+    private final FilterChain chain = (req, res) -> {
+        consume(req.parameterMap(), req.getHeader("User-Agent"));
+        return Futures.completedFuture();
+    };
+
+    private void consume(Map<String, List<String>> params, String header) {
+        for (List<String> values : params.values()) {
+            bh.consume(values.get(0));
+        }
+        bh.consume(header);
+    }
+
+    /**
+     * The regex cascade which had been used by the {@link XssFilter} before.
+     */
+    private static final class RegexCascade {
+
+        private static final Pattern SCRIPT_TAGS_PATTERN =
+                Pattern.compile("<[\r\n| ]*script[\r\n| ]*>(.*?)</[\r\n| ]*script[\r\n| ]*>",
+                        Pattern.CASE_INSENSITIVE);
+        private static final Pattern SRC_EXPRESSION_APOSTROPHE_PATTERN =
+                Pattern.compile("src[\r\n]*=[\r\n]*'(.*?)'",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern SRC_EXPRESSION_QUOTA_PATTERN =
+                Pattern.compile("src[\r\n]*=[\r\n]*\"(.*?)\"",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern LONESOME_SCRIPT_BACK_TAGS_PATTERN =
+                Pattern.compile("</[\r\n| ]*script[\r\n| ]*>",
+                        Pattern.CASE_INSENSITIVE);
+        private static final Pattern LONESOME_SCRIPT_FACADE_TAGS_PATTERN =
+                Pattern.compile("<[\r\n| ]*script(.*?)>",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern EVAL_EXPRESSION_PATTERN =
+                Pattern.compile("eval\\((.*?)\\)",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern EXP_EXPRESSION_PATTERN =
+                Pattern.compile("e\u00adxpression\\((.*?)\\)",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern JAVASCRIPT_EXPRESSION_PATTERN =
+                Pattern.compile("javascript[\r\n| ]*:[\r\n| ]*",
+                        Pattern.CASE_INSENSITIVE);
+        private static final Pattern ALTER_EXPRESSION_PATTERN =
+                Pattern.compile("alert", Pattern.CASE_INSENSITIVE);
+        private static final Pattern ONLOAD_EXPRESSION_PATTERN =
+                Pattern.compile("onload(.*?)=",
+                        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+        private static final Pattern VB_SCRIPT_EXPRESSION_PATTERN =
+                Pattern.compile("vbscript[\r\n| ]*:[\r\n| ]*",
+                        Pattern.CASE_INSENSITIVE);
+
+        private static Map<String, List<String>> parameterMap(AsyncRequest request) {
+            final Map<String, List<String>> origin = request.parameterMap();
+            final Map<String, List<String>> parameterMap = new HashMap<>(origin.size());
+            for (Map.Entry<String, List<String>> entry : origin.entrySet()) {
+                final List<String> params = new ArrayList<>(entry.getValue().size());
+                for (String param : entry.getValue()) {
+                    params.add(xssEncoder(param));
+                }
+                parameterMap.put(entry.getKey(), params);
+            }
+            return parameterMap;
+        }
+
+        private static String xssEncoder(String value) {
+            if (value != null && !value.isEmpty()) {
+                try {
+                    value = value.replace("+", "%2B");
+                    value = URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+                value = value.replaceAll("\0", "");
+                value = SCRIPT_TAGS_PATTERN.matcher(value).replaceAll("");
+                value = SRC_EXPRESSION_APOSTROPHE_PATTERN.matcher(value).replaceAll("");
+                value = SRC_EXPRESSION_QUOTA_PATTERN.matcher(value).replaceAll("");
+                value = LONESOME_SCRIPT_BACK_TAGS_PATTERN.matcher(value).replaceAll("");
+                value = LONESOME_SCRIPT_FACADE_TAGS_PATTERN.matcher(value).replaceAll("");
+                value = EVAL_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+                value = EXP_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+                value = JAVASCRIPT_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+                value = ALTER_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+                value = ONLOAD_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+                value = VB_SCRIPT_EXPRESSION_PATTERN.matcher(value).replaceAll("");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.load;
+
+import esa.restlight.server.Restlite;
+import esa.restlight.server.config.ServerOptions;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Route.route;
+
+/**
+ * Network level load test which starts a {@link Restlite} on loopback with the given {@link ServerOptions}, and
+ * drives it by the {@link OpenLoopClient} at a constant rate, so that the effects of the event loops, HTTP/2,
+ * compression and keep-alive, which could not be seen in the JMH benchmarks, could be compared between the different
+ * options without any external tools.
+ * <p>
+ * Run it from the shaded jar, such as
+ * <pre>{@code
+ * java -cp target/microbenchmarks.jar esa.restlight.jmh.load.LoadGenerator --rate=20000 --connections=32 --http2=true
+ * }</pre>
+ * See {@link LoadOptions} for all the options. Notice that the client and the server are running in the same jvm and
+ * share the same cpus, so the results are only meaningful when compared with each other on the same machine.
+ */
+public final class LoadGenerator {
+
+    /**
+     * Returns a short plain text.
+     */
+    static final String HELLO = "/hello";
+
+    /**
+     * Returns a 16KB compressible text.
+     */
+    static final String TEXT = "/text";
+
+    public static void main(String[] args) throws Exception {
+        final LoadOptions opts = LoadOptions.parse(args);
+        final ServerOptions options = opts.serverOptions();
+        final int port = opts.port > 0 ? opts.port : freePort(opts.host);
+        final Restlite server = startServer(options, opts.host, port);
+        try {
+            final LoadReport report = new OpenLoopClient(opts, port).run();
+            report.print(options, System.out);
+            if (opts.output != null) {
+                report.writeDistribution(opts.output);
+                System.out.println("percentile distribution of latency has been written to " + opts.output);
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static Restlite startServer(ServerOptions options, String host, int port) {
+        final byte[] hello = "Hello Restlight!".getBytes(StandardCharsets.UTF_8);
+        final StringBuilder sb = new StringBuilder(16 * 1024);
+        while (sb.length() < 16 * 1024) {
+            sb.append("Restlight is a lightweight and rest-oriented web framework. ");
+        }
+        final byte[] text = sb.substring(0, 16 * 1024).getBytes(StandardCharsets.UTF_8);
+
+        final Restlite server = Restlite.forServer(options)
+                .address(host, port)
+                .daemon(true)
+                .deployments()
+                .addRoute(route(get(HELLO)).handle((request, response) -> {
+                    response.setHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.TEXT_PLAIN.toString());
+                    response.sendResult(hello);
+                }))
+                .addRoute(route(get(TEXT)).handle((request, response) -> {
+                    response.setHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.TEXT_PLAIN.toString());
+                    response.sendResult(text);
+                }))
+                .server();
+        server.start();
+        return server;
+    }
+
+    private static int freePort(String host) throws IOException {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.bind(new InetSocketAddress(host, 0));
+            return socket.getLocalPort();
+        }
+    }
+
+    private LoadGenerator() {
+    }
+}
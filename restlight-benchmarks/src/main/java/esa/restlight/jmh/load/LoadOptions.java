@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.load;
+
+import esa.restlight.server.config.SchedulingOptionsConfigure;
+import esa.restlight.server.config.ServerOptions;
+import esa.restlight.server.config.ServerOptionsConfigure;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Options of the {@link LoadGenerator} which are parsed from the command line arguments in the form of {@code
+ * --name=value}, such as {@code --http2=true --rate=20000 --connections=32}.
+ * <p>
+ * Server options are only applied when they are given explicitly, otherwise the defaults of {@link
+ * ServerOptionsConfigure#defaultOpts()} are used, so that the result could be compared with a server which is
+ * running with the default options.
+ */
+final class LoadOptions {
+
+    /**
+     * Requests per second in total, which will be sent at a constant rate whether the responses are received or not.
+     */
+    int rate = 10000;
+    int connections = 16;
+    int durationSeconds = 30;
+    int warmupSeconds = 10;
+    int clientThreads = 1;
+    /**
+     * Max concurrent streams of each connection in HTTP/2, extra requests will be queued in the client.
+     */
+    int maxStreams = 100;
+    /**
+     * One of the routes deployed by {@link LoadGenerator}.
+     */
+    String path = LoadGenerator.HELLO;
+    String host = "127.0.0.1";
+    /**
+     * Port of the server, a random free port is used if it's {@code 0}.
+     */
+    int port;
+    /**
+     * File to write the percentile distribution to, which could be plotted and compared by the HdrHistogram tools.
+     */
+    String output;
+
+    Boolean http2;
+    Boolean nativeTransports;
+    Integer ioThreads;
+    Boolean compress;
+    String scheduler;
+
+    static LoadOptions parse(String[] args) {
+        final Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Illegal argument '" + arg + "', expected: --name=value");
+            }
+            final int idx = arg.indexOf('=');
+            values.put(arg.substring(2, idx), arg.substring(idx + 1));
+        }
+        final LoadOptions opts = new LoadOptions();
+        for (Map.Entry<String, String> e : values.entrySet()) {
+            final String v = e.getValue();
+            switch (e.getKey()) {
+                case "rate":
+                    opts.rate = Integer.parseInt(v);
+                    break;
+                case "connections":
+                    opts.connections = Integer.parseInt(v);
+                    break;
+                case "duration":
+                    opts.durationSeconds = Integer.parseInt(v);
+                    break;
+                case "warmup":
+                    opts.warmupSeconds = Integer.parseInt(v);
+                    break;
+                case "clientThreads":
+                    opts.clientThreads = Integer.parseInt(v);
+                    break;
+                case "maxStreams":
+                    opts.maxStreams = Integer.parseInt(v);
+                    break;
+                case "path":
+                    opts.path = v;
+                    break;
+                case "host":
+                    opts.host = v;
+                    break;
+                case "port":
+                    opts.port = Integer.parseInt(v);
+                    break;
+                case "output":
+                    opts.output = v;
+                    break;
+                case "http2":
+                    opts.http2 = Boolean.parseBoolean(v);
+                    break;
+                case "native":
+                    opts.nativeTransports = Boolean.parseBoolean(v);
+                    break;
+                case "ioThreads":
+                    opts.ioThreads = Integer.parseInt(v);
+                    break;
+                case "compress":
+                    opts.compress = Boolean.parseBoolean(v);
+                    break;
+                case "scheduler":
+                    opts.scheduler = v;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + e.getKey());
+            }
+        }
+        if (opts.rate <= 0 || opts.connections <= 0 || opts.durationSeconds <= 0 || opts.warmupSeconds < 0
+                || opts.clientThreads <= 0 || opts.maxStreams <= 0) {
+            throw new IllegalArgumentException("rate, connections, duration, clientThreads and maxStreams must be"
+                    + " over than 0, and warmup must not be negative");
+        }
+        return opts;
+    }
+
+    boolean isHttp2() {
+        return Boolean.TRUE.equals(http2);
+    }
+
+    boolean isCompress() {
+        return Boolean.TRUE.equals(compress);
+    }
+
+    ServerOptions serverOptions() {
+        final ServerOptionsConfigure configure = ServerOptionsConfigure.newOpts();
+        if (http2 != null) {
+            configure.http2Enable(http2);
+        }
+        if (nativeTransports != null) {
+            configure.useNativeTransports(nativeTransports);
+        }
+        if (ioThreads != null) {
+            configure.ioThreads(ioThreads);
+        }
+        if (compress != null) {
+            configure.compress(compress);
+        }
+        if (scheduler != null) {
+            configure.scheduling(SchedulingOptionsConfigure.newOpts().defaultScheduler(scheduler).configured());
+        }
+        return configure.configured();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.load;
+
+import esa.restlight.server.config.ServerOptions;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator}, the latencies are recorded in nanoseconds and printed in milliseconds.
+ */
+final class LoadReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1L);
+    private static final double[] PERCENTILES = {50D, 90D, 99D, 99.9D, 99.99D};
+
+    private final LoadOptions opts;
+    private final long durationNanos;
+    private final Histogram latency = new Histogram(3);
+    private final Histogram serviceTime = new Histogram(3);
+    private long requests;
+    private long completed;
+    private long errors;
+    private long bytes;
+
+    LoadReport(LoadOptions opts, long durationNanos) {
+        this.opts = opts;
+        this.durationNanos = durationNanos;
+    }
+
+    synchronized void add(Histogram latency,
+                          Histogram serviceTime,
+                          long requests,
+                          long completed,
+                          long errors,
+                          long bytes) {
+        this.latency.add(latency);
+        this.serviceTime.add(serviceTime);
+        this.requests += requests;
+        this.completed += completed;
+        this.errors += errors;
+        this.bytes += bytes;
+    }
+
+    synchronized void print(ServerOptions server, PrintStream out) {
+        final double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1L);
+        out.println("---------------------------- Restlight load test ----------------------------");
+        out.printf("server    : http2=%s, native=%s, ioThreads=%d, compress=%s, scheduler=%s%n",
+                server.isHttp2Enable(),
+                server.isUseNativeTransports(),
+                server.getIoThreads(),
+                server.isCompress(),
+                server.getScheduling().getDefaultScheduler());
+        out.printf("client    : rate=%d/s, connections=%d, threads=%d, duration=%ds, warmup=%ds, path=%s%n",
+                opts.rate,
+                opts.connections,
+                opts.clientThreads,
+                opts.durationSeconds,
+                opts.warmupSeconds,
+                opts.path);
+        out.printf("requests  : scheduled=%d, completed=%d, errors=%d, incomplete=%d%n",
+                requests,
+                completed,
+                errors,
+                Math.max(0L, requests - completed - errors));
+        out.printf("throughput: %.1f req/s, %.1f KB/s of response body%n",
+                completed / seconds,
+                bytes / 1024D / seconds);
+        printHistogram("latency   ", latency, out);
+        printHistogram("service   ", serviceTime, out);
+        out.println("latency is measured from the intended start time (corrected for coordinated omission),");
+        out.println("service time is measured from the time when the request is actually written, in ms.");
+    }
+
+    synchronized void writeDistribution(String path) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(path)) {
+            latency.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static void printHistogram(String name, Histogram histogram, PrintStream out) {
+        final StringBuilder sb = new StringBuilder(name).append(':');
+        for (double p : PERCENTILES) {
+            sb.append(String.format(" p%s=%.3f", trim(p), histogram.getValueAtPercentile(p) / NANOS_PER_MILLI));
+        }
+        sb.append(String.format(" max=%.3f mean=%.3f",
+                histogram.getMaxValue() / NANOS_PER_MILLI,
+                histogram.getMean() / NANOS_PER_MILLI));
+        out.println(sb);
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.floor(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.load;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpScheme;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-loop HTTP/1.1 and h2c(prior knowledge) client which sends the requests at a constant rate whether the previous
+ * responses are received or not.
+ * <p>
+ * Each request has an intended start time which is decided by the rate only, and the latency is measured from the
+ * intended start time instead of the time when the request is actually written. So the time of a request waiting for
+ * a busy connection is counted as well, which corrects the coordinated omission of a closed-loop client. The latency
+ * from the actual writing is recorded separately as the service time.
+ * <p>
+ * HTTP/1.1 connections do not pipeline, there is at most one in-flight request per connection and the others are
+ * queued in the client. HTTP/2 connections allow {@link LoadOptions#maxStreams} in-flight requests per connection.
+ */
+final class OpenLoopClient {
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    private final LoadOptions opts;
+    private final int port;
+
+    OpenLoopClient(LoadOptions opts, int port) {
+        this.opts = opts;
+        this.port = port;
+    }
+
+    LoadReport run() throws InterruptedException, ExecutionException {
+        final EventLoopGroup group = new NioEventLoopGroup(opts.clientThreads,
+                new DefaultThreadFactory("load-client", true));
+        try {
+            final List<Connection> connections = connect(group);
+            // all the connections share the same time line, and the first requests of the connections are staggered
+            // evenly in the first interval.
+            final long interval = TimeUnit.SECONDS.toNanos(opts.connections) / opts.rate;
+            final long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100L);
+            final long measureFrom = start + TimeUnit.SECONDS.toNanos(opts.warmupSeconds);
+            final long end = measureFrom + TimeUnit.SECONDS.toNanos(opts.durationSeconds);
+            for (int i = 0; i < connections.size(); i++) {
+                connections.get(i).begin(start + interval * i / connections.size(), interval, measureFrom, end);
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.max(0L, end - System.nanoTime()));
+            final long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+            for (Connection c : connections) {
+                while (c.outstanding() > 0 && System.nanoTime() - deadline < 0L) {
+                    TimeUnit.MILLISECONDS.sleep(10L);
+                }
+            }
+
+            final LoadReport report = new LoadReport(opts, end - measureFrom);
+            for (Connection c : connections) {
+                c.channel.close().sync();
+                // merge in the event loop to make sure that all the recordings are visible.
+                c.channel.eventLoop().submit(() -> c.mergeTo(report)).get();
+            }
+            return report;
+        } finally {
+            group.shutdownGracefully(0L, 1L, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private List<Connection> connect(EventLoopGroup group) throws InterruptedException {
+        final Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        if (opts.isHttp2()) {
+                            final Http2Connection connection = new DefaultHttp2Connection(false);
+                            ch.pipeline().addLast(new HttpToHttp2ConnectionHandlerBuilder()
+                                    .connection(connection)
+                                    .frameListener(new InboundHttp2ToHttpAdapterBuilder(connection)
+                                            .maxContentLength(Integer.MAX_VALUE)
+                                            .propagateSettings(false)
+                                            .build())
+                                    .build());
+                        } else {
+                            ch.pipeline().addLast(new HttpClientCodec(),
+                                    new HttpObjectAggregator(Integer.MAX_VALUE));
+                        }
+                        ch.pipeline().addLast(new Connection(ch));
+                    }
+                });
+        final List<Connection> connections = new ArrayList<>(opts.connections);
+        for (int i = 0; i < opts.connections; i++) {
+            final Channel ch = bootstrap.connect(opts.host, port).sync().channel();
+            connections.add(ch.pipeline().get(Connection.class));
+        }
+        return connections;
+    }
+
+    private final class Connection extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        private final Channel channel;
+        private final String authority = opts.host + ":" + port;
+        private final Histogram latency = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        private final LongQueue pending = new LongQueue();
+        /**
+         * In-flight requests of HTTP/2 by stream id, the value is {intended start time, actual start time}.
+         */
+        private final IntObjectMap<long[]> streams = new IntObjectHashMap<>();
+        private int nextStreamId = 1;
+        /**
+         * The only in-flight request of HTTP/1.1.
+         */
+        private long[] inflight;
+
+        private long next;
+        private long interval;
+        private long measureFrom;
+        private long end;
+
+        private long requests;
+        private long completed;
+        private long errors;
+        private long bytes;
+        private volatile int outstanding;
+
+        private Connection(Channel channel) {
+            this.channel = channel;
+        }
+
+        private void begin(long first, long interval, long measureFrom, long end) {
+            channel.eventLoop().execute(() -> {
+                this.next = first;
+                this.interval = interval;
+                this.measureFrom = measureFrom;
+                this.end = end;
+                tick();
+            });
+        }
+
+        private int outstanding() {
+            return outstanding;
+        }
+
+        private void tick() {
+            if (!channel.isActive()) {
+                return;
+            }
+            final long now = System.nanoTime();
+            // catch up with the schedule if current tick is late, the requests are still timed by their intended
+            // start time.
+            while (next - now <= 0L && next - end < 0L) {
+                if (next - measureFrom >= 0L) {
+                    requests++;
+                }
+                pending.add(next);
+                next += interval;
+            }
+            sendPending();
+            if (next - end < 0L) {
+                channel.eventLoop().schedule(this::tick, next - now, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void sendPending() {
+            boolean written = false;
+            if (opts.isHttp2()) {
+                while (!pending.isEmpty() && streams.size() < opts.maxStreams) {
+                    final int streamId = nextStreamId;
+                    nextStreamId += 2;
+                    final FullHttpRequest request = newRequest();
+                    request.headers().setInt(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text(), streamId);
+                    request.headers().set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(),
+                            HttpScheme.HTTP.name());
+                    streams.put(streamId, start(pending.poll()));
+                    channel.write(request, channel.voidPromise());
+                    written = true;
+                }
+            } else if (inflight == null && !pending.isEmpty()) {
+                inflight = start(pending.poll());
+                channel.write(newRequest(), channel.voidPromise());
+                written = true;
+            }
+            if (written) {
+                channel.flush();
+            }
+            updateOutstanding();
+        }
+
+        private long[] start(long intended) {
+            return new long[]{intended, System.nanoTime()};
+        }
+
+        private FullHttpRequest newRequest() {
+            final FullHttpRequest request =
+                    new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, opts.path, Unpooled.EMPTY_BUFFER);
+            request.headers().set(HttpHeaderNames.HOST, authority);
+            if (opts.isCompress()) {
+                request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP_DEFLATE);
+            }
+            return request;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            final long[] times;
+            if (opts.isHttp2()) {
+                final Integer streamId =
+                        response.headers().getInt(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text());
+                times = streamId == null ? null : streams.remove(streamId);
+            } else {
+                times = inflight;
+                inflight = null;
+            }
+            if (times == null) {
+                // such as the response of a request which has been timed out by server.
+                errors++;
+            } else if (times[0] - measureFrom >= 0L) {
+                final long now = System.nanoTime();
+                latency.recordValue(now - times[0]);
+                serviceTime.recordValue(now - times[1]);
+                if (response.status().code() >= 200 && response.status().code() < 300) {
+                    completed++;
+                    bytes += response.content().readableBytes();
+                } else {
+                    errors++;
+                }
+            }
+            sendPending();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            errors++;
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            // requests which will never be completed are reported as incomplete.
+            pending.clear();
+            streams.clear();
+            inflight = null;
+            updateOutstanding();
+            ctx.fireChannelInactive();
+        }
+
+        private void updateOutstanding() {
+            outstanding = pending.size() + streams.size() + (inflight == null ? 0 : 1);
+        }
+
+        private void mergeTo(LoadReport report) {
+            report.add(latency, serviceTime, requests, completed, errors, bytes);
+        }
+    }
+
+    /**
+     * Growable ring buffer of the intended start times to avoid boxing.
+     */
+    private static final class LongQueue {
+
+        private long[] elements = new long[64];
+        private int head;
+        private int size;
+
+        void add(long v) {
+            if (size == elements.length) {
+                final long[] grown = new long[elements.length << 1];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = elements[(head + i) & (elements.length - 1)];
+                }
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size) & (elements.length - 1)] = v;
+            size++;
+        }
+
+        long poll() {
+            final long v = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return v;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
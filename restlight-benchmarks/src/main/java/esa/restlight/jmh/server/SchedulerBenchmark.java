@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.server;
+
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.config.AffinityOptionsConfigure;
+import esa.restlight.server.config.BizThreadsOptions;
+import esa.restlight.server.config.BizThreadsOptionsConfigure;
+import esa.restlight.server.schedule.LockFreeArrayBlockingQueue;
+import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.schedule.Schedulers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the cost of handing off the tasks from the IO threads to the {@link Schedulers#BIZ} scheduler(which is a
+ * {@link ThreadPoolExecutor} configured by the default {@link BizThreadsOptions}), to the same one whose work queue
+ * is a {@link LockFreeArrayBlockingQueue}(see {@link BizThreadsOptions#isLockFreeQueue()}) and to the {@link
+ * Schedulers#AFFINITY} scheduler.
+ * <p>
+ * Each benchmark thread plays the role of an IO event loop, which schedules a batch of tasks and waits for all of
+ * them to be completed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+
+    private static final String BIZ_LOCK_FREE = "BIZ_LOCK_FREE";
+
+    @Param({Schedulers.BIZ, BIZ_LOCK_FREE, Schedulers.AFFINITY})
+    private String scheduler = Schedulers.BIZ;
+
+    /**
+     * Count of the tasks scheduled by each invocation.
+     */
+    @Param({"1", "32"})
+    private int batch;
+
+    /**
+     * Cpu cost of each task, see {@link Blackhole#consumeCPU(long)}.
+     */
+    @Param({"0", "1000"})
+    private long work;
+
+    private Scheduler target;
+
+    @Setup
+    public void setUp() {
+        if (Schedulers.BIZ.equals(scheduler) || BIZ_LOCK_FREE.equals(scheduler)) {
+            final BizThreadsOptions options = BizThreadsOptionsConfigure.defaultOpts();
+            final BlockingQueue<Runnable> workQueue = BIZ_LOCK_FREE.equals(scheduler)
+                    ? new LockFreeArrayBlockingQueue<>(options.getBlockingQueueLength())
+                    : new LinkedBlockingQueue<>(options.getBlockingQueueLength());
+            target = Schedulers.fromExecutor(Schedulers.BIZ, new ThreadPoolExecutor(options.getCore(),
+                    options.getMax(),
+                    options.getKeepAliveTimeSeconds(),
+                    TimeUnit.SECONDS,
+                    workQueue,
+                    new RestlightThreadFactory("Restlight-Biz")));
+        } else {
+            target = Schedulers.affinity(AffinityOptionsConfigure.defaultOpts(), 64, (r, reason) -> {
+                throw new IllegalStateException(reason);
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        target.shutdown();
+    }
+
+    @Benchmark
+    public void schedule(Loop loop) {
+        loop.remaining.set(batch);
+        for (int i = 0; i < batch; i++) {
+            target.schedule(loop.task);
+        }
+        while (loop.remaining.get() > 0) {
+            LockSupport.park(this);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Loop {
+
+        private final AtomicInteger remaining = new AtomicInteger();
+        private Runnable task;
+
+        @Setup
+        public void setUp(SchedulerBenchmark benchmark) {
+            final Thread waiter = Thread.currentThread();
+            final long work = benchmark.work;
+            task = () -> {
+                if (work > 0L) {
+                    Blackhole.consumeCPU(work);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    LockSupport.unpark(waiter);
+                }
+            };
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SchedulerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.jmh.core;
+
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.core.serialize.JacksonSerializer;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.config.SchedulingOptionsConfigure;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the bytes allocated per request on the calling thread of the canonical scenarios against the budgets in
+ * {@code allocation-budget.properties}, the requests are dispatched through the {@code ScheduledRestlightHandler}
+ * with the {@link Schedulers#IO} scheduler, so that all the allocations happen on the calling thread.
+ * <p>
+ * The allocations of building the mock request and response are measured separately and excluded. Update the
+ * budget file with the logged result if an increase is expected.
+ */
+class AllocationBudgetTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+    private static final String BUDGET_FILE = "allocation-budget.properties";
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS = 2_000;
+
+    private static InProcessRestlight restlight;
+    private static byte[] body;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        final RestlightOptions options = RestlightOptionsConfigure.newOpts()
+                .scheduling(SchedulingOptionsConfigure.newOpts().defaultScheduler(Schedulers.IO).configured())
+                .configured();
+        restlight = InProcessRestlight.forServer(options);
+        restlight.deployments().addController(new DispatchBenchmark.BenchController());
+        restlight.start();
+        body = JacksonSerializer.getDefaultMapper().writeValueAsBytes(new DispatchBenchmark.User(1L, "restlight"));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        restlight.shutdown();
+    }
+
+    @Test
+    void testAllocationBudget() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported());
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        final Properties budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getClassLoader().getResourceAsStream(BUDGET_FILE)) {
+            assertNotNull(in, BUDGET_FILE + " not found");
+            budgets.load(in);
+        }
+
+        final List<String> exceeded = new ArrayList<>();
+        final StringBuilder result = new StringBuilder("Allocated bytes per request:");
+        for (Map.Entry<String, Scenario> e : scenarios().entrySet()) {
+            final String name = e.getKey();
+            final long allocated = measure(bean, e.getValue());
+            final String budget = budgets.getProperty(name);
+            assertNotNull(budget, "Missing budget of scenario '" + name + "' in " + BUDGET_FILE);
+            result.append(System.lineSeparator()).append(name).append('=').append(allocated);
+            if (allocated > Long.parseLong(budget.trim())) {
+                exceeded.add(name + "(" + allocated + " > " + budget.trim() + ")");
+            }
+        }
+        logger.info("{}", result);
+        assertTrue(exceeded.isEmpty(), "Allocation budget exceeded: " + exceeded + System.lineSeparator() + result);
+    }
+
+    private static Map<String, Scenario> scenarios() {
+        final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("literal", new Scenario(200, () -> MockAsyncRequest.aMockRequest()
+                .withUri("/bench/hello")
+                .build()));
+        scenarios.put("template", new Scenario(200, () -> MockAsyncRequest.aMockRequest()
+                .withUri("/bench/groups/admin/users/1")
+                .build()));
+        scenarios.put("json", new Scenario(200, () -> MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/bench/users")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), MediaType.APPLICATION_JSON_UTF8.value())
+                .withBody(body)
+                .build()));
+        scenarios.put("notFound", new Scenario(404, () -> MockAsyncRequest.aMockRequest()
+                .withUri("/bench/absent")
+                .build()));
+        return scenarios;
+    }
+
+    /**
+     * Measures the minimum of the allocated bytes per request of several rounds to avoid the noise of jit.
+     */
+    private static long measure(com.sun.management.ThreadMXBean bean, Scenario scenario) {
+        final RestlightHandler handler = restlight.handler();
+        for (int i = 0; i < WARMUP; i++) {
+            scenario.build();
+            scenario.dispatch(handler);
+        }
+        final long tid = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = bean.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < ITERATIONS; i++) {
+                scenario.build();
+            }
+            final long build = bean.getThreadAllocatedBytes(tid) - start;
+
+            start = bean.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < ITERATIONS; i++) {
+                scenario.dispatch(handler);
+            }
+            final long total = bean.getThreadAllocatedBytes(tid) - start;
+            min = Math.min(min, Math.max(0L, total - build) / ITERATIONS);
+        }
+        return min;
+    }
+
+    private static final class Scenario {
+
+        private final int status;
+        private final Supplier<MockAsyncRequest> request;
+
+        private Scenario(int status, Supplier<MockAsyncRequest> request) {
+            this.status = status;
+            this.request = request;
+        }
+
+        private MockAsyncResponse build() {
+            final MockAsyncRequest req = request.get();
+            final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+            // keep the request reachable as what the dispatching does.
+            req.setAttribute("$response", res);
+            return res;
+        }
+
+        private void dispatch(RestlightHandler handler) {
+            final MockAsyncRequest req = request.get();
+            final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+            handler.process(req, res).join();
+            assertEquals(status, res.status(), req.uri());
+        }
+    }
+}
@@ -43,8 +43,8 @@ public final class ClassUtils {
     }
 
     /**
-     * Gets the parameter names of given {@code method}. We will try to get parameter names by reflection or local
-     * variable table(if failed to get by reflection)
+     * Gets the parameter names of given {@code method}. We will try to get parameter names by the {@link RouteIndex}
+     * generated at compile time, reflection or local variable table(if failed to get by reflection)
      * <p>
      * !Note: We can not get the parameter names of {@link Method} that is declared in a interface unless including the
      * -g argument to include debug information.
@@ -60,7 +60,11 @@ public final class ClassUtils {
         if (method.getParameterCount() == 0) {
             return EMPTY_STR_ARR;
         }
-        String[] names = getParameterNamesByJdk(method, true);
+        String[] names = getParameterNamesByIndex(method);
+        if (names != null) {
+            return names;
+        }
+        names = getParameterNamesByJdk(method, true);
         if (names == null) {
             // the function in the interface does not have the local variable table
             names = getParameterNamesByAsm(method);
@@ -68,6 +72,13 @@ public final class ClassUtils {
         return names.length == 0 ? getParameterNamesByJdk(method, false) : names;
     }
 
+    private static String[] getParameterNamesByIndex(Method method) {
+        final RouteIndex index = RouteIndex.of(method);
+        final RouteIndex.Entry entry = index == null ? null : index.entry(method);
+        final String[] names = entry == null ? null : entry.parameterNames();
+        return names != null && names.length == method.getParameterCount() ? names : null;
+    }
+
     private static String[] getParameterNamesByJdk(Method method, boolean needPresent) {
         String[] names = new String[method.getParameterCount()];
         Parameter[] parameters = method.getParameters();
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Route index of a controller class which is generated at compile time by the annotation processor of
+ * {@code restlight-apt}, so that the mappings, scheduler and parameter names of the handler methods could be loaded
+ * directly instead of being resolved by reflection at startup.
+ * <p>
+ * The index is stored at {@code META-INF/restlight/route-index/{binary name of the class}.properties} and would be
+ * ignored if its {@link #fingerprint(Class)} does not match current class, such as the class has been modified and
+ * recompiled without the annotation processor.
+ */
+public final class RouteIndex {
+
+    public static final String LOCATION = "META-INF/restlight/route-index/";
+    public static final String SUFFIX = ".properties";
+    public static final String VERSION = "2";
+
+    private static final String[] EMPTY_STR_ARR = new String[0];
+    /**
+     * Annotations which are covered by the fingerprint, keep in sync with {@code
+     * esa.restlight.apt.RouteIndexProcessor}.
+     */
+    private static final Set<String> FINGERPRINTED = new HashSet<>();
+
+    static {
+        for (String pkg : new String[]{"org.springframework.web.bind.annotation.",
+                "esa.restlight.spring.shaded.org.springframework.web.bind.annotation."}) {
+            for (String name : new String[]{"RequestMapping", "GetMapping", "PostMapping", "PutMapping",
+                    "DeleteMapping", "PatchMapping"}) {
+                FINGERPRINTED.add(pkg + name);
+            }
+        }
+        FINGERPRINTED.add("esa.restlight.core.annotation.Scheduled");
+    }
+
+    private static final ClassValue<RouteIndex> INDEXES = new ClassValue<RouteIndex>() {
+        @Override
+        protected RouteIndex computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Entry typeEntry;
+    private final Map<String, Entry> methods;
+
+    private RouteIndex(Class<?> type, Entry typeEntry, Map<String, Entry> methods) {
+        this.type = type;
+        this.typeEntry = typeEntry;
+        this.methods = methods;
+    }
+
+    /**
+     * Gets the route index of given type.
+     *
+     * @param type type
+     *
+     * @return index or {@code null} if the type has not been indexed.
+     */
+    public static RouteIndex of(Class<?> type) {
+        return type == null ? null : INDEXES.get(type);
+    }
+
+    /**
+     * Gets the route index of the declaring class of given method.
+     *
+     * @param method method
+     *
+     * @return index or {@code null} if the declaring class has not been indexed.
+     */
+    public static RouteIndex of(Method method) {
+        return method == null ? null : of(method.getDeclaringClass());
+    }
+
+    /**
+     * Gets the signature of given method which is used as the key of the methods in the index, such as {@code
+     * foo(java.lang.String,int[])}.
+     *
+     * @param method method
+     *
+     * @return signature
+     */
+    public static String signature(Method method) {
+        final StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(parameterTypes[i].getTypeName());
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Gets the fingerprint of given type, which is the digest of the signatures of all the declared methods and the
+     * attributes of the mapping annotations on the type and methods, so that any change of the routes would be
+     * detected.
+     *
+     * @param type type
+     *
+     * @return fingerprint or {@code null} if failed to compute.
+     */
+    public static String fingerprint(Class<?> type) {
+        final List<String> methods = new ArrayList<>();
+        try {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isSynthetic()) {
+                    methods.add(signature(method) + annotations(method.getDeclaredAnnotations()));
+                }
+            }
+            Collections.sort(methods);
+            final StringBuilder sb = new StringBuilder(annotations(type.getDeclaredAnnotations()));
+            for (String method : methods) {
+                sb.append('\n').append(method);
+            }
+            final byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (ReflectiveOperationException | NoSuchAlgorithmException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static String annotations(Annotation[] annotations) throws ReflectiveOperationException {
+        final List<String> values = new ArrayList<>(annotations.length);
+        for (Annotation annotation : annotations) {
+            final Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (!FINGERPRINTED.contains(annotationType.getName())) {
+                continue;
+            }
+            final Method[] attributes = annotationType.getDeclaredMethods();
+            Arrays.sort(attributes, Comparator.comparing(Method::getName));
+            final StringBuilder sb = new StringBuilder("@").append(annotationType.getName()).append('(');
+            for (Method attribute : attributes) {
+                sb.append(attribute.getName()).append('=');
+                appendValue(sb, attribute.invoke(annotation));
+                sb.append(';');
+            }
+            values.add(sb.append(')').toString());
+        }
+        Collections.sort(values);
+        return String.join("", values);
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value.getClass().isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendValue(sb, Array.get(value, i));
+            }
+            sb.append(']');
+        } else if (value instanceof String) {
+            sb.append(((String) value).length()).append(':').append(value);
+        } else if (value instanceof Enum) {
+            sb.append(((Enum<?>) value).name());
+        } else if (value instanceof Class) {
+            sb.append(((Class<?>) value).getTypeName());
+        } else {
+            sb.append(value);
+        }
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Gets the entry of the type level mapping.
+     *
+     * @return entry or {@code null} if there's no mapping annotated on the type.
+     */
+    public Entry typeEntry() {
+        return typeEntry;
+    }
+
+    /**
+     * Gets the entry of given method, all the mapped methods declared in the indexed type are contained in the index,
+     * which means that a method declared in the indexed type is not a handler method if there's no entry of it.
+     *
+     * @param method method
+     *
+     * @return entry or {@code null} if the given method has no mapping.
+     */
+    public Entry entry(Method method) {
+        if (method == null || method.getDeclaringClass() != type) {
+            return null;
+        }
+        return methods.get(signature(method));
+    }
+
+    /**
+     * Whether given method is declared in the indexed type, which means the {@link #entry(Method)} is authoritative.
+     *
+     * @param method method
+     *
+     * @return {@code true} if covered
+     */
+    public boolean covers(Method method) {
+        return method != null && method.getDeclaringClass() == type;
+    }
+
+    private static RouteIndex load(Class<?> type) {
+        final ClassLoader cl = type.getClassLoader();
+        if (cl == null || type.isSynthetic() || type.isAnonymousClass() || type.isLocalClass()) {
+            return null;
+        }
+        final URL url = cl.getResource(LOCATION + type.getName() + SUFFIX);
+        if (url == null) {
+            return null;
+        }
+        final Properties props = new Properties();
+        try (InputStream in = url.openStream()) {
+            props.load(in);
+        } catch (IOException e) {
+            // fall back to reflection
+            return null;
+        }
+        if (!VERSION.equals(props.getProperty("version"))
+                || !type.getName().equals(props.getProperty("type"))
+                || !props.getProperty("fingerprint", "").equals(fingerprint(type))) {
+            // stale index
+            return null;
+        }
+        final Entry typeEntry = Boolean.parseBoolean(props.getProperty("class.mapped"))
+                ? readEntry(props, "class.") : null;
+        final Map<String, Entry> methods = new HashMap<>();
+        for (int i = 0; ; i++) {
+            final String prefix = "m." + i + ".";
+            final String signature = props.getProperty(prefix + "signature");
+            if (signature == null) {
+                break;
+            }
+            methods.put(signature, readEntry(props, prefix));
+        }
+        return new RouteIndex(type, typeEntry, methods);
+    }
+
+    private static Entry readEntry(Properties props, String prefix) {
+        return new Entry(props.getProperty(prefix + "name", ""),
+                readArray(props, prefix + "path."),
+                readArray(props, prefix + "method."),
+                readArray(props, prefix + "params."),
+                readArray(props, prefix + "headers."),
+                readArray(props, prefix + "consumes."),
+                readArray(props, prefix + "produces."),
+                props.getProperty(prefix + "scheduler"),
+                readParameterNames(props, prefix));
+    }
+
+    private static String[] readParameterNames(Properties props, String prefix) {
+        final String count = props.getProperty(prefix + "parameters");
+        if (count == null) {
+            return null;
+        }
+        final String[] names = readArray(props, prefix + "parameter.");
+        return String.valueOf(names.length).equals(count) ? names : null;
+    }
+
+    private static String[] readArray(Properties props, String prefix) {
+        List<String> values = null;
+        for (int i = 0; ; i++) {
+            final String value = props.getProperty(prefix + i);
+            if (value == null) {
+                break;
+            }
+            if (values == null) {
+                values = new ArrayList<>(2);
+            }
+            values.add(value);
+        }
+        return values == null ? EMPTY_STR_ARR : values.toArray(EMPTY_STR_ARR);
+    }
+
+    /**
+     * Indexed mapping of a type or method.
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final String[] path;
+        private final String[] method;
+        private final String[] params;
+        private final String[] headers;
+        private final String[] consumes;
+        private final String[] produces;
+        private final String scheduler;
+        private final String[] parameterNames;
+
+        private Entry(String name,
+                      String[] path,
+                      String[] method,
+                      String[] params,
+                      String[] headers,
+                      String[] consumes,
+                      String[] produces,
+                      String scheduler,
+                      String[] parameterNames) {
+            this.name = name;
+            this.path = path;
+            this.method = method;
+            this.params = params;
+            this.headers = headers;
+            this.consumes = consumes;
+            this.produces = produces;
+            this.scheduler = scheduler;
+            this.parameterNames = parameterNames;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String[] path() {
+            return path.clone();
+        }
+
+        public String[] method() {
+            return method.clone();
+        }
+
+        public String[] params() {
+            return params.clone();
+        }
+
+        public String[] headers() {
+            return headers.clone();
+        }
+
+        public String[] consumes() {
+            return consumes.clone();
+        }
+
+        public String[] produces() {
+            return produces.clone();
+        }
+
+        /**
+         * Name of the scheduler which is specified by {@code @Scheduled} on the method or its declaring class.
+         *
+         * @return name or {@code null} if absent.
+         */
+        public String scheduler() {
+            return scheduler;
+        }
+
+        /**
+         * Parameter names of the method.
+         *
+         * @return names or {@code null} if absent.
+         */
+        public String[] parameterNames() {
+            return parameterNames == null ? null : parameterNames.clone();
+        }
+    }
+}
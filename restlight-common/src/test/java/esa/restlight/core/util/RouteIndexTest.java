@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteIndexTest {
+
+    @Test
+    void testSignature() throws NoSuchMethodException {
+        assertEquals("hello(java.lang.String,int[])",
+                RouteIndex.signature(Indexed.class.getDeclaredMethod("hello", String.class, int[].class)));
+        assertEquals("helper()", RouteIndex.signature(Indexed.class.getDeclaredMethod("helper")));
+        assertEquals("inner(esa.restlight.core.util.RouteIndexTest$Stale)",
+                RouteIndex.signature(NotIndexed.class.getDeclaredMethod("inner", Stale.class)));
+    }
+
+    @Test
+    void testFingerprint() {
+        final String fingerprint = RouteIndex.fingerprint(Indexed.class);
+        assertNotNull(fingerprint);
+        assertEquals(40, fingerprint.length());
+        assertEquals(fingerprint, RouteIndex.fingerprint(Indexed.class));
+        // signatures of the methods are different
+        assertNotEquals(fingerprint, RouteIndex.fingerprint(Stale.class));
+        assertNotEquals(fingerprint, RouteIndex.fingerprint(NotIndexed.class));
+    }
+
+    @Test
+    void testOf() throws NoSuchMethodException {
+        final RouteIndex index = RouteIndex.of(Indexed.class);
+        assertNotNull(index);
+        assertSame(index, RouteIndex.of(Indexed.class));
+        assertSame(index, RouteIndex.of(Indexed.class.getDeclaredMethod("helper")));
+        assertSame(Indexed.class, index.type());
+
+        assertNull(RouteIndex.of((Class<?>) null));
+        assertNull(RouteIndex.of((Method) null));
+        assertNull(RouteIndex.of(NotIndexed.class));
+        assertNull(RouteIndex.of(String.class));
+        // index does not match the class
+        assertNull(RouteIndex.of(Stale.class));
+    }
+
+    @Test
+    void testEntry() throws NoSuchMethodException {
+        final RouteIndex index = RouteIndex.of(Indexed.class);
+        assertNotNull(index);
+        final RouteIndex.Entry type = index.typeEntry();
+        assertNotNull(type);
+        assertArrayEquals(new String[]{"/foo"}, type.path());
+        assertEquals(0, type.method().length);
+        assertNull(type.parameterNames());
+
+        final Method hello = Indexed.class.getDeclaredMethod("hello", String.class, int[].class);
+        assertTrue(index.covers(hello));
+        final RouteIndex.Entry entry = index.entry(hello);
+        assertNotNull(entry);
+        assertEquals("hello", entry.name());
+        assertArrayEquals(new String[]{"/hello", "/hi"}, entry.path());
+        assertArrayEquals(new String[]{"GET"}, entry.method());
+        assertArrayEquals(new String[]{"a"}, entry.params());
+        assertArrayEquals(new String[]{"b"}, entry.headers());
+        assertArrayEquals(new String[]{"text/plain"}, entry.consumes());
+        assertArrayEquals(new String[]{"application/json"}, entry.produces());
+        assertEquals("IO", entry.scheduler());
+        assertArrayEquals(new String[]{"name", "ids"}, entry.parameterNames());
+
+        final Method helper = Indexed.class.getDeclaredMethod("helper");
+        assertTrue(index.covers(helper));
+        assertNull(index.entry(helper));
+
+        final Method toString = Object.class.getDeclaredMethod("toString");
+        assertFalse(index.covers(toString));
+        assertNull(index.entry(toString));
+    }
+
+    @Test
+    void testParameterNamesFromIndex() throws NoSuchMethodException {
+        assertArrayEquals(new String[]{"name", "ids"},
+                ClassUtils.getParameterNames(Indexed.class.getDeclaredMethod("hello", String.class, int[].class)));
+    }
+
+    static class Indexed {
+
+        public String hello(String s, int[] i) {
+            return s;
+        }
+
+        public void helper() {
+        }
+    }
+
+    static class Stale {
+
+        public String hello() {
+            return "";
+        }
+    }
+
+    static class NotIndexed {
+
+        public void inner(Stale stale) {
+        }
+    }
+}
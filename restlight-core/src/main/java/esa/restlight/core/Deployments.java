@@ -17,12 +17,14 @@ package esa.restlight.core;
 
 import esa.commons.Checks;
 import esa.commons.ClassUtils;
+import esa.commons.ExceptionUtils;
 import esa.commons.ObjectUtils;
 import esa.commons.StringUtils;
 import esa.commons.spi.SpiLoader;
 import esa.restlight.core.config.RestlightOptions;
 import esa.restlight.core.handler.HandlerMapping;
 import esa.restlight.core.handler.HandlerMappingProvider;
+import esa.restlight.core.handler.impl.AnnotatedCachePolicy;
 import esa.restlight.core.handler.impl.HandlerAdvicesFactoryImpl;
 import esa.restlight.core.handler.locate.MappingLocator;
 import esa.restlight.core.handler.locate.RouteHandlerLocator;
@@ -31,6 +33,7 @@ import esa.restlight.core.interceptor.Interceptor;
 import esa.restlight.core.interceptor.InterceptorFactory;
 import esa.restlight.core.interceptor.MappingInterceptor;
 import esa.restlight.core.interceptor.RouteInterceptor;
+import esa.restlight.core.method.InvocableMethod;
 import esa.restlight.core.resolver.ArgumentResolverAdapter;
 import esa.restlight.core.resolver.ArgumentResolverAdviceAdapter;
 import esa.restlight.core.resolver.ArgumentResolverAdviceFactory;
@@ -48,6 +51,8 @@ import esa.restlight.core.resolver.exception.ExceptionResolverFactory;
 import esa.restlight.core.serialize.HttpBodySerializer;
 import esa.restlight.core.serialize.HttpRequestSerializer;
 import esa.restlight.core.serialize.HttpResponseSerializer;
+import esa.restlight.core.serialize.JacksonBatchCodec;
+import esa.restlight.core.serialize.ProtoBufBatchCodec;
 import esa.restlight.core.spi.ArgumentResolverAdviceProvider;
 import esa.restlight.core.spi.ArgumentResolverProvider;
 import esa.restlight.core.spi.DefaultSerializerFactory;
@@ -57,16 +62,21 @@ import esa.restlight.core.spi.MethodAdviceFactory;
 import esa.restlight.core.spi.ReturnValueResolverAdviceProvider;
 import esa.restlight.core.spi.ReturnValueResolverProvider;
 import esa.restlight.core.util.Constants;
+import esa.restlight.core.util.InterceptorUtils;
 import esa.restlight.core.util.OrderedComparator;
 import esa.restlight.core.util.RouteUtils;
 import esa.restlight.server.BaseDeployments;
 import esa.restlight.server.ServerDeployContext;
+import esa.restlight.server.batch.BatchCodec;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.cache.CachePolicy;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
 import esa.restlight.server.util.LoggerUtils;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -76,6 +86,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -730,6 +744,35 @@ public class Deployments<R extends AbstractRestlight<R, D, O>, D extends Deploym
         this.registerHandlerMethod(registry);
     }
 
+    @Override
+    protected CachePolicy cachePolicy(Route route) {
+        final Object handler = route.handler().orElse(null);
+        if (!(handler instanceof InvocableMethod)) {
+            return null;
+        }
+        final CachePolicy policy = AnnotatedCachePolicy.of((InvocableMethod) handler,
+                route.mapping().produces());
+        if (policy != null && InterceptorUtils.hasInterceptor(ctx(),
+                route,
+                ctx().interceptors().orElse(Collections.emptyList()))) {
+            // the interceptors such as authentication would be skipped by the cached responses.
+            LoggerUtils.logger().warn("Response cache of route {} is ignored, because it may be intercepted by" +
+                    " the interceptors which would be skipped by the cached responses.", route);
+            return null;
+        }
+        return policy;
+    }
+
+    @Override
+    protected List<BatchCodec> batchCodecs() {
+        final List<BatchCodec> codecs = new ArrayList<>(2);
+        codecs.add(new JacksonBatchCodec());
+        if (ClassUtils.hasClass("com.google.protobuf.CodedInputStream")) {
+            codecs.add(new ProtoBufBatchCodec());
+        }
+        return codecs;
+    }
+
     private static HandlerAdviceFactory convert2HandlerAdviceFactory(MethodAdviceFactory methodAdviceFactory) {
         if (methodAdviceFactory == null) {
             return null;
@@ -852,32 +895,79 @@ public class Deployments<R extends AbstractRestlight<R, D, O>, D extends Deploym
     }
 
     private void registerHandlerMethod(RouteRegistry registry) {
-        // register from controller
-        ctx().controllers().ifPresent(cs -> cs.forEach(bean -> {
-            final Class<?> userType = ClassUtils.getUserType(bean);
-            ClassUtils.doWithUserDeclaredMethodsMethods(userType,
-                    method ->
-                            RouteUtils.extractRoute(
-                                    ctx(),
-                                    userType,
-                                    method,
-                                    bean)
-                                    .ifPresent(registry::registerRoute), method -> !method.isBridge());
-        }));
-        // register from HandlerMappingProvider
+        // extract routes from the controllers and HandlerMappingProviders
+        final List<List<Route>> extracted = startupPhases().time("routes.extract", this::extractRoutes);
+        // register them in the original order, so that the result is the same as the sequential one.
+        startupPhases().time("routes.register",
+                () -> extracted.forEach(routes -> routes.forEach(registry::registerRoute)));
+    }
+
+    private List<List<Route>> extractRoutes() {
+        final List<List<Route>> extracted = new ArrayList<>();
+        // extract from controller
+        final List<Object> controllers = ctx().controllers().orElse(Collections.emptyList());
+        final int parallelism = ctx().options().getRoute() == null
+                ? 1 : Math.min(ctx().options().getRoute().getExtractParallelism(), controllers.size());
+        if (parallelism > 1) {
+            extracted.addAll(extractRoutesInParallel(controllers, parallelism));
+        } else {
+            controllers.forEach(bean -> extracted.add(extractControllerRoutes(bean)));
+        }
+        // extract from HandlerMappingProvider
         if (!mappingProviders.isEmpty()) {
             mappingProviders.forEach(provider -> {
                 Collection<HandlerMapping> handlerMappings = provider.mappings(ctx());
                 if (handlerMappings != null && !handlerMappings.isEmpty()) {
-
+                    final List<Route> routes = new ArrayList<>(handlerMappings.size());
                     handlerMappings.forEach(handlerMapping -> RouteUtils.extractRoute(
                             ctx(),
                             handlerMapping.mapping(),
                             handlerMapping.handler())
-                            .ifPresent(registry::registerRoute));
+                            .ifPresent(routes::add));
+                    extracted.add(routes);
                 }
             });
         }
+        return extracted;
+    }
+
+    private List<Route> extractControllerRoutes(Object bean) {
+        final List<Route> routes = new LinkedList<>();
+        final Class<?> userType = ClassUtils.getUserType(bean);
+        ClassUtils.doWithUserDeclaredMethodsMethods(userType,
+                method ->
+                        RouteUtils.extractRoute(
+                                ctx(),
+                                userType,
+                                method,
+                                bean)
+                                .ifPresent(routes::add), method -> !method.isBridge());
+        return routes;
+    }
+
+    private List<List<Route>> extractRoutesInParallel(List<Object> controllers, int parallelism) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger index = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, p -> {
+            final ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("restlight-route-extractor-" + index.incrementAndGet());
+            // keep the same class loader with current thread which may be used to load the resources or classes.
+            t.setContextClassLoader(classLoader);
+            return t;
+        }, null, false);
+        try {
+            return pool.submit(() -> controllers.parallelStream()
+                    .map(this::extractControllerRoutes)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (ExecutionException e) {
+            throw ExceptionUtils.asRuntime(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while extracting routes", e);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     public static class Impl extends Deployments<Restlight, Impl, RestlightOptions> {
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the concurrent in-flight {@code GET} requests of current controller(s) with the same key should be
+ * coalesced onto a single invocation of the handler, and the serialized response of that invocation will be sent to
+ * all the waiting requests.
+ * <p>
+ * The key of a request is composed of the uri(path and query string) and the values of the request headers specified
+ * by {@link #headers()}.
+ * <p>
+ * !Note: Only the first request of a burst runs the interceptors, argument resolvers and the handler, so this should
+ * only be used for the responses which are the same for all the clients with the same key, such as the public catalog
+ * data. Add the headers which may change the response(such as {@code Accept}, {@code Accept-Encoding} and {@code
+ * Authorization}) to {@link #headers()}.
+ *
+ * @see esa.restlight.core.handler.impl.Coalescer
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    /**
+     * Names of the request headers which should be a part of the key.
+     *
+     * @return header names
+     */
+    String[] headers() default {};
+
+    /**
+     * Max count of the requests waiting for a single in-flight invocation, the requests exceeding this limit will be
+     * handled on their own.
+     *
+     * @return max waiters
+     */
+    int maxWaiters() default 256;
+}
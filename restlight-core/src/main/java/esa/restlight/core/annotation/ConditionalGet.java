@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the {@code GET} and {@code HEAD} requests of current controller(s) support the conditional requests
+ * by the {@code If-None-Match} and {@code If-Modified-Since} headers.
+ * <p>
+ * A weak {@code ETag} is populated by the xxHash64 of the serialized body, unless it has been set by the handler, and a
+ * {@code 304 Not Modified} response without body will be sent if the {@code ETag} matches the {@code If-None-Match}
+ * of the request.
+ * <p>
+ * The return value could implement {@link esa.restlight.core.handler.Versioned} to provide its version and last
+ * modified time cheaply, in which case the {@code ETag} and {@code Last-Modified} headers are populated by them, and
+ * the {@code 304} response is sent before the return value is serialized.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+}
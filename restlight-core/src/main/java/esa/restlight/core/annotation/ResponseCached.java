@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indicates that the serialized responses of the {@code GET} requests of current controller(s) should be cached by the
+ * server-side response cache for the given time to live, and the requests with the same key will be responded by the
+ * cached response on the IO threads directly, without scheduling, argument resolving, invoking and serializing.
+ * <p>
+ * The key of a request is composed of the path, the query string(or the values of the query parameters specified by
+ * {@link #params()}) and the values of the request headers specified by {@link #headers()}, and the {@code Accept}
+ * header is also a part of the key unless the route produces only one media type.
+ * <p>
+ * !Note: This only takes effect when the response cache is enabled by {@code ServerOptions#getResponseCache()}, and
+ * the filters still run for the cached responses but the interceptors don't, so this is ignored if the route may be
+ * intercepted by any interceptor, with a warning at startup. Only the {@code 200} responses without any {@code
+ * Set-Cookie} or {@code Vary} header which are serialized from the return value of the handler could be cached, and
+ * only their entity headers such as {@code Content-Type} and {@code ETag} are cached, so this should only be used for
+ * the idempotent routes whose responses are the same for all the clients with the same key.
+ *
+ * @see esa.restlight.server.cache.ResponseCache
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ResponseCached {
+
+    /**
+     * Time to live of the cached responses.
+     *
+     * @return ttl
+     */
+    long ttl();
+
+    /**
+     * Time unit of {@link #ttl()}.
+     *
+     * @return unit
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Names of the query parameters which should be a part of the key, the whole query string is used if empty.
+     *
+     * @return parameter names
+     */
+    String[] params() default {};
+
+    /**
+     * Names of the request headers which should be a part of the key.
+     *
+     * @return header names
+     */
+    String[] headers() default {};
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler;
+
+import esa.restlight.core.annotation.ConditionalGet;
+
+/**
+ * Return value of a {@link ConditionalGet} handler which knows its version, so that the {@code 304} response could be
+ * sent without serializing it.
+ */
+public interface Versioned {
+
+    /**
+     * Version of current value, which is used as the opaque tag of the weak {@code ETag}, such as a revision number or
+     * a hash of the content. It must only contain the characters allowed in an entity tag(no {@code "}).
+     *
+     * @return version or {@code null} if the version is unknown.
+     */
+    String version();
+
+    /**
+     * Last modified time of current value in milliseconds.
+     *
+     * @return last modified time or a negative value if it is unknown.
+     */
+    default long lastModified() {
+        return -1L;
+    }
+}
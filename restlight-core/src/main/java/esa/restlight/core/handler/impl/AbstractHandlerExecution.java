@@ -23,6 +23,10 @@ import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.serialize.Serializers;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.server.jfr.Phase;
+import esa.restlight.server.jfr.RestlightEvents;
+import esa.restlight.server.jfr.Span;
+import esa.restlight.server.metrics.ServerTiming;
 import esa.restlight.server.route.Execution;
 import esa.restlight.server.util.Futures;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -59,6 +63,22 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
     }
 
     protected Object[] resolveArguments(AsyncRequest request, AsyncResponse response) {
+        final Span span = RestlightEvents.begin(Phase.ARGUMENT_RESOLUTION);
+        final ServerTiming timing = ServerTiming.get(response);
+        if (timing != null) {
+            timing.begin(Phase.ARGUMENT_RESOLUTION);
+        }
+        try {
+            return doResolveArguments(request, response);
+        } finally {
+            span.finish(request);
+            if (timing != null) {
+                timing.end(Phase.ARGUMENT_RESOLUTION);
+            }
+        }
+    }
+
+    private Object[] doResolveArguments(AsyncRequest request, AsyncResponse response) {
         HandlerAdapter.ResolvableParam[] params = handlerAdapter.params();
         Object[] args = new Object[params.length];
         //resolve parameters one by one
@@ -99,7 +119,20 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
     protected CompletableFuture<Object> invoke(AsyncRequest request, AsyncResponse response, Object[] args) {
         CompletableFuture<Object> future;
         try {
-            final Object returnValue = handlerAdapter.invoke(request, response, args);
+            final Object returnValue;
+            final Span span = RestlightEvents.begin(Phase.HANDLER_INVOCATION);
+            final ServerTiming timing = ServerTiming.get(response);
+            if (timing != null) {
+                timing.begin(Phase.HANDLER_INVOCATION);
+            }
+            try {
+                returnValue = handlerAdapter.invoke(request, response, args);
+            } finally {
+                span.finish(request);
+                if (timing != null) {
+                    timing.end(Phase.HANDLER_INVOCATION);
+                }
+            }
             if (handlerAdapter.isConcurrent() && returnValue == null) {
                 // null return value in handler controller is not allowed
                 logger.error(getDetailedMessage("Unexpected null return value of concurrent handler."));
@@ -129,24 +162,54 @@ public abstract class AbstractHandlerExecution<H extends HandlerAdapter> impleme
         }
 
         if (!response.isCommitted()) {
+            if (notModified(returnValue, request, response)) {
+                return;
+            }
             byte[] result;
+            final Span span = RestlightEvents.begin(Phase.SERIALIZATION);
+            final ServerTiming timing = ServerTiming.get(response);
+            if (timing != null) {
+                timing.begin(Phase.SERIALIZATION);
+            }
             try {
                 result = handlerAdapter.returnValueResolver()
                         .resolve(returnValue, request, response);
             } catch (Exception e) {
                 // wrapIfNecessary
                 throw new WebServerException("Error while resolving return value: " + e.getMessage(), e);
+            } finally {
+                span.finish(request);
+                if (timing != null) {
+                    timing.end(Phase.SERIALIZATION);
+                }
             }
             if (!Serializers.alreadyWrite(result)) {
                 if (response.isCommitted()) {
                     logger.warn(getDetailedMessage("Ignore the non-null return value '{}', because response is " +
                             "not writable."), returnValue);
                 }
-                response.sendResult(result);
+                sendResult(result, request, response);
             }
         }
     }
 
+    /**
+     * Checks whether the response could be completed by the return value without serializing it, such as a {@code 304}
+     * response of a conditional request.
+     *
+     * @return {@code true} if the response has been completed.
+     */
+    protected boolean notModified(Object returnValue, AsyncRequest request, AsyncResponse response) {
+        return false;
+    }
+
+    /**
+     * Sends the serialized return value to the response.
+     */
+    protected void sendResult(byte[] result, AsyncRequest request, AsyncResponse response) {
+        response.sendResult(result);
+    }
+
     String getDetailedMessage(String text) {
         return StringUtils.concat(text, "\n", handlerAdapter.toString());
     }
@@ -15,7 +15,11 @@
  */
 package esa.restlight.core.handler.impl;
 
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.cache.ResponseCache;
 import esa.restlight.server.route.RouteExecution;
+import io.netty.handler.codec.http.HttpResponseStatus;
 
 public abstract class AbstractRouteExecution<H extends RouteHandlerAdapter>
         extends AbstractHandlerExecution<H>
@@ -24,4 +28,39 @@ public abstract class AbstractRouteExecution<H extends RouteHandlerAdapter>
     AbstractRouteExecution(H handler) {
         super(handler);
     }
+
+    @Override
+    protected boolean notModified(Object returnValue, AsyncRequest request, AsyncResponse response) {
+        final ConditionalGetSupport conditional = handlerAdapter.conditional();
+        // the serialized response is still needed if it will be shared with the other requests.
+        return conditional != null && conditional.beforeSerialization(returnValue,
+                request,
+                response,
+                handlerAdapter.coalescer() == null && !ResponseCache.isCaching(request));
+    }
+
+    @Override
+    protected void handleReturnValue(Object returnValue, AsyncRequest request, AsyncResponse response) {
+        super.handleReturnValue(returnValue, request, response);
+        final Coalescer coalescer = handlerAdapter.coalescer();
+        if (coalescer != null) {
+            coalescer.onHandled(request);
+        }
+    }
+
+    @Override
+    protected void sendResult(byte[] result, AsyncRequest request, AsyncResponse response) {
+        final ConditionalGetSupport conditional = handlerAdapter.conditional();
+        final boolean notModified = conditional != null && conditional.afterSerialization(result, request, response);
+        final Coalescer coalescer = handlerAdapter.coalescer();
+        if (coalescer != null) {
+            coalescer.onResult(request, response, result);
+        }
+        ResponseCache.onResult(request, response, result);
+        if (notModified) {
+            response.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+        } else {
+            super.sendResult(result, request, response);
+        }
+    }
 }
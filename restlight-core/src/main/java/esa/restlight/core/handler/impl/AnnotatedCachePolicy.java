@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.annotation.ResponseCached;
+import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.server.cache.CachePolicy;
+import io.netty.handler.codec.http.HttpHeaderNames;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link CachePolicy} of a handler which is annotated by {@link ResponseCached}.
+ */
+public final class AnnotatedCachePolicy implements CachePolicy {
+
+    private final long ttlMillis;
+    private final String[] params;
+    private final String[] headers;
+
+    AnnotatedCachePolicy(long ttlMillis, String[] params, String[] headers) {
+        this.ttlMillis = ttlMillis;
+        this.params = params == null ? new String[0] : params.clone();
+        this.headers = headers == null ? new String[0] : headers.clone();
+    }
+
+    /**
+     * Creates a {@link CachePolicy} for the given handler if it is annotated by {@link ResponseCached}, and the {@code
+     * Accept} header is always a part of the key, because the response may be negotiated by it.
+     *
+     * @param handler handler
+     *
+     * @return policy or {@code null} if the handler is not {@link ResponseCached}.
+     */
+    public static CachePolicy of(InvocableMethod handler) {
+        return of(handler, null);
+    }
+
+    /**
+     * Creates a {@link CachePolicy} for the given handler if it is annotated by {@link ResponseCached}. The {@code
+     * Accept} header is a part of the key unless the route produces only one media type, because the response may be
+     * negotiated by it.
+     *
+     * @param handler  handler
+     * @param produces media types produced by the route of given handler
+     *
+     * @return policy or {@code null} if the handler is not {@link ResponseCached}.
+     */
+    public static CachePolicy of(InvocableMethod handler, String[] produces) {
+        ResponseCached cached = handler.getMethodAnnotation(ResponseCached.class);
+        if (cached == null) {
+            cached = handler.beanType().getAnnotation(ResponseCached.class);
+        }
+        if (cached == null) {
+            return null;
+        }
+        String[] headers = cached.headers();
+        if (produces == null || produces.length != 1) {
+            boolean accept = false;
+            for (String header : headers) {
+                if (HttpHeaderNames.ACCEPT.contentEqualsIgnoreCase(header)) {
+                    accept = true;
+                    break;
+                }
+            }
+            if (!accept) {
+                headers = Arrays.copyOf(headers, headers.length + 1);
+                headers[headers.length - 1] = "Accept";
+            }
+        }
+        return new AnnotatedCachePolicy(cached.unit().toMillis(cached.ttl()), cached.params(), headers);
+    }
+
+    @Override
+    public String key(AsyncRequest request) {
+        final String path = request.path();
+        final String query = request.query();
+        if (params.length == 0 && headers.length == 0) {
+            return StringUtils.isEmpty(query) ? path : path + '?' + query;
+        }
+        final StringBuilder sb = new StringBuilder(path);
+        if (params.length == 0) {
+            if (!StringUtils.isEmpty(query)) {
+                sb.append('?').append(query);
+            }
+        } else {
+            char sep = '?';
+            for (String param : params) {
+                final List<String> values = request.getParameters(param);
+                if (values == null) {
+                    continue;
+                }
+                for (String value : values) {
+                    sb.append(sep).append(param).append('=').append(value);
+                    sep = '&';
+                }
+            }
+        }
+        for (String header : headers) {
+            final String value = request.getHeader(header);
+            sb.append('\n').append(header).append(':');
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.commons.Checks;
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.annotation.Coalesced;
+import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.server.route.CompletionHandler;
+import esa.restlight.server.route.ExceptionHandler;
+import esa.restlight.server.route.RouteExecution;
+import esa.restlight.server.util.EntityHeaders;
+import esa.restlight.server.util.Futures;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces the concurrent in-flight {@code GET} requests with the same key of a {@link Coalesced} handler onto a
+ * single invocation(single-flight).
+ * <p>
+ * The first request of a key becomes the leader which is handled as usual, and the serialized response bytes of the
+ * leader are wrapped as a {@link ByteBuf} and sent to the requests waiting for it by the retained duplicates, with the
+ * status and headers of the leader. An error of the leader is propagated to the waiting requests so that they are
+ * handled by the exception handler as if the error is thrown by themselves.
+ * <p>
+ * The response of the leader can not be shared if it sets a cookie or if the leader is completed without a serialized
+ * response, such as being rejected by an interceptor, in which case the requests waiting for that flight are handled on
+ * their own. Only the entity headers of the leader are shared, see {@link EntityHeaders}. If the response is written
+ * by the {@link esa.httpserver.core.HttpOutputStream} or by the handler itself, the coalescing of current handler is
+ * disabled since then.
+ * <p>
+ * There's a coalescer for each coalesced route, see {@link Coalescers}.
+ */
+public class Coalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Coalescer.class);
+
+    static final String ATTR = "$restlight.coalescing";
+
+    private final String name;
+    private final String[] headers;
+    private final int maxWaiters;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile boolean shareable = true;
+
+    Coalescer(String name, String[] headers, int maxWaiters) {
+        Checks.checkNotNull(name, "name");
+        Checks.checkArg(maxWaiters > 0, "maxWaiters must be over than 0");
+        this.name = name;
+        this.headers = headers == null ? new String[0] : headers.clone();
+        this.maxWaiters = maxWaiters;
+    }
+
+    /**
+     * Creates a {@link Coalescer} for the given handler if it is annotated by {@link Coalesced}.
+     *
+     * @param handler handler
+     *
+     * @return coalescer or {@code null} if the handler is not {@link Coalesced}.
+     */
+    static Coalescer of(InvocableMethod handler) {
+        Coalesced coalesced = handler.getMethodAnnotation(Coalesced.class);
+        if (coalesced == null) {
+            coalesced = handler.beanType().getAnnotation(Coalesced.class);
+        }
+        if (coalesced == null) {
+            return null;
+        }
+        return new Coalescer(handler.beanType().getName() + "#" + handler.method().getName(),
+                coalesced.headers(),
+                coalesced.maxWaiters());
+    }
+
+    /**
+     * Name of current coalescer, which is composed of the class name and method name of the handler and is only used to
+     * be logged.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Count of the handler invocations by the leaders.
+     */
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Count of the requests which have been responded by the response of a leader without invoking the handler.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Count of the requests which have been handled on their own because of the {@link Coalesced#maxWaiters()}.
+     */
+    public long overflowed() {
+        return overflowed.sum();
+    }
+
+    /**
+     * Count of the waiting requests which have been handled on their own because of the response of the leader could
+     * not be shared.
+     */
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * Count of the keys which are in-flight currently.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    /**
+     * Wraps the given execution to a coalescing one if possible.
+     */
+    RouteExecution wrap(AsyncRequest request, RouteExecution execution) {
+        if (!shareable || !HttpMethod.GET.equals(request.method())) {
+            return execution;
+        }
+        return new CoalescingExecution(execution);
+    }
+
+    /**
+     * Keeps the serialized response of the leader, which is called before the result is sent to the leader itself.
+     */
+    void onResult(AsyncRequest request, AsyncResponse response, byte[] result) {
+        final Flight flight = request.getUncheckedAttribute(ATTR);
+        if (flight == null || flight.serialized) {
+            return;
+        }
+        flight.serialized = true;
+        if (response.containsHeader(HttpHeaderNames.SET_COOKIE)) {
+            // the cookie belongs to the leader only.
+            return;
+        }
+        final Map<String, List<String>> hs = new LinkedHashMap<>();
+        for (String name : response.headerNames()) {
+            // other headers, such as the CORS headers, are populated for the leader only.
+            if (!EntityHeaders.isEntityHeader(name)) {
+                continue;
+            }
+            hs.put(name, new ArrayList<>(response.getHeaders(name)));
+        }
+        flight.result = new Result(response.status(),
+                hs,
+                result == null ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(result));
+    }
+
+    /**
+     * Marks the response of the leader as written by the handler itself if it has not been serialized, which is called
+     * after the return value of the handler has been handled.
+     */
+    void onHandled(AsyncRequest request) {
+        final Flight flight = request.getUncheckedAttribute(ATTR);
+        if (flight != null && !flight.serialized) {
+            flight.written = true;
+        }
+    }
+
+    String key(AsyncRequest request) {
+        if (headers.length == 0) {
+            return request.uri();
+        }
+        final StringBuilder sb = new StringBuilder(request.uri());
+        for (String header : headers) {
+            final String value = request.getHeader(header);
+            sb.append('\n').append(header).append(':');
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private CompletableFuture<Void> lead(String key,
+                                         Flight flight,
+                                         AsyncRequest request,
+                                         AsyncResponse response,
+                                         RouteExecution execution) {
+        request.setAttribute(ATTR, flight);
+        invocations.increment();
+        CompletableFuture<Void> future;
+        try {
+            future = execution.handle(request, response);
+        } catch (Throwable t) {
+            future = Futures.completedExceptionally(t);
+        }
+        return future.whenComplete((v, t) -> {
+            request.removeAttribute(ATTR);
+            flights.remove(key, flight);
+            flight.land(Futures.unwrapCompletionException(t));
+        });
+    }
+
+    private CompletableFuture<Void> follow(Flight flight,
+                                           AsyncRequest request,
+                                           AsyncResponse response,
+                                           RouteExecution execution) {
+        return flight.future.<CompletableFuture<Void>>handle((result, t) -> {
+            if (t != null) {
+                return Futures.<Void>completedExceptionally(t);
+            }
+            if (result == null) {
+                if (flight.written && shareable) {
+                    shareable = false;
+                    logger.warn("Coalescing of {} has been disabled, because the response could not be shared.",
+                            name);
+                }
+                fallbacks.increment();
+                return execution.handle(request, response);
+            }
+            try {
+                result.writeTo(response);
+            } finally {
+                flight.leave();
+            }
+            coalesced.increment();
+            return Futures.<Void>completedFuture();
+        }).thenCompose(f -> f);
+    }
+
+    private final class CoalescingExecution implements RouteExecution {
+
+        private final RouteExecution execution;
+
+        private CoalescingExecution(RouteExecution execution) {
+            this.execution = execution;
+        }
+
+        @Override
+        public CompletableFuture<Void> handle(AsyncRequest request, AsyncResponse response) {
+            final String key = key(request);
+            final Flight flight = new Flight();
+            for (; ; ) {
+                final Flight existing = flights.putIfAbsent(key, flight);
+                if (existing == null) {
+                    return lead(key, flight, request, response, execution);
+                }
+                final int joined = existing.join(maxWaiters);
+                if (joined > 0) {
+                    return follow(existing, request, response, execution);
+                }
+                if (joined == 0) {
+                    overflowed.increment();
+                    return execution.handle(request, response);
+                }
+                // the existing one has landed and been removed, try again.
+            }
+        }
+
+        @Override
+        public ExceptionHandler<Throwable> exceptionHandler() {
+            return execution.exceptionHandler();
+        }
+
+        @Override
+        public CompletionHandler completionHandler() {
+            return execution.completionHandler();
+        }
+    }
+
+    /**
+     * In-flight invocation of a key.
+     */
+    static final class Flight {
+
+        private static final int LANDED = -1;
+
+        private final CompletableFuture<Result> future = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final AtomicInteger remaining = new AtomicInteger();
+        private volatile Result result;
+        private volatile boolean serialized;
+        private volatile boolean written;
+
+        /**
+         * Tries to wait for current flight.
+         *
+         * @return {@code 1} if joined, {@code 0} if there's too many waiters and {@code -1} if current flight has
+         * landed.
+         */
+        int join(int maxWaiters) {
+            for (; ; ) {
+                final int w = waiters.get();
+                if (w == LANDED) {
+                    return -1;
+                }
+                if (w >= maxWaiters) {
+                    return 0;
+                }
+                if (waiters.compareAndSet(w, w + 1)) {
+                    return 1;
+                }
+            }
+        }
+
+        private void land(Throwable error) {
+            final int w = waiters.getAndSet(LANDED);
+            final Result r = result;
+            if (error != null) {
+                if (r != null) {
+                    r.body.release();
+                }
+                future.completeExceptionally(error);
+                return;
+            }
+            if (r != null) {
+                if (w == 0) {
+                    r.body.release();
+                } else {
+                    // the body is released by the last waiter.
+                    remaining.set(w);
+                }
+            }
+            future.complete(r);
+        }
+
+        private void leave() {
+            if (remaining.decrementAndGet() == 0) {
+                result.body.release();
+            }
+        }
+    }
+
+    /**
+     * Serialized response of the leader.
+     */
+    private static final class Result {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final ByteBuf body;
+
+        private Result(int status, Map<String, List<String>> headers, ByteBuf body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        private void writeTo(AsyncResponse response) {
+            if (response.isCommitted()) {
+                return;
+            }
+            response.setStatus(status);
+            for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+                response.setHeaders(e.getKey(), e.getValue());
+            }
+            response.sendResult(body.retainedDuplicate(), true);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.commons.Checks;
+import esa.restlight.server.ServerDeployContext;
+import esa.restlight.server.route.Mapping;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link Coalescer}s of the coalesced routes of a deployment, which are keyed by the {@link Mapping} of the routes, so
+ * that the statistics of each coalescer could be published with its route. This is held by the deploy context, and a
+ * route which is registered again with the same mapping replaces the previous one.
+ */
+public final class Coalescers {
+
+    private static final String ATTR = "$restlight.coalescers";
+
+    private final Map<Mapping, Coalescer> coalescers = new ConcurrentHashMap<>();
+
+    private Coalescers() {
+    }
+
+    /**
+     * Registers the {@link Coalescer} of the given route handler if it is coalesced.
+     *
+     * @param ctx     deploy context
+     * @param mapping mapping of the route
+     * @param adapter route handler
+     */
+    public static void register(ServerDeployContext<?> ctx, Mapping mapping, RouteHandlerAdapter adapter) {
+        Checks.checkNotNull(ctx, "ctx");
+        Checks.checkNotNull(mapping, "mapping");
+        Checks.checkNotNull(adapter, "adapter");
+        final Coalescer coalescer = adapter.coalescer();
+        if (coalescer == null) {
+            return;
+        }
+        Coalescers coalescers;
+        synchronized (ctx) {
+            coalescers = ctx.uncheckedAttribute(ATTR);
+            if (coalescers == null) {
+                coalescers = new Coalescers();
+                ctx.attribute(ATTR, coalescers);
+            }
+        }
+        coalescers.coalescers.put(mapping, coalescer);
+    }
+
+    /**
+     * Gets the {@link Coalescers} of the given deploy context.
+     *
+     * @param ctx deploy context
+     *
+     * @return optional value, which is empty if there's no coalesced route.
+     */
+    public static Optional<Coalescers> of(ServerDeployContext<?> ctx) {
+        return Optional.ofNullable(ctx.uncheckedAttribute(ATTR));
+    }
+
+    /**
+     * Gets the coalescers of the coalesced routes.
+     *
+     * @return coalescers keyed by the mapping of the routes
+     */
+    public Map<Mapping, Coalescer> coalescers() {
+        return Collections.unmodifiableMap(coalescers);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.annotation.ConditionalGet;
+import esa.restlight.core.handler.Versioned;
+import esa.restlight.core.method.InvocableMethod;
+import esa.restlight.core.util.XxHash64;
+import esa.restlight.server.util.ConditionalGetUtils;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.Date;
+
+/**
+ * Handles the conditional {@code GET} requests of a {@link ConditionalGet} handler.
+ */
+final class ConditionalGetSupport {
+
+    static final ConditionalGetSupport INSTANCE = new ConditionalGetSupport();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] EMPTY = new byte[0];
+
+    private ConditionalGetSupport() {
+    }
+
+    /**
+     * Gets the {@link ConditionalGetSupport} for the given handler if it is annotated by {@link ConditionalGet}.
+     *
+     * @param handler handler
+     *
+     * @return instance or {@code null} if the handler is not {@link ConditionalGet}.
+     */
+    static ConditionalGetSupport of(InvocableMethod handler) {
+        if (handler.hasMethodAnnotation(ConditionalGet.class)
+                || handler.beanType().isAnnotationPresent(ConditionalGet.class)) {
+            return INSTANCE;
+        }
+        return null;
+    }
+
+    /**
+     * Populates the {@code ETag} and {@code Last-Modified} headers by the return value if it is {@link Versioned},
+     * which should be called before the return value is serialized.
+     *
+     * @param returnValue  return value
+     * @param request      request
+     * @param response     response
+     * @param shortCircuit whether it is allowed to send the {@code 304} response here
+     *
+     * @return {@code true} if the {@code 304} response has been sent.
+     */
+    boolean beforeSerialization(Object returnValue,
+                                AsyncRequest request,
+                                AsyncResponse response,
+                                boolean shortCircuit) {
+        if (!(returnValue instanceof Versioned) || !applicable(request, response)) {
+            return false;
+        }
+        final Versioned versioned = (Versioned) returnValue;
+        final String version = versioned.version();
+        final long lastModified = versioned.lastModified();
+        if (version != null) {
+            response.setHeader(HttpHeaderNames.ETAG, "W/\"" + version + '"');
+        }
+        if (lastModified >= 0L) {
+            response.setHeader(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(lastModified)));
+        }
+        if (shortCircuit && ConditionalGetUtils.notModified(request, response)) {
+            response.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Populates the {@code ETag} header by the serialized body if it is absent, which should be called before the body
+     * is sent.
+     *
+     * @param body     serialized body
+     * @param request  request
+     * @param response response
+     *
+     * @return {@code true} if a {@code 304} response should be sent instead of the body.
+     */
+    boolean afterSerialization(byte[] body, AsyncRequest request, AsyncResponse response) {
+        if (!applicable(request, response)) {
+            return false;
+        }
+        if (!response.containsHeader(HttpHeaderNames.ETAG)) {
+            response.setHeader(HttpHeaderNames.ETAG, etag(body));
+        }
+        return ConditionalGetUtils.notModified(request, response);
+    }
+
+    /**
+     * Computes the weak {@code ETag} of given body.
+     */
+    static String etag(byte[] body) {
+        long h = XxHash64.hash(body == null ? EMPTY : body);
+        final char[] chars = new char[20];
+        chars[0] = 'W';
+        chars[1] = '/';
+        chars[2] = '"';
+        for (int i = 18; i > 2; i--) {
+            chars[i] = HEX[(int) (h & 0xF)];
+            h >>>= 4;
+        }
+        chars[19] = '"';
+        return new String(chars);
+    }
+
+    private static boolean applicable(AsyncRequest request, AsyncResponse response) {
+        final HttpMethod method = request.method();
+        return (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))
+                && response.status() == HttpResponseStatus.OK.code()
+                && !response.isCommitted();
+    }
+}
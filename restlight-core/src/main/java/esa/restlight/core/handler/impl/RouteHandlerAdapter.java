@@ -46,6 +46,8 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
     private final RouteExecutionFactory executionFactory;
     private final ExceptionResolver<Throwable> exceptionResolver;
     private final Matcher interceptorMatcher;
+    private final Coalescer coalescer;
+    private final ConditionalGetSupport conditional;
 
     public RouteHandlerAdapter(RouteHandler handler,
                                HandlerResolverFactory factory,
@@ -55,6 +57,8 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
         this.interceptorMatcher = maybeMatchable(interceptors);
         this.executionFactory = RouteUtils.routeExecutionFactory(handler.handler().method().getReturnType());
         this.exceptionResolver = exceptionResolver;
+        this.coalescer = Coalescer.of(handler.handler());
+        this.conditional = ConditionalGetSupport.of(handler.handler());
     }
 
     @Override
@@ -68,7 +72,8 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
     }
 
     public RouteExecution toExecution(AsyncRequest request) {
-        return executionFactory.getRouteExecution(this, getMatchingInterceptors(request));
+        final RouteExecution execution = executionFactory.getRouteExecution(this, getMatchingInterceptors(request));
+        return coalescer == null ? execution : coalescer.wrap(request, execution);
     }
 
     List<InternalInterceptor> getMatchingInterceptors(AsyncRequest request) {
@@ -82,6 +87,14 @@ public class RouteHandlerAdapter extends HandlerAdapter<RouteHandler> implements
         return exceptionResolver;
     }
 
+    Coalescer coalescer() {
+        return coalescer;
+    }
+
+    ConditionalGetSupport conditional() {
+        return conditional;
+    }
+
     /**
      * Converts the given {@link Interceptor} to {@link Matcher}.
      */
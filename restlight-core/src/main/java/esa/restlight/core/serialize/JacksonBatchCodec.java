@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.serialize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import esa.commons.Checks;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.batch.BatchCodec;
+import esa.restlight.server.batch.SubRequest;
+import esa.restlight.server.batch.SubResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BatchCodec} of the json envelope, such as:
+ * <pre>
+ * request:
+ * {"requests": [{"id": "1", "method": "GET", "uri": "/users/1", "headers": {"Accept": "application/json"}},
+ *               {"id": "2", "method": "POST", "uri": "/users", "body": {"name": "foo"}}]}
+ *
+ * response:
+ * {"responses": [{"id": "1", "status": 200, "headers": {"content-type": "application/json"}, "body": {...}},
+ *                {"id": "2", "status": 201, "headers": {}, "body": "created"}]}
+ * </pre>
+ * The value of a header could be a string or an array of strings. The body of a sub-request could be a string or any
+ * other json value which will be sent as the json text, and the body of a sub-response is embedded as a json value if
+ * it's content type is json, otherwise it is written as a string, which means the binary bodies should use the
+ * {@link ProtoBufBatchCodec} instead.
+ */
+public class JacksonBatchCodec implements BatchCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonBatchCodec() {
+        this(JacksonSerializer.getDefaultMapper());
+    }
+
+    public JacksonBatchCodec(ObjectMapper objectMapper) {
+        Checks.checkNotNull(objectMapper, "objectMapper");
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MediaType contentType) {
+        return contentType == null || isJson(contentType);
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_JSON_UTF8;
+    }
+
+    @Override
+    public List<SubRequest> decode(ByteBuf body) throws Exception {
+        final JsonNode root = objectMapper.readTree(new ByteBufInputStream(body.duplicate()));
+        final JsonNode requests = root != null && root.isObject() ? root.get("requests") : root;
+        if (requests == null || !requests.isArray()) {
+            throw new IllegalArgumentException("Array of sub-requests is required");
+        }
+        final List<SubRequest> subs = new ArrayList<>(requests.size());
+        for (JsonNode node : requests) {
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Illegal sub-request: " + node);
+            }
+            subs.add(new SubRequest(text(node.get("id")),
+                    text(node.get("method")),
+                    text(node.get("uri")),
+                    headers(node.get("headers")),
+                    body(node.get("body"))));
+        }
+        return subs;
+    }
+
+    @Override
+    public byte[] encode(List<SubResponse> responses) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("responses");
+            for (SubResponse response : responses) {
+                gen.writeStartObject();
+                gen.writeStringField("id", response.id());
+                gen.writeNumberField("status", response.status());
+                gen.writeObjectFieldStart("headers");
+                for (String name : response.headers().names()) {
+                    final List<String> values = response.headers().getAll(name);
+                    if (values.size() == 1) {
+                        gen.writeStringField(name, values.get(0));
+                    } else {
+                        gen.writeArrayFieldStart(name);
+                        for (String value : values) {
+                            gen.writeString(value);
+                        }
+                        gen.writeEndArray();
+                    }
+                }
+                gen.writeEndObject();
+                final byte[] body = response.body();
+                if (body.length > 0) {
+                    gen.writeFieldName("body");
+                    final String text = new String(body, StandardCharsets.UTF_8);
+                    if (isJson(response.headers().get(HttpHeaderNames.CONTENT_TYPE))) {
+                        gen.writeRawValue(text);
+                    } else {
+                        gen.writeString(text);
+                    }
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private static HttpHeaders headers(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Illegal headers of sub-request: " + node);
+        }
+        final HttpHeaders headers = new DefaultHttpHeaders();
+        final Iterator<Map.Entry<String, JsonNode>> it = node.fields();
+        while (it.hasNext()) {
+            final Map.Entry<String, JsonNode> field = it.next();
+            if (field.getValue().isArray()) {
+                for (JsonNode value : field.getValue()) {
+                    headers.add(field.getKey(), value.asText());
+                }
+            } else {
+                headers.add(field.getKey(), field.getValue().asText());
+            }
+        }
+        return headers;
+    }
+
+    private byte[] body(JsonNode node) throws Exception {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isTextual()) {
+            return node.textValue().getBytes(StandardCharsets.UTF_8);
+        }
+        return objectMapper.writeValueAsBytes(node);
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return isJson(MediaType.valueOf(contentType));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) || mediaType.subtype().endsWith("+json");
+    }
+}
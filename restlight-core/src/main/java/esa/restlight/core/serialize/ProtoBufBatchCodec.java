@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.serialize;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.batch.BatchCodec;
+import esa.restlight.server.batch.SubRequest;
+import esa.restlight.server.batch.SubResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BatchCodec} of the protobuf envelope, which is read and written in the wire format directly without any
+ * generated class, and it is equivalent to the following schema:
+ * <pre>
+ * message Header {
+ *     string name = 1;
+ *     string value = 2;
+ * }
+ *
+ * message SubRequest {
+ *     string id = 1;
+ *     string method = 2;
+ *     string uri = 3;
+ *     repeated Header headers = 4;
+ *     bytes body = 5;
+ * }
+ *
+ * message BatchRequest {
+ *     repeated SubRequest requests = 1;
+ * }
+ *
+ * message SubResponse {
+ *     string id = 1;
+ *     int32 status = 2;
+ *     repeated Header headers = 3;
+ *     bytes body = 4;
+ * }
+ *
+ * message BatchResponse {
+ *     repeated SubResponse responses = 1;
+ * }
+ * </pre>
+ */
+public class ProtoBufBatchCodec implements BatchCodec {
+
+    private static final MediaType PROTOBUF = MediaType.of("application", "x-protobuf");
+
+    private static final int LENGTH_DELIMITED = WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    /**
+     * Tags of the length delimited fields(string, bytes and embedded messages) of field number 1 to 5.
+     */
+    private static final int TAG_1 = (1 << 3) | LENGTH_DELIMITED;
+    private static final int TAG_2 = (2 << 3) | LENGTH_DELIMITED;
+    private static final int TAG_3 = (3 << 3) | LENGTH_DELIMITED;
+    private static final int TAG_4 = (4 << 3) | LENGTH_DELIMITED;
+    private static final int TAG_5 = (5 << 3) | LENGTH_DELIMITED;
+
+    @Override
+    public boolean supports(MediaType contentType) {
+        return contentType != null && PROTOBUF.isCompatibleWith(contentType);
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return PROTOBUF;
+    }
+
+    @Override
+    public List<SubRequest> decode(ByteBuf body) throws Exception {
+        final CodedInputStream in = CodedInputStream.newInstance(body.nioBuffer());
+        final List<SubRequest> subs = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (tag == TAG_1) {
+                final int limit = in.pushLimit(in.readRawVarint32());
+                subs.add(readSubRequest(in));
+                in.popLimit(limit);
+            } else if (!in.skipField(tag)) {
+                break;
+            }
+        }
+        return subs;
+    }
+
+    private static SubRequest readSubRequest(CodedInputStream in) throws Exception {
+        String id = null;
+        String method = null;
+        String uri = null;
+        HttpHeaders headers = null;
+        byte[] body = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (tag) {
+                case TAG_1:
+                    id = in.readStringRequireUtf8();
+                    break;
+                case TAG_2:
+                    method = in.readStringRequireUtf8();
+                    break;
+                case TAG_3:
+                    uri = in.readStringRequireUtf8();
+                    break;
+                case TAG_4:
+                    if (headers == null) {
+                        headers = new DefaultHttpHeaders();
+                    }
+                    final int limit = in.pushLimit(in.readRawVarint32());
+                    readHeader(in, headers);
+                    in.popLimit(limit);
+                    break;
+                case TAG_5:
+                    body = in.readByteArray();
+                    break;
+                default:
+                    if (!in.skipField(tag)) {
+                        return new SubRequest(id, method, uri, headers, body);
+                    }
+            }
+        }
+        return new SubRequest(id, method, uri, headers, body);
+    }
+
+    private static void readHeader(CodedInputStream in, HttpHeaders headers) throws Exception {
+        String name = null;
+        String value = "";
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (tag == TAG_1) {
+                name = in.readStringRequireUtf8();
+            } else if (tag == TAG_2) {
+                value = in.readStringRequireUtf8();
+            } else if (!in.skipField(tag)) {
+                break;
+            }
+        }
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Name of header is required");
+        }
+        headers.add(name, value);
+    }
+
+    @Override
+    public byte[] encode(List<SubResponse> responses) throws Exception {
+        final int[] sizes = new int[responses.size()];
+        int total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = subResponseSize(responses.get(i));
+            total += CodedOutputStream.computeTagSize(1)
+                    + CodedOutputStream.computeUInt32SizeNoTag(sizes[i])
+                    + sizes[i];
+        }
+        final byte[] result = new byte[total];
+        final CodedOutputStream out = CodedOutputStream.newInstance(result);
+        for (int i = 0; i < sizes.length; i++) {
+            final SubResponse response = responses.get(i);
+            out.writeTag(1, LENGTH_DELIMITED);
+            out.writeUInt32NoTag(sizes[i]);
+            out.writeString(1, response.id());
+            out.writeInt32(2, response.status());
+            for (Map.Entry<String, String> header : response.headers()) {
+                out.writeTag(3, LENGTH_DELIMITED);
+                out.writeUInt32NoTag(headerSize(header));
+                out.writeString(1, header.getKey());
+                out.writeString(2, header.getValue());
+            }
+            if (response.body().length > 0) {
+                out.writeByteArray(4, response.body());
+            }
+        }
+        out.checkNoSpaceLeft();
+        return result;
+    }
+
+    private static int subResponseSize(SubResponse response) {
+        int size = CodedOutputStream.computeStringSize(1, response.id())
+                + CodedOutputStream.computeInt32Size(2, response.status());
+        for (Map.Entry<String, String> header : response.headers()) {
+            final int headerSize = headerSize(header);
+            size += CodedOutputStream.computeTagSize(3)
+                    + CodedOutputStream.computeUInt32SizeNoTag(headerSize)
+                    + headerSize;
+        }
+        if (response.body().length > 0) {
+            size += CodedOutputStream.computeByteArraySize(4, response.body());
+        }
+        return size;
+    }
+
+    private static int headerSize(Map.Entry<String, String> header) {
+        return CodedOutputStream.computeStringSize(1, header.getKey())
+                + CodedOutputStream.computeStringSize(2, header.getValue());
+    }
+}
@@ -77,6 +77,27 @@ public class InterceptorUtils {
         return filtered;
     }
 
+    /**
+     * Whether there's any interceptor of given factories which may intercept the requests of given route.
+     *
+     * @param ctx          context
+     * @param route        route
+     * @param interceptors interceptor factories
+     *
+     * @return {@code true} if the route may be intercepted
+     */
+    public static boolean hasInterceptor(DeployContext<? extends RestlightOptions> ctx,
+                                         Route route,
+                                         List<InterceptorFactory> interceptors) {
+        for (InterceptorFactory factory : interceptors) {
+            final Optional<Interceptor> interceptor = factory.create(ctx, route);
+            if (interceptor.isPresent() && interceptor.get().affinity() >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static String[] parseIncludesOrExcludes(String contextPath, String[] patterns) {
         String[] withContextPath = null;
         if (patterns != null) {
@@ -23,6 +23,7 @@ import esa.restlight.core.DeployContext;
 import esa.restlight.core.annotation.Scheduled;
 import esa.restlight.core.config.RestlightOptions;
 import esa.restlight.core.handler.RouteHandler;
+import esa.restlight.core.handler.impl.Coalescers;
 import esa.restlight.core.handler.impl.CompletableFutureRouteExecution;
 import esa.restlight.core.handler.impl.DefaultRouteExecution;
 import esa.restlight.core.handler.impl.ListenableFutureRouteExecution;
@@ -68,18 +69,27 @@ public class RouteUtils {
 
     public static String scheduling(InvocableMethod handler,
                                     String global) {
-        Scheduled scheduled = handler.getMethodAnnotation(Scheduled.class);
-        if (scheduled == null) {
-            scheduled = handler.beanType().getAnnotation(Scheduled.class);
+        final String scheduling;
+        // use the route index generated at compile time if possible
+        final RouteIndex index = RouteIndex.of(handler.beanType());
+        final RouteIndex.Entry entry = index == null ? null : index.entry(handler.method());
+        if (entry != null) {
+            scheduling = entry.scheduler();
+        } else {
+            Scheduled scheduled = handler.getMethodAnnotation(Scheduled.class);
+            if (scheduled == null) {
+                scheduled = handler.beanType().getAnnotation(Scheduled.class);
+            }
+            scheduling = scheduled == null ? null : scheduled.value();
         }
-        if (scheduled == null) {
+        if (scheduling == null) {
             if (global == null) {
                 return Schedulers.BIZ;
             } else {
                 return global;
             }
         }
-        return scheduled.value();
+        return scheduling;
     }
 
     /**
@@ -155,7 +165,12 @@ public class RouteUtils {
                 ctx.resolverFactory().get(),
                 filter(ctx, mapping, routeHandler, ctx.interceptors().orElse(Collections.emptyList())),
                 ctx.exceptionResolverFactory().get().createResolver(routeHandler));
+        Coalescers.register(ctx, mapping, handlerAdapter);
         Scheduler scheduler = ctx.schedulers().get(handlerAdapter.scheduler());
+        if (scheduler == null && Schedulers.AFFINITY.equals(handlerAdapter.scheduler())) {
+            // affinity scheduler will be registered when the route is being added.
+            scheduler = Schedulers.affinity();
+        }
         Checks.checkNotNull(scheduler,
                 "Could not find any scheduler named '" + handlerAdapter.scheduler() + "'");
         final Route route = Route.route(mapping)
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.restlight.core.annotation.ResponseCached;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.server.cache.CachePolicy;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AnnotatedCachePolicyTest {
+
+    @Test
+    void testOf() throws NoSuchMethodException {
+        assertNull(AnnotatedCachePolicy.of(HandlerMethod.of(Controller.class.getDeclaredMethod("plain"),
+                new Controller())));
+        final CachePolicy policy = AnnotatedCachePolicy.of(
+                HandlerMethod.of(Controller.class.getDeclaredMethod("catalog"), new Controller()));
+        assertNotNull(policy);
+        assertEquals(2000L, policy.ttlMillis());
+
+        final CachePolicy fromType = AnnotatedCachePolicy.of(
+                HandlerMethod.of(CachedController.class.getDeclaredMethod("list"), new CachedController()));
+        assertNotNull(fromType);
+        assertEquals(60_000L, fromType.ttlMillis());
+    }
+
+    @Test
+    void testAcceptIsPartOfKey() throws NoSuchMethodException {
+        final HandlerMethod handler = HandlerMethod.of(Controller.class.getDeclaredMethod("catalog"),
+                new Controller());
+        final MockAsyncRequest json = MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader("Accept", "application/json")
+                .build();
+        final MockAsyncRequest xml = MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader("Accept", "application/xml")
+                .build();
+
+        final CachePolicy negotiated = AnnotatedCachePolicy.of(handler);
+        assertEquals("/foo\nAccept:application/json", negotiated.key(json));
+        assertNotEquals(negotiated.key(json), negotiated.key(xml));
+        assertEquals("/foo\nAccept:application/json",
+                AnnotatedCachePolicy.of(handler, new String[]{"application/json", "application/xml"}).key(json));
+
+        final CachePolicy single = AnnotatedCachePolicy.of(handler, new String[]{"application/json"});
+        assertEquals("/foo", single.key(json));
+        assertEquals(single.key(json), single.key(xml));
+    }
+
+    @Test
+    void testKeyOfQuery() {
+        final CachePolicy policy = new AnnotatedCachePolicy(1000L, null, null);
+        assertEquals("/foo", policy.key(MockAsyncRequest.aMockRequest().withUri("/foo").build()));
+        assertEquals("/foo?a=1&b=2",
+                policy.key(MockAsyncRequest.aMockRequest().withUri("/foo?a=1&b=2").build()));
+    }
+
+    @Test
+    void testKeyOfParamsAndHeaders() {
+        final CachePolicy policy = new AnnotatedCachePolicy(1000L,
+                new String[]{"a", "c"},
+                new String[]{"Accept"});
+        assertEquals("/foo?a=1&a=3&c=2\nAccept:text/plain",
+                policy.key(MockAsyncRequest.aMockRequest()
+                        .withUri("/foo")
+                        .withParameter("b", "0")
+                        .withParameter("a", "1")
+                        .withParameter("a", "3")
+                        .withParameter("c", "2")
+                        .withHeader("Accept", "text/plain")
+                        .build()));
+        assertEquals("/foo\nAccept:",
+                policy.key(MockAsyncRequest.aMockRequest().withUri("/foo").build()));
+
+        final CachePolicy withQuery = new AnnotatedCachePolicy(1000L, null, new String[]{"Accept"});
+        assertEquals("/foo?b=0\nAccept:",
+                withQuery.key(MockAsyncRequest.aMockRequest().withUri("/foo?b=0").build()));
+    }
+
+    private static class Controller {
+
+        private String plain() {
+            return "plain";
+        }
+
+        @ResponseCached(ttl = 2L)
+        private String catalog() {
+            return "catalog";
+        }
+    }
+
+    @ResponseCached(ttl = 1L, unit = TimeUnit.MINUTES)
+    private static class CachedController {
+
+        private String list() {
+            return "list";
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.annotation.Coalesced;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.server.metrics.ServerTiming;
+import esa.restlight.server.route.RouteExecution;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescerTest {
+
+    private static final byte[] BODY = "catalog".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testOf() throws NoSuchMethodException {
+        assertNull(Coalescer.of(HandlerMethod.of(Controller.class.getDeclaredMethod("plain"), new Controller())));
+        final Coalescer coalescer =
+                Coalescer.of(HandlerMethod.of(Controller.class.getDeclaredMethod("catalog"), new Controller()));
+        assertNotNull(coalescer);
+        assertEquals(Controller.class.getName() + "#catalog", coalescer.name());
+
+        final Coalescer fromType = Coalescer.of(HandlerMethod.of(CoalescedController.class.getDeclaredMethod("list"),
+                new CoalescedController()));
+        assertNotNull(fromType);
+    }
+
+    @Test
+    void testKey() {
+        final Coalescer coalescer = new Coalescer("test", new String[]{"Accept"}, 16);
+        final String k1 = coalescer.key(MockAsyncRequest.aMockRequest()
+                .withUri("/catalog?page=1")
+                .withHeader("Accept", "application/json")
+                .build());
+        final String k2 = coalescer.key(MockAsyncRequest.aMockRequest()
+                .withUri("/catalog?page=1")
+                .withHeader("Accept", "application/json")
+                .withHeader("X-Other", "foo")
+                .build());
+        final String k3 = coalescer.key(MockAsyncRequest.aMockRequest()
+                .withUri("/catalog?page=1")
+                .withHeader("Accept", "text/plain")
+                .build());
+        final String k4 = coalescer.key(MockAsyncRequest.aMockRequest()
+                .withUri("/catalog?page=2")
+                .withHeader("Accept", "application/json")
+                .build());
+        assertEquals(k1, k2);
+        assertNotEquals(k1, k3);
+        assertNotEquals(k1, k4);
+    }
+
+    @Test
+    void testNonGetRequestIsNotCoalesced() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final RouteExecution execution = new Leader(coalescer);
+        assertSame(execution, coalescer.wrap(MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/catalog")
+                .build(), execution));
+        assertNotEquals(execution, coalescer.wrap(request(), execution));
+    }
+
+    @Test
+    void testCoalesce() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final MockAsyncResponse res0 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f0 = coalescer.wrap(r0, leader).handle(r0, res0);
+        final MockAsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower).handle(request(), res1);
+        final MockAsyncResponse res2 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f2 = coalescer.wrap(request(), follower).handle(request(), res2);
+        assertFalse(f0.isDone());
+        assertFalse(f1.isDone());
+        assertFalse(f2.isDone());
+        assertEquals(1, coalescer.inFlight());
+
+        leader.complete(r0, res0);
+        assertTrue(f0.isDone());
+        assertTrue(f1.isDone() && !f1.isCompletedExceptionally());
+        assertTrue(f2.isDone() && !f2.isCompletedExceptionally());
+
+        assertEquals(1, leader.invoked.get());
+        assertEquals(0, follower.invoked.get());
+        for (MockAsyncResponse res : new MockAsyncResponse[]{res0, res1, res2}) {
+            assertEquals(201, res.status());
+            assertEquals("text/plain", res.getHeader(HttpHeaderNames.CONTENT_TYPE));
+            assertEquals("catalog", res.getSentData().toString(StandardCharsets.UTF_8));
+        }
+        assertEquals(1L, coalescer.invocations());
+        assertEquals(2L, coalescer.coalesced());
+        assertEquals(0, coalescer.inFlight());
+
+        // a new flight after landing
+        final MockAsyncRequest r3 = request();
+        final MockAsyncResponse res3 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f3 = coalescer.wrap(r3, leader).handle(r3, res3);
+        assertFalse(f3.isDone());
+        leader.complete(r3, res3);
+        assertTrue(f3.isDone());
+        assertEquals(2, leader.invoked.get());
+        assertEquals(2L, coalescer.invocations());
+    }
+
+    @Test
+    void testMaxWaiters() {
+        final Coalescer coalescer = new Coalescer("test", null, 1);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final MockAsyncResponse res0 = MockAsyncResponse.aMockResponse().build();
+        coalescer.wrap(r0, leader).handle(r0, res0);
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower)
+                .handle(request(), MockAsyncResponse.aMockResponse().build());
+        final CompletableFuture<Void> f2 = coalescer.wrap(request(), follower)
+                .handle(request(), MockAsyncResponse.aMockResponse().build());
+        assertFalse(f1.isDone());
+        // handled on its own
+        assertFalse(f2.isDone());
+        assertEquals(1, follower.invoked.get());
+        assertEquals(1L, coalescer.overflowed());
+
+        leader.complete(r0, res0);
+        assertTrue(f1.isDone());
+        assertEquals(1L, coalescer.coalesced());
+    }
+
+    @Test
+    void testErrorIsPropagated() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final CompletableFuture<Void> f0 = coalescer.wrap(r0, leader)
+                .handle(r0, MockAsyncResponse.aMockResponse().build());
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower)
+                .handle(request(), MockAsyncResponse.aMockResponse().build());
+        final IllegalStateException ex = new IllegalStateException();
+        leader.promise.completeExceptionally(ex);
+        assertTrue(f0.isCompletedExceptionally());
+        assertTrue(f1.isCompletedExceptionally());
+        assertSame(ex, Futures.unwrapCompletionException(f1.handle((v, t) -> t).join()));
+        assertEquals(0, follower.invoked.get());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void testFallbackIfResponseCouldNotBeShared() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final CompletableFuture<Void> f0 = coalescer.wrap(r0, leader)
+                .handle(r0, MockAsyncResponse.aMockResponse().build());
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower)
+                .handle(request(), MockAsyncResponse.aMockResponse().build());
+        // completed without a serialized result, such as writing by the output stream.
+        coalescer.onHandled(r0);
+        leader.promise.complete(null);
+        assertTrue(f0.isDone());
+        assertFalse(f1.isDone());
+        assertEquals(1, follower.invoked.get());
+        assertEquals(1L, coalescer.fallbacks());
+
+        // disabled
+        assertSame(leader, coalescer.wrap(request(), leader));
+    }
+
+    @Test
+    void testFallbackIfLeaderIsRejected() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final MockAsyncResponse res0 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f0 = coalescer.wrap(r0, leader).handle(r0, res0);
+        final MockAsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower).handle(request(), res1);
+        // rejected by an interceptor before the handler is invoked.
+        res0.sendResult(403);
+        leader.promise.complete(null);
+        assertTrue(f0.isDone());
+        assertFalse(f1.isDone());
+        assertEquals(1, follower.invoked.get());
+        assertEquals(1L, coalescer.fallbacks());
+        assertNotEquals(403, res1.status());
+
+        // still enabled
+        assertNotEquals(leader, coalescer.wrap(request(), leader));
+    }
+
+    @Test
+    void testFallbackIfLeaderSetsCookie() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final MockAsyncResponse res0 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f0 = coalescer.wrap(r0, leader).handle(r0, res0);
+        final MockAsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower).handle(request(), res1);
+        res0.addCookie("session", "leader");
+        leader.complete(r0, res0);
+        assertTrue(f0.isDone());
+        assertFalse(f1.isDone());
+        assertEquals(1, follower.invoked.get());
+        assertEquals(0L, coalescer.coalesced());
+        assertEquals(1L, coalescer.fallbacks());
+        assertFalse(res1.containsHeader(HttpHeaderNames.SET_COOKIE));
+
+        // still enabled
+        assertNotEquals(leader, coalescer.wrap(request(), leader));
+    }
+
+    @Test
+    void testOnlyEntityHeadersAreShared() {
+        final Coalescer coalescer = new Coalescer("test", null, 16);
+        final Leader leader = new Leader(coalescer);
+        final Leader follower = new Leader(coalescer);
+
+        final MockAsyncRequest r0 = request();
+        final MockAsyncResponse res0 = MockAsyncResponse.aMockResponse().build();
+        coalescer.wrap(r0, leader).handle(r0, res0);
+        final MockAsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> f1 = coalescer.wrap(request(), follower).handle(request(), res1);
+        res0.setHeader(ServerTiming.HEADER, "handler;dur=1.203");
+        res0.setHeader(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, "http://a.com");
+        res0.setHeader("X-Request-Id", "1");
+        res0.setHeader(HttpHeaderNames.ETAG, "W/\"abc\"");
+        leader.complete(r0, res0);
+        assertTrue(f1.isDone());
+        assertEquals(1L, coalescer.coalesced());
+        assertEquals("text/plain", res1.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals("W/\"abc\"", res1.getHeader(HttpHeaderNames.ETAG));
+        assertNull(res1.getHeader(ServerTiming.HEADER));
+        assertNull(res1.getHeader(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertNull(res1.getHeader("X-Request-Id"));
+    }
+
+    private static MockAsyncRequest request() {
+        return MockAsyncRequest.aMockRequest().withUri("/catalog?page=1").build();
+    }
+
+    /**
+     * Execution which completes when {@link #complete} is called.
+     */
+    private static final class Leader implements RouteExecution {
+
+        private final Coalescer coalescer;
+        private final AtomicInteger invoked = new AtomicInteger();
+        private CompletableFuture<Void> promise;
+
+        private Leader(Coalescer coalescer) {
+            this.coalescer = coalescer;
+        }
+
+        @Override
+        public CompletableFuture<Void> handle(AsyncRequest request,
+                                              AsyncResponse response) {
+            invoked.incrementAndGet();
+            promise = new CompletableFuture<>();
+            return promise;
+        }
+
+        private void complete(MockAsyncRequest request, MockAsyncResponse response) {
+            response.setStatus(201);
+            response.setHeader(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+            coalescer.onResult(request, response, BODY);
+            response.sendResult(BODY);
+            promise.complete(null);
+        }
+    }
+
+    private static class Controller {
+
+        @Coalesced
+        void catalog() {
+        }
+
+        void plain() {
+        }
+    }
+
+    @Coalesced(headers = "Accept", maxWaiters = 8)
+    private static class CoalescedController {
+
+        void list() {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.DeployContextImpl;
+import esa.restlight.core.annotation.Coalesced;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.core.handler.RouteHandler;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.core.resolver.HandlerResolverFactory;
+import esa.restlight.server.route.Mapping;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoalescersTest {
+
+    @Test
+    void testRegister() throws NoSuchMethodException {
+        final DeployContext<RestlightOptions> ctx = newContext();
+        assertFalse(Coalescers.of(ctx).isPresent());
+        assertThrows(NullPointerException.class,
+                () -> Coalescers.register(ctx, null, adapter("plain")));
+
+        Coalescers.register(ctx, Mapping.get("/plain"), adapter("plain"));
+        assertFalse(Coalescers.of(ctx).isPresent());
+
+        // overloaded handlers of different routes are kept apart.
+        final Mapping foo = Mapping.get("/foo");
+        final Mapping bar = Mapping.get("/bar");
+        final RouteHandlerAdapter fooAdapter = adapter("catalog");
+        final RouteHandlerAdapter barAdapter = adapter("catalog", String.class);
+        Coalescers.register(ctx, foo, fooAdapter);
+        Coalescers.register(ctx, bar, barAdapter);
+        assertTrue(Coalescers.of(ctx).isPresent());
+        final Coalescers coalescers = Coalescers.of(ctx).get();
+        assertEquals(2, coalescers.coalescers().size());
+        assertSame(fooAdapter.coalescer(), coalescers.coalescers().get(foo));
+        assertSame(barAdapter.coalescer(), coalescers.coalescers().get(bar));
+        assertNotSame(coalescers.coalescers().get(foo), coalescers.coalescers().get(bar));
+
+        // the coalescers are held by each deployment.
+        assertFalse(Coalescers.of(newContext()).isPresent());
+    }
+
+    private static DeployContext<RestlightOptions> newContext() {
+        return new DeployContextImpl<RestlightOptions>("test", RestlightOptionsConfigure.defaultOpts()) {
+        };
+    }
+
+    private static RouteHandlerAdapter adapter(String name, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(Controller.class.getDeclaredMethod(name, parameterTypes),
+                        new Controller()));
+        return new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null);
+    }
+
+    private static class Controller {
+
+        private String plain() {
+            return "plain";
+        }
+
+        @Coalesced
+        private String catalog() {
+            return "catalog";
+        }
+
+        @Coalesced
+        private String catalog(String page) {
+            return "catalog" + page;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.handler.impl;
+
+import esa.restlight.core.annotation.ConditionalGet;
+import esa.restlight.core.handler.Versioned;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetSupportTest {
+
+    private static final byte[] BODY = "catalog".getBytes(StandardCharsets.UTF_8);
+    private static final ConditionalGetSupport SUPPORT = ConditionalGetSupport.INSTANCE;
+
+    @Test
+    void testOf() throws NoSuchMethodException {
+        assertNull(ConditionalGetSupport.of(HandlerMethod.of(Controller.class.getDeclaredMethod("plain"),
+                new Controller())));
+        assertSame(SUPPORT, ConditionalGetSupport.of(HandlerMethod.of(Controller.class.getDeclaredMethod("catalog"),
+                new Controller())));
+        assertSame(SUPPORT, ConditionalGetSupport.of(HandlerMethod.of(
+                ConditionalController.class.getDeclaredMethod("list"), new ConditionalController())));
+    }
+
+    @Test
+    void testEtag() {
+        final String etag = ConditionalGetSupport.etag(BODY);
+        assertEquals(20, etag.length());
+        assertTrue(etag.startsWith("W/\""));
+        assertTrue(etag.endsWith("\""));
+        assertEquals(etag, ConditionalGetSupport.etag(BODY));
+        assertNotEquals(etag, ConditionalGetSupport.etag("catalog2".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("W/\"ef46db3751d8e999\"", ConditionalGetSupport.etag(null));
+    }
+
+    @Test
+    void testAfterSerialization() {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        assertFalse(SUPPORT.afterSerialization(BODY, MockAsyncRequest.aMockRequest().build(), response));
+        final String etag = response.getHeader(HttpHeaderNames.ETAG);
+        assertEquals(ConditionalGetSupport.etag(BODY), etag);
+
+        final MockAsyncResponse matched = MockAsyncResponse.aMockResponse().build();
+        assertTrue(SUPPORT.afterSerialization(BODY, MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), matched));
+
+        // never touch the non-GET requests
+        final MockAsyncResponse post = MockAsyncResponse.aMockResponse().build();
+        assertFalse(SUPPORT.afterSerialization(BODY, MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), post));
+        assertFalse(post.containsHeader(HttpHeaderNames.ETAG));
+
+        // nor the non-200 responses
+        final MockAsyncResponse notFound = MockAsyncResponse.aMockResponse().build();
+        notFound.setStatus(HttpResponseStatus.NOT_FOUND.code());
+        assertFalse(SUPPORT.afterSerialization(BODY, MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), etag)
+                .build(), notFound));
+        assertFalse(notFound.containsHeader(HttpHeaderNames.ETAG));
+
+        // keep the ETag populated by the handler
+        final MockAsyncResponse custom = MockAsyncResponse.aMockResponse().build();
+        custom.setHeader(HttpHeaderNames.ETAG, "\"v1\"");
+        assertTrue(SUPPORT.afterSerialization(BODY, MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "W/\"v1\"")
+                .build(), custom));
+        assertEquals("\"v1\"", custom.getHeader(HttpHeaderNames.ETAG));
+    }
+
+    @Test
+    void testBeforeSerialization() {
+        final Catalog catalog = new Catalog("7", 1_600_000_000_000L);
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        assertFalse(SUPPORT.beforeSerialization(catalog, MockAsyncRequest.aMockRequest().build(), response, true));
+        assertEquals("W/\"7\"", response.getHeader(HttpHeaderNames.ETAG));
+        assertEquals(DateFormatter.format(new Date(1_600_000_000_000L)),
+                response.getHeader(HttpHeaderNames.LAST_MODIFIED));
+        assertFalse(response.isCommitted());
+
+        final MockAsyncResponse matched = MockAsyncResponse.aMockResponse().build();
+        assertTrue(SUPPORT.beforeSerialization(catalog, MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"7\"")
+                .build(), matched, true));
+        assertEquals(HttpResponseStatus.NOT_MODIFIED.code(), matched.status());
+        assertTrue(matched.isCommitted());
+
+        // the validators should be populated but the response should not be sent if short circuit is not allowed
+        final MockAsyncResponse shared = MockAsyncResponse.aMockResponse().build();
+        assertFalse(SUPPORT.beforeSerialization(catalog, MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"7\"")
+                .build(), shared, false));
+        assertEquals("W/\"7\"", shared.getHeader(HttpHeaderNames.ETAG));
+        assertFalse(shared.isCommitted());
+
+        final MockAsyncResponse plain = MockAsyncResponse.aMockResponse().build();
+        assertFalse(SUPPORT.beforeSerialization("catalog", MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "*")
+                .build(), plain, true));
+        assertFalse(plain.containsHeader(HttpHeaderNames.ETAG));
+        assertFalse(plain.isCommitted());
+    }
+
+    private static class Controller {
+
+        private String plain() {
+            return "plain";
+        }
+
+        @ConditionalGet
+        private String catalog() {
+            return "catalog";
+        }
+    }
+
+    @ConditionalGet
+    private static class ConditionalController {
+
+        private String list() {
+            return "list";
+        }
+    }
+
+    private static class Catalog implements Versioned {
+
+        private final String version;
+        private final long lastModified;
+
+        private Catalog(String version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String version() {
+            return version;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -17,6 +17,8 @@ package esa.restlight.core.handler.impl;
 
 import esa.commons.collection.LinkedMultiValueMap;
 import esa.commons.collection.MultiValueMap;
+import esa.restlight.core.annotation.Coalesced;
+import esa.restlight.core.annotation.ConditionalGet;
 import esa.restlight.core.handler.RouteHandler;
 import esa.restlight.core.interceptor.Interceptor;
 import esa.restlight.core.interceptor.InterceptorPredicate;
@@ -204,9 +206,52 @@ class RouteHandlerAdapterTest {
         assertSame(interceptor0, matched.get(3));
     }
 
+    @Test
+    void testCoalesced() throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(RouteHandlerAdapterTest.class.getDeclaredMethod("coalesced"),
+                        new RouteHandlerAdapterTest()));
+        final RouteHandlerAdapter adapter =
+                new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null);
+        assertNotNull(adapter.coalescer());
+        assertFalse(adapter.toExecution(MockAsyncRequest.aMockRequest().build()) instanceof DefaultRouteExecution);
+        assertTrue(adapter.toExecution(MockAsyncRequest.aMockRequest().withMethod("POST").build())
+                instanceof DefaultRouteExecution);
+
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(HandlerAdapterTest.class.getDeclaredMethod("normal", String.class),
+                        new HandlerAdapterTest()));
+        assertNull(new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null).coalescer());
+    }
+
+    @Test
+    void testConditionalGet() throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(RouteHandlerAdapterTest.class.getDeclaredMethod("conditional"),
+                        new RouteHandlerAdapterTest()));
+        assertSame(ConditionalGetSupport.INSTANCE,
+                new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null).conditional());
+
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(HandlerAdapterTest.class.getDeclaredMethod("normal", String.class),
+                        new HandlerAdapterTest()));
+        assertNull(new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null).conditional());
+    }
 
     private String normal(String foo) {
         return foo;
     }
 
+    @Coalesced
+    private String coalesced() {
+        return "foo";
+    }
+
+    @ConditionalGet
+    private String conditional() {
+        return "foo";
+    }
+
 }
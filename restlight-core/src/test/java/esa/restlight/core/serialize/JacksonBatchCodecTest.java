@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.serialize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.batch.SubRequest;
+import esa.restlight.server.batch.SubResponse;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JacksonBatchCodecTest {
+
+    private final JacksonBatchCodec codec = new JacksonBatchCodec();
+
+    @Test
+    void testSupports() {
+        assertTrue(codec.supports(null));
+        assertTrue(codec.supports(MediaType.APPLICATION_JSON));
+        assertTrue(codec.supports(MediaType.valueOf("application/batch+json")));
+        assertFalse(codec.supports(MediaType.TEXT_PLAIN));
+        assertEquals(MediaType.APPLICATION_JSON_UTF8, codec.mediaType());
+    }
+
+    @Test
+    void testDecode() throws Exception {
+        final String json = "{\"requests\": ["
+                + "{\"id\": \"1\", \"method\": \"GET\", \"uri\": \"/users/1\","
+                + " \"headers\": {\"Accept\": \"application/json\", \"X-Multi\": [\"a\", \"b\"]}},"
+                + "{\"method\": \"POST\", \"uri\": \"/users\", \"body\": {\"name\": \"foo\"}},"
+                + "{\"uri\": \"/echo\", \"body\": \"text\"}"
+                + "]}";
+        final List<SubRequest> subs = codec.decode(Unpooled.copiedBuffer(json, StandardCharsets.UTF_8));
+        assertEquals(3, subs.size());
+
+        assertEquals("1", subs.get(0).id());
+        assertEquals("GET", subs.get(0).method());
+        assertEquals("/users/1", subs.get(0).uri());
+        assertEquals("application/json", subs.get(0).headers().get(HttpHeaderNames.ACCEPT));
+        assertEquals(Arrays.asList("a", "b"), subs.get(0).headers().getAll("X-Multi"));
+        assertEquals(0, subs.get(0).body().length);
+
+        assertNull(subs.get(1).id());
+        assertEquals("POST", subs.get(1).method());
+        assertEquals("{\"name\":\"foo\"}", new String(subs.get(1).body(), StandardCharsets.UTF_8));
+
+        assertEquals("GET", subs.get(2).method());
+        assertArrayEquals("text".getBytes(StandardCharsets.UTF_8), subs.get(2).body());
+
+        // a bare array is also allowed
+        assertEquals(1, codec.decode(Unpooled.copiedBuffer("[{\"uri\": \"/\"}]", StandardCharsets.UTF_8)).size());
+    }
+
+    @Test
+    void testDecodeIllegal() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(Unpooled.copiedBuffer("{\"foo\": []}", StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(Unpooled.copiedBuffer("[1]", StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(Unpooled.copiedBuffer("[{\"uri\": \"/\", \"headers\": []}]",
+                        StandardCharsets.UTF_8)));
+        assertThrows(Exception.class, () -> codec.decode(Unpooled.copiedBuffer("{", StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testEncode() throws Exception {
+        final HttpHeaders json = new DefaultHttpHeaders();
+        json.set(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=utf-8");
+        json.add(HttpHeaderNames.SET_COOKIE, Arrays.asList("a=1", "b=2"));
+        final HttpHeaders text = new DefaultHttpHeaders();
+        text.set(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+        final byte[] encoded = codec.encode(Arrays.asList(
+                new SubResponse("1", 200, json, "{\"name\":\"foo\"}".getBytes(StandardCharsets.UTF_8)),
+                new SubResponse("2", 404, text, "not found".getBytes(StandardCharsets.UTF_8)),
+                new SubResponse("3", 204, new DefaultHttpHeaders(), new byte[0])));
+
+        final JsonNode root = new ObjectMapper().readTree(encoded);
+        final JsonNode responses = root.get("responses");
+        assertEquals(3, responses.size());
+        assertEquals("1", responses.get(0).get("id").asText());
+        assertEquals(200, responses.get(0).get("status").asInt());
+        assertEquals("foo", responses.get(0).get("body").get("name").asText());
+        assertEquals(2, responses.get(0).get("headers").get(HttpHeaderNames.SET_COOKIE.toString()).size());
+        assertEquals(404, responses.get(1).get("status").asInt());
+        assertEquals("not found", responses.get(1).get("body").asText());
+        assertFalse(responses.get(2).has("body"));
+
+        assertEquals("{\"responses\":[]}",
+                new String(codec.encode(Collections.emptyList()), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.core.serialize;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.batch.SubRequest;
+import esa.restlight.server.batch.SubResponse;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtoBufBatchCodecTest {
+
+    private final ProtoBufBatchCodec codec = new ProtoBufBatchCodec();
+
+    @Test
+    void testSupports() {
+        assertTrue(codec.supports(MediaType.valueOf("application/x-protobuf")));
+        assertTrue(codec.supports(ProtoBufHttpBodySerializer.PROTOBUF));
+        assertFalse(codec.supports(null));
+        assertFalse(codec.supports(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testDecode() throws Exception {
+        final byte[] header = message(out -> {
+            out.writeString(1, "Accept");
+            out.writeString(2, "application/json");
+        });
+        final byte[] sub1 = message(out -> {
+            out.writeString(1, "1");
+            out.writeString(2, "GET");
+            out.writeString(3, "/users/1");
+            out.writeByteArray(4, header);
+            // unknown field should be skipped
+            out.writeInt64(15, 100L);
+        });
+        final byte[] sub2 = message(out -> {
+            out.writeString(3, "/users");
+            out.writeString(2, "POST");
+            out.writeByteArray(5, new byte[]{0, 1, 2});
+        });
+        final byte[] batch = message(out -> {
+            out.writeByteArray(1, sub1);
+            out.writeByteArray(1, sub2);
+        });
+
+        final List<SubRequest> subs = codec.decode(Unpooled.wrappedBuffer(batch));
+        assertEquals(2, subs.size());
+        assertEquals("1", subs.get(0).id());
+        assertEquals("GET", subs.get(0).method());
+        assertEquals("/users/1", subs.get(0).uri());
+        assertEquals("application/json", subs.get(0).headers().get("Accept"));
+        assertNull(subs.get(1).id());
+        assertEquals("POST", subs.get(1).method());
+        assertArrayEquals(new byte[]{0, 1, 2}, subs.get(1).body());
+
+        assertTrue(codec.decode(Unpooled.EMPTY_BUFFER).isEmpty());
+    }
+
+    @Test
+    void testDecodeIllegal() throws Exception {
+        final byte[] header = message(out -> out.writeString(2, "value"));
+        final byte[] sub = message(out -> out.writeByteArray(4, header));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(Unpooled.wrappedBuffer(message(out -> out.writeByteArray(1, sub)))));
+        assertThrows(Exception.class, () -> codec.decode(Unpooled.wrappedBuffer(new byte[]{10, 10, 1})));
+    }
+
+    @Test
+    void testEncode() throws Exception {
+        final HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add("Content-Type", "application/octet-stream");
+        headers.add("X-Multi", Arrays.asList("a", "b"));
+        final byte[] encoded = codec.encode(Arrays.asList(
+                new SubResponse("1", 200, headers, new byte[]{1, 2, 3}),
+                new SubResponse("2", 204, new DefaultHttpHeaders(), new byte[0])));
+
+        final CodedInputStream in = CodedInputStream.newInstance(encoded);
+        assertEquals((1 << 3) | 2, in.readTag());
+        final CodedInputStream first = CodedInputStream.newInstance(in.readByteArray());
+        assertEquals((1 << 3) | 2, first.readTag());
+        assertEquals("1", first.readString());
+        assertEquals(2 << 3, first.readTag());
+        assertEquals(200, first.readInt32());
+        for (String[] expected : new String[][]{{"Content-Type", "application/octet-stream"},
+                {"X-Multi", "a"}, {"X-Multi", "b"}}) {
+            assertEquals((3 << 3) | 2, first.readTag());
+            final CodedInputStream header = CodedInputStream.newInstance(first.readByteArray());
+            assertEquals((1 << 3) | 2, header.readTag());
+            assertEquals(expected[0], header.readString());
+            assertEquals((2 << 3) | 2, header.readTag());
+            assertEquals(expected[1], header.readString());
+            assertTrue(header.isAtEnd());
+        }
+        assertEquals((4 << 3) | 2, first.readTag());
+        assertEquals(ByteString.copyFrom(new byte[]{1, 2, 3}), first.readBytes());
+        assertTrue(first.isAtEnd());
+
+        assertEquals((1 << 3) | 2, in.readTag());
+        final CodedInputStream second = CodedInputStream.newInstance(in.readByteArray());
+        assertEquals((1 << 3) | 2, second.readTag());
+        assertEquals("2", second.readString());
+        assertEquals(2 << 3, second.readTag());
+        assertEquals(204, second.readInt32());
+        assertTrue(second.isAtEnd());
+        assertTrue(in.isAtEnd());
+    }
+
+    private static byte[] message(Writer writer) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream out) throws Exception;
+    }
+}
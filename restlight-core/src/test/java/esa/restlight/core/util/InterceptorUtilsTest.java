@@ -29,6 +29,7 @@ import esa.restlight.core.interceptor.InternalInterceptor;
 import esa.restlight.core.method.HandlerMethod;
 import esa.restlight.core.mock.MockContext;
 import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
 import esa.restlight.test.mock.MockAsyncRequest;
 import io.netty.handler.codec.http.HttpMethod;
 import org.junit.jupiter.api.Test;
@@ -77,6 +78,22 @@ class InterceptorUtilsTest {
                 InterceptorUtils.parseIncludesOrExcludes("/ctx/", new String[]{"/foo", "/bar"}));
     }
 
+    @Test
+    void testHasInterceptor() throws NoSuchMethodException {
+        final DeployContext<? extends RestlightOptions> ctx = MockContext.mock();
+        final Route route = Route.route(Mapping.get("/foo"))
+                .handlerObject(HandlerMethod.of(Subject.class.getDeclaredMethod("method2"), SUBJECT));
+
+        assertFalse(InterceptorUtils.hasInterceptor(ctx, route, Collections.emptyList()));
+        assertFalse(InterceptorUtils.hasInterceptor(ctx, route,
+                Collections.singletonList(InterceptorFactory.of((ctx12, r) -> false))));
+        assertTrue(InterceptorUtils.hasInterceptor(ctx, route,
+                Arrays.asList(InterceptorFactory.of((ctx12, r) -> false),
+                        InterceptorFactory.of((ctx12, r) -> true))));
+        assertTrue(InterceptorUtils.hasInterceptor(ctx, route,
+                Collections.singletonList(InterceptorFactory.of(request -> request.method() == HttpMethod.GET))));
+    }
+
     @Test
     void testFilterEmptyInterceptor() throws NoSuchMethodException {
         final DeployContext<? extends RestlightOptions> ctx = MockContext.mock();
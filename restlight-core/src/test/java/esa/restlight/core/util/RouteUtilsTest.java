@@ -121,6 +121,13 @@ class RouteUtilsTest {
         assertEquals(routeHandler.handler(), ret.get().handler().get());
         assertSame(Schedulers.biz(), ret.get().scheduler());
         assertSame(mapping, ret.get().mapping());
+
+        // affinity scheduler is resolved to the marker until the route is added
+        when(routeHandler.scheduler()).thenReturn(Schedulers.AFFINITY);
+        when(ctx.schedulers()).thenReturn(Collections.emptyMap());
+        ret = RouteUtils.extractRoute(ctx, mapping, routeHandler);
+        assertTrue(ret.isPresent());
+        assertSame(Schedulers.affinity(), ret.get().scheduler());
     }
 
     @Test
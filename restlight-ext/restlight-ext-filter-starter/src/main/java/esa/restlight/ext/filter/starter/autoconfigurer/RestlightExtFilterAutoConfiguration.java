@@ -21,9 +21,12 @@ import esa.restlight.ext.filter.connectionlimit.ConnectionLimitFilter;
 import esa.restlight.ext.filter.cors.CorsFilter;
 import esa.restlight.ext.filter.cpuload.CpuLoadProtectionFilter;
 import esa.restlight.ext.filter.ipwhitelist.IpWhiteListFilter;
+import esa.restlight.ext.filter.ratelimit.RateLimitFilter;
+import esa.restlight.ext.filter.starter.meter.RateLimitFilterBinder;
 import esa.restlight.ext.filter.xss.XssFilter;
 import esa.restlight.starter.ServerStarter;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -42,7 +45,8 @@ import static esa.restlight.starter.autoconfigure.AutoRestlightServerOptions.PRE
         CpuLoadProtectionProperties.class,
         ConnectionLimitProperties.class,
         XssProperties.class,
-        IpWhiteListProperties.class})
+        IpWhiteListProperties.class,
+        RateLimitProperties.class})
 public class RestlightExtFilterAutoConfiguration {
 
     static final String EXT = PREFIX + ".ext.";
@@ -61,12 +65,18 @@ public class RestlightExtFilterAutoConfiguration {
         return new ConnectionLimitFilter(options);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = RateLimitProperties.PREFIX, name = "enable", havingValue = "true")
+    public RateLimitFilter rateLimitFilter(RateLimitProperties options) {
+        return new RateLimitFilter(options);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = CpuLoadProtectionProperties.PREFIX, name = "enable", havingValue = "true")
     public CpuLoadProtectionFilter cpuLoadProtectionFilter(CpuLoadProtectionProperties options) {
-        return CpuLoadProtectionFilter.newFilter(options.getThreshold(), options.getInitialDiscardRate(),
-                options.getMaxDiscardRate());
+        return CpuLoadProtectionFilter.newFilter(options);
     }
 
     @Bean
@@ -111,4 +121,16 @@ public class RestlightExtFilterAutoConfiguration {
     public CorsFilter corsFilter(CorsProperties options) {
         return new CorsFilter(options.getRules());
     }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = RateLimitProperties.PREFIX, name = "enable", havingValue = "true")
+    static class RateLimitMeterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RateLimitFilterBinder rateLimitFilterBinder(RateLimitFilter filter) {
+            return new RateLimitFilterBinder(filter);
+        }
+    }
 }
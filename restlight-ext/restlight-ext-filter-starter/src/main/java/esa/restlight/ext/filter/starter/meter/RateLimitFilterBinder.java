@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.starter.meter;
+
+import esa.commons.Checks;
+import esa.restlight.ext.filter.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class RateLimitFilterBinder implements MeterBinder {
+
+    private static final String NAME = "restlight.ext.rate.limit";
+    private static final String CATEGORY = "category";
+
+    private final RateLimitFilter filter;
+
+    public RateLimitFilterBinder(RateLimitFilter filter) {
+        Checks.checkNotNull(filter, "filter");
+        this.filter = filter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(NAME, filter, RateLimitFilter::rejectCount)
+                .tag(CATEGORY, "filter")
+                .tag("id", "reject.count")
+                .register(registry);
+        Gauge.builder(NAME, filter, RateLimitFilter::keySize)
+                .tag(CATEGORY, "filter")
+                .tag("id", "key.size")
+                .register(registry);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cpuload;
+
+import esa.restlight.server.util.LoggerUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Computes the cpu load of current container by the cgroup files, which means the load is relative to the cpu quota of
+ * the container instead of all the cpus of the host.
+ * <p>
+ * Supported cgroup files:
+ * <ul>
+ *     <li>cgroup v2: {@code cpu.max} and {@code cpu.stat}(usage_usec)</li>
+ *     <li>cgroup v1: {@code cpu/cpu.cfs_quota_us}, {@code cpu/cpu.cfs_period_us} and
+ *     {@code cpuacct/cpuacct.usage}</li>
+ * </ul>
+ * <p>
+ * Note: this class is not thread-safe, it is expected to be sampled by a single timer thread.
+ */
+final class CgroupCpuLoadSampler implements CpuLoadSampler {
+
+    static final String DEFAULT_ROOT = "/sys/fs/cgroup";
+
+    private static final double MAX_CPU_LOAD_VALUE = 100.0D;
+    private static final String V2_CPU_MAX = "cpu.max";
+    private static final String V2_CPU_STAT = "cpu.stat";
+    private static final String V2_USAGE_USEC = "usage_usec";
+    private static final String[] V1_CPU_DIRS = {"cpu", "cpu,cpuacct", "cpuacct,cpu"};
+    private static final String[] V1_CPUACCT_DIRS = {"cpuacct", "cpu,cpuacct", "cpuacct,cpu"};
+    private static final String V1_QUOTA = "cpu.cfs_quota_us";
+    private static final String V1_PERIOD = "cpu.cfs_period_us";
+    private static final String V1_USAGE = "cpuacct.usage";
+
+    private final boolean v2;
+    private final Path quotaFile;
+    private final Path periodFile;
+    private final Path usageFile;
+    private final CpuLoadSampler fallback;
+    private final LongSupplier nanoClock;
+    private final int availableProcessors;
+
+    private long lastUsageNanos = -1L;
+    private long lastSampleNanos;
+
+    private CgroupCpuLoadSampler(boolean v2,
+                                 Path quotaFile,
+                                 Path periodFile,
+                                 Path usageFile,
+                                 CpuLoadSampler fallback,
+                                 LongSupplier nanoClock) {
+        this.v2 = v2;
+        this.quotaFile = quotaFile;
+        this.periodFile = periodFile;
+        this.usageFile = usageFile;
+        this.fallback = fallback;
+        this.nanoClock = nanoClock;
+        this.availableProcessors = Runtime.getRuntime().availableProcessors();
+    }
+
+    static CpuLoadSampler detect(Path root, CpuLoadSampler fallback) {
+        return detect(root, fallback, System::nanoTime);
+    }
+
+    static CpuLoadSampler detect(Path root, CpuLoadSampler fallback, LongSupplier nanoClock) {
+        final Path cpuMax = root.resolve(V2_CPU_MAX);
+        final Path cpuStat = root.resolve(V2_CPU_STAT);
+        if (Files.isReadable(cpuMax) && Files.isReadable(cpuStat)) {
+            return new CgroupCpuLoadSampler(true, cpuMax, null, cpuStat, fallback, nanoClock);
+        }
+
+        final Path cpuDir = firstDirectory(root, V1_CPU_DIRS, V1_QUOTA);
+        final Path cpuacctDir = firstDirectory(root, V1_CPUACCT_DIRS, V1_USAGE);
+        if (cpuDir != null && cpuacctDir != null) {
+            return new CgroupCpuLoadSampler(false,
+                    cpuDir.resolve(V1_QUOTA),
+                    cpuDir.resolve(V1_PERIOD),
+                    cpuacctDir.resolve(V1_USAGE),
+                    fallback,
+                    nanoClock);
+        }
+        LoggerUtils.logger().info("Could not find any cgroup cpu files under '{}', fall back to the process cpu load.",
+                root);
+        return fallback;
+    }
+
+    @Override
+    public double sample() {
+        final long now = nanoClock.getAsLong();
+        final long usage;
+        final double cpus;
+        try {
+            usage = readUsageNanos();
+            cpus = readCpus();
+        } catch (IOException | RuntimeException e) {
+            LoggerUtils.logErrorPeriodically("Failed to read cgroup cpu files: {}", e.getMessage());
+            return fallback.sample();
+        }
+        final long lastUsage = this.lastUsageNanos;
+        final long lastSample = this.lastSampleNanos;
+        this.lastUsageNanos = usage;
+        this.lastSampleNanos = now;
+        if (lastUsage < 0L || now <= lastSample) {
+            // no baseline
+            return fallback.sample();
+        }
+        final double load = (double) (usage - lastUsage) / ((now - lastSample) * cpus) * MAX_CPU_LOAD_VALUE;
+        return Math.min(Math.max(load, 0.0D), MAX_CPU_LOAD_VALUE);
+    }
+
+    private long readUsageNanos() throws IOException {
+        if (v2) {
+            for (String line : readLines(usageFile)) {
+                if (line.startsWith(V2_USAGE_USEC)) {
+                    return Long.parseLong(line.substring(V2_USAGE_USEC.length()).trim()) * 1000L;
+                }
+            }
+            throw new IOException("Could not find '" + V2_USAGE_USEC + "' in " + usageFile);
+        }
+        return Long.parseLong(firstLine(usageFile));
+    }
+
+    private double readCpus() throws IOException {
+        final long quota;
+        final long period;
+        if (v2) {
+            // format: $MAX $PERIOD, and $MAX would be 'max' if there's no limit
+            final String[] values = firstLine(quotaFile).split("\\s+");
+            if ("max".equals(values[0])) {
+                return availableProcessors;
+            }
+            quota = Long.parseLong(values[0]);
+            period = values.length > 1 ? Long.parseLong(values[1]) : 100_000L;
+        } else {
+            quota = Long.parseLong(firstLine(quotaFile));
+            if (quota <= 0L) {
+                // -1 means there's no limit
+                return availableProcessors;
+            }
+            period = Long.parseLong(firstLine(periodFile));
+        }
+        if (quota <= 0L || period <= 0L) {
+            return availableProcessors;
+        }
+        return Math.min((double) quota / period, availableProcessors);
+    }
+
+    private static Path firstDirectory(Path root, String[] candidates, String file) {
+        for (String candidate : candidates) {
+            final Path dir = root.resolve(candidate);
+            if (Files.isReadable(dir.resolve(file))) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    private static String firstLine(Path file) throws IOException {
+        final List<String> lines = readLines(file);
+        if (lines.isEmpty()) {
+            throw new IOException("Empty file: " + file);
+        }
+        return lines.get(0).trim();
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.US_ASCII);
+    }
+}
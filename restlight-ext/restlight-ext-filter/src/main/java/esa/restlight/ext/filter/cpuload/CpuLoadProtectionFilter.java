@@ -16,21 +16,25 @@
 package esa.restlight.ext.filter.cpuload;
 
 
+import esa.commons.Checks;
 import esa.commons.concurrent.ThreadFactories;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.util.MediaType;
 import esa.restlight.server.handler.Filter;
 import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.Futures;
 import esa.restlight.server.util.LoggerUtils;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.internal.InternalThreadLocalMap;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.OperatingSystemMXBean;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CpuLoadProtectionFilter implements Filter {
 
@@ -38,7 +42,7 @@ public class CpuLoadProtectionFilter implements Filter {
     private static final double MIN_CPU_LOAD_VALUE = 0.0D;
 
     /**
-     * Threshold of the cpu load, discard new connections when current cpu load is over than it.
+     * Threshold of the cpu load, discard new connections(or requests) when current cpu load is over than it.
      */
     private final double cpuLoadThreshold;
 
@@ -46,8 +50,17 @@ public class CpuLoadProtectionFilter implements Filter {
      * Min discard rate.
      */
     private final double initialDiscardRate;
+    private final double maxDiscardRate;
     private final double discardRateUnit;
 
+    private final CpuLoadProtectionMode mode;
+    private final DiscardCurve curve;
+    private final String retryAfter;
+    private final double kp;
+    private final double ki;
+    private final double kd;
+    private final CpuLoadSampler sampler;
+
     /**
      * current cpu load value. A value of 0.0 means that all CPUs were idle during the recent period of time observed,
      * while a value of 100.0 means that all CPUs were actively running 100% of the time during the recent period being
@@ -55,25 +68,38 @@ public class CpuLoadProtectionFilter implements Filter {
      */
     volatile double currentCpuLoad;
 
+    /**
+     * discard rate computed by the PID controller, only used in {@link DiscardCurve#PID}.
+     */
+    volatile double pidDiscardRate;
+    private double integral;
+    private double lastError;
+
     private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1,
             ThreadFactories.namedThreadFactory("Cpu-Load-Timer"));
 
-    private static final AtomicBoolean timerStarted = new AtomicBoolean(false);
-    private static final com.sun.management.OperatingSystemMXBean bean;
-
-    static {
-        OperatingSystemMXBean mxBean = ManagementFactory
-                .getOperatingSystemMXBean();
-        if (mxBean instanceof com.sun.management.OperatingSystemMXBean) {
-            bean = (com.sun.management.OperatingSystemMXBean) mxBean;
-        } else {
-            throw new Error("Could not get 'com.sun.management.OperatingSystemMXBean'.");
-        }
-    }
+    private final ScheduledFuture<?> timer;
 
     private CpuLoadProtectionFilter(double cpuLoadThreshold,
                                     double initialDiscardRate,
                                     double maxDiscardRate) {
+        this(CpuLoadProtectionOptionsConfigure.newOpts()
+                .threshold(cpuLoadThreshold)
+                .initialDiscardRate(initialDiscardRate)
+                .maxDiscardRate(maxDiscardRate)
+                .configured());
+    }
+
+    private CpuLoadProtectionFilter(CpuLoadProtectionOptions options) {
+        this(options, options.isContainerAware() ? CpuLoadSamplers.container() : CpuLoadSamplers.system());
+    }
+
+    CpuLoadProtectionFilter(CpuLoadProtectionOptions options, CpuLoadSampler sampler) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkNotNull(sampler, "sampler");
+        final double cpuLoadThreshold = options.getThreshold();
+        final double initialDiscardRate = options.getInitialDiscardRate();
+        final double maxDiscardRate = options.getMaxDiscardRate();
         if (cpuLoadThreshold <= MIN_CPU_LOAD_VALUE || cpuLoadThreshold > MAX_CPU_LOAD_VALUE) {
             throw new IllegalArgumentException("CpuLoadThreshold must be between 0 and 100.");
         }
@@ -86,20 +112,23 @@ public class CpuLoadProtectionFilter implements Filter {
         if (initialDiscardRate > maxDiscardRate) {
             throw new IllegalArgumentException("InitialDiscardRate must not be over than initialDiscardRate.");
         }
+        Checks.checkArg(options.getRetryAfter() >= 0L, "RetryAfter must not be negative.");
+        Checks.checkArg(options.getSampleInterval() > 0L, "SampleInterval must be over than 0.");
         this.initialDiscardRate = initialDiscardRate;
+        this.maxDiscardRate = maxDiscardRate;
         this.discardRateUnit = (maxDiscardRate - initialDiscardRate) / (MAX_CPU_LOAD_VALUE - cpuLoadThreshold);
         this.cpuLoadThreshold = cpuLoadThreshold;
-        if (timerStarted.compareAndSet(false, true)) {
-            EXECUTOR.scheduleAtFixedRate(() -> {
-                double load = bean.getSystemCpuLoad() * MAX_CPU_LOAD_VALUE;
-                if (load >= MIN_CPU_LOAD_VALUE && load <= MAX_CPU_LOAD_VALUE) {
-                    this.currentCpuLoad = load;
-                } else {
-                    LoggerUtils.logErrorPeriodically("Got illegal value '{}' by com.sun.management" +
-                            ".OperatingSystemMXBean.getSystemCpuLoad()", load);
-                }
-            }, 0L, 1L, TimeUnit.SECONDS);
-        }
+        this.mode = options.getMode() == null ? CpuLoadProtectionMode.CONNECTION : options.getMode();
+        this.curve = options.getDiscardCurve() == null ? DiscardCurve.LINEAR : options.getDiscardCurve();
+        this.retryAfter = options.getRetryAfter() > 0L ? Long.toString(options.getRetryAfter()) : null;
+        this.kp = options.getPidKp();
+        this.ki = options.getPidKi();
+        this.kd = options.getPidKd();
+        this.sampler = sampler;
+        // sample once synchronously to initialize the baseline
+        sample();
+        final long interval = options.getSampleInterval();
+        this.timer = EXECUTOR.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     public static CpuLoadProtectionFilter newFilter(double cpuLoadThreshold,
@@ -108,11 +137,17 @@ public class CpuLoadProtectionFilter implements Filter {
         return new CpuLoadProtectionFilter(cpuLoadThreshold, initialDiscardRate, maxDiscardRate);
     }
 
+    public static CpuLoadProtectionFilter newFilter(CpuLoadProtectionOptions options) {
+        return new CpuLoadProtectionFilter(options);
+    }
+
     @Override
     public boolean onConnected(ChannelHandlerContext ctx) {
+        if (mode != CpuLoadProtectionMode.CONNECTION) {
+            return true;
+        }
         double current = currentCpuLoad;
-        if (current > cpuLoadThreshold
-                && InternalThreadLocalMap.get().random().nextDouble(MAX_CPU_LOAD_VALUE) < getDiscardRate(current)) {
+        if (shouldDiscard(current)) {
             final String conn = ctx.channel().toString();
             ctx.channel().close();
             LoggerUtils.logErrorPeriodically(
@@ -125,14 +160,53 @@ public class CpuLoadProtectionFilter implements Filter {
 
     @Override
     public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        if (mode != CpuLoadProtectionMode.REQUEST) {
+            return chain.doFilter(request, response);
+        }
+        double current = currentCpuLoad;
+        if (shouldDiscard(current)) {
+            if (!response.isCommitted()) {
+                if (retryAfter != null) {
+                    response.setHeader(HttpHeaderNames.RETRY_AFTER, retryAfter);
+                }
+                response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
+                response.sendResult(HttpResponseStatus.SERVICE_UNAVAILABLE.code(),
+                        ErrorDetail.buildErrorMsg(request.path(),
+                                "Discarded because of the high cpu load",
+                                HttpResponseStatus.SERVICE_UNAVAILABLE.reasonPhrase(),
+                                HttpResponseStatus.SERVICE_UNAVAILABLE.code()));
+            }
+            LoggerUtils.logErrorPeriodically(
+                    "Request(url={}, method={}) discarded because cpu load (current: {}) is over than {}",
+                    request.path(), request.method(), current, cpuLoadThreshold);
+            return Futures.completedFuture();
+        }
         return chain.doFilter(request, response);
     }
 
+    @Override
+    public void shutdown() {
+        timer.cancel(false);
+    }
+
     @Override
     public int getOrder() {
         return HIGHEST_PRECEDENCE + 300;
     }
 
+    private boolean shouldDiscard(double current) {
+        final double discardRate;
+        if (curve == DiscardCurve.PID) {
+            discardRate = pidDiscardRate;
+        } else if (current > cpuLoadThreshold) {
+            discardRate = getDiscardRate(current);
+        } else {
+            return false;
+        }
+        return discardRate > MIN_CPU_LOAD_VALUE
+                && InternalThreadLocalMap.get().random().nextDouble(MAX_CPU_LOAD_VALUE) < discardRate;
+    }
+
     /**
      * Compute the discard rate.
      *
@@ -149,4 +223,44 @@ public class CpuLoadProtectionFilter implements Filter {
         return initialDiscardRate + discardRateUnit * (current - cpuLoadThreshold);
     }
 
+    private void sample() {
+        final double load;
+        try {
+            load = sampler.sample();
+        } catch (Throwable t) {
+            LoggerUtils.logErrorPeriodically("Error occurred while sampling cpu load: {}", t.getMessage());
+            return;
+        }
+        if (load >= MIN_CPU_LOAD_VALUE && load <= MAX_CPU_LOAD_VALUE) {
+            this.currentCpuLoad = load;
+            if (curve == DiscardCurve.PID) {
+                this.pidDiscardRate = computePidDiscardRate(load);
+            }
+        } else {
+            LoggerUtils.logErrorPeriodically("Got illegal value '{}' of cpu load", load);
+        }
+    }
+
+    /**
+     * Compute the discard rate by a PID controller, this method is always called by the timer thread.
+     *
+     * @param current current cpu load
+     *
+     * @return discard rate
+     */
+    double computePidDiscardRate(double current) {
+        // the error is positive when overloaded and negative when there's still some headroom
+        final double error = current - cpuLoadThreshold;
+        // anti-windup: the integral never goes below zero and never contributes more than the max discard rate
+        final double maxIntegral = ki > 0.0D ? maxDiscardRate / ki : 0.0D;
+        integral = Math.max(0.0D, Math.min(maxIntegral, integral + error));
+        final double derivative = error - lastError;
+        lastError = error;
+        double rate = kp * error + ki * integral + kd * derivative;
+        if (error > 0.0D) {
+            rate = Math.max(rate, initialDiscardRate);
+        }
+        return Math.max(MIN_CPU_LOAD_VALUE, Math.min(maxDiscardRate, rate));
+    }
+
 }
@@ -24,6 +24,14 @@ public class CpuLoadProtectionOptions implements Serializable {
     private double threshold = 80.0D;
     private double initialDiscardRate = 10.0D;
     private double maxDiscardRate = 80.0D;
+    private CpuLoadProtectionMode mode = CpuLoadProtectionMode.CONNECTION;
+    private boolean containerAware;
+    private DiscardCurve discardCurve = DiscardCurve.LINEAR;
+    private long sampleInterval = 1000L;
+    private long retryAfter = 1L;
+    private double pidKp = 1.0D;
+    private double pidKi = 0.5D;
+    private double pidKd = 0.2D;
 
     public double getThreshold() {
         return threshold;
@@ -48,4 +56,68 @@ public class CpuLoadProtectionOptions implements Serializable {
     public void setMaxDiscardRate(double maxDiscardRate) {
         this.maxDiscardRate = maxDiscardRate;
     }
+
+    public CpuLoadProtectionMode getMode() {
+        return mode;
+    }
+
+    public void setMode(CpuLoadProtectionMode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isContainerAware() {
+        return containerAware;
+    }
+
+    public void setContainerAware(boolean containerAware) {
+        this.containerAware = containerAware;
+    }
+
+    public DiscardCurve getDiscardCurve() {
+        return discardCurve;
+    }
+
+    public void setDiscardCurve(DiscardCurve discardCurve) {
+        this.discardCurve = discardCurve;
+    }
+
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(long retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public double getPidKp() {
+        return pidKp;
+    }
+
+    public void setPidKp(double pidKp) {
+        this.pidKp = pidKp;
+    }
+
+    public double getPidKi() {
+        return pidKi;
+    }
+
+    public void setPidKi(double pidKi) {
+        this.pidKi = pidKi;
+    }
+
+    public double getPidKd() {
+        return pidKd;
+    }
+
+    public void setPidKd(double pidKd) {
+        this.pidKd = pidKd;
+    }
 }
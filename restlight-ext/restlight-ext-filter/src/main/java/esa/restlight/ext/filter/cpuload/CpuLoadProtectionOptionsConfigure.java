@@ -20,6 +20,14 @@ public final class CpuLoadProtectionOptionsConfigure {
     private double threshold = 80.0D;
     private double initialDiscardRate = 10.0D;
     private double maxDiscardRate = 80.0D;
+    private CpuLoadProtectionMode mode = CpuLoadProtectionMode.CONNECTION;
+    private boolean containerAware;
+    private DiscardCurve discardCurve = DiscardCurve.LINEAR;
+    private long sampleInterval = 1000L;
+    private long retryAfter = 1L;
+    private double pidKp = 1.0D;
+    private double pidKi = 0.5D;
+    private double pidKd = 0.2D;
 
     private CpuLoadProtectionOptionsConfigure() {
     }
@@ -47,11 +55,59 @@ public final class CpuLoadProtectionOptionsConfigure {
         return this;
     }
 
+    public CpuLoadProtectionOptionsConfigure mode(CpuLoadProtectionMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure containerAware(boolean containerAware) {
+        this.containerAware = containerAware;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure discardCurve(DiscardCurve discardCurve) {
+        this.discardCurve = discardCurve;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure sampleInterval(long sampleInterval) {
+        this.sampleInterval = sampleInterval;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure retryAfter(long retryAfter) {
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure pidKp(double pidKp) {
+        this.pidKp = pidKp;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure pidKi(double pidKi) {
+        this.pidKi = pidKi;
+        return this;
+    }
+
+    public CpuLoadProtectionOptionsConfigure pidKd(double pidKd) {
+        this.pidKd = pidKd;
+        return this;
+    }
+
     public CpuLoadProtectionOptions configured() {
         final CpuLoadProtectionOptions options = new CpuLoadProtectionOptions();
         options.setInitialDiscardRate(initialDiscardRate);
         options.setMaxDiscardRate(maxDiscardRate);
         options.setThreshold(threshold);
+        options.setMode(mode);
+        options.setContainerAware(containerAware);
+        options.setDiscardCurve(discardCurve);
+        options.setSampleInterval(sampleInterval);
+        options.setRetryAfter(retryAfter);
+        options.setPidKp(pidKp);
+        options.setPidKi(pidKi);
+        options.setPidKd(pidKd);
         return options;
     }
 
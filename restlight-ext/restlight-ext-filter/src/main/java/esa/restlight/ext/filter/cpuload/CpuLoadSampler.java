@@ -0,0 +1,31 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cpuload;
+
+/**
+ * Sampler of the cpu load which will be called periodically by the {@link CpuLoadProtectionFilter}.
+ */
+@FunctionalInterface
+interface CpuLoadSampler {
+
+    /**
+     * Samples the current cpu load.
+     *
+     * @return cpu load between 0.0 and 100.0, or a negative value if the cpu load is unavailable for now.
+     */
+    double sample();
+
+}
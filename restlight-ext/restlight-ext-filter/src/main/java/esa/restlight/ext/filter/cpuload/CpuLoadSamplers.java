@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cpuload;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Paths;
+
+final class CpuLoadSamplers {
+
+    private static final double MAX_CPU_LOAD_VALUE = 100.0D;
+    private static final com.sun.management.OperatingSystemMXBean bean;
+
+    static {
+        OperatingSystemMXBean mxBean = ManagementFactory
+                .getOperatingSystemMXBean();
+        if (mxBean instanceof com.sun.management.OperatingSystemMXBean) {
+            bean = (com.sun.management.OperatingSystemMXBean) mxBean;
+        } else {
+            throw new Error("Could not get 'com.sun.management.OperatingSystemMXBean'.");
+        }
+    }
+
+    private static final CpuLoadSampler SYSTEM = () -> bean.getSystemCpuLoad() * MAX_CPU_LOAD_VALUE;
+    private static final CpuLoadSampler PROCESS = () -> bean.getProcessCpuLoad() * MAX_CPU_LOAD_VALUE;
+
+    /**
+     * Sampler of the cpu load of the whole system.
+     *
+     * @return sampler
+     */
+    static CpuLoadSampler system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Sampler of the cpu load of current process.
+     *
+     * @return sampler
+     */
+    static CpuLoadSampler process() {
+        return PROCESS;
+    }
+
+    /**
+     * Sampler of the cpu load of current container which is computed by the cpu quota and cpu usage of the cgroup(v1
+     * or v2), and it would fall back to the {@link #process()} if there's no cgroup found.
+     *
+     * @return sampler
+     */
+    static CpuLoadSampler container() {
+        return CgroupCpuLoadSampler.detect(Paths.get(CgroupCpuLoadSampler.DEFAULT_ROOT), process());
+    }
+
+    private CpuLoadSamplers() {
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cpuload;
+
+public enum DiscardCurve {
+    /**
+     * default curve, the discard rate and the cpu load are in a direct ratio
+     */
+    LINEAR,
+    /**
+     * the discard rate is adjusted by a PID controller which uses the difference between the current cpu load and the
+     * threshold as the error, so it increases smoothly under the sustained overload and is released gradually after
+     * the cpu load falls back.
+     */
+    PID
+}
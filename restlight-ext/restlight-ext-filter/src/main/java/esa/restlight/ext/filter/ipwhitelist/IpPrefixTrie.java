@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ipwhitelist;
+
+import io.netty.util.NetUtil;
+
+import java.util.Arrays;
+
+/**
+ * Binary prefix trie over the bits of IPv4 and IPv6 addresses which is used to match an address against a large number
+ * of CIDR ranges, the cost of a lookup is bounded by the bit length of the address(32 or 128) regardless of the number
+ * of ranges.
+ * <p>
+ * Nodes are stored in a flat {@code int[]} to keep the memory footprint small. IPv4-mapped IPv6 addresses(such as
+ * {@code ::ffff:10.0.0.1}) are treated as IPv4 addresses.
+ * <p>
+ * Note: this class is not thread-safe while building, and it should be safely published before being read
+ * concurrently.
+ */
+final class IpPrefixTrie {
+
+    private static final int V4_ROOT = 0;
+    private static final int V6_ROOT = 1;
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+    private static final int MAPPED_PREFIX_BITS = 96;
+
+    /**
+     * children of node n are children[2n](bit 0) and children[2n + 1](bit 1), 0 means no child because the roots are
+     * never children.
+     */
+    private int[] children = new int[64];
+    private boolean[] terminal = new boolean[32];
+    private int nodes = 2;
+    private int ranges;
+
+    /**
+     * Adds a CIDR range(such as {@code 10.0.0.0/8} or {@code 2001:db8::/32}) or a single ip address.
+     *
+     * @param cidr cidr
+     *
+     * @return {@code true} if given value is a valid ip address or CIDR range, otherwise {@code false}
+     */
+    boolean add(String cidr) {
+        final int slash = cidr.indexOf('/');
+        byte[] address = NetUtil.createByteArrayFromIpAddressString(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (address == null) {
+            return false;
+        }
+        int prefixLength = address.length * 8;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                return false;
+            }
+        }
+        if (isIpv4Mapped(address)) {
+            address = Arrays.copyOfRange(address, 12, 16);
+            prefixLength = Math.max(0, prefixLength - MAPPED_PREFIX_BITS);
+        }
+        add(address, prefixLength);
+        return true;
+    }
+
+    private void add(byte[] address, int prefixLength) {
+        int node = address.length == 4 ? V4_ROOT : V6_ROOT;
+        for (int i = 0; i < prefixLength; i++) {
+            if (terminal[node]) {
+                // covered by a shorter prefix
+                return;
+            }
+            final int slot = (node << 1) | bit(address, i);
+            int child = children[slot];
+            if (child == 0) {
+                child = newNode();
+                children[slot] = child;
+            }
+            node = child;
+        }
+        if (!terminal[node]) {
+            terminal[node] = true;
+            ranges++;
+        }
+    }
+
+    /**
+     * Whether the given address is contained by any of the ranges in this trie.
+     *
+     * @param address ip address(4 bytes for IPv4 or 16 bytes for IPv6)
+     *
+     * @return {@code true} if matched
+     */
+    boolean contains(byte[] address) {
+        final int bits;
+        final int offset;
+        int node;
+        if (address.length == 4) {
+            node = V4_ROOT;
+            bits = IPV4_BITS;
+            offset = 0;
+        } else if (address.length == 16) {
+            if (isIpv4Mapped(address)) {
+                node = V4_ROOT;
+                bits = IPV4_BITS;
+                offset = MAPPED_PREFIX_BITS;
+            } else {
+                node = V6_ROOT;
+                bits = IPV6_BITS;
+                offset = 0;
+            }
+        } else {
+            return false;
+        }
+        for (int i = 0; i < bits; i++) {
+            if (terminal[node]) {
+                return true;
+            }
+            node = children[(node << 1) | bit(address, offset + i)];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    /**
+     * Whether the given ip address is contained by any of the ranges in this trie.
+     *
+     * @param ip ip address
+     *
+     * @return {@code true} if matched, and {@code false} if not matched or given value is not a valid ip address.
+     */
+    boolean contains(String ip) {
+        final byte[] address = NetUtil.createByteArrayFromIpAddressString(ip);
+        return address != null && contains(address);
+    }
+
+    /**
+     * Number of the distinct ranges in this trie.
+     *
+     * @return size
+     */
+    int size() {
+        return ranges;
+    }
+
+    boolean isEmpty() {
+        return ranges == 0;
+    }
+
+    private int newNode() {
+        if (nodes == terminal.length) {
+            terminal = Arrays.copyOf(terminal, nodes << 1);
+            children = Arrays.copyOf(children, nodes << 2);
+        }
+        return nodes++;
+    }
+
+    private static int bit(byte[] address, int index) {
+        return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        if (address.length != 16) {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+}
@@ -19,6 +19,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import esa.commons.StringUtils;
+import esa.commons.concurrent.ThreadFactories;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.util.MediaType;
@@ -30,10 +31,17 @@ import esa.restlight.server.util.LoggerUtils;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -44,61 +52,56 @@ public class IpWhiteListFilter implements Filter {
      * Regex prefix
      */
     private static final String REGEX_PREFIX = "regex:";
+    private static final String COMMENT_PREFIX = "#";
     private static final int EFFECTIVE_EXPIRE = 500;
 
+    private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1,
+            ThreadFactories.namedThreadFactory("IpWhiteList-Reloader", true));
+
+    private final List<String> ips;
+    private final int cacheSize;
+    private final long expire;
+    private final Path file;
+    private final ScheduledFuture<?> reloader;
+    private volatile long lastModified;
+
     /**
-     * Hold a cache
+     * Current rules which would be replaced when the white list file changed.
      */
-    private final LoadingCache<String, Boolean> cache;
-    private final Predicate<String> predicate;
+    private volatile Rules rules;
 
     public IpWhiteListFilter(IpWhiteListOptions options) {
-        List<Predicate<String>> predicates = buildPredicates(options.getIps());
-        if (predicates.isEmpty()) {
-            throw new IllegalArgumentException("Ip predicates must not be empty!");
-        }
-        this.predicate = ip -> predicates.stream().anyMatch(p -> p.test(ip));
-        //init cache
-        cache = buildCache(options.getCacheSize(), options.getExpire());
-    }
-
-    private LoadingCache<String, Boolean> buildCache(long cacheSize, long expire) {
-        if (cacheSize > 0) {
-            if (expire > EFFECTIVE_EXPIRE) {
-                return CacheBuilder.newBuilder()
-                        .maximumSize(cacheSize)
-                        .expireAfterAccess(expire, TimeUnit.MILLISECONDS)
-                        .build(new CacheLoader<String, Boolean>() {
-                            @Override
-                            public Boolean load(String key) {
-                                return predicate.test(key);
-                            }
-                        });
+        this.ips = options.getIps() == null ? new ArrayList<>(0) : new ArrayList<>(options.getIps());
+        this.cacheSize = options.getCacheSize();
+        this.expire = options.getExpire();
+        this.file = StringUtils.isEmpty(options.getFile()) ? null : Paths.get(options.getFile());
+        if (file == null) {
+            final Rules rules = buildRules(ips);
+            if (rules.isEmpty()) {
+                throw new IllegalArgumentException("Ip predicates must not be empty!");
+            }
+            this.rules = rules;
+            this.reloader = null;
+        } else {
+            reload();
+            if (this.rules == null) {
+                throw new IllegalArgumentException("Failed to load ip white list from file or it is empty: " + file);
+            }
+            if (options.getReloadInterval() > 0L) {
+                this.reloader = EXECUTOR.scheduleWithFixedDelay(this::reloadIfModified,
+                        options.getReloadInterval(),
+                        options.getReloadInterval(),
+                        TimeUnit.MILLISECONDS);
             } else {
-                return CacheBuilder.newBuilder()
-                        .maximumSize(cacheSize)
-                        .build(new CacheLoader<String, Boolean>() {
-                            @Override
-                            public Boolean load(String key) {
-                                return predicate.test(key);
-                            }
-                        });
+                this.reloader = null;
             }
         }
-        return null;
     }
 
     @Override
     public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
         String ip = getRemoteAddr(request);
-        boolean valid = false;
-        if (ip != null) {
-            if (cache == null) {
-                valid = predicate.test(ip);
-            } else {
-                valid = cache.getUnchecked(ip);
-            }
-        }
+        boolean valid = ip != null && rules.test(ip);
         if (!valid && !response.isCommitted()) {
             response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
             response.sendResult(HttpResponseStatus.UNAUTHORIZED.code(),
@@ -127,25 +130,124 @@ public class IpWhiteListFilter implements Filter {
         return HIGHEST_PRECEDENCE + 100;
     }
 
-    private List<Predicate<String>> buildPredicates(Collection<String> ipPredicates) {
-        List<Predicate<String>> predicates = new ArrayList<>();
-        if (ipPredicates == null || ipPredicates.isEmpty()) {
-            return predicates;
+    @Override
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.cancel(false);
+        }
+    }
+
+    /**
+     * Reloads the white list if the file has been modified since last loading.
+     */
+    void reloadIfModified() {
+        try {
+            if (Files.getLastModifiedTime(file).toMillis() != lastModified) {
+                reload();
+            }
+        } catch (Throwable t) {
+            LoggerUtils.logErrorPeriodically("Failed to check the ip white list file '{}': {}", file, t.getMessage());
         }
+    }
 
-        for (String ipPredicate : ipPredicates) {
-            if (StringUtils.isEmpty(ipPredicate)) {
-                continue;
+    private synchronized void reload() {
+        try {
+            final long modified = Files.getLastModifiedTime(file).toMillis();
+            final List<String> all = new ArrayList<>(ips);
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final String trimmed = line.trim();
+                if (!trimmed.isEmpty() && !trimmed.startsWith(COMMENT_PREFIX)) {
+                    all.add(trimmed);
+                }
             }
-            if (ipPredicate.startsWith(REGEX_PREFIX)) {
-                //resolve regex ip
-                predicates.add(new RegexPredicate(ipPredicate.substring(REGEX_PREFIX.length())));
+            final Rules loaded = buildRules(all);
+            this.lastModified = modified;
+            if (loaded.isEmpty()) {
+                // an empty white list rejects all the requests, which is most likely a mistake.
+                LoggerUtils.logger().error("Ip white list loaded from file '{}' is empty, keep the previous rules.",
+                        file);
+                return;
+            }
+            this.rules = loaded;
+            LoggerUtils.logger().info("Loaded {} ip white list rule(s) from file '{}'", all.size(), file);
+        } catch (IOException e) {
+            LoggerUtils.logger().error("Failed to load ip white list from file '" + file + "'", e);
+        }
+    }
+
+    private Rules buildRules(Collection<String> ipPredicates) {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        final List<Predicate<String>> predicates = new ArrayList<>();
+        if (ipPredicates != null) {
+            for (String ipPredicate : ipPredicates) {
+                if (StringUtils.isEmpty(ipPredicate)) {
+                    continue;
+                }
+                if (ipPredicate.startsWith(REGEX_PREFIX)) {
+                    //resolve regex ip
+                    predicates.add(new RegexPredicate(ipPredicate.substring(REGEX_PREFIX.length())));
+                } else if (!trie.add(ipPredicate)) {
+                    //resolve real ip which is not a valid ip address or cidr
+                    predicates.add(ipPredicate::equals);
+                }
+            }
+        }
+        return new Rules(trie, predicates, cacheSize, expire);
+    }
+
+    /**
+     * Immutable snapshot of the white list. Ip addresses and CIDR ranges are matched by a prefix trie, and a cache is
+     * only used for the regex(or other) predicates which are expensive to test.
+     */
+    private static final class Rules {
+
+        private final IpPrefixTrie trie;
+        private final Predicate<String> predicate;
+        private final LoadingCache<String, Boolean> cache;
+
+        private Rules(IpPrefixTrie trie, List<Predicate<String>> predicates, long cacheSize, long expire) {
+            this.trie = trie;
+            if (predicates.isEmpty()) {
+                this.predicate = null;
+                this.cache = null;
             } else {
-                //resolve real ip
-                predicates.add(ipPredicate::equals);
+                this.predicate = ip -> predicates.stream().anyMatch(p -> p.test(ip));
+                this.cache = buildCache(predicate, cacheSize, expire);
+            }
+        }
+
+        private boolean isEmpty() {
+            return trie.isEmpty() && predicate == null;
+        }
+
+        private boolean test(String ip) {
+            if (trie.contains(ip)) {
+                return true;
+            }
+            if (predicate == null) {
+                return false;
+            }
+            return cache == null ? predicate.test(ip) : cache.getUnchecked(ip);
+        }
+
+        private static LoadingCache<String, Boolean> buildCache(Predicate<String> predicate,
+                                                                long cacheSize,
+                                                                long expire) {
+            if (cacheSize > 0) {
+                final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                        .maximumSize(cacheSize);
+                if (expire > EFFECTIVE_EXPIRE) {
+                    builder.expireAfterAccess(expire, TimeUnit.MILLISECONDS);
+                }
+                return builder.build(new CacheLoader<String, Boolean>() {
+                    @Override
+                    public Boolean load(String key) {
+                        return predicate.test(key);
+                    }
+                });
             }
+            return null;
         }
-        return predicates;
     }
 
     /**
@@ -26,6 +26,8 @@ public class IpWhiteListOptions implements Serializable {
     private List<String> ips = new ArrayList<>(0);
     private int cacheSize = 1024;
     private long expire = 60L * 1000;
+    private String file;
+    private long reloadInterval = 5L * 1000;
 
     public List<String> getIps() {
         return ips;
@@ -50,4 +52,20 @@ public class IpWhiteListOptions implements Serializable {
     public void setExpire(long expire) {
         this.expire = expire;
     }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public long getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(long reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
 }
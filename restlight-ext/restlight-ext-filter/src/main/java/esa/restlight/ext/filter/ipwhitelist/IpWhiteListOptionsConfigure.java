@@ -23,6 +23,8 @@ public final class IpWhiteListOptionsConfigure {
     private List<String> ips = new ArrayList<>(0);
     private int cacheSize = 1024;
     private long expire = 60L * 1000;
+    private String file;
+    private long reloadInterval = 5L * 1000;
 
     private IpWhiteListOptionsConfigure() {
     }
@@ -50,11 +52,23 @@ public final class IpWhiteListOptionsConfigure {
         return this;
     }
 
+    public IpWhiteListOptionsConfigure file(String file) {
+        this.file = file;
+        return this;
+    }
+
+    public IpWhiteListOptionsConfigure reloadInterval(long reloadInterval) {
+        this.reloadInterval = reloadInterval;
+        return this;
+    }
+
     public IpWhiteListOptions configured() {
         final IpWhiteListOptions options = new IpWhiteListOptions();
         options.setCacheSize(cacheSize);
         options.setExpire(expire);
         options.setIps(ips);
+        options.setFile(file);
+        options.setReloadInterval(reloadInterval);
         return options;
     }
 }
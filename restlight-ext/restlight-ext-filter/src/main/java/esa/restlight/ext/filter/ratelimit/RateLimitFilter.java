@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.commons.Checks;
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the request rate of every client which is identified by the remote ip address or the value of the configured
+ * header(such as an api key), requests over the limit will be rejected with a '429 Too Many Requests' response.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    private final TokenBucketTable table;
+    private final String keyHeader;
+    private final double permitsPerSecond;
+    private final LongAdder rejectCount = new LongAdder();
+
+    public RateLimitFilter(RateLimitOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getPermitsPerSecond() > 0.0D, "PermitsPerSecond must be over than 0!");
+        Checks.checkArg(options.getBurstSize() > 0, "BurstSize must be over than 0!");
+        Checks.checkArg(options.getMaxKeys() > 0, "MaxKeys must be over than 0!");
+        this.permitsPerSecond = options.getPermitsPerSecond();
+        this.keyHeader = StringUtils.isEmpty(options.getKeyHeader()) ? null : options.getKeyHeader();
+        this.table = new TokenBucketTable(options.getPermitsPerSecond(),
+                options.getBurstSize(),
+                options.getMaxKeys());
+    }
+
+    @Override
+    public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+        final String key = getKey(request);
+        if (key == null) {
+            return chain.doFilter(request, response);
+        }
+        final long wait = table.tryAcquire(key, System.nanoTime());
+        if (wait == 0L) {
+            return chain.doFilter(request, response);
+        }
+        rejectCount.increment();
+        if (!response.isCommitted()) {
+            response.setHeader(HttpHeaderNames.RETRY_AFTER, Long.toString((wait + ONE_SECOND - 1L) / ONE_SECOND));
+            response.setHeader(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
+            response.sendResult(HttpResponseStatus.TOO_MANY_REQUESTS.code(),
+                    ErrorDetail.buildErrorMsg(request.path(),
+                            HttpResponseStatus.TOO_MANY_REQUESTS.reasonPhrase(),
+                            HttpResponseStatus.TOO_MANY_REQUESTS.reasonPhrase(),
+                            HttpResponseStatus.TOO_MANY_REQUESTS.code()));
+        }
+        LoggerUtils.logErrorPeriodically("Request(url={}, method={}) of '{}' rejected because the request rate is" +
+                " over than {} per-second", request.path(), request.method(), key, permitsPerSecond);
+        return Futures.completedFuture();
+    }
+
+    /**
+     * The warm-up requests should neither consume the permits of the clients nor be rejected.
+     */
+    @Override
+    public boolean applyToWarmUp() {
+        return false;
+    }
+
+    /**
+     * Get the key to limit the request rate, default to the value of the configured header if present, otherwise
+     * the remote ip address.
+     *
+     * @param request request
+     *
+     * @return key, {@code null} if this request should not be limited.
+     */
+    protected String getKey(AsyncRequest request) {
+        if (keyHeader != null) {
+            final String value = request.getHeader(keyHeader);
+            if (!StringUtils.isEmpty(value)) {
+                return value;
+            }
+        }
+        return request.remoteAddr();
+    }
+
+    /**
+     * Number of the rejected requests.
+     *
+     * @return count
+     */
+    public long rejectCount() {
+        return rejectCount.sum();
+    }
+
+    /**
+     * Number of the keys which are currently hold.
+     *
+     * @return size
+     */
+    public int keySize() {
+        return table.size();
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 400;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+public final class RateLimitOptionsConfigure {
+
+    private double permitsPerSecond = 100.0D;
+    private int burstSize = 100;
+    private String keyHeader;
+    private int maxKeys = 16384;
+
+    private RateLimitOptionsConfigure() {
+    }
+
+    public static RateLimitOptionsConfigure newOpts() {
+        return new RateLimitOptionsConfigure();
+    }
+
+    public static RateLimitOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public RateLimitOptionsConfigure permitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        return this;
+    }
+
+    public RateLimitOptionsConfigure burstSize(int burstSize) {
+        this.burstSize = burstSize;
+        return this;
+    }
+
+    public RateLimitOptionsConfigure keyHeader(String keyHeader) {
+        this.keyHeader = keyHeader;
+        return this;
+    }
+
+    public RateLimitOptionsConfigure maxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+        return this;
+    }
+
+    public RateLimitOptions configured() {
+        final RateLimitOptions options = new RateLimitOptions();
+        options.setPermitsPerSecond(permitsPerSecond);
+        options.setBurstSize(burstSize);
+        options.setKeyHeader(keyHeader);
+        options.setMaxKeys(maxKeys);
+        return options;
+    }
+}
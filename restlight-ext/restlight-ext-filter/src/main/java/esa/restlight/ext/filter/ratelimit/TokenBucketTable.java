@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free table of token buckets with bounded memory.
+ * <p>
+ * The table is divided into a fixed number of sets(stripes) each of which has {@link #WAYS} slots, and a key will
+ * always be placed into the set that its hash maps to. When there's no free slot in the set, the bucket which has been
+ * idle for the longest time will be evicted, which is an approximate LRU. Only an idle bucket(which has been refilled
+ * to full) could be evicted so that evicting it is lossless, and if all the buckets of the set are still active, the
+ * new key has to share the overflow bucket of that set, so that flooding a set with distinct keys could neither bypass
+ * the limit nor reset the buckets of the other keys.
+ * <p>
+ * Every bucket is represented by a single {@code long}(the theoretical arrival time of the next permit, see GCRA) which
+ * is equivalent to a token bucket with a capacity of {@code burstSize} and a refill rate of {@code permitsPerSecond},
+ * so that acquiring a permit on an existing key is only a CAS without any allocation.
+ */
+final class TokenBucketTable {
+
+    static final int WAYS = 8;
+
+    private final AtomicReferenceArray<Bucket> slots;
+    private final Bucket[] overflows;
+    private final int setMask;
+    private final long emissionInterval;
+    private final long burstTolerance;
+
+    TokenBucketTable(double permitsPerSecond, int burstSize, int maxKeys) {
+        this.emissionInterval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond));
+        this.burstTolerance = emissionInterval * burstSize;
+        final int sets = tableSizeFor(Math.max(1, maxKeys / WAYS));
+        this.setMask = sets - 1;
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.overflows = new Bucket[sets];
+        for (int i = 0; i < sets; i++) {
+            overflows[i] = new Bucket(null, 0, 0L);
+        }
+    }
+
+    /**
+     * Try to acquire a permit of given key.
+     *
+     * @param key key
+     * @param now current time in nanoseconds
+     *
+     * @return {@code 0} if acquired, otherwise the nanoseconds to wait until the next permit is available.
+     */
+    long tryAcquire(String key, long now) {
+        final int hash = spread(key.hashCode());
+        final int set = hash & setMask;
+        final int base = set * WAYS;
+        for (;;) {
+            int empty = -1;
+            int victimIndex = -1;
+            Bucket victim = null;
+            for (int i = base; i < base + WAYS; i++) {
+                final Bucket b = slots.get(i);
+                if (b == null) {
+                    if (empty < 0) {
+                        empty = i;
+                    }
+                } else if (b.hash == hash && b.key.equals(key)) {
+                    return b.tryAcquire(now, emissionInterval, burstTolerance);
+                } else if (victim == null || b.tat - victim.tat < 0L) {
+                    victim = b;
+                    victimIndex = i;
+                }
+            }
+            if (empty < 0 && victim.tat - now > 0L) {
+                // all the buckets of current set are active.
+                return overflows[set].tryAcquire(now, emissionInterval, burstTolerance);
+            }
+            // consume one permit of the new bucket directly
+            final Bucket fresh = new Bucket(key, hash, now + emissionInterval);
+            if (empty >= 0) {
+                if (slots.compareAndSet(empty, null, fresh)) {
+                    return 0L;
+                }
+            } else if (slots.compareAndSet(victimIndex, victim, fresh)) {
+                return 0L;
+            }
+            // lost the race, try again
+        }
+    }
+
+    /**
+     * Counts the number of keys in this table.
+     *
+     * @return size
+     */
+    int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int c) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(c - 1);
+        return n < 0 ? 1 : (n >= (1 << 28) ? (1 << 28) : n + 1);
+    }
+
+    private static final class Bucket {
+
+        private static final AtomicLongFieldUpdater<Bucket> TAT_UPDATER =
+                AtomicLongFieldUpdater.newUpdater(Bucket.class, "tat");
+
+        private final String key;
+        private final int hash;
+        /**
+         * Theoretical arrival time of the next permit.
+         */
+        private volatile long tat;
+
+        private Bucket(String key, int hash, long tat) {
+            this.key = key;
+            this.hash = hash;
+            this.tat = tat;
+        }
+
+        private long tryAcquire(long now, long emissionInterval, long burstTolerance) {
+            for (;;) {
+                final long current = this.tat;
+                final long next = (current - now > 0L ? current : now) + emissionInterval;
+                final long wait = next - burstTolerance - now;
+                if (wait > 0L) {
+                    return wait;
+                }
+                if (TAT_UPDATER.compareAndSet(this, current, next)) {
+                    return 0L;
+                }
+            }
+        }
+    }
+}
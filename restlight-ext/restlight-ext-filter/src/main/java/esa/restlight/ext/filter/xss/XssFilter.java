@@ -77,6 +77,19 @@ public class XssFilter implements Filter {
             Pattern.compile("vbscript[\r\n| ]*:[\r\n| ]*",
                     Pattern.CASE_INSENSITIVE);
 
+    /**
+     * Keywords which are required by at least one of the patterns above(or the url decoding), values that contain none
+     * of them will never be rewritten so that they could be returned directly after a single pass scanning.
+     */
+    private static final XssScanner SUSPICIOUS_SCANNER = new XssScanner("script",
+            "src",
+            "eval(",
+            "e\u00adxpression(",
+            "alert",
+            "onload",
+            "\0",
+            "%");
+
     private final Function<AsyncRequest, AsyncRequest> wrapper;
 
     public XssFilter(XssOptions options) {
@@ -111,16 +124,19 @@ public class XssFilter implements Filter {
                 if (parameterMapOrigin.isEmpty()) {
                     parameterMap = Collections.emptyMap();
                 } else {
-                    parameterMap = new HashMap<>(parameterMapOrigin.size());
-                    List<String> params;
+                    // copy on write: keep the original map and lists if nothing is rewritten
+                    Map<String, List<String>> handled = null;
                     for (Map.Entry<String, List<String>> entry : parameterMapOrigin.entrySet()) {
                         final List<String> values = entry.getValue();
-                        params = new ArrayList<>(values.size());
-                        for (String param : values) {
-                            params.add(handleParam(param));
+                        final List<String> params = handleParams(values);
+                        if (params != values && handled == null) {
+                            handled = new HashMap<>(parameterMapOrigin);
+                        }
+                        if (handled != null) {
+                            handled.put(entry.getKey(), params);
                         }
-                        parameterMap.put(entry.getKey(), params);
                     }
+                    parameterMap = handled == null ? parameterMapOrigin : handled;
                 }
 
             }
@@ -129,6 +145,22 @@ public class XssFilter implements Filter {
 
         abstract String handleParam(String param);
 
+        private List<String> handleParams(List<String> values) {
+            List<String> params = null;
+            for (int i = 0; i < values.size(); i++) {
+                final String value = values.get(i);
+                final String param = handleParam(value);
+                if (params == null && param != value) {
+                    params = new ArrayList<>(values.size());
+                    params.addAll(values.subList(0, i));
+                }
+                if (params != null) {
+                    params.add(param);
+                }
+            }
+            return params == null ? values : params;
+        }
+
         // raw delegate method below
 
         @Override
@@ -302,14 +334,27 @@ public class XssFilter implements Filter {
 
 
     /**
-     * Escape characters that can easily cause loopholes of xss
+     * Escape characters that can easily cause loopholes of xss, and the given value will be returned directly if
+     * there's nothing to escape.
      */
     private static String htmlEscape(String s) {
         if (s == null || s.isEmpty()) {
             return s;
         } else {
-            StringBuilder result = new StringBuilder(s.length());
-            for (int i = 0; i < s.length(); i++) {
+            int start = 0;
+            while (start < s.length()) {
+                char c = s.charAt(start);
+                if (c == '<' || c == '>' || c == '"' || c == '&') {
+                    break;
+                }
+                start++;
+            }
+            if (start == s.length()) {
+                return s;
+            }
+            StringBuilder result = new StringBuilder(s.length() + 16);
+            result.append(s, 0, start);
+            for (int i = start; i < s.length(); i++) {
                 char c = s.charAt(i);
                 if (c == '<') {
                     result.append("&lt;");
@@ -329,10 +374,13 @@ public class XssFilter implements Filter {
     }
 
     /**
-     * Remove the statements with script and src etc., escape the replaced value
+     * Remove the statements with script and src etc., escape the replaced value.
+     * <p>
+     * Values are scanned in a single pass at first and will be returned directly if there's no suspicious keyword, so
+     * that the regex patterns are only applied to the values that are likely to be rewritten.
      */
-    private static String xssEncoder(String value) {
-        if (value != null && !value.isEmpty()) {
+    static String xssEncoder(String value) {
+        if (value != null && !value.isEmpty() && SUSPICIOUS_SCANNER.matches(value)) {
             try {
                 //'+' replace to '%2B'
                 value = value.replace("+", "%2B");
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.xss;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Multi-keyword scanner based on an Aho-Corasick automaton which has been compiled into a flat transition table, which
+ * is used to find out whether a value contains any of the keywords in a single pass without any allocation.
+ * <p>
+ * Keywords are matched case-insensitively with the same semantics as {@link java.util.regex.Pattern#CASE_INSENSITIVE}
+ * which means only the US-ASCII characters are case folded.
+ */
+final class XssScanner {
+
+    /**
+     * Index of the character class which represents all the characters that are not present in any keyword.
+     */
+    private static final int OTHER = 0;
+
+    /**
+     * Character class of every ASCII character, non-ASCII characters are mapped by {@link #nonAsciiChars}.
+     */
+    private final int[] asciiClasses = new int[128];
+    private final char[] nonAsciiChars;
+    private final int[] nonAsciiClasses;
+    private final int classes;
+    /**
+     * transitions[state * classes + class] is the next state.
+     */
+    private final int[] transitions;
+    private final boolean[] accepts;
+
+    XssScanner(String... keywords) {
+        // collect character classes
+        int classCount = 1;
+        char[] nonAscii = new char[0];
+        int[] nonAsciiCls = new int[0];
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                final char c = fold(keyword.charAt(i));
+                if (c < 128) {
+                    if (asciiClasses[c] == OTHER) {
+                        asciiClasses[c] = classCount++;
+                    }
+                } else if (indexOf(nonAscii, c) < 0) {
+                    nonAscii = Arrays.copyOf(nonAscii, nonAscii.length + 1);
+                    nonAsciiCls = Arrays.copyOf(nonAsciiCls, nonAsciiCls.length + 1);
+                    nonAscii[nonAscii.length - 1] = c;
+                    nonAsciiCls[nonAsciiCls.length - 1] = classCount++;
+                }
+            }
+        }
+        // upper case letters share the classes of the lower case ones
+        for (char c = 'A'; c <= 'Z'; c++) {
+            asciiClasses[c] = asciiClasses[c + ('a' - 'A')];
+        }
+        this.nonAsciiChars = nonAscii;
+        this.nonAsciiClasses = nonAsciiCls;
+        this.classes = classCount;
+
+        // build the trie
+        int maxStates = 1;
+        for (String keyword : keywords) {
+            maxStates += keyword.length();
+        }
+        final int[] gotos = new int[maxStates * classes];
+        Arrays.fill(gotos, -1);
+        final boolean[] accepted = new boolean[maxStates];
+        int states = 1;
+        for (String keyword : keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                final int cls = classOf(keyword.charAt(i));
+                final int idx = state * classes + cls;
+                if (gotos[idx] < 0) {
+                    gotos[idx] = states++;
+                }
+                state = gotos[idx];
+            }
+            accepted[state] = true;
+        }
+
+        // compute failure links and the complete transitions by BFS
+        final int[] fail = new int[states];
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classes; cls++) {
+            final int next = gotos[cls];
+            if (next < 0) {
+                gotos[cls] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            accepted[state] |= accepted[fail[state]];
+            for (int cls = 0; cls < classes; cls++) {
+                final int idx = state * classes + cls;
+                final int next = gotos[idx];
+                if (next < 0) {
+                    gotos[idx] = gotos[fail[state] * classes + cls];
+                } else {
+                    fail[next] = gotos[fail[state] * classes + cls];
+                    queue.add(next);
+                }
+            }
+        }
+        this.transitions = Arrays.copyOf(gotos, states * classes);
+        this.accepts = Arrays.copyOf(accepted, states);
+    }
+
+    /**
+     * Whether given value contains any of the keywords.
+     *
+     * @param value value
+     *
+     * @return {@code true} if found
+     */
+    boolean matches(CharSequence value) {
+        int state = 0;
+        for (int i = 0; i < value.length(); i++) {
+            state = transitions[state * classes + classOf(value.charAt(i))];
+            if (accepts[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        for (int i = 0; i < nonAsciiChars.length; i++) {
+            if (nonAsciiChars[i] == c) {
+                return nonAsciiClasses[i];
+            }
+        }
+        return OTHER;
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int indexOf(char[] chars, char c) {
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
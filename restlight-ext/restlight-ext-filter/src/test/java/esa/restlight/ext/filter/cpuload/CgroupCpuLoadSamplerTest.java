@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.cpuload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CgroupCpuLoadSamplerTest {
+
+    private static final CpuLoadSampler FALLBACK = () -> 1.0D;
+
+    @Test
+    void testFallbackIfNoCgroup(@TempDir Path root) {
+        assertSame(FALLBACK, CgroupCpuLoadSampler.detect(root, FALLBACK));
+    }
+
+    @Test
+    void testCgroupV2(@TempDir Path root) throws IOException {
+        final AtomicLong clock = new AtomicLong();
+        write(root.resolve("cpu.max"), "200000 100000");
+        write(root.resolve("cpu.stat"), "usage_usec 1000000\nuser_usec 800000\nsystem_usec 200000");
+        final CpuLoadSampler sampler = CgroupCpuLoadSampler.detect(root, FALLBACK, clock::get);
+        assertTrue(sampler instanceof CgroupCpuLoadSampler);
+        // no baseline
+        assertEquals(1.0D, sampler.sample());
+
+        // 1 second of cpu time during 1 second with 2 cpus quota
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        write(root.resolve("cpu.stat"), "usage_usec 2000000\nuser_usec 1600000\nsystem_usec 400000");
+        final double expect = 100.0D / Math.min(2, Runtime.getRuntime().availableProcessors());
+        assertEquals(expect, sampler.sample(), 0.0001D);
+    }
+
+    @Test
+    void testCgroupV1(@TempDir Path root) throws IOException {
+        final AtomicLong clock = new AtomicLong();
+        Files.createDirectories(root.resolve("cpu,cpuacct"));
+        write(root.resolve("cpu,cpuacct/cpu.cfs_quota_us"), "100000");
+        write(root.resolve("cpu,cpuacct/cpu.cfs_period_us"), "100000");
+        write(root.resolve("cpu,cpuacct/cpuacct.usage"), "1000000000");
+        final CpuLoadSampler sampler = CgroupCpuLoadSampler.detect(root, FALLBACK, clock::get);
+        assertTrue(sampler instanceof CgroupCpuLoadSampler);
+        assertEquals(1.0D, sampler.sample());
+
+        // 0.5 second of cpu time during 1 second with 1 cpu quota
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        write(root.resolve("cpu,cpuacct/cpuacct.usage"), "1500000000");
+        assertEquals(50.0D, sampler.sample(), 0.0001D);
+
+        // fall back if failed to read
+        Files.delete(root.resolve("cpu,cpuacct/cpuacct.usage"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(1.0D, sampler.sample());
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes());
+    }
+}
@@ -15,10 +15,19 @@
  */
 package esa.restlight.ext.filter.cpuload;
 
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -40,6 +49,77 @@ class CpuLoadProtectionFilterTest {
                 100D));
     }
 
+    @Test
+    void testRequestMode() {
+        final CpuLoadProtectionFilter filter = new CpuLoadProtectionFilter(CpuLoadProtectionOptionsConfigure.newOpts()
+                .mode(CpuLoadProtectionMode.REQUEST)
+                .threshold(50D)
+                .initialDiscardRate(100D)
+                .maxDiscardRate(100D)
+                .retryAfter(3L)
+                .sampleInterval(TimeUnit.HOURS.toMillis(1L))
+                .configured(), () -> 10D);
+        try {
+            // connections are never discarded in request mode
+            filter.currentCpuLoad = 90D;
+            final ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+            when(ctx.channel()).thenReturn(new EmbeddedChannel());
+            assertTrue(filter.onConnected(ctx));
+            assertTrue(ctx.channel().isActive());
+
+            final AsyncResponse discarded = doFilter(filter);
+            assertEquals(503, discarded.status());
+            assertEquals("3", discarded.getHeader(HttpHeaderNames.RETRY_AFTER));
+
+            filter.currentCpuLoad = 10D;
+            assertEquals(200, doFilter(filter).status());
+        } finally {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    void testPidDiscardCurve() {
+        final CpuLoadProtectionFilter filter = new CpuLoadProtectionFilter(CpuLoadProtectionOptionsConfigure.newOpts()
+                .mode(CpuLoadProtectionMode.REQUEST)
+                .discardCurve(DiscardCurve.PID)
+                .threshold(80D)
+                .initialDiscardRate(10D)
+                .maxDiscardRate(80D)
+                .sampleInterval(TimeUnit.HOURS.toMillis(1L))
+                .configured(), () -> 10D);
+        try {
+            assertEquals(0D, filter.pidDiscardRate);
+            double last = 0D;
+            // sustained overload: the discard rate increases and is limited by the max discard rate
+            for (int i = 0; i < 20; i++) {
+                last = filter.computePidDiscardRate(90D);
+                assertTrue(last >= 10D);
+                assertTrue(last <= 80D);
+            }
+            assertEquals(80D, last);
+            // released gradually after the cpu load falls back
+            final double released = filter.computePidDiscardRate(70D);
+            assertTrue(released < last);
+            for (int i = 0; i < 100; i++) {
+                last = filter.computePidDiscardRate(70D);
+            }
+            assertEquals(0D, last);
+        } finally {
+            filter.shutdown();
+        }
+    }
+
+    private static AsyncResponse doFilter(CpuLoadProtectionFilter filter) {
+        final FilterChain chain = ((req, res) -> {
+            res.sendResult(200);
+            return Futures.completedFuture();
+        });
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(MockAsyncRequest.aMockRequest().build(), response, chain);
+        return response;
+    }
+
     private void assertNormal(CpuLoadProtectionFilter filter) {
         final ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
         final EmbeddedChannel channel = new EmbeddedChannel();
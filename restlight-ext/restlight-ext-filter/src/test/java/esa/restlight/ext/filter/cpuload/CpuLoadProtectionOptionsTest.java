@@ -18,6 +18,7 @@ package esa.restlight.ext.filter.cpuload;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CpuLoadProtectionOptionsTest {
 
@@ -27,10 +28,26 @@ class CpuLoadProtectionOptionsTest {
                 .threshold(1.0D)
                 .initialDiscardRate(2.0D)
                 .maxDiscardRate(3.0D)
+                .mode(CpuLoadProtectionMode.REQUEST)
+                .containerAware(true)
+                .discardCurve(DiscardCurve.PID)
+                .sampleInterval(500L)
+                .retryAfter(5L)
+                .pidKp(4.0D)
+                .pidKi(5.0D)
+                .pidKd(6.0D)
                 .configured();
         assertEquals(1.0D, options.getThreshold());
         assertEquals(2.0D, options.getInitialDiscardRate());
         assertEquals(3.0D, options.getMaxDiscardRate());
+        assertEquals(CpuLoadProtectionMode.REQUEST, options.getMode());
+        assertTrue(options.isContainerAware());
+        assertEquals(DiscardCurve.PID, options.getDiscardCurve());
+        assertEquals(500L, options.getSampleInterval());
+        assertEquals(5L, options.getRetryAfter());
+        assertEquals(4.0D, options.getPidKp());
+        assertEquals(5.0D, options.getPidKi());
+        assertEquals(6.0D, options.getPidKd());
     }
 
     @Test
@@ -41,6 +58,14 @@ class CpuLoadProtectionOptionsTest {
         assertEquals(def.getThreshold(), options.getThreshold());
         assertEquals(def.getInitialDiscardRate(), options.getInitialDiscardRate());
         assertEquals(def.getMaxDiscardRate(), options.getMaxDiscardRate());
+        assertEquals(def.getMode(), options.getMode());
+        assertEquals(def.isContainerAware(), options.isContainerAware());
+        assertEquals(def.getDiscardCurve(), options.getDiscardCurve());
+        assertEquals(def.getSampleInterval(), options.getSampleInterval());
+        assertEquals(def.getRetryAfter(), options.getRetryAfter());
+        assertEquals(def.getPidKp(), options.getPidKp());
+        assertEquals(def.getPidKi(), options.getPidKi());
+        assertEquals(def.getPidKd(), options.getPidKd());
     }
 
 }
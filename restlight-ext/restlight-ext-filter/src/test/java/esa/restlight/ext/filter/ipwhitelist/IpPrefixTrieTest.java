@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ipwhitelist;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IpPrefixTrieTest {
+
+    @Test
+    void testIpv4() {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        assertTrue(trie.isEmpty());
+        assertTrue(trie.add("10.0.0.0/8"));
+        assertTrue(trie.add("192.168.1.0/24"));
+        assertTrue(trie.add("172.16.0.1"));
+        // covered by 10.0.0.0/8
+        assertTrue(trie.add("10.1.0.0/16"));
+        assertEquals(3, trie.size());
+
+        assertTrue(trie.contains("10.0.0.0"));
+        assertTrue(trie.contains("10.255.255.255"));
+        assertFalse(trie.contains("11.0.0.0"));
+        assertTrue(trie.contains("192.168.1.100"));
+        assertFalse(trie.contains("192.168.2.1"));
+        assertTrue(trie.contains("172.16.0.1"));
+        assertFalse(trie.contains("172.16.0.2"));
+        // ipv4-mapped ipv6
+        assertTrue(trie.contains("::ffff:10.1.2.3"));
+        assertFalse(trie.contains("not an ip"));
+    }
+
+    @Test
+    void testIpv6() {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        assertTrue(trie.add("2001:db8::/32"));
+        assertTrue(trie.add("::1"));
+        assertTrue(trie.add("::ffff:10.0.0.0/104"));
+
+        assertTrue(trie.contains("2001:db8:ffff::1"));
+        assertFalse(trie.contains("2001:db9::1"));
+        assertTrue(trie.contains("::1"));
+        assertFalse(trie.contains("::2"));
+        assertTrue(trie.contains("10.1.1.1"));
+        assertFalse(trie.contains("11.1.1.1"));
+    }
+
+    @Test
+    void testMatchAll() {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        assertTrue(trie.add("0.0.0.0/0"));
+        assertTrue(trie.contains("1.2.3.4"));
+        assertFalse(trie.contains("2001:db8::1"));
+    }
+
+    @Test
+    void testIllegal() {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        assertFalse(trie.add("foo"));
+        assertFalse(trie.add("10.0.0.0/33"));
+        assertFalse(trie.add("10.0.0.0/-1"));
+        assertFalse(trie.add("10.0.0.0/a"));
+        assertFalse(trie.add("2001:db8::/129"));
+        assertTrue(trie.isEmpty());
+    }
+
+    @Test
+    void testGrow() {
+        final IpPrefixTrie trie = new IpPrefixTrie();
+        for (int i = 0; i < 256; i++) {
+            assertTrue(trie.add("10.0." + i + ".0/24"));
+        }
+        assertEquals(256, trie.size());
+        assertTrue(trie.contains("10.0.128.1"));
+        assertFalse(trie.contains("10.1.0.1"));
+    }
+}
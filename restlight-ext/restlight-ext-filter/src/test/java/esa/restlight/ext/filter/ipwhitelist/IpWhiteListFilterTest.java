@@ -24,11 +24,19 @@ import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class IpWhiteListFilterTest {
 
@@ -66,6 +74,91 @@ class IpWhiteListFilterTest {
         assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.2").build(), cached);
     }
 
+    @Test
+    void testCidr() {
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Arrays.asList("10.0.0.0/8", "192.168.1.1", "2001:db8::/32", "regex:172\\.16\\..*"))
+                .configured());
+
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.1.2.3").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("::ffff:10.1.2.3").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("192.168.1.1").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("2001:db8:1::1").build(), filter);
+        assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("172.16.0.1").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("192.168.1.2").build(), filter);
+        assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("2001:db9::1").build(), filter);
+    }
+
+    @Test
+    void testEmpty() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts().configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                        .file("/not/exist/whitelist")
+                        .configured()));
+    }
+
+    @Test
+    void testEmptyFile(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("whitelist");
+        Files.write(file, Arrays.asList("# comment", ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                        .file(file.toString())
+                        .reloadInterval(0L)
+                        .configured()));
+    }
+
+    @Test
+    void testKeepPreviousRulesIfReloadedEmpty(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("whitelist");
+        Files.write(file, Collections.singletonList("10.0.0.0/8"));
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .file(file.toString())
+                .reloadInterval(0L)
+                .configured());
+        try {
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.0.0.1").build(), filter);
+
+            Files.write(file, Collections.singletonList("# all removed"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+            filter.reloadIfModified();
+
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.0.0.1").build(), filter);
+            assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+        } finally {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    void testReloadFromFile(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("whitelist");
+        Files.write(file, Arrays.asList("# comment", "", "10.0.0.0/8"));
+        final IpWhiteListFilter filter = new IpWhiteListFilter(IpWhiteListOptionsConfigure.newOpts()
+                .ips(Collections.singletonList("127.0.0.1"))
+                .file(file.toString())
+                .reloadInterval(0L)
+                .configured());
+        try {
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build(), filter);
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.0.0.1").build(), filter);
+            assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+
+            Files.write(file, Collections.singletonList("11.0.0.0/8"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000L));
+            filter.reloadIfModified();
+
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build(), filter);
+            assertAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("11.0.0.1").build(), filter);
+            assertNotAllowed(MockAsyncRequest.aMockRequest().withRemoteAddr("10.0.0.1").build(), filter);
+        } finally {
+            filter.shutdown();
+        }
+    }
+
     private static void assertAllowed(AsyncRequest request, IpWhiteListFilter filter) {
         final FilterChain chain = ((req, res) -> {
             res.sendResult(200);
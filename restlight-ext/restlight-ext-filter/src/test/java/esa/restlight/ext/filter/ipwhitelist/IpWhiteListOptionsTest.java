@@ -30,10 +30,14 @@ class IpWhiteListOptionsTest {
                 .ips(Arrays.asList("a", "b"))
                 .cacheSize(1)
                 .expire(2)
+                .file("foo")
+                .reloadInterval(3L)
                 .configured();
         assertArrayEquals(new String[]{"a", "b"}, options.getIps().toArray());
         assertEquals(1, options.getCacheSize());
         assertEquals(2, options.getExpire());
+        assertEquals("foo", options.getFile());
+        assertEquals(3L, options.getReloadInterval());
     }
 
     @Test
@@ -44,6 +48,8 @@ class IpWhiteListOptionsTest {
         assertEquals(def.getIps(), options.getIps());
         assertEquals(def.getCacheSize(), options.getCacheSize());
         assertEquals(def.getExpire(), options.getExpire());
+        assertEquals(def.getFile(), options.getFile());
+        assertEquals(def.getReloadInterval(), options.getReloadInterval());
     }
 
 }
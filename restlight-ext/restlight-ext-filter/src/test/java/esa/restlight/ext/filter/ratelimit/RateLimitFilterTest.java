@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.handler.FilterChain;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimitFilterTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .permitsPerSecond(0.0D).configured()));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .burstSize(0).configured()));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .maxKeys(0).configured()));
+    }
+
+    @Test
+    void testLimitedByRemoteAddr() {
+        final RateLimitFilter filter = new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .permitsPerSecond(0.001D)
+                .burstSize(2)
+                .configured());
+
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build()));
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build()));
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build(), response, chain());
+        assertEquals(429, response.status());
+        assertEquals(MediaType.TEXT_PLAIN.value(), response.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals("1000", response.getHeader(HttpHeaderNames.RETRY_AFTER));
+        assertEquals(1L, filter.rejectCount());
+
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.2").build()));
+        assertEquals(2, filter.keySize());
+    }
+
+    @Test
+    void testLimitedByHeader() {
+        final RateLimitFilter filter = new RateLimitFilter(RateLimitOptionsConfigure.newOpts()
+                .permitsPerSecond(0.001D)
+                .burstSize(1)
+                .keyHeader("X-Api-Key")
+                .configured());
+
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1")
+                .withHeader("X-Api-Key", "foo").build()));
+        assertEquals(429, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.2")
+                .withHeader("X-Api-Key", "foo").build()));
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1")
+                .withHeader("X-Api-Key", "bar").build()));
+        // fall back to remote address
+        assertEquals(200, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build()));
+        assertEquals(429, doFilter(filter, MockAsyncRequest.aMockRequest().withRemoteAddr("127.0.0.1").build()));
+        assertEquals(2L, filter.rejectCount());
+    }
+
+    @Test
+    void testNotAppliedToWarmUp() {
+        assertFalse(new RateLimitFilter(RateLimitOptionsConfigure.defaultOpts()).applyToWarmUp());
+    }
+
+    private static int doFilter(RateLimitFilter filter, AsyncRequest request) {
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        filter.doFilter(request, response, chain());
+        return response.status();
+    }
+
+    private static FilterChain chain() {
+        return (req, res) -> {
+            res.sendResult(200);
+            return Futures.completedFuture();
+        };
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final RateLimitOptions options = RateLimitOptionsConfigure.newOpts()
+                .permitsPerSecond(1.0D)
+                .burstSize(2)
+                .keyHeader("X-Api-Key")
+                .maxKeys(3)
+                .configured();
+        assertEquals(1.0D, options.getPermitsPerSecond());
+        assertEquals(2, options.getBurstSize());
+        assertEquals("X-Api-Key", options.getKeyHeader());
+        assertEquals(3, options.getMaxKeys());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final RateLimitOptions options = RateLimitOptionsConfigure.defaultOpts();
+        final RateLimitOptions def = new RateLimitOptions();
+
+        assertEquals(def.getPermitsPerSecond(), options.getPermitsPerSecond());
+        assertEquals(def.getBurstSize(), options.getBurstSize());
+        assertEquals(def.getKeyHeader(), options.getKeyHeader());
+        assertEquals(def.getMaxKeys(), options.getMaxKeys());
+    }
+
+}
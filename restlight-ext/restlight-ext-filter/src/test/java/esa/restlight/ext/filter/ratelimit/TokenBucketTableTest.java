@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    @Test
+    void testBurstAndRefill() {
+        final TokenBucketTable table = new TokenBucketTable(2.0D, 3, 16);
+        final long now = 100L * SECOND;
+        assertEquals(0L, table.tryAcquire("a", now));
+        assertEquals(0L, table.tryAcquire("a", now));
+        assertEquals(0L, table.tryAcquire("a", now));
+        // bucket is empty
+        final long wait = table.tryAcquire("a", now);
+        assertEquals(SECOND / 2, wait);
+        // other keys are not affected
+        assertEquals(0L, table.tryAcquire("b", now));
+        // refilled
+        assertEquals(0L, table.tryAcquire("a", now + wait));
+        assertTrue(table.tryAcquire("a", now + wait) > 0L);
+        assertEquals(0L, table.tryAcquire("a", now + 10L * SECOND));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testBoundedAndEvictIdle() {
+        final TokenBucketTable table = new TokenBucketTable(1.0D, 1, 1);
+        assertEquals(TokenBucketTable.WAYS, table.capacity());
+        final long now = 100L * SECOND;
+        assertEquals(0L, table.tryAcquire("idle", now));
+        for (int i = 0; i < TokenBucketTable.WAYS - 1; i++) {
+            assertEquals(0L, table.tryAcquire("key" + i, now + SECOND + i));
+        }
+        assertEquals(TokenBucketTable.WAYS, table.size());
+        // the idle one is evicted by a new key
+        assertEquals(0L, table.tryAcquire("new", now + SECOND + 100L));
+        assertEquals(TokenBucketTable.WAYS, table.size());
+        // the busy ones are still limited
+        assertTrue(table.tryAcquire("key0", now + SECOND + 100L) > 0L);
+        assertTrue(table.tryAcquire("new", now + SECOND + 100L) > 0L);
+        // all of them are idle after a while
+        assertEquals(0L, table.tryAcquire("idle", now + 10L * SECOND));
+    }
+
+    @Test
+    void testFloodWithDistinctKeys() {
+        final TokenBucketTable table = new TokenBucketTable(1.0D, 2, 1);
+        final long now = 100L * SECOND;
+        assertEquals(0L, table.tryAcquire("victim", now));
+        assertEquals(0L, table.tryAcquire("victim", now));
+        int acquired = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (table.tryAcquire("flood" + i, now + i) == 0L) {
+                acquired++;
+            }
+        }
+        // the slots of the set plus the burst of the shared overflow bucket
+        assertEquals(TokenBucketTable.WAYS - 1 + 2, acquired);
+        assertEquals(TokenBucketTable.WAYS, table.size());
+        // the bucket of the active key has not been reset by the flood
+        assertTrue(table.tryAcquire("victim", now + 1000L) > 0L);
+    }
+
+}
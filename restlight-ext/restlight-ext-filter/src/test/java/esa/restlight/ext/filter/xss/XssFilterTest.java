@@ -28,6 +28,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -105,6 +106,30 @@ class XssFilterTest {
         assertArrayEquals(foos, req.get().parameterMap().get("foo").toArray(foosForCompare));
     }
 
+    @Test
+    void testCleanRequestNotCopied() {
+        final AtomicReference<AsyncRequest> req = new AtomicReference<>();
+        final FilterChain chain = ((request, response) -> {
+            req.set(request);
+            return Futures.completedFuture();
+        });
+        final AsyncRequest origin = MockAsyncRequest.aMockRequest()
+                .withUri("/test?foo=bar&name=gcl&name=wxy")
+                .withHeader("header", "value")
+                .build();
+        new XssFilter(XssOptionsConfigure.newOpts().mode(XssMode.FILTER).configured())
+                .doFilter(origin, MockAsyncResponse.aMockResponse().build(), chain).join();
+        assertSame(origin.parameterMap(), req.get().parameterMap());
+        assertSame(origin.getHeader("header"), req.get().getHeader("header"));
+        assertSame(origin.query(), req.get().query());
+
+        new XssFilter(XssOptionsConfigure.newOpts().mode(XssMode.ESCAPE).configured())
+                .doFilter(origin, MockAsyncResponse.aMockResponse().build(), chain).join();
+        assertSame(origin.parameterMap(), req.get().parameterMap());
+        assertSame(origin.getHeader("header"), req.get().getHeader("header"));
+        assertSame(origin.path(), req.get().path());
+    }
+
     @Test
     void testDelegate() {
         final AsyncRequest delegate = mock(AsyncRequest.class);
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.filter.xss;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XssScannerTest {
+
+    @Test
+    void testMatches() {
+        final XssScanner scanner = new XssScanner("script", "src", "eval(", "e\u00adxpression(", "\0", "%");
+        assertTrue(scanner.matches("script"));
+        assertTrue(scanner.matches("<SCRIPT>"));
+        assertTrue(scanner.matches("vbScript:foo"));
+        assertTrue(scanner.matches("img src=1"));
+        // overlapped keywords
+        assertTrue(scanner.matches("scrscript"));
+        assertTrue(scanner.matches("ssrc"));
+        assertTrue(scanner.matches("EVAL(1)"));
+        assertTrue(scanner.matches("E\u00adXPRESSION("));
+        assertTrue(scanner.matches("a\0b"));
+        assertTrue(scanner.matches("a%3Cb"));
+
+        assertFalse(scanner.matches(""));
+        assertFalse(scanner.matches("scrip"));
+        assertFalse(scanner.matches("eval"));
+        assertFalse(scanner.matches("expression("));
+        assertFalse(scanner.matches("foo=bar&name=gcl"));
+        // non-ascii characters are not case folded
+        assertFalse(scanner.matches("Šcript"));
+    }
+
+    @Test
+    void testCleanValueNotRewritten() {
+        final String clean = "keyword=iphone+12&page=1&size=20&sort=price,desc";
+        assertSame(clean, XssFilter.xssEncoder(clean));
+        final String clean1 = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+        assertSame(clean1, XssFilter.xssEncoder(clean1));
+    }
+
+    @Test
+    void testSuspiciousValueRewritten() {
+        assertTrue(XssFilter.xssEncoder("<script>alert(1)</script>").isEmpty());
+        assertTrue(XssFilter.xssEncoder("%3Cscript%3Ealert(1)%3C/script%3E").isEmpty());
+        assertEquals("foo", XssFilter.xssEncoder("javascript:foo"));
+        assertEquals("a+b c", XssFilter.xssEncoder("a+b%20c"));
+    }
+}
@@ -23,6 +23,7 @@ import esa.restlight.ext.interceptor.config.SignatureOptions;
 import esa.restlight.ext.interceptor.config.SignatureOptionsConfigure;
 import esa.restlight.ext.interceptor.signature.AbstractSignatureRouteInterceptor;
 import esa.restlight.ext.interceptor.signature.HmacSha1SignatureRouteInterceptor;
+import esa.restlight.ext.interceptor.signature.HmacSha256SignatureRouteInterceptor;
 import esa.restlight.ext.interceptor.signature.SecretProvider;
 import esa.restlight.server.route.Route;
 
@@ -32,6 +33,9 @@ import static esa.restlight.ext.interceptor.signature.HmacSha1SignatureRouteInte
 
 public class SignValidationInterceptorFactory implements InterceptorFactory {
 
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
     private final SecretProvider distributor;
     private AbstractSignatureRouteInterceptor instance;
 
@@ -42,10 +46,23 @@ public class SignValidationInterceptorFactory implements InterceptorFactory {
     @Override
     public Optional<Interceptor> create(DeployContext<? extends RestlightOptions> ctx, Route route) {
         return InterceptorFactory
-                .of(instance == null ? instance = doCreate(buildSignOptions(ctx.options()), distributor) : instance)
+                .of(instance == null ? instance = doCreate(buildSignOptions(ctx.options()), distributor,
+                        ctx.options().extOption(SIGN + ".algorithm").orElse(HMAC_SHA1)) : instance)
                 .create(ctx, route);
     }
 
+    protected AbstractSignatureRouteInterceptor doCreate(SignatureOptions options,
+                                                         SecretProvider distributor,
+                                                         String algorithm) {
+        if (HMAC_SHA256.equalsIgnoreCase(algorithm)) {
+            return new HmacSha256SignatureRouteInterceptor(options, distributor);
+        }
+        if (!HMAC_SHA1.equalsIgnoreCase(algorithm)) {
+            throw new IllegalArgumentException("Unsupported signature algorithm: " + algorithm);
+        }
+        return doCreate(options, distributor);
+    }
+
     protected AbstractSignatureRouteInterceptor doCreate(SignatureOptions options, SecretProvider distributor) {
         return new HmacSha1SignatureRouteInterceptor(options, distributor);
     }
@@ -58,6 +75,10 @@ public class SignValidationInterceptorFactory implements InterceptorFactory {
         options.extOption(SIGN + ".signature-name").ifPresent(configure::signature);
         options.extOption(SIGN + ".expire-seconds").ifPresent(
                 (s) -> configure.expireSeconds(Integer.valueOf(s)));
+        options.extOption(SIGN + ".secret-cache-seconds").ifPresent(
+                (s) -> configure.secretCacheSeconds(Integer.valueOf(s)));
+        options.extOption(SIGN + ".secret-cache-max-size").ifPresent(
+                (s) -> configure.secretCacheMaxSize(Integer.valueOf(s)));
         return configure.configured();
     }
 }
@@ -26,6 +26,8 @@ public class SignatureOptions implements Serializable {
     private String timestamp = "ts";
     private String signature = "sign";
     private int expireSeconds = 0;
+    private int secretCacheSeconds = 0;
+    private int secretCacheMaxSize = 1024;
 
     public String getAppId() {
         return appId;
@@ -67,4 +69,20 @@ public class SignatureOptions implements Serializable {
         this.expireSeconds = expireSeconds;
     }
 
+    public int getSecretCacheSeconds() {
+        return secretCacheSeconds;
+    }
+
+    public void setSecretCacheSeconds(int secretCacheSeconds) {
+        this.secretCacheSeconds = secretCacheSeconds;
+    }
+
+    public int getSecretCacheMaxSize() {
+        return secretCacheMaxSize;
+    }
+
+    public void setSecretCacheMaxSize(int secretCacheMaxSize) {
+        this.secretCacheMaxSize = secretCacheMaxSize;
+    }
+
 }
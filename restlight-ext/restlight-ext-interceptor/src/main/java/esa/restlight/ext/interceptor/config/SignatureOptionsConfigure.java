@@ -22,6 +22,8 @@ public final class SignatureOptionsConfigure {
     private String timestamp = "ts";
     private String signature = "sign";
     private int expireSeconds = 0;
+    private int secretCacheSeconds = 0;
+    private int secretCacheMaxSize = 1024;
 
     private SignatureOptionsConfigure() {
     }
@@ -59,6 +61,16 @@ public final class SignatureOptionsConfigure {
         return this;
     }
 
+    public SignatureOptionsConfigure secretCacheSeconds(int secretCacheSeconds) {
+        this.secretCacheSeconds = secretCacheSeconds;
+        return this;
+    }
+
+    public SignatureOptionsConfigure secretCacheMaxSize(int secretCacheMaxSize) {
+        this.secretCacheMaxSize = secretCacheMaxSize;
+        return this;
+    }
+
     public SignatureOptions configured() {
         SignatureOptions options = new SignatureOptions();
         options.setAppId(appId);
@@ -66,6 +78,8 @@ public final class SignatureOptionsConfigure {
         options.setSecretVersion(secretVersion);
         options.setSignature(signature);
         options.setTimestamp(timestamp);
+        options.setSecretCacheSeconds(secretCacheSeconds);
+        options.setSecretCacheMaxSize(secretCacheMaxSize);
         return options;
     }
 }
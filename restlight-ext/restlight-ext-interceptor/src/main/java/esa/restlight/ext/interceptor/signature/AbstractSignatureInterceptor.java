@@ -23,14 +23,14 @@ import esa.restlight.core.interceptor.InternalInterceptor;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.ext.interceptor.config.SignatureOptions;
 import esa.restlight.server.bootstrap.WebServerException;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.internal.InternalThreadLocalMap;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -52,7 +52,11 @@ abstract class AbstractSignatureInterceptor implements InternalInterceptor {
                     " must not be empty!");
         }
         this.options = options;
-        this.distributor = secretProvider;
+        this.distributor = options.getSecretCacheSeconds() > 0
+                ? new CachedSecretProvider(secretProvider,
+                options.getSecretCacheSeconds() * (long) MILLISECOND,
+                options.getSecretCacheMaxSize())
+                : secretProvider;
     }
 
     @Override
@@ -81,37 +85,71 @@ abstract class AbstractSignatureInterceptor implements InternalInterceptor {
             throw WebServerException.badRequest("Missing required value: " + secretVersionName());
         }
 
-        final byte[] data = buildData(request);
-
         // Validate signature
-        if (data == null || data.length == 0 || validate(data, signature, secret)) {
+        if (verify(request, signature, secret)) {
             return true;
         }
         throw new WebServerException(HttpResponseStatus.UNAUTHORIZED, "Unmatched secret");
     }
 
-    protected byte[] buildData(AsyncRequest request) {
-        // Sort all request parameters in ascending order by parameter name
-        byte[] paramsData = new byte[0];
-        final Map<String, List<String>> params = request.parameterMap();
-        if (params != null && params.size() > 0) {
-            // Exclude signature params.
-            List<ParamValues> paramValues =
-                    InternalThreadLocalMap.get().arrayList(params.size());
-            for (Map.Entry<String, List<String>> entry : params.entrySet()) {
-                if (options.getSignature().equals(StringUtils.trim(entry.getKey()))) {
-                    continue;
+    /**
+     * Verifies the signature of given request, which builds the data to sign by {@link #buildData(AsyncRequest)} and
+     * then validates it by {@link #validate(byte[], String, String)} as default.
+     *
+     * @param request   request
+     * @param signature signature
+     * @param secret    secret key
+     *
+     * @return {@code true} if the signature is legal or there's nothing to sign, else false
+     */
+    protected boolean verify(AsyncRequest request, String signature, String secret) {
+        final byte[] data = buildData(request);
+        return data == null || data.length == 0 || validate(data, signature, secret);
+    }
+
+    /**
+     * Verifies the signature by feeding the sorted parameters and the body into the given {@link HmacVerifier}
+     * directly, which is equivalent to computing the hmac of {@link #buildData(AsyncRequest)} but without any
+     * concatenation.
+     */
+    boolean verify(HmacVerifier verifier, AsyncRequest request, String signature, String secret) {
+        final HmacVerifier.Session session = verifier.begin(secret);
+        final ParamValues[] params = sortedParams(request);
+        if (params != null) {
+            boolean first = true;
+            for (ParamValues parameters : params) {
+                for (String value : parameters.values) {
+                    if (first) {
+                        first = false;
+                    } else {
+                        session.update((byte) '&');
+                    }
+                    session.update(parameters.name).update((byte) '=').update(value);
                 }
-                final List<String> paramAfterTrim = new LinkedList<>();
-                entry.getValue().forEach((String value) -> paramAfterTrim.add(StringUtils.trim(value)));
-                paramValues.add(new ParamValues(StringUtils.trim(entry.getKey()), paramAfterTrim));
             }
+        }
+
+        if (!isFormUrlEncoded(request)) {
+            final ByteBuf body = request.byteBufBody();
+            if (body != null) {
+                session.update(body);
+            }
+        }
 
-            // Sort by parameter name
-            Collections.sort(paramValues);
+        if (session.length() == 0L) {
+            session.reset();
+            return true;
+        }
+        return session.matches(signature);
+    }
+
+    protected byte[] buildData(AsyncRequest request) {
+        // Sort all request parameters in ascending order by parameter name
+        byte[] paramsData = new byte[0];
+        final ParamValues[] params = sortedParams(request);
+        if (params != null) {
             final StringBuilder builder = InternalThreadLocalMap.get().stringBuilder();
-            for (ParamValues parameters : paramValues) {
-                Collections.sort(parameters.values);
+            for (ParamValues parameters : params) {
                 for (String value : parameters.values) {
                     builder.append(parameters.name).append("=").append(value).append("&");
                 }
@@ -120,15 +158,8 @@ abstract class AbstractSignatureInterceptor implements InternalInterceptor {
                     .getBytes(StandardCharsets.UTF_8);
         }
 
-        if (HttpMethod.POST.equals(request.method())) {
-            // Note: If requestHeader contains
-            String contentType = request.getHeader(HttpHeaderNames.CONTENT_TYPE);
-            if (!StringUtils.isEmpty(contentType)) {
-                MediaType mediaType = MediaType.valueOf(contentType);
-                if (MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(mediaType)) {
-                    return paramsData;
-                }
-            }
+        if (isFormUrlEncoded(request)) {
+            return paramsData;
         }
 
         byte[] body = request.body();
@@ -142,6 +173,57 @@ abstract class AbstractSignatureInterceptor implements InternalInterceptor {
         }
     }
 
+    /**
+     * Trims and sorts the parameters except the signature in ascending order by name and then by value.
+     *
+     * @return sorted parameters or {@code null} if there's no parameter.
+     */
+    private ParamValues[] sortedParams(AsyncRequest request) {
+        final Map<String, List<String>> params = request.parameterMap();
+        if (params == null || params.isEmpty()) {
+            return null;
+        }
+        ParamValues[] paramValues = new ParamValues[params.size()];
+        int size = 0;
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            final String name = StringUtils.trim(entry.getKey());
+            // Exclude signature params.
+            if (options.getSignature().equals(name)) {
+                continue;
+            }
+            final List<String> values = entry.getValue();
+            final String[] trimmed = new String[values.size()];
+            for (int i = 0; i < trimmed.length; i++) {
+                trimmed[i] = StringUtils.trim(values.get(i));
+            }
+            if (trimmed.length > 1) {
+                Arrays.sort(trimmed);
+            }
+            paramValues[size++] = new ParamValues(name, trimmed);
+        }
+        if (size == 0) {
+            return null;
+        }
+        if (size < paramValues.length) {
+            paramValues = Arrays.copyOf(paramValues, size);
+        }
+        // Sort by parameter name
+        Arrays.sort(paramValues);
+        return paramValues;
+    }
+
+    private static boolean isFormUrlEncoded(AsyncRequest request) {
+        if (HttpMethod.POST.equals(request.method())) {
+            // Note: If requestHeader contains
+            String contentType = request.getHeader(HttpHeaderNames.CONTENT_TYPE);
+            if (!StringUtils.isEmpty(contentType)) {
+                MediaType mediaType = MediaType.valueOf(contentType);
+                return MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(mediaType);
+            }
+        }
+        return false;
+    }
+
     /**
      * To verify whether the signature is legal
      *
@@ -201,9 +283,9 @@ abstract class AbstractSignatureInterceptor implements InternalInterceptor {
 
     private static class ParamValues implements Comparable<ParamValues> {
         private final String name;
-        private final List<String> values;
+        private final String[] values;
 
-        private ParamValues(String name, List<String> values) {
+        private ParamValues(String name, String[] values) {
             this.name = name;
             this.values = values;
         }
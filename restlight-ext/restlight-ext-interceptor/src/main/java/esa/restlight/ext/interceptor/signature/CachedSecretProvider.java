@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import esa.commons.Checks;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link SecretProvider} which caches the secrets returned by the delegate per (appId, secretVersion) for the given
+ * time to live. Notice that the timestamp is not a part of the cache key, so this should only be used when the secret
+ * does not depend on the timestamp.
+ */
+public class CachedSecretProvider implements SecretProvider {
+
+    private final SecretProvider delegate;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+
+    public CachedSecretProvider(SecretProvider delegate, long ttlMillis, int maxSize) {
+        this(delegate, ttlMillis, maxSize, System::nanoTime);
+    }
+
+    CachedSecretProvider(SecretProvider delegate, long ttlMillis, int maxSize, LongSupplier clock) {
+        Checks.checkNotNull(delegate, "delegate");
+        Checks.checkArg(ttlMillis > 0L, "ttlMillis must be over than 0");
+        Checks.checkArg(maxSize > 0, "maxSize must be over than 0");
+        this.delegate = delegate;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public String get(String appId, String secretVersion, String timestamp) {
+        final Key key = new Key(appId, secretVersion);
+        final long now = clock.getAsLong();
+        final Entry entry = cache.get(key);
+        if (entry != null && now - entry.expireAt < 0L) {
+            return entry.secret;
+        }
+        final String secret = delegate.get(appId, secretVersion, timestamp);
+        if (secret == null) {
+            if (entry != null) {
+                cache.remove(key, entry);
+            }
+            return null;
+        }
+        if (entry != null || cache.size() < maxSize || evictExpired(now)) {
+            cache.put(key, new Entry(secret, now + ttlNanos));
+        }
+        return secret;
+    }
+
+    /**
+     * Removes all the expired entries.
+     *
+     * @return {@code true} if there's a room for a new entry.
+     */
+    private boolean evictExpired(long now) {
+        cache.entrySet().removeIf(e -> now - e.getValue().expireAt >= 0L);
+        return cache.size() < maxSize;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private static final class Key {
+
+        private final String appId;
+        private final String secretVersion;
+        private final int hash;
+
+        private Key(String appId, String secretVersion) {
+            this.appId = appId;
+            this.secretVersion = secretVersion;
+            this.hash = 31 * Objects.hashCode(appId) + Objects.hashCode(secretVersion);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(appId, key.appId) && Objects.equals(secretVersion, key.secretVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String secret;
+        private final long expireAt;
+
+        private Entry(String secret, long expireAt) {
+            this.secret = secret;
+            this.expireAt = expireAt;
+        }
+    }
+}
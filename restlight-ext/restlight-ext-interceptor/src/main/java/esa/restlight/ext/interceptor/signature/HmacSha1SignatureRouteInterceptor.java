@@ -15,7 +15,7 @@
  */
 package esa.restlight.ext.interceptor.signature;
 
-import esa.commons.SecurityUtils;
+import esa.httpserver.core.AsyncRequest;
 import esa.restlight.ext.interceptor.config.SignatureOptions;
 
 public class HmacSha1SignatureRouteInterceptor extends AbstractSignatureRouteInterceptor {
@@ -24,8 +24,13 @@ public class HmacSha1SignatureRouteInterceptor extends AbstractSignatureRouteInt
         super(options, secretProvider);
     }
 
+    @Override
+    protected boolean verify(AsyncRequest request, String signature, String secret) {
+        return verify(HmacVerifier.HMAC_SHA1, request, signature, secret);
+    }
+
     @Override
     protected boolean validate(byte[] data, String signature, String sk) {
-        return SecurityUtils.getHmacSHA1(data, sk).equals(signature);
+        return HmacVerifier.HMAC_SHA1.verify(data, signature, sk);
     }
 }
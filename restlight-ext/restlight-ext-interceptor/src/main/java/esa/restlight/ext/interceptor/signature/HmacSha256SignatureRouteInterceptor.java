@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.ext.interceptor.config.SignatureOptions;
+
+public class HmacSha256SignatureRouteInterceptor extends AbstractSignatureRouteInterceptor {
+
+    public HmacSha256SignatureRouteInterceptor(SignatureOptions options, SecretProvider secretProvider) {
+        super(options, secretProvider);
+    }
+
+    @Override
+    protected boolean verify(AsyncRequest request, String signature, String secret) {
+        return verify(HmacVerifier.HMAC_SHA256, request, signature, secret);
+    }
+
+    @Override
+    protected boolean validate(byte[] data, String signature, String sk) {
+        return HmacVerifier.HMAC_SHA256.verify(data, signature, sk);
+    }
+}
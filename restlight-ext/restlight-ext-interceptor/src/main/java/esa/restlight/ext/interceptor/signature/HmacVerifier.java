@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Incremental HMAC verifier which reuses a {@link Mac} per thread, so that the signed content could be fed piece by
+ * piece instead of being concatenated into a single byte array, and compares the result with the hex encoded
+ * signature in constant time.
+ */
+final class HmacVerifier {
+
+    static final HmacVerifier HMAC_SHA1 = new HmacVerifier("HmacSHA1");
+    static final HmacVerifier HMAC_SHA256 = new HmacVerifier("HmacSHA256");
+
+    private final String algorithm;
+    private final FastThreadLocal<Session> local;
+
+    HmacVerifier(String algorithm) {
+        try {
+            // fail fast if the algorithm is not supported by current jvm.
+            Mac.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm, e);
+        }
+        this.algorithm = algorithm;
+        this.local = new FastThreadLocal<Session>() {
+            @Override
+            protected Session initialValue() throws Exception {
+                return new Session(Mac.getInstance(algorithm));
+            }
+        };
+    }
+
+    String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Starts a new verification with given secret, the returned {@link Session} is bound to current thread and should
+     * be finished by {@link Session#matches(String)} or {@link Session#reset()} before the next call of this method.
+     *
+     * @param secret secret key
+     *
+     * @return session
+     */
+    Session begin(String secret) {
+        final Session session = local.get();
+        session.init(secret);
+        return session;
+    }
+
+    /**
+     * Verifies the whole {@code data} at once.
+     *
+     * @param data      data
+     * @param signature hex encoded signature
+     * @param secret    secret key
+     *
+     * @return {@code true} if the signature is matched
+     */
+    boolean verify(byte[] data, String signature, String secret) {
+        final Session session = begin(secret);
+        session.update(data, 0, data.length);
+        return session.matches(signature);
+    }
+
+    static final class Session {
+
+        private final Mac mac;
+        private final byte[] digest;
+        private byte[] scratch = new byte[64];
+        private String secret;
+        private long length;
+
+        private Session(Mac mac) {
+            this.mac = mac;
+            this.digest = new byte[mac.getMacLength()];
+        }
+
+        private void init(String secret) {
+            if (!secret.equals(this.secret)) {
+                try {
+                    mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), mac.getAlgorithm()));
+                } catch (GeneralSecurityException e) {
+                    this.secret = null;
+                    throw new IllegalStateException(mac.getAlgorithm() + " init error", e);
+                }
+                this.secret = secret;
+            } else {
+                // drop the remaining state of last verification if it has not been finished.
+                mac.reset();
+            }
+            this.length = 0L;
+        }
+
+        Session update(byte b) {
+            mac.update(b);
+            length++;
+            return this;
+        }
+
+        Session update(byte[] data, int offset, int len) {
+            mac.update(data, offset, len);
+            length += len;
+            return this;
+        }
+
+        /**
+         * Feeds the UTF-8 bytes of the given value.
+         */
+        Session update(String value) {
+            final int len = value.length();
+            if (scratch.length < len) {
+                scratch = new byte[Math.max(len, scratch.length << 1)];
+            }
+            final byte[] buf = scratch;
+            for (int i = 0; i < len; i++) {
+                final char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // non-ascii, let jdk do the encoding for the rest part.
+                    update(buf, 0, i);
+                    final byte[] rest = value.substring(i).getBytes(StandardCharsets.UTF_8);
+                    return update(rest, 0, rest.length);
+                }
+                buf[i] = (byte) c;
+            }
+            return update(buf, 0, len);
+        }
+
+        /**
+         * Feeds the readable bytes of the given {@link ByteBuf} without changing its indexes.
+         */
+        Session update(ByteBuf buf) {
+            final int len = buf.readableBytes();
+            if (len == 0) {
+                return this;
+            }
+            if (buf.hasArray()) {
+                mac.update(buf.array(), buf.arrayOffset() + buf.readerIndex(), len);
+            } else {
+                for (ByteBuffer nio : buf.nioBuffers(buf.readerIndex(), len)) {
+                    mac.update(nio);
+                }
+            }
+            length += len;
+            return this;
+        }
+
+        /**
+         * Count of the bytes that have been fed since last {@link HmacVerifier#begin(String)}.
+         */
+        long length() {
+            return length;
+        }
+
+        void reset() {
+            mac.reset();
+            length = 0L;
+        }
+
+        /**
+         * Finishes the computation and compares the digest with the given hex encoded signature in constant time.
+         *
+         * @param signature hex encoded signature, case insensitive.
+         *
+         * @return {@code true} if matched
+         */
+        boolean matches(String signature) {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(mac.getAlgorithm() + " encode error", e);
+            } finally {
+                length = 0L;
+            }
+            if (signature == null || signature.length() != digest.length << 1) {
+                return false;
+            }
+            int diff = 0;
+            for (int i = 0, j = 0; i < digest.length; i++, j += 2) {
+                final int b = (hex(signature.charAt(j)) << 4) | hex(signature.charAt(j + 1));
+                diff |= b ^ (digest[i] & 0xFF);
+            }
+            return diff == 0;
+        }
+
+        private static int hex(char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            // an illegal character leads to a negative value which never matches a byte.
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedSecretProviderTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(NullPointerException.class, () -> new CachedSecretProvider(null, 1L, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachedSecretProvider((a, v, t) -> "", 0L, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachedSecretProvider((a, v, t) -> "", 1L, 0));
+    }
+
+    @Test
+    void testCacheWithTtl() {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicLong now = new AtomicLong();
+        final CachedSecretProvider provider = new CachedSecretProvider((appId, version, ts) -> {
+            calls.incrementAndGet();
+            return appId + version;
+        }, 1000L, 16, now::get);
+
+        assertEquals("a1", provider.get("a", "1", "0"));
+        assertEquals("a1", provider.get("a", "1", "1"));
+        assertEquals(1, calls.get());
+        assertEquals("a2", provider.get("a", "2", "1"));
+        assertEquals(2, calls.get());
+
+        now.addAndGet(1_000_000_000L);
+        assertEquals("a1", provider.get("a", "1", "2"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testNullIsNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CachedSecretProvider provider = new CachedSecretProvider((appId, version, ts) -> {
+            calls.incrementAndGet();
+            return null;
+        }, 1000L, 16);
+        assertNull(provider.get("a", "1", "0"));
+        assertNull(provider.get("a", "1", "0"));
+        assertEquals(2, calls.get());
+        assertEquals(0, provider.size());
+    }
+
+    @Test
+    void testMaxSize() {
+        final AtomicLong now = new AtomicLong();
+        final CachedSecretProvider provider =
+                new CachedSecretProvider((appId, version, ts) -> appId, 1000L, 2, now::get);
+        provider.get("a", "1", "0");
+        provider.get("b", "1", "0");
+        provider.get("c", "1", "0");
+        assertEquals(2, provider.size());
+
+        now.addAndGet(1_000_000_000L);
+        provider.get("c", "1", "0");
+        assertEquals(1, provider.size());
+    }
+}
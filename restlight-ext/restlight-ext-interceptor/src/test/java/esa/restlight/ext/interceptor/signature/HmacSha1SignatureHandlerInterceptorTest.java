@@ -27,6 +27,8 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -163,6 +165,26 @@ class HmacSha1SignatureHandlerInterceptorTest extends AbstractSignatureIntercept
         assertThrows(WebServerException.class, () -> signInterceptor.preHandle(request, response, null));
     }
 
+    @Test
+    void testStreamingEqualsToBuildData() {
+        final MockAsyncRequest.Builder builder = MockAsyncRequest.aMockRequest();
+        builder.withBody("{\"\u4e2d\u6587\":\"value\"}".getBytes(StandardCharsets.UTF_8));
+        builder.withUri("/test");
+        builder.withParameter(" b ", " 2 ");
+        builder.withParameter("b", "1");
+        builder.withParameter("a", "\u4e2d\u6587");
+        builder.withParameter("c", "");
+        builder.withParameter(SIGNATURE_PARAM, "foo");
+        final MockAsyncRequest request = builder.build();
+
+        final byte[] data = signInterceptor.buildData(request);
+        assertEquals("a=\u4e2d\u6587&b=1&b=2&c={\"\u4e2d\u6587\":\"value\"}", new String(data, StandardCharsets.UTF_8));
+        final String signature = SecurityUtils.getHmacSHA1(data, SECRET);
+        assertTrue(signInterceptor.verify(request, signature, SECRET));
+        assertFalse(signInterceptor.verify(request, SecurityUtils.getHmacSHA1(data, SECRET + "1"), SECRET));
+        assertEquals(0, request.byteBufBody().readerIndex());
+    }
+
     private byte[] buildData(byte[] data, byte[] body) {
         byte[] mergedData = new byte[data.length + body.length];
         System.arraycopy(data, 0, mergedData, 0, data.length);
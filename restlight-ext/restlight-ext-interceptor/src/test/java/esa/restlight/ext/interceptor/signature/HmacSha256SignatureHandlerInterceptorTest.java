@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.ext.interceptor.config.SignatureOptionsConfigure;
+import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HmacSha256SignatureHandlerInterceptorTest extends AbstractSignatureInterceptorTest {
+
+    private static final String SECRET = "abcdefght";
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final HmacSha256SignatureHandlerInterceptor signInterceptor =
+            new HmacSha256SignatureHandlerInterceptor(SignatureOptionsConfigure.newOpts()
+                    .appId(APP_ID_PARAM_NAME)
+                    .secretVersion(SECRET_VERSION_PARAM_NAME)
+                    .timestamp(TIMESTAMP_PARAM_NAME)
+                    .signature(SIGNATURE_PARAM)
+                    .expireSeconds(TIMESTAMP_ACTIVE_SECONDS)
+                    .secretCacheSeconds(60)
+                    .configured(),
+                    (appId, secretVersion, timestamp) -> {
+                        lookups.incrementAndGet();
+                        return SECRET;
+                    },
+                    new SignValidationScope() {
+            });
+
+    @Test
+    void testSignCorrectly() {
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final String timestamp = String.valueOf(System.currentTimeMillis());
+        final String body = "afadfadfadbabbafdbeqwet14ty231@4&~";
+        final byte[] data = ("appId=appId&foo=bar&sv=1.0&timestamp=" + timestamp + body)
+                .getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 2; i++) {
+            final MockAsyncRequest request = MockAsyncRequest.aMockRequest()
+                    .withBody(body.getBytes(StandardCharsets.UTF_8))
+                    .withUri("/test")
+                    .withParameter(SIGNATURE_PARAM, HmacVerifierTest.hmacSha256(data))
+                    .withParameter(APP_ID_PARAM_NAME, "appId")
+                    .withParameter(SECRET_VERSION_PARAM_NAME, "1.0")
+                    .withParameter(TIMESTAMP_PARAM_NAME, timestamp)
+                    .withParameter("foo", "bar")
+                    .build();
+            assertTrue(signInterceptor.preHandle(request, response, null));
+        }
+        // secret should be cached by (appId, secretVersion)
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void testIllegalSignature() {
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final String timestamp = String.valueOf(System.currentTimeMillis());
+        final byte[] data = ("appId=appId&foo=bar&sv=1.0&timestamp=" + timestamp)
+                .getBytes(StandardCharsets.UTF_8);
+        final MockAsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withUri("/test")
+                .withParameter(SIGNATURE_PARAM, HmacVerifierTest.hmacSha256(data))
+                .withParameter(APP_ID_PARAM_NAME, "appId")
+                .withParameter(SECRET_VERSION_PARAM_NAME, "1.0")
+                .withParameter(TIMESTAMP_PARAM_NAME, timestamp)
+                .withParameter("foo", "baz")
+                .build();
+        assertThrows(WebServerException.class, () -> signInterceptor.preHandle(request, response, null));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.interceptor.signature;
+
+import esa.commons.SecurityUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HmacVerifierTest {
+
+    private static final String SECRET = "abcdefght";
+
+    @Test
+    void testUnsupportedAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> new HmacVerifier("foo"));
+    }
+
+    @Test
+    void testVerify() {
+        final byte[] data = "foo=bar&baz=qux".getBytes(StandardCharsets.UTF_8);
+        final String signature = SecurityUtils.getHmacSHA1(data, SECRET);
+        assertTrue(HmacVerifier.HMAC_SHA1.verify(data, signature, SECRET));
+        assertTrue(HmacVerifier.HMAC_SHA1.verify(data, signature.toUpperCase(Locale.ROOT), SECRET));
+        assertFalse(HmacVerifier.HMAC_SHA1.verify(data, signature, SECRET + "1"));
+        assertFalse(HmacVerifier.HMAC_SHA1.verify(data, signature.substring(1), SECRET));
+        assertFalse(HmacVerifier.HMAC_SHA1.verify(data, "zz" + signature.substring(2), SECRET));
+        assertFalse(HmacVerifier.HMAC_SHA1.verify(data, null, SECRET));
+        // the reused mac should be still available after a mismatch
+        assertTrue(HmacVerifier.HMAC_SHA1.verify(data, signature, SECRET));
+        assertFalse(HmacVerifier.HMAC_SHA256.verify(data, signature, SECRET));
+    }
+
+    @Test
+    void testStreaming() {
+        final String params = "name=\u4e2d\u6587&ts=1";
+        final byte[] body = "{\"foo\":\"bar\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] params0 = params.getBytes(StandardCharsets.UTF_8);
+        final byte[] all = new byte[params0.length + body.length];
+        System.arraycopy(params0, 0, all, 0, params0.length);
+        System.arraycopy(body, 0, all, params0.length, body.length);
+        final String signature = SecurityUtils.getHmacSHA1(all, SECRET);
+
+        final ByteBuf direct = Unpooled.directBuffer().writeBytes(body);
+        final CompositeByteBuf composite = Unpooled.compositeBuffer()
+                .addComponent(true, Unpooled.wrappedBuffer(body, 0, 3))
+                .addComponent(true, Unpooled.directBuffer().writeBytes(body, 3, body.length - 3));
+        try {
+            for (ByteBuf buf : new ByteBuf[]{Unpooled.wrappedBuffer(body), direct, composite}) {
+                final int readerIndex = buf.readerIndex();
+                final HmacVerifier.Session session = HmacVerifier.HMAC_SHA1.begin(SECRET);
+                session.update(params).update(buf);
+                assertEquals(all.length, session.length());
+                assertTrue(session.matches(signature));
+                assertEquals(readerIndex, buf.readerIndex());
+            }
+        } finally {
+            direct.release();
+            composite.release();
+        }
+    }
+
+    @Test
+    void testUnfinishedSessionIsReset() {
+        final byte[] data = "foo".getBytes(StandardCharsets.UTF_8);
+        HmacVerifier.HMAC_SHA256.begin(SECRET).update("garbage");
+        final HmacVerifier.Session session = HmacVerifier.HMAC_SHA256.begin(SECRET);
+        assertEquals(0L, session.length());
+        session.update(data, 0, data.length);
+        assertTrue(session.matches(hmacSha256(data)));
+    }
+
+    static String hmacSha256(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return SecurityUtils.binToHex(mac.doFinal(data));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.multipart.core;
+
+import esa.commons.Checks;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Implementation of {@link MultipartFile} which is wrapped from the {@link esa.httpserver.core.MultipartFile} that
+ * has been decoded by server.
+ */
+public class DecodedMultipartFile implements MultipartFile {
+
+    private final esa.httpserver.core.MultipartFile upload;
+
+    public DecodedMultipartFile(esa.httpserver.core.MultipartFile upload) {
+        Checks.checkNotNull(upload, "upload");
+        this.upload = upload;
+    }
+
+    @Override
+    public String filedName() {
+        return upload.name();
+    }
+
+    @Override
+    public String originalFilename() {
+        return upload.fileName();
+    }
+
+    @Override
+    public String contentType() {
+        return upload.contentType();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return upload.length() == 0L;
+    }
+
+    @Override
+    public long size() {
+        return upload.length();
+    }
+
+    @Override
+    public byte[] bytes() throws IOException {
+        return ByteBufUtil.getBytes(upload.getByteBuf());
+    }
+
+    @Override
+    public InputStream inputStream() throws IOException {
+        return new ByteBufInputStream(upload.getByteBuf(), false);
+    }
+
+    @Override
+    public String contentTransferEncoding() {
+        return upload.contentTransferEncoding();
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return upload.isInMemory();
+    }
+
+    @Override
+    public File file() throws IOException {
+        return upload.file();
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        upload.transferTo(dest);
+    }
+
+    @Override
+    public String string() throws IOException {
+        return upload.string();
+    }
+
+    @Override
+    public String string(Charset charset) throws IOException {
+        return upload.string(charset);
+    }
+
+    @Override
+    public void delete() {
+        upload.delete();
+    }
+}
@@ -21,8 +21,10 @@ import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.MultiPart;
 import esa.restlight.core.method.Param;
 import esa.restlight.core.resolver.arg.AbstractNameAndValueArgumentResolver;
+import esa.restlight.ext.multipart.core.DecodedMultipartFile;
 import esa.restlight.ext.multipart.core.MultipartConfig;
 import esa.restlight.ext.multipart.core.MultipartFile;
 import esa.restlight.ext.multipart.core.MultipartFileImpl;
@@ -41,6 +43,9 @@ import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+
+import static esa.restlight.server.bootstrap.NettyRestlightServer.DECODED_MULTIPART;
 
 abstract class AbstractMultipartParamResolver extends AbstractNameAndValueArgumentResolver {
 
@@ -74,6 +79,12 @@ abstract class AbstractMultipartParamResolver extends AbstractNameAndValueArgume
     @Override
     protected Object resolveName(String name, AsyncRequest request) throws Exception {
         if (!request.hasAttribute(MULTIPART_BODY_RESOLVED)) {
+            final MultiPart decoded = request.getUncheckedAttribute(DECODED_MULTIPART);
+            if (decoded != null) {
+                resolveDecoded(decoded, request);
+                return getParamValue(name, request);
+            }
+
             final HttpRequest request0 = formattedReq(request);
 
             if (!HttpPostRequestDecoder.isMultipart(request0)) {
@@ -102,6 +113,27 @@ abstract class AbstractMultipartParamResolver extends AbstractNameAndValueArgume
         return getParamValue(name, request);
     }
 
+    /**
+     * Use the multipart which has already been decoded incrementally by server, and the temporary resources of which
+     * will be released by server after the request is completed.
+     */
+    private void resolveDecoded(MultiPart decoded, AsyncRequest request) {
+        for (Map.Entry<String, List<String>> attr : decoded.attributes().entrySet()) {
+            final List<String> values = attr.getValue();
+            if (values != null && !values.isEmpty()) {
+                // keep the same behaviour with the aggregated body that the latter one wins.
+                request.setAttribute(PREFIX + attr.getKey(), values.get(values.size() - 1));
+            }
+        }
+        final List<esa.httpserver.core.MultipartFile> uploads = decoded.uploadFiles();
+        final List<MultipartFile> files = new ArrayList<>(uploads.size());
+        for (esa.httpserver.core.MultipartFile upload : uploads) {
+            files.add(parse(upload));
+        }
+        request.setAttribute(MULTIPART_FILES, files);
+        request.setAttribute(MULTIPART_BODY_RESOLVED, true);
+    }
+
     private static HttpDataFactory buildFactory(final MultipartConfig config) {
         HttpDataFactory factory;
         if (config.isUseDisk()) {
@@ -174,6 +206,17 @@ abstract class AbstractMultipartParamResolver extends AbstractNameAndValueArgume
         return new MultipartFileImpl(fileUpload);
     }
 
+    /**
+     * Parse the {@link esa.httpserver.core.MultipartFile} decoded by server to {@link MultipartFile}.
+     *
+     * @param upload source file upload
+     *
+     * @return target multipartFile
+     */
+    protected MultipartFile parse(esa.httpserver.core.MultipartFile upload) {
+        return new DecodedMultipartFile(upload);
+    }
+
     /**
      * Get parameter value from request's attribute.
      *
@@ -15,17 +15,27 @@
  */
 package esa.restlight.ext.multipart.resolver;
 
+import esa.commons.collection.LinkedMultiValueMap;
+import esa.commons.collection.MultiValueMap;
 import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.MultiPart;
 import esa.restlight.core.method.MethodParam;
 import esa.restlight.core.resolver.ArgumentResolver;
 import esa.restlight.ext.multipart.core.MultipartFile;
 import esa.restlight.server.bootstrap.WebServerException;
+import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.List;
 
+import static esa.restlight.server.bootstrap.NettyRestlightServer.DECODED_MULTIPART;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class MultipartFileArgumentResolverTest extends AbstractMultipartResolverTest {
 
@@ -193,4 +203,33 @@ class MultipartFileArgumentResolverTest extends AbstractMultipartResolverTest {
         assertEquals("value2", resolved1);
     }
 
+
+    @Test
+    void testDecodedByServer() throws Exception {
+        final esa.httpserver.core.MultipartFile upload = mock(esa.httpserver.core.MultipartFile.class);
+        when(upload.name()).thenReturn("foo");
+        when(upload.fileName()).thenReturn("foo.tab");
+        when(upload.length()).thenReturn(5L);
+        final MultiValueMap<String, String> attrs = new LinkedMultiValueMap<>();
+        attrs.add("foo", "value0");
+        attrs.add("foo", "value1");
+        final MultiPart decoded = mock(MultiPart.class);
+        when(decoded.uploadFiles()).thenReturn(Collections.singletonList(upload));
+        when(decoded.attributes()).thenReturn(attrs);
+
+        // the body has not been aggregated when the multipart is decoded by server.
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "multipart/form-data; boundary=---1234")
+                .build();
+        request.setAttribute(DECODED_MULTIPART, decoded);
+
+        final MultipartFile resolved = (MultipartFile) createResolverAndResolve(request, "multipartFile", 0);
+        assertEquals("foo.tab", resolved.originalFilename());
+        assertEquals(5L, resolved.size());
+        assertFalse(resolved.isEmpty());
+        assertEquals("value1", createFormResolverAndResolve(request, "formParam", 0));
+
+        resolved.delete();
+        verify(upload).delete();
+    }
 }
@@ -25,8 +25,11 @@ import esa.restlight.core.handler.HandlerInvoker;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
+import javax.validation.metadata.MethodDescriptor;
 import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.Predicate;
 
 class BeanValidationHandlerAdvice implements HandlerAdvice {
 
@@ -36,18 +39,40 @@ class BeanValidationHandlerAdvice implements HandlerAdvice {
     private final boolean validateParams;
     private final boolean validateReturnValue;
     private final Class<?>[] groups;
+    private final Predicate<Object[]> paramsFastPath;
+    private final int[] cascadedParams;
+    private final Predicate<Object> returnValueFastPath;
 
     BeanValidationHandlerAdvice(Validator validator,
                                 Object object,
                                 Method method,
                                 boolean validateParams,
                                 boolean validateReturnValue) {
+        this(validator, object, method, null, validateParams, validateReturnValue);
+    }
+
+    BeanValidationHandlerAdvice(Validator validator,
+                                Object object,
+                                Method method,
+                                MethodDescriptor descriptor,
+                                boolean validateParams,
+                                boolean validateReturnValue) {
         this.validator = validator;
         this.method = method;
         this.object = object;
         this.validateParams = validateParams;
         this.validateReturnValue = validateReturnValue;
         this.groups = getValidGroup(method);
+        if (descriptor == null) {
+            this.paramsFastPath = null;
+            this.cascadedParams = null;
+            this.returnValueFastPath = null;
+        } else {
+            this.paramsFastPath = validateParams ? SimpleConstraints.forParameters(descriptor, groups) : null;
+            this.cascadedParams = paramsFastPath == null ? null : SimpleConstraints.cascadedParameters(descriptor);
+            this.returnValueFastPath = validateReturnValue
+                    ? SimpleConstraints.forReturnValue(descriptor, groups) : null;
+        }
     }
 
     private Class<?>[] getValidGroup(Method method) {
@@ -66,10 +91,16 @@ class BeanValidationHandlerAdvice implements HandlerAdvice {
                          AsyncResponse response,
                          Object[] args,
                          HandlerInvoker invoker) throws Throwable {
+        // Simple constraints are checked directly and the cascaded parameters are validated one by one, the
+        // validation of the whole method is only needed when the simple check fails
         if (validateParams) {
-            Set<ConstraintViolation<Object>> constraintViolations =
-                    validator.forExecutables().validateParameters(object,
-                            method, args, groups);
+            final Set<ConstraintViolation<Object>> constraintViolations;
+            if (paramsFastPath != null && paramsFastPath.test(args)) {
+                constraintViolations = validateCascadedParams(args);
+            } else {
+                constraintViolations = validator.forExecutables().validateParameters(object,
+                        method, args, groups);
+            }
             if (constraintViolations != null && !constraintViolations.isEmpty()) {
                 throw new ConstraintViolationException("Failed to validate parameters of method '" + this.method + "'",
                         constraintViolations);
@@ -78,7 +109,7 @@ class BeanValidationHandlerAdvice implements HandlerAdvice {
 
         Object result = invoker.invoke(request, response, args);
 
-        if (validateReturnValue) {
+        if (validateReturnValue && (returnValueFastPath == null || !returnValueFastPath.test(result))) {
             Set<ConstraintViolation<Object>> constraintViolations1 =
                     validator.forExecutables().validateReturnValue(object, method, result, groups);
             if (constraintViolations1 != null && !constraintViolations1.isEmpty()) {
@@ -90,6 +121,23 @@ class BeanValidationHandlerAdvice implements HandlerAdvice {
         return result;
     }
 
+    private Set<ConstraintViolation<Object>> validateCascadedParams(Object[] args) {
+        Set<ConstraintViolation<Object>> constraintViolations = null;
+        for (int i : cascadedParams) {
+            if (args[i] == null) {
+                continue;
+            }
+            final Set<ConstraintViolation<Object>> violations = validator.validate(args[i], groups);
+            if (!violations.isEmpty()) {
+                if (constraintViolations == null) {
+                    constraintViolations = new LinkedHashSet<>();
+                }
+                constraintViolations.addAll(violations);
+            }
+        }
+        return constraintViolations;
+    }
+
     @Override
     public int getOrder() {
         return 0;
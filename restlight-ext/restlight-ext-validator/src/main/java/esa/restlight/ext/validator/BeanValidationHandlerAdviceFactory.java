@@ -65,6 +65,7 @@ public class BeanValidationHandlerAdviceFactory implements HandlerAdviceFactory
             return Optional.of(new BeanValidationHandlerAdvice(validator.get(),
                     handler.handler().object(),
                     handler.handler().method(),
+                    descriptor,
                     validateParams,
                     validateReturnValue));
         }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.validator;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import javax.validation.metadata.CascadableDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.ContainerDescriptor;
+import javax.validation.metadata.ElementDescriptor;
+import javax.validation.metadata.MethodDescriptor;
+import javax.validation.metadata.ParameterDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Compiles the simple constraints(such as {@link NotNull}, {@link NotEmpty}, {@link Size}, {@link Min} and {@link
+ * Max}) of the method parameters and return value into plain checks which could tell whether the value is valid
+ * without the full bean validation machinery.
+ * <p>
+ * Notice that the compiled {@link Predicate} returns {@code true} only if the value is definitely valid, and a
+ * {@code false} result means that the full bean validation should be performed to get the detailed violations, so
+ * the violations and messages are always the same with the bean validation. The parameters annotated by {@link
+ * javax.validation.Valid} are not checked by the compiled {@link Predicate} and should be validated one by one, see
+ * {@link #cascadedParameters(MethodDescriptor)}.
+ */
+final class SimpleConstraints {
+
+    private static final Set<Class<?>> DEFAULT_GROUP = Collections.singleton(Default.class);
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /**
+     * Compiles the constraints of the parameters of given method.
+     *
+     * @param descriptor method descriptor
+     * @param groups     groups to validate
+     *
+     * @return predicate or {@code null} if there's any constraint can not be compiled.
+     */
+    static Predicate<Object[]> forParameters(MethodDescriptor descriptor, Class<?>[] groups) {
+        if (!isDefaultGroup(groups) || descriptor.getCrossParameterDescriptor().hasConstraints()) {
+            return null;
+        }
+        final List<Integer> indexes = new ArrayList<>();
+        final List<Predicate<Object>> checks = new ArrayList<>();
+        for (ParameterDescriptor parameter : descriptor.getParameterDescriptors()) {
+            if (!parameter.hasConstraints() && !parameter.isCascaded()
+                    && parameter.getConstrainedContainerElementTypes().isEmpty()) {
+                // skip the parameter without any constraint
+                continue;
+            }
+            final Predicate<Object> check = compile(parameter, parameter, parameter, isCascadedSeparately(parameter));
+            if (check == null) {
+                return null;
+            }
+            indexes.add(parameter.getIndex());
+            checks.add(check);
+        }
+        final int[] idx = indexes.stream().mapToInt(Integer::intValue).toArray();
+        @SuppressWarnings("unchecked")
+        final Predicate<Object>[] cks = checks.toArray(new Predicate[0]);
+        return args -> {
+            for (int i = 0; i < idx.length; i++) {
+                if (!cks[i].test(args[idx[i]])) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Gets the indexes of the cascaded parameters of given method which are not checked by the {@link Predicate}
+     * compiled by {@link #forParameters(MethodDescriptor, Class[])}, and each of them should be validated by {@link
+     * javax.validation.Validator#validate(Object, Class[])} if it is not {@code null}.
+     *
+     * @param descriptor method descriptor
+     *
+     * @return indexes
+     */
+    static int[] cascadedParameters(MethodDescriptor descriptor) {
+        return descriptor.getParameterDescriptors().stream()
+                .filter(SimpleConstraints::isCascadedSeparately)
+                .mapToInt(ParameterDescriptor::getIndex)
+                .toArray();
+    }
+
+    /**
+     * Compiles the constraints of the return value of given method.
+     *
+     * @param descriptor method descriptor
+     * @param groups     groups to validate
+     *
+     * @return predicate or {@code null} if there's any constraint can not be compiled.
+     */
+    static Predicate<Object> forReturnValue(MethodDescriptor descriptor, Class<?>[] groups) {
+        if (!isDefaultGroup(groups)) {
+            return null;
+        }
+        return compile(descriptor.getReturnValueDescriptor(),
+                descriptor.getReturnValueDescriptor(),
+                descriptor.getReturnValueDescriptor(),
+                false);
+    }
+
+    private static Predicate<Object> compile(ElementDescriptor element,
+                                             CascadableDescriptor cascadable,
+                                             ContainerDescriptor container,
+                                             boolean cascadedSeparately) {
+        if (!cascadable.getGroupConversions().isEmpty() || !container.getConstrainedContainerElementTypes().isEmpty()) {
+            return null;
+        }
+        Predicate<Object> check;
+        if (!cascadable.isCascaded()) {
+            check = v -> true;
+        } else if (cascadedSeparately) {
+            // the elements of a container value are cascaded by the bean validation of the method.
+            check = v -> !isContainer(v);
+        } else {
+            // cascading into a null value does nothing, and others should be validated by bean validation.
+            check = v -> v == null;
+        }
+        if (element.hasConstraints() && !isSimpleType(element.getElementClass())) {
+            // such as Optional which may be unwrapped by the value extractors.
+            return null;
+        }
+        for (ConstraintDescriptor<?> constraint : element.getConstraintDescriptors()) {
+            final Predicate<Object> c = compile(constraint);
+            if (c == null) {
+                return null;
+            }
+            check = check.and(c);
+        }
+        return check;
+    }
+
+    private static Predicate<Object> compile(ConstraintDescriptor<?> constraint) {
+        if (!DEFAULT_GROUP.equals(constraint.getGroups())
+                || !constraint.getComposingConstraints().isEmpty()) {
+            return null;
+        }
+        final Annotation annotation = constraint.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return v -> v != null;
+        }
+        if (annotation instanceof NotEmpty) {
+            return v -> size(v) > 0;
+        }
+        if (annotation instanceof Size) {
+            final int min = ((Size) annotation).min();
+            final int max = ((Size) annotation).max();
+            return v -> {
+                if (v == null) {
+                    return true;
+                }
+                final int size = size(v);
+                return size >= min && size <= max;
+            };
+        }
+        if (annotation instanceof Min) {
+            final long min = ((Min) annotation).value();
+            return v -> {
+                if (v == null) {
+                    return true;
+                }
+                final int c = compare(v, min);
+                return c != UNKNOWN && c >= 0;
+            };
+        }
+        if (annotation instanceof Max) {
+            final long max = ((Max) annotation).value();
+            return v -> {
+                if (v == null) {
+                    return true;
+                }
+                final int c = compare(v, max);
+                return c != UNKNOWN && c <= 0;
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Gets the size of the value, -1 if the value is {@code null} or the type is not supported.
+     */
+    private static int size(Object v) {
+        if (v instanceof CharSequence) {
+            return ((CharSequence) v).length();
+        }
+        if (v instanceof Collection) {
+            return ((Collection<?>) v).size();
+        }
+        if (v instanceof Map) {
+            return ((Map<?, ?>) v).size();
+        }
+        if (v != null && v.getClass().isArray()) {
+            return Array.getLength(v);
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the value with the given bound, {@link #UNKNOWN} if the type is not supported.
+     */
+    private static int compare(Object v, long bound) {
+        if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) {
+            return Long.compare(((Number) v).longValue(), bound);
+        }
+        if (v instanceof BigDecimal) {
+            return ((BigDecimal) v).compareTo(BigDecimal.valueOf(bound));
+        }
+        if (v instanceof BigInteger) {
+            return ((BigInteger) v).compareTo(BigInteger.valueOf(bound));
+        }
+        return UNKNOWN;
+    }
+
+    private static boolean isCascadedSeparately(ParameterDescriptor parameter) {
+        return parameter.isCascaded()
+                && parameter.getGroupConversions().isEmpty()
+                && !isContainerType(parameter.getElementClass());
+    }
+
+    private static boolean isContainer(Object v) {
+        return v != null && isContainerType(v.getClass());
+    }
+
+    private static boolean isContainerType(Class<?> type) {
+        return Iterable.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type)
+                || Optional.class.isAssignableFrom(type)
+                || type.isArray();
+    }
+
+    private static boolean isSimpleType(Class<?> type) {
+        return type.isPrimitive()
+                || CharSequence.class.isAssignableFrom(type)
+                || Number.class.isAssignableFrom(type)
+                || Boolean.class == type
+                || Character.class == type
+                || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type)
+                || type.isArray();
+    }
+
+    private static boolean isDefaultGroup(Class<?>[] groups) {
+        return groups.length == 0 || (groups.length == 1 && groups[0] == Default.class);
+    }
+
+    private SimpleConstraints() {
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.ext.validator;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.handler.HandlerInvoker;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import javax.validation.metadata.MethodDescriptor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleConstraintsTest {
+
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private static final Class<?>[] NO_GROUP = new Class<?>[0];
+
+    @Test
+    void testSimpleParameters() throws NoSuchMethodException {
+        final Predicate<Object[]> check = SimpleConstraints.forParameters(descriptor("simple"), NO_GROUP);
+        assertNotNull(check);
+        assertTrue(check.test(new Object[]{"a", 1, Collections.singletonList(1), "any", 10L}));
+        assertTrue(check.test(new Object[]{"abcde", 10, Collections.emptyList(), null, null}));
+
+        assertFalse(check.test(new Object[]{null, 1, null, null, null}));
+        assertFalse(check.test(new Object[]{"", 1, null, null, null}));
+        assertFalse(check.test(new Object[]{"abcdef", 1, null, null, null}));
+        assertFalse(check.test(new Object[]{"a", 0, null, null, null}));
+        assertFalse(check.test(new Object[]{"a", 11, null, null, null}));
+        assertFalse(check.test(new Object[]{"a", 1, Collections.nCopies(3, 1), null, null}));
+        assertFalse(check.test(new Object[]{"a", 1, null, null, 101L}));
+    }
+
+    @Test
+    void testBigDecimal() throws NoSuchMethodException {
+        final Predicate<Object[]> check = SimpleConstraints.forParameters(descriptor("decimal"), NO_GROUP);
+        assertNotNull(check);
+        assertTrue(check.test(new Object[]{BigDecimal.ONE}));
+        assertFalse(check.test(new Object[]{BigDecimal.valueOf(-1L)}));
+    }
+
+    @Test
+    void testUnsupported() throws NoSuchMethodException {
+        assertNull(SimpleConstraints.forParameters(descriptor("email"), NO_GROUP));
+        assertNull(SimpleConstraints.forParameters(descriptor("optional"), NO_GROUP));
+        assertNull(SimpleConstraints.forParameters(descriptor("containerElement"), NO_GROUP));
+        assertNull(SimpleConstraints.forParameters(descriptor("grouped"), NO_GROUP));
+        assertNull(SimpleConstraints.forParameters(descriptor("simple"), new Class<?>[]{Group.class}));
+        assertNotNull(SimpleConstraints.forParameters(descriptor("simple"), new Class<?>[]{Default.class}));
+    }
+
+    @Test
+    void testCascaded() throws NoSuchMethodException {
+        final Predicate<Object[]> check = SimpleConstraints.forParameters(descriptor("cascaded"), NO_GROUP);
+        assertNotNull(check);
+        assertTrue(check.test(new Object[]{null}));
+        // non-null value is validated separately
+        assertTrue(check.test(new Object[]{new BeanSubject()}));
+        // elements of the container should be validated by bean validation of the method
+        assertFalse(check.test(new Object[]{Collections.singletonList(new BeanSubject())}));
+        assertArrayEquals(new int[]{0}, SimpleConstraints.cascadedParameters(descriptor("cascaded")));
+        // cascading into the container elements
+        assertNull(SimpleConstraints.forParameters(descriptor("cascadedList"), NO_GROUP));
+    }
+
+    @Test
+    void testReturnValue() throws NoSuchMethodException {
+        final Predicate<Object> check = SimpleConstraints.forReturnValue(descriptor("returnValue"), NO_GROUP);
+        assertNotNull(check);
+        assertTrue(check.test("a"));
+        assertFalse(check.test(""));
+        assertFalse(check.test(null));
+    }
+
+    @Test
+    void testAdviceFallbackToBeanValidation() throws Throwable {
+        final Method method = method("simple");
+        final Validator spied = spy(validator);
+        final BeanValidationHandlerAdvice advice = new BeanValidationHandlerAdvice(spied, this, method,
+                descriptor("simple"), true, false);
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final HandlerInvoker invoker = mock(HandlerInvoker.class);
+        when(invoker.invoke(any(), any(), any())).thenReturn("ok");
+
+        // valid arguments are checked by the fast path only
+        assertEquals("ok", advice.invoke(request, response, new Object[]{"a", 1, null, null, null}, invoker));
+        verify(spied, never()).forExecutables();
+
+        final ConstraintViolationException ex = assertThrows(ConstraintViolationException.class,
+                () -> advice.invoke(request, response, new Object[]{"a", 0, null, null, null}, invoker));
+        assertEquals(1, ex.getConstraintViolations().size());
+        verify(spied).forExecutables();
+    }
+
+    @Test
+    void testAdviceValidatesCascadedParametersOnly() throws Throwable {
+        final Validator spied = spy(validator);
+        final BeanValidationHandlerAdvice advice = new BeanValidationHandlerAdvice(spied, this,
+                method("cascadedAndSimple"), descriptor("cascadedAndSimple"), true, false);
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final HandlerInvoker invoker = mock(HandlerInvoker.class);
+        when(invoker.invoke(any(), any(), any())).thenReturn("ok");
+
+        final BeanSubject.SimpleBean valid = new BeanSubject.SimpleBean("foo", 1, null);
+        assertEquals("ok", advice.invoke(request, response, new Object[]{valid, "a"}, invoker));
+        assertEquals("ok", advice.invoke(request, response, new Object[]{null, "a"}, invoker));
+        verify(spied, never()).forExecutables();
+
+        // violations of the cascaded parameter
+        final ConstraintViolationException ex = assertThrows(ConstraintViolationException.class,
+                () -> advice.invoke(request, response,
+                        new Object[]{new BeanSubject.SimpleBean("", 200, null), "a"}, invoker));
+        assertEquals(2, ex.getConstraintViolations().size());
+        verify(spied, never()).forExecutables();
+
+        // simple constraint fails
+        assertThrows(ConstraintViolationException.class,
+                () -> advice.invoke(request, response, new Object[]{valid, ""}, invoker));
+        verify(spied).forExecutables();
+    }
+
+    private static MethodDescriptor descriptor(String name) throws NoSuchMethodException {
+        final Method method = method(name);
+        return validator.getConstraintsForClass(SimpleConstraintsTest.class)
+                .getConstraintsForMethod(name, method.getParameterTypes());
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        for (Method m : SimpleConstraintsTest.class.getDeclaredMethods()) {
+            if (m.getName().equals(name)) {
+                return m;
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    public void simple(@NotEmpty @Size(max = 5) String name,
+                       @Min(1) @Max(10) int age,
+                       @Size(max = 2) List<Integer> ids,
+                       String unconstrained,
+                       @Max(100) Long count) {
+    }
+
+    public void decimal(@Min(0) BigDecimal amount) {
+    }
+
+    public void email(@Email String email) {
+    }
+
+    public void optional(@NotNull Optional<String> value) {
+    }
+
+    public void containerElement(List<@NotEmpty String> names) {
+    }
+
+    public void grouped(@NotNull(groups = Group.class) String value) {
+    }
+
+    public void cascaded(@Valid BeanSubject subject) {
+    }
+
+    public void cascadedList(@Valid List<BeanSubject> subjects) {
+    }
+
+    public void cascadedAndSimple(@Valid BeanSubject.SimpleBean bean, @NotEmpty String message) {
+    }
+
+    @NotEmpty
+    public String returnValue() {
+        return null;
+    }
+
+    interface Group {
+    }
+}
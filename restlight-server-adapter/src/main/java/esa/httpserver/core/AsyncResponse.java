@@ -98,6 +98,15 @@ public interface AsyncResponse {
      */
     boolean isCommitted();
 
+    /**
+     * Returns the count of the body bytes that have been sent by this response.
+     *
+     * @return count of bytes, or {@code -1} if it is unknown(such as the body is sent by {@link #sendFile(File)}).
+     */
+    default long bodyLength() {
+        return -1L;
+    }
+
     /**
      * Reset this response to origin status, which means the values you have changed will be reset such headers, status
      * and so on.
@@ -41,7 +41,8 @@ public class AsyncResponseImpl implements AsyncResponse {
 
     private final Response res;
     private int bufferSize = DEFAULT_BUFFER_SIZE;
-    private HttpOutputStream os;
+    private ByteBufHttpOutputStream os;
+    private long bodyLength = -1L;
 
     public AsyncResponseImpl(Response res) {
         this.res = res;
@@ -93,6 +94,11 @@ public class AsyncResponseImpl implements AsyncResponse {
         return res.isCommitted();
     }
 
+    @Override
+    public long bodyLength() {
+        return os == null ? bodyLength : os.flushedBytes();
+    }
+
     @Override
     public void reset() {
         if (isCommitted()) {
@@ -107,18 +113,21 @@ public class AsyncResponseImpl implements AsyncResponse {
     @Override
     public void sendResult(byte[] body, int off, int len) {
         checkOutputStream();
+        bodyLength = body == null ? 0L : len;
         res.end(body, off, len);
     }
 
     @Override
     public void sendResult(byte[] body) {
         checkOutputStream();
+        bodyLength = body == null ? 0L : body.length;
         res.end(body);
     }
 
     @Override
     public void sendResult(ByteBuf body, boolean autoRelease) {
         checkOutputStream();
+        bodyLength = body == null ? 0L : body.readableBytes();
         if (autoRelease) {
             res.end(body);
         } else {
@@ -143,6 +152,7 @@ public class AsyncResponseImpl implements AsyncResponse {
             throw new IndexOutOfBoundsException();
         }
 
+        bodyLength = len;
         if (autoRelease) {
             res.end(body.slice(off, len));
         } else {
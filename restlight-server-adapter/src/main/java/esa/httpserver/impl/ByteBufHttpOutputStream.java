@@ -35,6 +35,7 @@ final class ByteBufHttpOutputStream extends HttpOutputStream {
     private final ByteBuf byteBuf;
     private final Response resp;
     private volatile int closed;
+    private long flushedBytes;
     private static final AtomicIntegerFieldUpdater<ByteBufHttpOutputStream> CLOSED_UPDATER =
             AtomicIntegerFieldUpdater.newUpdater(ByteBufHttpOutputStream.class, "closed");
 
@@ -208,6 +209,7 @@ final class ByteBufHttpOutputStream extends HttpOutputStream {
             return;
         }
 
+        flushedBytes += byteBuf.readableBytes();
         if (isLast) {
             resp.write(byteBuf);
         } else {
@@ -223,6 +225,13 @@ final class ByteBufHttpOutputStream extends HttpOutputStream {
         }
     }
 
+    /**
+     * Count of the bytes that have been flushed to the response.
+     */
+    long flushedBytes() {
+        return flushedBytes;
+    }
+
     private void checkNullAndCloseState(String s) {
         Checks.checkNotNull(s, "s");
         checkCloseState();
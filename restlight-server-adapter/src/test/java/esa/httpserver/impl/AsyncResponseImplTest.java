@@ -195,8 +195,10 @@ class AsyncResponseImplTest {
         buf.writeLong(2L);
         final byte[] body = ByteBufUtil.getBytes(buf);
 
+        assertEquals(-1L, response.bodyLength());
         response.sendResult(body, 0, 8);
         verify(mock).end(same(body), eq(0), eq(8));
+        assertEquals(8L, response.bodyLength());
 
         reset(mock);
 
@@ -208,6 +210,7 @@ class AsyncResponseImplTest {
 
         response.sendResult(body);
         verify(mock).end(same(body));
+        assertEquals(16L, response.bodyLength());
 
         reset(mock);
 
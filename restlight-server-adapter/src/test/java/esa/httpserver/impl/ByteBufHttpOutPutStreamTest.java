@@ -84,6 +84,7 @@ class ByteBufHttpOutPutStreamTest {
 
         out.close();
         assertArrayEquals(ByteBufUtil.getBytes(buf), ByteBufUtil.getBytes(write));
+        assertEquals(buf.readableBytes(), out.flushedBytes());
 
         assertThrows(IllegalStateException.class, () -> out.write(1));
         assertThrows(IllegalStateException.class, () -> out.write(bytes, 0, 8));
@@ -21,18 +21,26 @@ import esa.commons.annotation.Beta;
 import esa.commons.spi.SpiLoader;
 import esa.restlight.core.util.Constants;
 import esa.restlight.core.util.OrderedComparator;
+import esa.restlight.server.batch.BatchCodec;
+import esa.restlight.server.batch.BatchRestlightHandler;
 import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
 import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.cache.CachePolicy;
+import esa.restlight.server.cache.ResponseCache;
+import esa.restlight.server.config.BatchOptions;
 import esa.restlight.server.config.BizThreadsOptions;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.TimeoutOptions;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.metrics.RouteMetrics;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
 import esa.restlight.server.route.impl.CachedRouteRegistry;
 import esa.restlight.server.route.impl.SimpleRouteRegistry;
 import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.LockFreeArrayBlockingQueue;
 import esa.restlight.server.schedule.RequestTask;
 import esa.restlight.server.schedule.RequestTaskHook;
 import esa.restlight.server.schedule.ScheduledRestlightHandler;
@@ -42,6 +50,7 @@ import esa.restlight.server.spi.DispatcherExceptionHandlerFactory;
 import esa.restlight.server.spi.DispatcherHandlerFactory;
 import esa.restlight.server.spi.RequestTaskHookFactory;
 import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PhaseTimer;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -70,6 +79,7 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
     private final List<Route> routes = new LinkedList<>();
     private final List<RequestTaskHookFactory> requestTaskHooks = new LinkedList<>();
     private final ServerDeployContext<O> ctx;
+    private final PhaseTimer startupPhases = new PhaseTimer();
     private RestlightHandler handler;
 
     static {
@@ -101,9 +111,14 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
     private void configEmbeddedSchedulers(O options) {
         this.addScheduler(Schedulers.io());
         BizThreadsOptions bizOptions = options.getBizThreads();
-        final BlockingQueue<Runnable> workQueue = bizOptions.getBlockingQueueLength() > 0
-                ? new LinkedBlockingQueue<>(bizOptions.getBlockingQueueLength())
-                : new SynchronousQueue<>();
+        final BlockingQueue<Runnable> workQueue;
+        if (bizOptions.getBlockingQueueLength() <= 0) {
+            workQueue = new SynchronousQueue<>();
+        } else if (bizOptions.isLockFreeQueue()) {
+            workQueue = new LockFreeArrayBlockingQueue<>(bizOptions.getBlockingQueueLength());
+        } else {
+            workQueue = new LinkedBlockingQueue<>(bizOptions.getBlockingQueueLength());
+        }
         final ThreadPoolExecutor biz = new ThreadPoolExecutor(bizOptions.getCore(),
                 bizOptions.getMax(),
                 bizOptions.getKeepAliveTimeSeconds(),
@@ -113,6 +128,20 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
         this.addScheduler(Schedulers.fromExecutor(Schedulers.BIZ, biz));
     }
 
+    /**
+     * Gets the affinity scheduler, which is only registered when there's any route asks for it.
+     */
+    private Scheduler affinityScheduler() {
+        Scheduler scheduler = ctx().schedulers().get(Schedulers.AFFINITY);
+        if (scheduler == null) {
+            this.addScheduler(Schedulers.affinity(ctx().options().getScheduling().getAffinity(),
+                    Math.max(1, ctx().options().getIoThreads()),
+                    this::rejectWork));
+            scheduler = ctx().schedulers().get(Schedulers.AFFINITY);
+        }
+        return scheduler;
+    }
+
     protected ServerDeployContext<O> newContext(O options) {
         return new ServerDeployContextImpl<>(restlight.name(), options);
     }
@@ -130,7 +159,9 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
         if (route.scheduler() == null) {
             String defaultScheduler = ctx.options().getScheduling().getDefaultScheduler();
             if (StringUtils.isNotEmpty(defaultScheduler)) {
-                Scheduler scheduler = ctx().schedulers().get(defaultScheduler);
+                Scheduler scheduler = Schedulers.AFFINITY.equals(defaultScheduler)
+                        ? affinityScheduler()
+                        : ctx().schedulers().get(defaultScheduler);
                 if (scheduler == null) {
                     throw new IllegalStateException("Could not find any scheduler named '"
                             + defaultScheduler + "'");
@@ -144,6 +175,9 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
         } else if (Schedulers.isBiz(route.scheduler())) {
             route = Route.route(route)
                     .schedule(ctx().schedulers().get(Schedulers.BIZ));
+        } else if (Schedulers.isAffinity(route.scheduler())) {
+            route = Route.route(route)
+                    .schedule(affinityScheduler());
         }
         this.routes.add(route);
         return self();
@@ -259,8 +293,9 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
 
         final RouteRegistry routeRegistry = getRouteRegistry();
         // register routes
-        registerRoutes(routeRegistry);
+        startupPhases.time("routes", () -> registerRoutes(routeRegistry));
         ctx().setRegistry(routeRegistry.toReadOnly());
+        final long start = System.nanoTime();
 
         // load DispatcherExceptionHandler by spi
         List<DispatcherExceptionHandlerFactory> exHandlerFactories =
@@ -295,13 +330,79 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
                 .getByGroup(restlight.name(), true)
                 .forEach(this::addRequestTaskHook);
 
-        return new ScheduledRestlightHandler(ctx.options(),
+        final RouteMetrics routeMetrics;
+        if (ctx.options().getMetrics() != null && ctx.options().getMetrics().isEnable()) {
+            routeMetrics = new RouteMetrics(ctx.options().getMetrics());
+            ctx().setRouteMetrics(routeMetrics);
+        } else {
+            routeMetrics = null;
+        }
+        if (ctx.options().getWatchdog() != null && ctx.options().getWatchdog().isEnable()) {
+            ctx().setEventLoopWatchdog(new EventLoopWatchdog(ctx.options().getWatchdog()));
+        }
+        final ResponseCache responseCache;
+        if (ctx.options().getResponseCache() != null && ctx.options().getResponseCache().isEnable()) {
+            responseCache = new ResponseCache(ctx.options().getResponseCache(), this::cachePolicy);
+            ctx().setResponseCache(responseCache);
+        } else {
+            responseCache = null;
+        }
+
+        final ScheduledRestlightHandler restlightHandler = new ScheduledRestlightHandler(ctx.options(),
                 dispatcherHandler,
                 requestTaskHooks.stream()
                         .map(f -> f.hook(ctx()))
                         .filter(Optional::isPresent)
                         .map(Optional::get)
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()),
+                routeMetrics,
+                responseCache);
+        startupPhases.record("dispatcher", System.nanoTime() - start);
+        LoggerUtils.logger().info("Deployed {} route(s) of {}: {}",
+                ctx().routeRegistry().map(r -> r.routes().size()).orElse(0),
+                restlight.name(),
+                startupPhases);
+        final BatchOptions batch = ctx.options().getBatch();
+        if (batch != null && batch.isEnable()) {
+            final List<BatchCodec> codecs = batchCodecs();
+            if (codecs.isEmpty()) {
+                LoggerUtils.logger().warn("Batch endpoint is disabled because there's no BatchCodec available.");
+            } else {
+                LoggerUtils.logger().info("Batch endpoint enabled at '{}'", batch.getPath());
+                return new BatchRestlightHandler(batch, restlightHandler, codecs);
+            }
+        }
+        return restlightHandler;
+    }
+
+    /**
+     * Gets the {@link BatchCodec}s used by the batch endpoint if it is enabled, the first one which supports the
+     * content type of a batch request will be used.
+     *
+     * @return codecs
+     */
+    protected List<BatchCodec> batchCodecs() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the {@link CachePolicy} of given route, which is used by the {@link ResponseCache} if it is enabled.
+     *
+     * @param route route
+     *
+     * @return policy or {@code null} if the responses of given route should not be cached.
+     */
+    protected CachePolicy cachePolicy(Route route) {
+        return null;
+    }
+
+    /**
+     * Elapsed time of the phases of deploying, which could be used to record the custom phases by the subclasses.
+     *
+     * @return timer
+     */
+    protected PhaseTimer startupPhases() {
+        return startupPhases;
     }
 
     private RouteRegistry getRouteRegistry() {
@@ -369,4 +470,11 @@ public class BaseDeployments<R extends BaseRestlightServer<R, D, O>, D extends B
             }
         }
     }
+
+    private void rejectWork(Runnable r, String reason) {
+        final Optional<DispatcherHandler> h;
+        if (r instanceof RequestTask && (h = ctx().dispatcherHandler()).isPresent()) {
+            h.get().handleRejectedWork((RequestTask) r, reason);
+        }
+    }
 }
@@ -25,6 +25,9 @@ import esa.restlight.server.bootstrap.RestlightServerBootstrap;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.handler.Filter;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.warmup.WarmUp;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.unix.DomainSocketAddress;
@@ -56,6 +59,7 @@ public abstract class BaseRestlightServer<R extends BaseRestlightServer<R, D, O>
     private final List<ChannelHandler> channelHandlers = new LinkedList<>();
     private D deployments;
     private String name = Constants.SERVER;
+    private WarmUp warmUp;
     /**
      * local server address to bind.
      */
@@ -144,6 +148,19 @@ public abstract class BaseRestlightServer<R extends BaseRestlightServer<R, D, O>
         return self();
     }
 
+    /**
+     * Sets the {@link WarmUp} which will be run before the server is bound to the address.
+     *
+     * @param warmUp warm-up
+     *
+     * @return this
+     */
+    public R warmUp(WarmUp warmUp) {
+        checkImmutable();
+        this.warmUp = warmUp;
+        return self();
+    }
+
     public R options(Map<ChannelOption<?>, Object> options) {
         checkImmutable();
         if (options != null && !options.isEmpty()) {
@@ -223,10 +240,23 @@ public abstract class BaseRestlightServer<R extends BaseRestlightServer<R, D, O>
             setServer(buildServer());
         }
         super.start();
+        deployments().ctx().eventLoopWatchdog().ifPresent(watchdog -> watchdog.start(ioExecutor()));
         this.postStart(getServer());
         this.immutable.set(true);
     }
 
+    @Override
+    public void shutdown() {
+        final D d;
+        synchronized (this) {
+            d = deployments;
+        }
+        if (d != null) {
+            d.ctx().eventLoopWatchdog().ifPresent(EventLoopWatchdog::stop);
+        }
+        super.shutdown();
+    }
+
     protected void preStart() {
     }
 
@@ -251,9 +281,19 @@ public abstract class BaseRestlightServer<R extends BaseRestlightServer<R, D, O>
                 .withChildOptions(childChannelOptions)
                 .withChannelHandlers(channelHandlers)
                 .daemon(daemon)
+                .withWarmUp(prepareWarmUp())
                 .forServer();
     }
 
+    protected WarmUp prepareWarmUp() {
+        if (warmUp == null) {
+            return null;
+        }
+        return warmUp.withRoutes(deployments().ctx().routeRegistry()
+                .map(ReadOnlyRouteRegistry::routes)
+                .orElse(null));
+    }
+
     protected List<Filter> prepareFilters() {
         List<Filter> ls = new ArrayList<>();
         ls.addAll(SpiLoader.cached(Filter.class).getByGroup(name(), true));
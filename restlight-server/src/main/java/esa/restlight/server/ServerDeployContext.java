@@ -17,7 +17,10 @@ package esa.restlight.server;
 
 import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.cache.ResponseCache;
 import esa.restlight.server.config.ServerOptions;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.metrics.RouteMetrics;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
 import esa.restlight.server.schedule.Scheduler;
 
@@ -79,6 +82,36 @@ public interface ServerDeployContext<O extends ServerOptions> {
      */
     Optional<List<DispatcherExceptionHandler>> dispatcherExceptionHandlers();
 
+    /**
+     * Gets the instance of {@link RouteMetrics}, which is only present when the metrics is enabled by {@link
+     * ServerOptions#getMetrics()}.
+     *
+     * @return optional value
+     */
+    default Optional<RouteMetrics> routeMetrics() {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the instance of {@link ResponseCache}, which is only present when the response cache is enabled by {@link
+     * ServerOptions#getResponseCache()}.
+     *
+     * @return optional value
+     */
+    default Optional<ResponseCache> responseCache() {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the instance of {@link EventLoopWatchdog}, which is only present when the watchdog is enabled by {@link
+     * ServerOptions#getWatchdog()}.
+     *
+     * @return optional value
+     */
+    default Optional<EventLoopWatchdog> eventLoopWatchdog() {
+        return Optional.empty();
+    }
+
     /**
      * Stores an attribute in this context.
      *
@@ -18,7 +18,10 @@ package esa.restlight.server;
 import esa.commons.Checks;
 import esa.restlight.server.bootstrap.DispatcherExceptionHandler;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.cache.ResponseCache;
 import esa.restlight.server.config.ServerOptions;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.metrics.RouteMetrics;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
 import esa.restlight.server.schedule.Scheduler;
 
@@ -39,6 +42,9 @@ public class ServerDeployContextImpl<O extends ServerOptions> implements ServerD
     private volatile ReadOnlyRouteRegistry registry;
     private volatile DispatcherHandler dispatcherHandler;
     private volatile List<DispatcherExceptionHandler> dispatcherExceptionHandlers;
+    private volatile RouteMetrics routeMetrics;
+    private volatile ResponseCache responseCache;
+    private volatile EventLoopWatchdog eventLoopWatchdog;
 
     protected ServerDeployContextImpl(String name, O options) {
         Checks.checkNotNull(options, "name");
@@ -77,6 +83,21 @@ public class ServerDeployContextImpl<O extends ServerOptions> implements ServerD
         return Optional.of(Collections.unmodifiableList(dispatcherExceptionHandlers));
     }
 
+    @Override
+    public Optional<RouteMetrics> routeMetrics() {
+        return Optional.ofNullable(routeMetrics);
+    }
+
+    @Override
+    public Optional<ResponseCache> responseCache() {
+        return Optional.ofNullable(responseCache);
+    }
+
+    @Override
+    public Optional<EventLoopWatchdog> eventLoopWatchdog() {
+        return Optional.ofNullable(eventLoopWatchdog);
+    }
+
     @Override
     public void attribute(String key, Object value) {
         attributes.put(key, value);
@@ -107,4 +128,16 @@ public class ServerDeployContextImpl<O extends ServerOptions> implements ServerD
     void setDispatcherExceptionHandlers(List<DispatcherExceptionHandler> dispatcherExceptionHandlers) {
         this.dispatcherExceptionHandlers = dispatcherExceptionHandlers;
     }
+
+    void setRouteMetrics(RouteMetrics routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    void setEventLoopWatchdog(EventLoopWatchdog eventLoopWatchdog) {
+        this.eventLoopWatchdog = eventLoopWatchdog;
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+
+import java.util.List;
+
+/**
+ * Codec of the envelope of the batch requests and responses.
+ */
+public interface BatchCodec {
+
+    /**
+     * Whether the batch request of given content type could be decoded by this codec.
+     *
+     * @param contentType content type of the batch request, which may be {@code null}.
+     *
+     * @return {@code true} if supported
+     */
+    boolean supports(MediaType contentType);
+
+    /**
+     * Content type of the encoded batch response.
+     *
+     * @return media type
+     */
+    MediaType mediaType();
+
+    /**
+     * Decodes the body of the batch request into sub-requests.
+     *
+     * @param body body of the batch request
+     *
+     * @return sub-requests
+     * @throws Exception any error while decoding
+     */
+    List<SubRequest> decode(ByteBuf body) throws Exception;
+
+    /**
+     * Encodes the responses of the sub-requests into the body of the batch response, and the order of the responses
+     * is the same with the sub-requests.
+     *
+     * @param responses responses
+     *
+     * @return body of the batch response
+     * @throws Exception any error while encoding
+     */
+    byte[] encode(List<SubResponse> responses) throws Exception;
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.config.BatchOptions;
+import esa.restlight.server.config.ServerTimingOptions;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.FilteredHandler;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.util.ErrorDetail;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.util.PromiseUtils;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RestlightHandler} which handles the {@code POST} requests of the batch endpoint, and delegates the others.
+ * <p>
+ * The sub-requests in the envelope of a batch request are dispatched through the delegate concurrently, which means
+ * that each of them is routed and executed on the scheduler of its route just like an individual request, and then
+ * the responses of them are aggregated into a single response.
+ * <p>
+ * Notice that the filters should be applied by {@link #filtered(List, ServerTimingOptions)} instead of wrapping this
+ * handler by the {@link FilteredHandler}, so that the filters are applied to each of the sub-requests, which means
+ * that the rate limiting, authentication and so on work the same as the individual requests. And the batch request
+ * itself is not filtered in this way.
+ */
+public class BatchRestlightHandler implements RestlightHandler {
+
+    private final RestlightHandler delegate;
+    private final String path;
+    private final int maxRequests;
+    private final BatchCodec[] codecs;
+
+    public BatchRestlightHandler(BatchOptions options, RestlightHandler delegate, List<BatchCodec> codecs) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkNotNull(delegate, "delegate");
+        Checks.checkNotNull(codecs, "codecs");
+        Checks.checkNotEmptyArg(options.getPath(), "path of batch endpoint must not be empty");
+        Checks.checkArg(options.getMaxRequests() > 0, "maxRequests must be over than 0");
+        this.delegate = delegate;
+        this.path = options.getPath();
+        this.maxRequests = options.getMaxRequests();
+        this.codecs = codecs.toArray(new BatchCodec[0]);
+    }
+
+    private BatchRestlightHandler(BatchRestlightHandler origin, RestlightHandler delegate) {
+        this.delegate = delegate;
+        this.path = origin.path;
+        this.maxRequests = origin.maxRequests;
+        this.codecs = origin.codecs;
+    }
+
+    /**
+     * Returns a copy of this handler which applies given filters to the non-batch requests and each of the
+     * sub-requests of the batch requests.
+     *
+     * @param filters      filters
+     * @param serverTiming options of the Server-Timing
+     *
+     * @return handler
+     */
+    public BatchRestlightHandler filtered(List<Filter> filters, ServerTimingOptions serverTiming) {
+        return new BatchRestlightHandler(this, new FilteredHandler(delegate, filters, serverTiming));
+    }
+
+    @Override
+    public CompletableFuture<Void> process(AsyncRequest request, AsyncResponse response) {
+        if (HttpMethod.POST.equals(request.method()) && path.equals(request.path())) {
+            return batch(request, response);
+        }
+        return delegate.process(request, response);
+    }
+
+    private CompletableFuture<Void> batch(AsyncRequest request, AsyncResponse response) {
+        final String contentType = request.getHeader(HttpHeaderNames.CONTENT_TYPE);
+        final BatchCodec codec = codec(contentType);
+        if (codec == null) {
+            ErrorDetail.sendErrorResult(request, response,
+                    "Unsupported content type of batch request: " + contentType,
+                    HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE);
+            return Futures.completedFuture();
+        }
+        final List<SubRequest> subs;
+        try {
+            subs = codec.decode(request.byteBufBody());
+        } catch (Throwable e) {
+            LoggerUtils.logger().debug("Failed to decode batch request", e);
+            ErrorDetail.sendErrorResult(request, response, e, HttpResponseStatus.BAD_REQUEST);
+            return Futures.completedFuture();
+        }
+        if (subs.size() > maxRequests) {
+            ErrorDetail.sendErrorResult(request, response,
+                    "Too many sub-requests: " + subs.size() + ", max: " + maxRequests,
+                    HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+            return Futures.completedFuture();
+        }
+
+        final CompletableFuture<Void> promise = new CompletableFuture<>();
+        final int size = subs.size();
+        if (size == 0) {
+            complete(request, response, promise, codec, new SubResponse[0]);
+            return promise;
+        }
+        final SubResponse[] results = new SubResponse[size];
+        final AtomicInteger remaining = new AtomicInteger(size);
+        for (int i = 0; i < size; i++) {
+            final SubRequest sub = subs.get(i);
+            final String id = sub.id() == null ? String.valueOf(i) : sub.id();
+            final int idx = i;
+            final SubAsyncResponse res = new SubAsyncResponse(response);
+            CompletableFuture<Void> f;
+            try {
+                f = delegate.process(new SubAsyncRequest(request, sub), res);
+            } catch (IllegalArgumentException e) {
+                ErrorDetail.sendErrorResult(request, res, e, HttpResponseStatus.BAD_REQUEST);
+                f = Futures.completedFuture();
+            } catch (Throwable e) {
+                f = Futures.completedExceptionally(e);
+            }
+            f.whenComplete((r, t) -> {
+                results[idx] = res.toSubResponse(id, Futures.unwrapCompletionException(t));
+                // the last one completes the batch
+                if (remaining.decrementAndGet() == 0) {
+                    complete(request, response, promise, codec, results);
+                }
+            });
+        }
+        return promise;
+    }
+
+    private static void complete(AsyncRequest request,
+                                 AsyncResponse response,
+                                 CompletableFuture<Void> promise,
+                                 BatchCodec codec,
+                                 SubResponse[] results) {
+        try {
+            final byte[] body = codec.encode(Arrays.asList(results));
+            response.setHeader(HttpHeaderNames.CONTENT_TYPE, codec.mediaType().value());
+            response.sendResult(HttpResponseStatus.OK.code(), body);
+        } catch (Throwable e) {
+            LoggerUtils.logger().error("Failed to encode batch response", e);
+            if (!response.isCommitted()) {
+                ErrorDetail.sendErrorResult(request, response, e, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+        PromiseUtils.setSuccess(promise);
+    }
+
+    private BatchCodec codec(String contentType) {
+        MediaType mediaType = null;
+        if (contentType != null) {
+            try {
+                mediaType = MediaType.valueOf(contentType);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        for (BatchCodec codec : codecs) {
+            if (codec.supports(mediaType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onConnected(ChannelHandlerContext ctx) {
+        delegate.onConnected(ctx);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public void onStart() {
+        delegate.onStart();
+    }
+
+    @Override
+    public List<Scheduler> schedulers() {
+        return delegate.schedulers();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.HttpInputStream;
+import esa.httpserver.impl.ByteBufHttpInputStream;
+import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link AsyncRequest} of a {@link SubRequest}, the connection level information such as the addresses and
+ * the scheme are the same with the batch request, and the headers of the batch request are inherited except the ones
+ * describing the body.
+ */
+final class SubAsyncRequest implements AsyncRequest {
+
+    private final AsyncRequest parent;
+    private final HttpMethod method;
+    private final String uri;
+    private final String path;
+    private final String query;
+    private final HttpHeaders headers;
+    private final ByteBuf body;
+    private final ConcurrentHashMap<String, Object> attributes = new ConcurrentHashMap<>();
+    private Map<String, List<String>> params;
+    private HttpInputStream is;
+    private Set<Cookie> cookies;
+
+    SubAsyncRequest(AsyncRequest parent, SubRequest sub) {
+        final String uri = sub.uri();
+        if (uri == null || uri.isEmpty() || uri.charAt(0) != '/') {
+            throw new IllegalArgumentException("Illegal uri of sub-request: " + uri);
+        }
+        this.parent = parent;
+        this.method = HttpMethod.valueOf(sub.method());
+        this.uri = uri;
+        final int idx = uri.indexOf('?');
+        this.path = idx < 0 ? uri : uri.substring(0, idx);
+        this.query = idx < 0 ? "" : uri.substring(idx + 1);
+        this.headers = new DefaultHttpHeaders();
+        final Iterator<Map.Entry<CharSequence, CharSequence>> it = parent.headers().iteratorCharSequence();
+        while (it.hasNext()) {
+            final Map.Entry<CharSequence, CharSequence> h = it.next();
+            if (inherited(h.getKey())) {
+                headers.add(h.getKey(), h.getValue());
+            }
+        }
+        for (String name : sub.headers().names()) {
+            headers.set(name, sub.headers().getAll(name));
+        }
+        this.body = Unpooled.wrappedBuffer(sub.body());
+        if (body.isReadable()) {
+            headers.setInt(HttpHeaderNames.CONTENT_LENGTH, body.readableBytes());
+        }
+    }
+
+    private static boolean inherited(CharSequence name) {
+        return name.length() > 0
+                && name.charAt(0) != ':'
+                && !HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name)
+                && !HttpHeaderNames.CONTENT_TYPE.contentEqualsIgnoreCase(name)
+                && !HttpHeaderNames.CONTENT_ENCODING.contentEqualsIgnoreCase(name)
+                && !HttpHeaderNames.TRANSFER_ENCODING.contentEqualsIgnoreCase(name)
+                && !HttpHeaderNames.EXPECT.contentEqualsIgnoreCase(name);
+    }
+
+    @Override
+    public HttpVersion httpVersion() {
+        return parent.httpVersion();
+    }
+
+    @Override
+    public String scheme() {
+        return parent.scheme();
+    }
+
+    @Override
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public HttpInputStream inputStream() {
+        if (is == null) {
+            this.is = new ByteBufHttpInputStream(body, false);
+        }
+        return is;
+    }
+
+    @Override
+    public ByteBuf byteBufBody() {
+        return body;
+    }
+
+    @Override
+    public String remoteAddr() {
+        return parent.remoteAddr();
+    }
+
+    @Override
+    public String tcpSourceAddr() {
+        return parent.tcpSourceAddr();
+    }
+
+    @Override
+    public int remotePort() {
+        return parent.remotePort();
+    }
+
+    @Override
+    public String localAddr() {
+        return parent.localAddr();
+    }
+
+    @Override
+    public int localPort() {
+        return parent.localPort();
+    }
+
+    @Override
+    public Map<String, List<String>> parameterMap() {
+        if (params == null) {
+            Map<String, List<String>> decoded = new QueryStringDecoder(uri).parameters();
+            if (HttpMethod.POST.equals(method) && body.isReadable() && isFormUrlEncoded()) {
+                // merge parameters of application/x-www-form-urlencoded
+                final Map<String, List<String>> bodyParams =
+                        new QueryStringDecoder(body.toString(StandardCharsets.UTF_8), false).parameters();
+                if (!bodyParams.isEmpty()) {
+                    bodyParams.putAll(decoded);
+                    decoded = bodyParams;
+                }
+            }
+            params = decoded;
+        }
+        return params;
+    }
+
+    private boolean isFormUrlEncoded() {
+        final String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        return contentType != null
+                && contentType.regionMatches(true, 0, MediaType.APPLICATION_FORM_URLENCODED_VALUE, 0,
+                MediaType.APPLICATION_FORM_URLENCODED_VALUE.length());
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public HttpHeaders trailers() {
+        return EmptyHttpHeaders.INSTANCE;
+    }
+
+    @Override
+    public Set<Cookie> cookies() {
+        if (cookies == null) {
+            final String value = headers.get(HttpHeaderNames.COOKIE);
+            cookies = value == null ? Collections.emptySet() : ServerCookieDecoder.STRICT.decode(value);
+        }
+        return cookies;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        return attributes.remove(name);
+    }
+
+    @Override
+    public String[] attributeNames() {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return parent.alloc();
+    }
+
+    @Override
+    public String toString() {
+        return "SubAsyncRequest{" + method + ' ' + uri + '}';
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.HttpOutputStream;
+import esa.restlight.core.util.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link AsyncResponse} of a {@link SubRequest} which keeps the status, headers and body in memory until
+ * they are encoded into the batch response.
+ */
+final class SubAsyncResponse implements AsyncResponse {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubAsyncResponse.class);
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final AtomicIntegerFieldUpdater<SubAsyncResponse> COMMITTED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(SubAsyncResponse.class, "committed");
+
+    private final AsyncResponse parent;
+    private final HttpHeaders headers = new DefaultHttpHeaders();
+    private final HttpHeaders trailers = new DefaultHttpHeaders();
+    private final List<Consumer<AsyncResponse>> endListeners = new LinkedList<>();
+    private volatile int committed;
+    private volatile int status = HttpResponseStatus.OK.code();
+    private volatile byte[] body = EMPTY;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private Output os;
+
+    SubAsyncResponse(AsyncResponse parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Converts current response to a {@link SubResponse}.
+     *
+     * @param id    id of the sub-request
+     * @param error error occurred while handling the sub-request, which is used only if the response has not been
+     *              committed.
+     *
+     * @return response
+     */
+    SubResponse toSubResponse(String id, Throwable error) {
+        if (!isCommitted() && error != null) {
+            final HttpHeaders h = new DefaultHttpHeaders();
+            h.set(HttpHeaderNames.CONTENT_TYPE, MediaType.TEXT_PLAIN.value());
+            final String msg = error.getMessage() == null ? error.toString() : error.getMessage();
+            return new SubResponse(id,
+                    HttpResponseStatus.INTERNAL_SERVER_ERROR.code(),
+                    h,
+                    msg.getBytes(StandardCharsets.UTF_8));
+        }
+        return new SubResponse(id, status, headers, body);
+    }
+
+    @Override
+    public void setStatus(int code) {
+        this.status = code;
+    }
+
+    @Override
+    public int status() {
+        return status;
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return parent.isKeepAlive();
+    }
+
+    @Override
+    public HttpOutputStream outputStream() {
+        if (os == null) {
+            os = new Output(Unpooled.buffer(bufferSize));
+        }
+        return os;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        this.bufferSize = size;
+    }
+
+    @Override
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed == 1;
+    }
+
+    @Override
+    public long bodyLength() {
+        return body.length;
+    }
+
+    @Override
+    public void reset() {
+        if (isCommitted()) {
+            throw new IllegalStateException("Already committed.");
+        }
+        status = HttpResponseStatus.OK.code();
+        headers.clear();
+        trailers.clear();
+        os = null;
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        checkOutputStream();
+        end(body == null || len == 0 ? EMPTY : copy(body, off, len));
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, boolean autoRelease) {
+        if (body == null) {
+            sendResult(null, 0, 0, autoRelease);
+        } else {
+            sendResult(body, body.readerIndex(), body.readableBytes(), autoRelease);
+        }
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        try {
+            checkOutputStream();
+            final byte[] bytes;
+            if (body == null || len == 0) {
+                bytes = EMPTY;
+            } else {
+                bytes = new byte[len];
+                body.getBytes(off, bytes);
+            }
+            end(bytes);
+        } finally {
+            if (autoRelease && body != null) {
+                body.release();
+            }
+        }
+    }
+
+    @Override
+    public void sendFile(File file, long offset, long length) {
+        checkOutputStream();
+        final byte[] bytes;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final long len = Math.min(length, raf.length() - offset);
+            bytes = new byte[(int) Math.max(0L, len)];
+            raf.seek(offset);
+            raf.readFully(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read file: " + file, e);
+        }
+        end(bytes);
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return parent.alloc();
+    }
+
+    @Override
+    public String getHeader(CharSequence name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Collection<String> headerNames() {
+        return headers.names();
+    }
+
+    @Override
+    public Collection<String> getHeaders(CharSequence name) {
+        return headers.getAll(name);
+    }
+
+    @Override
+    public boolean containsHeader(CharSequence name) {
+        return headers.contains(name);
+    }
+
+    @Override
+    public void addHeader(CharSequence name, String value) {
+        headers.add(name, value);
+    }
+
+    @Override
+    public void setHeader(CharSequence name, String value) {
+        headers.set(name, value);
+    }
+
+    @Override
+    public void setHeaders(CharSequence name, List<String> values) {
+        headers.set(name, values);
+    }
+
+    @Override
+    public void setIntHeader(CharSequence name, int value) {
+        headers.setInt(name, value);
+    }
+
+    @Override
+    public void addIntHeader(CharSequence name, int value) {
+        headers.addInt(name, value);
+    }
+
+    @Override
+    public void setShortHeader(CharSequence name, short value) {
+        headers.setShort(name, value);
+    }
+
+    @Override
+    public void addShortHeader(CharSequence name, short value) {
+        headers.addShort(name, value);
+    }
+
+    @Override
+    public void addTrailer(CharSequence name, String value) {
+        trailers.add(name, value);
+    }
+
+    @Override
+    public void setTrailer(CharSequence name, String value) {
+        trailers.set(name, value);
+    }
+
+    @Override
+    public void setTrailers(CharSequence name, List<String> values) {
+        trailers.set(name, values);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        headers.add(HttpHeaderNames.SET_COOKIE, ServerCookieEncoder.STRICT.encode(cookie));
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        addCookie(new DefaultCookie(name, value));
+    }
+
+    @Override
+    public void onEnd(Consumer<AsyncResponse> listener) {
+        endListeners.add(listener);
+    }
+
+    private void checkOutputStream() {
+        // only one of output stream and sendXX() is allowed.
+        if (os != null) {
+            throw new IllegalStateException("OutputStream has already opened. use it please.");
+        }
+    }
+
+    private void end(byte[] bytes) {
+        if (!COMMITTED_UPDATER.compareAndSet(this, 0, 1)) {
+            throw new IllegalStateException("Already committed.");
+        }
+        this.body = bytes;
+        for (Consumer<AsyncResponse> listener : endListeners) {
+            try {
+                listener.accept(this);
+            } catch (Throwable e) {
+                logger.error("Error while calling end listener: " + listener, e);
+            }
+        }
+    }
+
+    private static byte[] copy(byte[] src, int off, int len) {
+        final byte[] dst = new byte[len];
+        System.arraycopy(src, off, dst, 0, len);
+        return dst;
+    }
+
+    /**
+     * {@link HttpOutputStream} which commits the response when it is closed.
+     */
+    private final class Output extends HttpOutputStream {
+
+        private final ByteBuf buf;
+        private final ByteBufOutputStream out;
+        private boolean closed;
+
+        private Output(ByteBuf buf) {
+            this.buf = buf;
+            this.out = new ByteBufOutputStream(buf);
+        }
+
+        @Override
+        public void write(int b) {
+            ensureOpen();
+            buf.writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureOpen();
+            buf.writeBytes(b, off, len);
+        }
+
+        @Override
+        public void writeBoolean(boolean v) {
+            ensureOpen();
+            buf.writeBoolean(v);
+        }
+
+        @Override
+        public void writeByte(int v) {
+            ensureOpen();
+            buf.writeByte(v);
+        }
+
+        @Override
+        public void writeShort(int v) {
+            ensureOpen();
+            buf.writeShort(v);
+        }
+
+        @Override
+        public void writeChar(int v) {
+            ensureOpen();
+            buf.writeChar(v);
+        }
+
+        @Override
+        public void writeInt(int v) {
+            ensureOpen();
+            buf.writeInt(v);
+        }
+
+        @Override
+        public void writeLong(long v) {
+            ensureOpen();
+            buf.writeLong(v);
+        }
+
+        @Override
+        public void writeFloat(float v) {
+            ensureOpen();
+            buf.writeFloat(v);
+        }
+
+        @Override
+        public void writeDouble(double v) {
+            ensureOpen();
+            buf.writeDouble(v);
+        }
+
+        @Override
+        public void writeBytes(String s) throws IOException {
+            ensureOpen();
+            out.writeBytes(s);
+        }
+
+        @Override
+        public void writeChars(String s) throws IOException {
+            ensureOpen();
+            out.writeChars(s);
+        }
+
+        @Override
+        public void writeUTF(String s) throws IOException {
+            ensureOpen();
+            out.writeUTF(s);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            final byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            end(bytes);
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new IllegalStateException("Output stream has been closed.");
+            }
+        }
+    }
+}
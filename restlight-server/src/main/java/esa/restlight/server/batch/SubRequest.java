@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * A sub-request decoded from the envelope of a batch request.
+ */
+public final class SubRequest {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final String id;
+    private final String method;
+    private final String uri;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    /**
+     * Creates a sub-request.
+     *
+     * @param id      id of the sub-request which will be echoed in its response, the index in the batch will be
+     *                used if it is {@code null}.
+     * @param method  http method, {@code GET} if it is {@code null}.
+     * @param uri     path and query string of the sub-request
+     * @param headers headers, which will override the ones with the same name of the batch request.
+     * @param body    body
+     */
+    public SubRequest(String id, String method, String uri, HttpHeaders headers, byte[] body) {
+        this.id = id;
+        this.method = method == null ? "GET" : method;
+        this.uri = uri;
+        this.headers = headers == null ? EmptyHttpHeaders.INSTANCE : headers;
+        this.body = body == null ? EMPTY : body;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "SubRequest{id='" + id + "', method='" + method + "', uri='" + uri + "'}";
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * Response of a {@link SubRequest} which will be encoded into the envelope of the batch response.
+ */
+public final class SubResponse {
+
+    private final String id;
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public SubResponse(String id, int status, HttpHeaders headers, byte[] body) {
+        this.id = id;
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "SubResponse{id='" + id + "', status=" + status + ", length=" + body.length + '}';
+    }
+}
@@ -17,14 +17,17 @@ package esa.restlight.server.bootstrap;
 
 import esa.commons.Checks;
 import esa.commons.NetworkUtils;
+import esa.commons.http.HttpHeaderNames;
 import esa.httpserver.H2OptionsConfigure;
 import esa.httpserver.HttpServer;
+import esa.httpserver.MultipartOptionsConfigure;
 import esa.httpserver.ServerOptionsConfigure;
 import esa.httpserver.SslOptionsConfigure;
 import esa.httpserver.impl.AsyncRequestImpl;
 import esa.httpserver.impl.AsyncResponseImpl;
 import esa.restlight.core.util.ResourceUtils;
 import esa.restlight.core.util.RestlightVer;
+import esa.restlight.server.config.MultipartOptions;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.SslOptions;
 import esa.restlight.server.handler.RestlightHandler;
@@ -32,11 +35,13 @@ import esa.restlight.server.schedule.ExecutorScheduler;
 import esa.restlight.server.schedule.Schedulers;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import esa.restlight.server.warmup.WarmUp;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -46,9 +51,19 @@ import java.util.concurrent.locks.ReentrantLock;
 
 public class NettyRestlightServer implements RestlightServer {
 
+    /**
+     * Attribute name of the {@link esa.httpserver.core.MultiPart} which has been decoded by server when {@link
+     * MultipartOptions#isEnable()} is {@code true}.
+     */
+    public static final String DECODED_MULTIPART = "$multipart.decoded";
+
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+    private static final String BOUNDARY = "boundary=";
+
     protected final HttpServer httpServer;
     private final SocketAddress address;
     private final RestlightHandler handler;
+    private final WarmUp warmUp;
 
     /**
      * running state(protected by {@link #lock})
@@ -71,11 +86,13 @@ public class NettyRestlightServer implements RestlightServer {
                          boolean daemon,
                          Map<ChannelOption<?>, Object> channelOptions,
                          Map<ChannelOption<?>, Object> childChannelOptions,
-                         List<ChannelHandler> channelHandlers) {
+                         List<ChannelHandler> channelHandlers,
+                         WarmUp warmUp) {
         Checks.checkNotNull(options, "options");
         Checks.checkNotNull(handler, "handler");
         this.address = address == null ? new InetSocketAddress(8080) : address;
         this.handler = handler;
+        this.warmUp = warmUp;
         this.httpServer = buildServer(options,
                 handler,
                 daemon,
@@ -98,6 +115,10 @@ public class NettyRestlightServer implements RestlightServer {
                 throw new IllegalStateException("Restlight server has already been started.");
             }
             handler.onStart();
+            if (warmUp != null) {
+                // replay the samples before any real request arrives
+                warmUp.run(handler);
+            }
             // start NettyHttpServer
             httpServer.listen(address);
 
@@ -226,20 +247,56 @@ public class NettyRestlightServer implements RestlightServer {
             configure.ssl(ssl0.configured());
         }
 
+        final MultipartOptions multipart = options.getMultipart();
+        final boolean decodeMultipart = multipart != null && multipart.isEnable();
+        if (decodeMultipart) {
+            configure.multipart(MultipartOptionsConfigure.newOpts()
+                    .useDisk(multipart.isUseDisk())
+                    .memoryThreshold(multipart.getMemoryThreshold())
+                    .maxSize(multipart.getMaxSize())
+                    .charset(Charset.forName(multipart.getCharset()))
+                    .tempDir(multipart.getTempDir())
+                    .configured());
+        }
+
         return HttpServer.create(configure.configured())
                 .onConnected(handler::onConnected)
                 .onClose(handler::shutdown)
-                .handle(req -> req.aggregate(true)
-                        .onEnd(promise -> {
-                            handler.process(new AsyncRequestImpl(req), new AsyncResponseImpl(req.response()))
-                                    .whenComplete((r, t) -> {
-                                        if (t == null) {
-                                            PromiseUtils.setSuccess(promise);
-                                        } else {
-                                            PromiseUtils.setFailure(promise, t);
-                                        }
-                                    });
-                            return promise;
-                        }));
+                .handle(req -> {
+                    // decode the multipart body incrementally instead of aggregating the whole body.
+                    final boolean isMultipart = decodeMultipart
+                            && isMultipart(req.headers().get(HttpHeaderNames.CONTENT_TYPE));
+                    req.multipart(isMultipart)
+                            .aggregate(!isMultipart)
+                            .onEnd(promise -> {
+                                final AsyncRequestImpl request = new AsyncRequestImpl(req);
+                                if (isMultipart) {
+                                    request.setAttribute(DECODED_MULTIPART, req.multipart());
+                                }
+                                handler.process(request, new AsyncResponseImpl(req.response()))
+                                        .whenComplete((r, t) -> {
+                                            if (t == null) {
+                                                PromiseUtils.setSuccess(promise);
+                                            } else {
+                                                PromiseUtils.setFailure(promise, t);
+                                            }
+                                        });
+                                return promise;
+                            });
+                });
+    }
+
+    static boolean isMultipart(String contentType) {
+        if (contentType == null
+                || !contentType.regionMatches(true, 0, MULTIPART_FORM_DATA, 0, MULTIPART_FORM_DATA.length())) {
+            return false;
+        }
+        final int end = contentType.length() - BOUNDARY.length();
+        for (int i = MULTIPART_FORM_DATA.length(); i <= end; i++) {
+            if (contentType.regionMatches(true, i, BOUNDARY, 0, BOUNDARY.length())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -18,11 +18,13 @@ package esa.restlight.server.bootstrap;
 import esa.commons.Checks;
 import esa.commons.annotation.Beta;
 import esa.restlight.core.util.OrderedComparator;
+import esa.restlight.server.batch.BatchRestlightHandler;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.config.ServerOptionsConfigure;
 import esa.restlight.server.handler.Filter;
 import esa.restlight.server.handler.FilteredHandler;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.warmup.WarmUp;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.unix.DomainSocketAddress;
@@ -49,6 +51,7 @@ public class RestlightServerBootstrap {
 
     private boolean daemon = true;
     private SocketAddress address;
+    private WarmUp warmUp;
 
     private RestlightServerBootstrap(ServerOptions options, RestlightHandler handler) {
         this.options = options;
@@ -91,6 +94,11 @@ public class RestlightServerBootstrap {
         return this;
     }
 
+    public RestlightServerBootstrap withWarmUp(WarmUp warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
     public RestlightServerBootstrap withFilters(Collection<? extends Filter> filters) {
         if (filters != null && !filters.isEmpty()) {
             this.filters.addAll(filters);
@@ -153,7 +161,12 @@ public class RestlightServerBootstrap {
         OrderedComparator.sort(this.filters);
         RestlightHandler handler = this.handler;
         if (!this.filters.isEmpty()) {
-            handler = new FilteredHandler(handler, this.filters);
+            if (handler instanceof BatchRestlightHandler) {
+                // filters are applied to each of the sub-requests
+                handler = ((BatchRestlightHandler) handler).filtered(this.filters, options.getServerTiming());
+            } else {
+                handler = new FilteredHandler(handler, this.filters, options.getServerTiming());
+            }
         }
         return new NettyRestlightServer(options,
                 handler,
@@ -161,6 +174,7 @@ public class RestlightServerBootstrap {
                 daemon,
                 channelOptions,
                 childChannelOptions,
-                channelHandlers);
+                channelHandlers,
+                warmUp);
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.cache;
+
+import esa.httpserver.core.AsyncRequest;
+
+/**
+ * Policy of caching the responses of a route.
+ */
+public interface CachePolicy {
+
+    /**
+     * Computes the cache key of given request.
+     *
+     * @param request request
+     *
+     * @return key or {@code null} if the response of given request should not be cached.
+     */
+    String key(AsyncRequest request);
+
+    /**
+     * Time to live of the cached responses in milliseconds.
+     *
+     * @return ttl
+     */
+    long ttlMillis();
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.cache;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ResponseCacheOptions;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.util.ConditionalGetUtils;
+import esa.restlight.server.util.EntityHeaders;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Server-side cache of the serialized responses(status, headers and body) of the routes which have a {@link
+ * CachePolicy}.
+ * <p>
+ * A cached response is served on the IO thread right after the request is routed, which means that the scheduling,
+ * argument resolving, handler invocation and serialization are all skipped, and the body is written by a duplicate of
+ * the cached {@link ByteBuf} without any copy. A response is cached when the serialized result of a missed request is
+ * sent, see {@link #onResult(AsyncRequest, AsyncResponse, byte[])}, and only the {@code 200} responses without any
+ * {@code Set-Cookie} or {@code Vary} header are cached. Only the entity headers of a response are cached, see {@link
+ * EntityHeaders}.
+ * <p>
+ * The bodies are kept in the pooled direct buffers under the memory budget of {@link
+ * ResponseCacheOptions#getMaxBytes()}, and the entries are evicted by a segmented LRU policy: a new entry is put into
+ * the probation segment and is promoted to the protected segment by a subsequent hit, so that the entries which are
+ * hit only once could not flush the frequently used ones.
+ */
+public final class ResponseCache {
+
+    static final String ATTR = "$restlight.response-cache";
+
+    /**
+     * Estimated size of an entry besides its body and strings.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * Whether there's any {@link ResponseCache} which has cacheable routes, which is used to skip the attribute lookup
+     * of all the requests if this feature is not used.
+     */
+    private static volatile boolean enabled;
+
+    private final Function<Route, CachePolicy> resolver;
+    private final int maxEntryBytes;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile Map<Mapping, CachePolicy> policies = Collections.emptyMap();
+
+    public ResponseCache(ResponseCacheOptions options, Function<Route, CachePolicy> resolver) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkNotNull(resolver, "resolver");
+        Checks.checkArg(options.getMaxBytes() > 0L, "maxBytes must be over than 0");
+        Checks.checkArg(options.getMaxEntryBytes() > 0, "maxEntryBytes must be over than 0");
+        this.resolver = resolver;
+        this.maxEntryBytes = options.getMaxEntryBytes();
+        int n = 1;
+        while (n < Runtime.getRuntime().availableProcessors() << 1) {
+            n <<= 1;
+        }
+        // every segment should be able to hold a max entry.
+        while (n > 1 && options.getMaxBytes() / n < options.getMaxEntryBytes()) {
+            n >>= 1;
+        }
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment(options.getMaxBytes() / n);
+        }
+    }
+
+    /**
+     * Resolves the {@link CachePolicy}s of given routes.
+     *
+     * @param routes routes
+     *
+     * @return {@code true} if there's any cacheable route.
+     */
+    public synchronized boolean init(List<Route> routes) {
+        final Map<Mapping, CachePolicy> map = new IdentityHashMap<>();
+        for (Route route : routes) {
+            final CachePolicy policy = resolver.apply(route);
+            if (policy != null) {
+                Checks.checkArg(policy.ttlMillis() > 0L,
+                        "ttl of the response cache must be over than 0: " + route);
+                map.put(route.mapping(), policy);
+            }
+        }
+        this.policies = map;
+        if (!map.isEmpty()) {
+            enabled = true;
+        }
+        return !map.isEmpty();
+    }
+
+    /**
+     * Gets the {@link CachePolicy} of given route.
+     *
+     * @param route route
+     *
+     * @return policy or {@code null} if given route is not cacheable.
+     */
+    public CachePolicy policy(Route route) {
+        return policies.get(route.mapping());
+    }
+
+    /**
+     * Tries to respond the given request by the cached response. If missed, the request is marked so that the response
+     * will be cached when its result is sent.
+     *
+     * @param request  request
+     * @param response response
+     * @param route    route of the request
+     *
+     * @return {@code true} if the request has been responded by the cached response.
+     */
+    public boolean serve(AsyncRequest request, AsyncResponse response, Route route) {
+        final CachePolicy policy = policy(route);
+        if (policy == null || !HttpMethod.GET.equals(request.method())) {
+            return false;
+        }
+        final String key = policy.key(request);
+        if (key == null) {
+            return false;
+        }
+        final Entry entry = segment(key).get(key, System.nanoTime());
+        if (entry == null) {
+            misses.increment();
+            request.setAttribute(ATTR, new Pending(this, key, TimeUnit.MILLISECONDS.toNanos(policy.ttlMillis())));
+            return false;
+        }
+        hits.increment();
+        // the body has been retained for current request.
+        entry.writeTo(request, response);
+        return true;
+    }
+
+    /**
+     * Caches the serialized result of given request if it has been marked by {@link #serve(AsyncRequest,
+     * AsyncResponse, Route)}, which should be called before the result is sent.
+     *
+     * @param request  request
+     * @param response response
+     * @param result   serialized result
+     */
+    public static void onResult(AsyncRequest request, AsyncResponse response, byte[] result) {
+        if (!enabled) {
+            return;
+        }
+        final Pending pending = request.removeUncheckedAttribute(ATTR);
+        if (pending != null) {
+            pending.cache.store(pending, response, result);
+        }
+    }
+
+    /**
+     * Whether the response of given request will be cached when its result is sent.
+     *
+     * @param request request
+     *
+     * @return {@code true} if the response will be cached
+     */
+    public static boolean isCaching(AsyncRequest request) {
+        return enabled && request.hasAttribute(ATTR);
+    }
+
+    private void store(Pending pending, AsyncResponse response, byte[] result) {
+        final int len = result == null ? 0 : result.length;
+        if (len > maxEntryBytes
+                || response.isCommitted()
+                || response.status() != HttpResponseStatus.OK.code()
+                || response.containsHeader(HttpHeaderNames.SET_COOKIE)
+                || response.containsHeader(HttpHeaderNames.VARY)) {
+            // a response which varies by the request headers is not cacheable, because the key may not tell them.
+            return;
+        }
+        long weight = ENTRY_OVERHEAD + len + (pending.key.length() << 1);
+        final List<String> names = new ArrayList<>();
+        final List<List<String>> values = new ArrayList<>();
+        for (String name : response.headerNames()) {
+            // other headers, such as the CORS headers, are populated for current request only.
+            if (!EntityHeaders.isEntityHeader(name)) {
+                continue;
+            }
+            final List<String> vs = new ArrayList<>(response.getHeaders(name));
+            names.add(name);
+            values.add(vs);
+            weight += name.length() << 1;
+            for (String v : vs) {
+                weight += v.length() << 1;
+            }
+        }
+        final ByteBuf body = PooledByteBufAllocator.DEFAULT.directBuffer(len, len);
+        if (len > 0) {
+            body.writeBytes(result);
+        }
+        @SuppressWarnings("unchecked")
+        final Entry entry = new Entry(response.status(),
+                names.toArray(new String[0]),
+                values.toArray(new List[0]),
+                body,
+                System.nanoTime() + pending.ttlNanos,
+                weight);
+        evictions.add(segment(pending.key).put(pending.key, entry));
+    }
+
+    /**
+     * Removes the cached response of given key.
+     *
+     * @param key key
+     */
+    public void invalidate(String key) {
+        segment(key).remove(key);
+    }
+
+    /**
+     * Removes all the cached responses and releases their buffers.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Count of the requests which have been responded by the cached responses.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Count of the requests of the cacheable routes which have not been responded by the cached responses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Count of the entries which have been evicted because of the memory budget.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Count of the cached responses.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Estimated memory used by the cached responses in bytes.
+     */
+    public long weight() {
+        long weight = 0L;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private Segment segment(String key) {
+        final int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * A segmented LRU map which is guarded by itself.
+     */
+    private static final class Segment {
+
+        private final long maxWeight;
+        private final long maxProtectedWeight;
+        private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Entry> protect = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+        private long protectedWeight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxProtectedWeight = maxWeight * 4L / 5L;
+        }
+
+        /**
+         * Gets the unexpired entry of given key and retains its body.
+         */
+        synchronized Entry get(String key, long now) {
+            Entry entry = protect.get(key);
+            if (entry != null) {
+                if (now - entry.expireAt >= 0L) {
+                    protect.remove(key);
+                    protectedWeight -= entry.weight;
+                    release(entry);
+                    return null;
+                }
+            } else {
+                entry = probation.remove(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (now - entry.expireAt >= 0L) {
+                    release(entry);
+                    return null;
+                }
+                // promote to the protected segment, and demote the least recently used ones if it is full.
+                protect.put(key, entry);
+                protectedWeight += entry.weight;
+                final Iterator<Map.Entry<String, Entry>> it = protect.entrySet().iterator();
+                while (protectedWeight > maxProtectedWeight && it.hasNext()) {
+                    final Map.Entry<String, Entry> eldest = it.next();
+                    if (eldest.getValue() == entry) {
+                        break;
+                    }
+                    it.remove();
+                    protectedWeight -= eldest.getValue().weight;
+                    probation.put(eldest.getKey(), eldest.getValue());
+                }
+            }
+            entry.body.retain();
+            return entry;
+        }
+
+        /**
+         * Puts the given entry into the probation segment.
+         *
+         * @return count of the evicted entries.
+         */
+        synchronized int put(String key, Entry entry) {
+            Entry old = probation.remove(key);
+            if (old == null && (old = protect.remove(key)) != null) {
+                protectedWeight -= old.weight;
+            }
+            if (old != null) {
+                release(old);
+            }
+            probation.put(key, entry);
+            weight += entry.weight;
+            int evicted = 0;
+            while (weight > maxWeight) {
+                final LinkedHashMap<String, Entry> victims = probation.isEmpty() ? protect : probation;
+                final Iterator<Entry> it = victims.values().iterator();
+                final Entry victim = it.next();
+                it.remove();
+                if (victims == protect) {
+                    protectedWeight -= victim.weight;
+                }
+                release(victim);
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void remove(String key) {
+            Entry entry = probation.remove(key);
+            if (entry == null && (entry = protect.remove(key)) != null) {
+                protectedWeight -= entry.weight;
+            }
+            if (entry != null) {
+                release(entry);
+            }
+        }
+
+        synchronized void clear() {
+            release(probation.values());
+            release(protect.values());
+            probation.clear();
+            protect.clear();
+            protectedWeight = 0L;
+        }
+
+        synchronized int size() {
+            return probation.size() + protect.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        private void release(Collection<Entry> entries) {
+            for (Entry entry : entries) {
+                release(entry);
+            }
+        }
+
+        private void release(Entry entry) {
+            weight -= entry.weight;
+            entry.body.release();
+        }
+    }
+
+    private static final class Entry {
+
+        private final int status;
+        private final String[] names;
+        private final List<String>[] values;
+        private final ByteBuf body;
+        private final long expireAt;
+        private final long weight;
+
+        private Entry(int status,
+                      String[] names,
+                      List<String>[] values,
+                      ByteBuf body,
+                      long expireAt,
+                      long weight) {
+            this.status = status;
+            this.names = names;
+            this.values = values;
+            this.body = body;
+            this.expireAt = expireAt;
+            this.weight = weight;
+        }
+
+        /**
+         * Writes current response, or a {@code 304} response if the validators of the conditional request match, the
+         * body must have been retained for this write.
+         */
+        private void writeTo(AsyncRequest request, AsyncResponse response) {
+            if (response.isCommitted()) {
+                body.release();
+                return;
+            }
+            response.setStatus(status);
+            for (int i = 0; i < names.length; i++) {
+                response.setHeaders(names[i], values[i]);
+            }
+            if (ConditionalGetUtils.notModified(request, response)) {
+                body.release();
+                response.sendResult(HttpResponseStatus.NOT_MODIFIED.code());
+                return;
+            }
+            // shares the reference count with the cached body which has been retained.
+            response.sendResult(body.duplicate(), true);
+        }
+    }
+
+    private static final class Pending {
+
+        private final ResponseCache cache;
+        private final String key;
+        private final long ttlNanos;
+
+        private Pending(ResponseCache cache, String key, long ttlNanos) {
+            this.cache = cache;
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -49,6 +49,18 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
             = RouteOptionsConfigure.defaultOpts();
     private BizThreadsOptions bizThreads
             = BizThreadsOptionsConfigure.defaultOpts();
+    private MultipartOptions multipart
+            = MultipartOptionsConfigure.defaultOpts();
+    private MetricsOptions metrics
+            = MetricsOptionsConfigure.defaultOpts();
+    private WatchdogOptions watchdog
+            = WatchdogOptionsConfigure.defaultOpts();
+    private ServerTimingOptions serverTiming
+            = ServerTimingOptionsConfigure.defaultOpts();
+    private ResponseCacheOptions responseCache
+            = ResponseCacheOptionsConfigure.defaultOpts();
+    private BatchOptions batch
+            = BatchOptionsConfigure.defaultOpts();
 
     public C http2Enable(boolean http2Enable) {
         this.http2Enable = http2Enable;
@@ -206,6 +218,36 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         return self();
     }
 
+    public C multipart(MultipartOptions multipart) {
+        this.multipart = multipart;
+        return self();
+    }
+
+    public C metrics(MetricsOptions metrics) {
+        this.metrics = metrics;
+        return self();
+    }
+
+    public C watchdog(WatchdogOptions watchdog) {
+        this.watchdog = watchdog;
+        return self();
+    }
+
+    public C serverTiming(ServerTimingOptions serverTiming) {
+        this.serverTiming = serverTiming;
+        return self();
+    }
+
+    public C responseCache(ResponseCacheOptions responseCache) {
+        this.responseCache = responseCache;
+        return self();
+    }
+
+    public C batch(BatchOptions batch) {
+        this.batch = batch;
+        return self();
+    }
+
     @SuppressWarnings("unchecked")
     protected C self() {
         return (C) this;
@@ -233,6 +275,12 @@ public abstract class AbstractServerOptionsConfigure<C extends AbstractServerOpt
         options.setScheduling(scheduling);
         options.setRoute(route);
         options.setBizThreads(bizThreads);
+        options.setMultipart(multipart);
+        options.setMetrics(metrics);
+        options.setWatchdog(watchdog);
+        options.setServerTiming(serverTiming);
+        options.setResponseCache(responseCache);
+        options.setBatch(batch);
         return options;
     }
 
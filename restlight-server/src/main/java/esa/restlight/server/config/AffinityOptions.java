@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the {@link esa.restlight.server.schedule.Schedulers#AFFINITY} scheduler, which binds dedicated workers to
+ * each IO event loop so that the requests of a connection are always executed by the same worker.
+ */
+public class AffinityOptions implements Serializable {
+
+    private static final long serialVersionUID = -2946379128620380515L;
+
+    /**
+     * Count of the workers bound to each IO event loop.
+     */
+    private int workersPerLoop = 1;
+
+    /**
+     * Max count of the pending tasks of each worker, the task will be rejected once the queue is full.
+     */
+    private int queueCapacity = 1024;
+
+    public int getWorkersPerLoop() {
+        return workersPerLoop;
+    }
+
+    public void setWorkersPerLoop(int workersPerLoop) {
+        this.workersPerLoop = workersPerLoop;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AffinityOptions{");
+        sb.append("workersPerLoop=").append(workersPerLoop);
+        sb.append(", queueCapacity=").append(queueCapacity);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class AffinityOptionsConfigure {
+    private int workersPerLoop = 1;
+    private int queueCapacity = 1024;
+
+    private AffinityOptionsConfigure() {
+    }
+
+    public static AffinityOptionsConfigure newOpts() {
+        return new AffinityOptionsConfigure();
+    }
+
+    public static AffinityOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public AffinityOptionsConfigure workersPerLoop(int workersPerLoop) {
+        this.workersPerLoop = workersPerLoop;
+        return this;
+    }
+
+    public AffinityOptionsConfigure queueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public AffinityOptions configured() {
+        AffinityOptions affinityOptions = new AffinityOptions();
+        affinityOptions.setWorkersPerLoop(workersPerLoop);
+        affinityOptions.setQueueCapacity(queueCapacity);
+        return affinityOptions;
+    }
+}
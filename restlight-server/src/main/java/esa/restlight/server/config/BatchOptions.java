@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the batch endpoint, which accepts an envelope of sub-requests and dispatches them through the routes of
+ * current server, then aggregates the responses of them into a single response.
+ */
+public class BatchOptions implements Serializable {
+
+    private static final long serialVersionUID = 3125418706428871624L;
+
+    /**
+     * Whether to enable the batch endpoint.
+     */
+    private boolean enable;
+
+    /**
+     * Path of the batch endpoint, which only accepts the {@code POST} requests.
+     */
+    private String path = "/batch";
+
+    /**
+     * Max count of the sub-requests in a batch request.
+     */
+    private int maxRequests = 32;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", path='").append(path).append('\'');
+        sb.append(", maxRequests=").append(maxRequests);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class BatchOptionsConfigure {
+    private boolean enable;
+    private String path = "/batch";
+    private int maxRequests = 32;
+
+    private BatchOptionsConfigure() {
+    }
+
+    public static BatchOptionsConfigure newOpts() {
+        return new BatchOptionsConfigure();
+    }
+
+    public static BatchOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public BatchOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public BatchOptionsConfigure path(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public BatchOptionsConfigure maxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    public BatchOptions configured() {
+        BatchOptions batchOptions = new BatchOptions();
+        batchOptions.setEnable(enable);
+        batchOptions.setPath(path);
+        batchOptions.setMaxRequests(maxRequests);
+        return batchOptions;
+    }
+}
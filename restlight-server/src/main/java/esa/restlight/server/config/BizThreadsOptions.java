@@ -45,6 +45,8 @@ public class BizThreadsOptions implements Serializable {
      */
     private long keepAliveTimeSeconds = 180L;
 
+    private boolean lockFreeQueue;
+
     public int getCore() {
         return core;
     }
@@ -77,6 +79,14 @@ public class BizThreadsOptions implements Serializable {
         this.keepAliveTimeSeconds = keepAliveTimeSeconds;
     }
 
+    public boolean isLockFreeQueue() {
+        return lockFreeQueue;
+    }
+
+    public void setLockFreeQueue(boolean lockFreeQueue) {
+        this.lockFreeQueue = lockFreeQueue;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("BizThreadsOptions{");
@@ -84,6 +94,7 @@ public class BizThreadsOptions implements Serializable {
         sb.append(", max=").append(max);
         sb.append(", blockingQueueLength=").append(blockingQueueLength);
         sb.append(", keepAliveTimeSeconds=").append(keepAliveTimeSeconds);
+        sb.append(", lockFreeQueue=").append(lockFreeQueue);
         sb.append('}');
         return sb.toString();
     }
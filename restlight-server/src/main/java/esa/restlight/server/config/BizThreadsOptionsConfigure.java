@@ -29,6 +29,8 @@ public class BizThreadsOptionsConfigure {
 
     private long keepAliveTimeSeconds = 180L;
 
+    private boolean lockFreeQueue;
+
     private BizThreadsOptionsConfigure() {
     }
 
@@ -60,12 +62,18 @@ public class BizThreadsOptionsConfigure {
         return this;
     }
 
+    public BizThreadsOptionsConfigure lockFreeQueue(boolean lockFreeQueue) {
+        this.lockFreeQueue = lockFreeQueue;
+        return this;
+    }
+
     public BizThreadsOptions configured() {
         BizThreadsOptions bizThreadsOptions = new BizThreadsOptions();
         bizThreadsOptions.setCore(core);
         bizThreadsOptions.setMax(max);
         bizThreadsOptions.setBlockingQueueLength(blockingQueueLength);
         bizThreadsOptions.setKeepAliveTimeSeconds(keepAliveTimeSeconds);
+        bizThreadsOptions.setLockFreeQueue(lockFreeQueue);
         return bizThreadsOptions;
     }
 }
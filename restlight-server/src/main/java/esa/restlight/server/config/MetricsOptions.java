@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Options of recording the metrics of each route, such as the time waiting in the queue of the scheduler, the time
+ * of handling, the total time and the size of request and response body.
+ */
+public class MetricsOptions implements Serializable {
+
+    private static final long serialVersionUID = 2466398296934771163L;
+
+    /**
+     * Whether to record the metrics of routes.
+     */
+    private boolean enable;
+
+    /**
+     * The percentiles are calculated by the values recorded in the last one or two windows, default as 60 seconds.
+     */
+    private int windowSeconds = 60;
+
+    /**
+     * Latencies greater than this value will be recorded as this value, default as 1 hour.
+     */
+    private long maxLatencyMillis = 60L * 60L * 1000L;
+
+    /**
+     * Percentiles to publish, such as 0.99.
+     */
+    private double[] percentiles = {0.5D, 0.9D, 0.99D};
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    public void setMaxLatencyMillis(long maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetricsOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", windowSeconds=").append(windowSeconds);
+        sb.append(", maxLatencyMillis=").append(maxLatencyMillis);
+        sb.append(", percentiles=").append(Arrays.toString(percentiles));
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class MetricsOptionsConfigure {
+    private boolean enable;
+    private int windowSeconds = 60;
+    private long maxLatencyMillis = 60L * 60L * 1000L;
+    private double[] percentiles = {0.5D, 0.9D, 0.99D};
+
+    private MetricsOptionsConfigure() {
+    }
+
+    public static MetricsOptionsConfigure newOpts() {
+        return new MetricsOptionsConfigure();
+    }
+
+    public static MetricsOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public MetricsOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public MetricsOptionsConfigure windowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+        return this;
+    }
+
+    public MetricsOptionsConfigure maxLatencyMillis(long maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+        return this;
+    }
+
+    public MetricsOptionsConfigure percentiles(double... percentiles) {
+        this.percentiles = percentiles;
+        return this;
+    }
+
+    public MetricsOptions configured() {
+        MetricsOptions metricsOptions = new MetricsOptions();
+        metricsOptions.setEnable(enable);
+        metricsOptions.setWindowSeconds(windowSeconds);
+        metricsOptions.setMaxLatencyMillis(maxLatencyMillis);
+        metricsOptions.setPercentiles(percentiles);
+        return metricsOptions;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of decoding the multipart request in server, which means that the multipart body would be decoded
+ * incrementally while the body is arriving instead of being aggregated in memory, and the decoded file uploads will
+ * be saved in memory or on disk according to {@link #useDisk} and {@link #memoryThreshold}.
+ */
+public class MultipartOptions implements Serializable {
+
+    private static final long serialVersionUID = -3386474545233185741L;
+
+    /**
+     * Whether to decode the multipart request in server.
+     */
+    private boolean enable;
+
+    /**
+     * Save the file uploads on disk no matter what size the item is when the value is true.
+     */
+    private boolean useDisk;
+
+    /**
+     * The file upload whose size is greater than this value will be saved on disk, default as 2MB
+     */
+    private long memoryThreshold = 2L * 1024L * 1024L;
+
+    /**
+     * Max size of each part, default as -1 which means disable the size limit.
+     */
+    private long maxSize = -1L;
+
+    private String charset = "UTF-8";
+
+    /**
+     * The directory of temp file.
+     */
+    private String tempDir;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public boolean isUseDisk() {
+        return useDisk;
+    }
+
+    public void setUseDisk(boolean useDisk) {
+        this.useDisk = useDisk;
+    }
+
+    public long getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    public void setMemoryThreshold(long memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public String getTempDir() {
+        return tempDir;
+    }
+
+    public void setTempDir(String tempDir) {
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MultipartOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", useDisk=").append(useDisk);
+        sb.append(", memoryThreshold=").append(memoryThreshold);
+        sb.append(", maxSize=").append(maxSize);
+        sb.append(", charset='").append(charset).append('\'');
+        sb.append(", tempDir='").append(tempDir).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the server-side response cache, which keeps the serialized responses of the cacheable routes in the
+ * pooled direct buffers, and serves the cached responses on the IO threads directly.
+ */
+public class ResponseCacheOptions implements Serializable {
+
+    private static final long serialVersionUID = -2349180658823162478L;
+
+    /**
+     * Whether to enable the response cache.
+     */
+    private boolean enable;
+
+    /**
+     * Memory budget of all the cached responses in bytes, default as 64MB.
+     */
+    private long maxBytes = 64L * 1024L * 1024L;
+
+    /**
+     * Responses larger than this value will not be cached, default as 1MB.
+     */
+    private int maxEntryBytes = 1024 * 1024;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ResponseCacheOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", maxBytes=").append(maxBytes);
+        sb.append(", maxEntryBytes=").append(maxEntryBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
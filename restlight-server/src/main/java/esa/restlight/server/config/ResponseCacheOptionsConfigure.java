@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class ResponseCacheOptionsConfigure {
+    private boolean enable;
+    private long maxBytes = 64L * 1024L * 1024L;
+    private int maxEntryBytes = 1024 * 1024;
+
+    private ResponseCacheOptionsConfigure() {
+    }
+
+    public static ResponseCacheOptionsConfigure newOpts() {
+        return new ResponseCacheOptionsConfigure();
+    }
+
+    public static ResponseCacheOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public ResponseCacheOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure maxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    public ResponseCacheOptionsConfigure maxEntryBytes(int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        return this;
+    }
+
+    public ResponseCacheOptions configured() {
+        ResponseCacheOptions responseCacheOptions = new ResponseCacheOptions();
+        responseCacheOptions.setEnable(enable);
+        responseCacheOptions.setMaxBytes(maxBytes);
+        responseCacheOptions.setMaxEntryBytes(maxEntryBytes);
+        return responseCacheOptions;
+    }
+}
@@ -35,6 +35,12 @@ public class RouteOptions implements Serializable {
      */
     private int computeRate = 1;
 
+    /**
+     * parallelism of extracting routes from the controllers at startup, routes will be extracted in current thread if
+     * it is not over than 1.
+     */
+    private int extractParallelism = 1;
+
     public boolean isUseCachedRouting() {
         return useCachedRouting;
     }
@@ -61,6 +67,13 @@ public class RouteOptions implements Serializable {
         this.computeRate = computeRate;
     }
 
+    public int getExtractParallelism() {
+        return extractParallelism;
+    }
+
+    public void setExtractParallelism(int extractParallelism) {
+        this.extractParallelism = extractParallelism;
+    }
 
     @Override
     public String toString() {
@@ -68,6 +81,7 @@ public class RouteOptions implements Serializable {
         sb.append("useCachedRouting=").append(useCachedRouting);
         sb.append(", cacheRatio=").append(cacheRatio);
         sb.append(", computeRate=").append(computeRate);
+        sb.append(", extractParallelism=").append(extractParallelism);
         sb.append('}');
         return sb.toString();
     }
@@ -19,6 +19,7 @@ public final class RouteOptionsConfigure {
     private boolean useCachedRouting = true;
     private int cacheRatio = 10;
     private int computeRate = 1;
+    private int extractParallelism = 1;
 
     private RouteOptionsConfigure() {
     }
@@ -47,11 +48,17 @@ public final class RouteOptionsConfigure {
         return this;
     }
 
+    public RouteOptionsConfigure extractParallelism(int extractParallelism) {
+        this.extractParallelism = extractParallelism;
+        return this;
+    }
+
     public RouteOptions configured() {
         RouteOptions routeOptions = new RouteOptions();
         routeOptions.setUseCachedRouting(useCachedRouting);
         routeOptions.setCacheRatio(cacheRatio);
         routeOptions.setComputeRate(computeRate);
+        routeOptions.setExtractParallelism(extractParallelism);
         return routeOptions;
     }
 }
@@ -30,6 +30,8 @@ public class SchedulingOptions implements Serializable {
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    private AffinityOptions affinity = AffinityOptionsConfigure.defaultOpts();
+
     public String getDefaultScheduler() {
         return defaultScheduler;
     }
@@ -46,11 +48,20 @@ public class SchedulingOptions implements Serializable {
         this.timeout = timeout;
     }
 
+    public AffinityOptions getAffinity() {
+        return affinity;
+    }
+
+    public void setAffinity(AffinityOptions affinity) {
+        this.affinity = affinity;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("SchedulingOptions{");
         sb.append("defaultScheduler='").append(defaultScheduler).append('\'');
         sb.append(", timeout=").append(timeout);
+        sb.append(", affinity=").append(affinity);
         sb.append('}');
         return sb.toString();
     }
@@ -27,6 +27,8 @@ public final class SchedulingOptionsConfigure {
 
     private Map<String, TimeoutOptions> timeout = new LinkedHashMap<>(1);
 
+    private AffinityOptions affinity = AffinityOptionsConfigure.defaultOpts();
+
     private SchedulingOptionsConfigure() {
     }
 
@@ -48,10 +50,16 @@ public final class SchedulingOptionsConfigure {
         return this;
     }
 
+    public SchedulingOptionsConfigure affinity(AffinityOptions affinity) {
+        this.affinity = affinity;
+        return this;
+    }
+
     public SchedulingOptions configured() {
         SchedulingOptions schedulingOptions = new SchedulingOptions();
         schedulingOptions.setDefaultScheduler(defaultScheduler);
         schedulingOptions.setTimeout(timeout);
+        schedulingOptions.setAffinity(affinity);
         return schedulingOptions;
     }
 }
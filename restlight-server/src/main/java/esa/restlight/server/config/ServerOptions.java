@@ -114,6 +114,24 @@ public class ServerOptions implements Serializable {
     private BizThreadsOptions bizThreads =
             BizThreadsOptionsConfigure.defaultOpts();
 
+    private MultipartOptions multipart =
+            MultipartOptionsConfigure.defaultOpts();
+
+    private MetricsOptions metrics =
+            MetricsOptionsConfigure.defaultOpts();
+
+    private WatchdogOptions watchdog =
+            WatchdogOptionsConfigure.defaultOpts();
+
+    private ServerTimingOptions serverTiming =
+            ServerTimingOptionsConfigure.defaultOpts();
+
+    private ResponseCacheOptions responseCache =
+            ResponseCacheOptionsConfigure.defaultOpts();
+
+    private BatchOptions batch =
+            BatchOptionsConfigure.defaultOpts();
+
     public boolean isHttp2Enable() {
         return http2Enable;
     }
@@ -353,4 +371,52 @@ public class ServerOptions implements Serializable {
     public void setRoute(RouteOptions route) {
         this.route = route;
     }
+
+    public MultipartOptions getMultipart() {
+        return multipart;
+    }
+
+    public void setMultipart(MultipartOptions multipart) {
+        this.multipart = multipart;
+    }
+
+    public MetricsOptions getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsOptions metrics) {
+        this.metrics = metrics;
+    }
+
+    public WatchdogOptions getWatchdog() {
+        return watchdog;
+    }
+
+    public void setWatchdog(WatchdogOptions watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    public ServerTimingOptions getServerTiming() {
+        return serverTiming;
+    }
+
+    public void setServerTiming(ServerTimingOptions serverTiming) {
+        this.serverTiming = serverTiming;
+    }
+
+    public ResponseCacheOptions getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(ResponseCacheOptions responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public BatchOptions getBatch() {
+        return batch;
+    }
+
+    public void setBatch(BatchOptions batch) {
+        this.batch = batch;
+    }
 }
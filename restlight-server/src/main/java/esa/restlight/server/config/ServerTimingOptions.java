@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Options of the {@code Server-Timing} response header which shows the durations of each phase of the request
+ * handling. The header is only populated for the requests which carry the {@link #header} with one of the {@link
+ * #tokens}, so that the normal requests pay nothing.
+ */
+public class ServerTimingOptions implements Serializable {
+
+    private static final long serialVersionUID = 7016183529546398613L;
+
+    /**
+     * Whether to populate the {@code Server-Timing} header for the requests that ask for it.
+     */
+    private boolean enable;
+
+    /**
+     * Name of the request header that asks for the {@code Server-Timing} header.
+     */
+    private String header = "X-Restlight-Server-Timing";
+
+    /**
+     * Allowed values of the {@link #header}.
+     */
+    private List<String> tokens = new LinkedList<>();
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ServerTimingOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", header='").append(header).append('\'');
+        sb.append(", tokens=").append(tokens == null ? 0 : tokens.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
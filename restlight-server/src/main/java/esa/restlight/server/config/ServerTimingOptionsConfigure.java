@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public final class ServerTimingOptionsConfigure {
+    private boolean enable;
+    private String header = "X-Restlight-Server-Timing";
+    private List<String> tokens = new LinkedList<>();
+
+    private ServerTimingOptionsConfigure() {
+    }
+
+    public static ServerTimingOptionsConfigure newOpts() {
+        return new ServerTimingOptionsConfigure();
+    }
+
+    public static ServerTimingOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public ServerTimingOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public ServerTimingOptionsConfigure header(String header) {
+        this.header = header;
+        return this;
+    }
+
+    public ServerTimingOptionsConfigure tokens(List<String> tokens) {
+        this.tokens = tokens;
+        return this;
+    }
+
+    public ServerTimingOptions configured() {
+        ServerTimingOptions serverTimingOptions = new ServerTimingOptions();
+        serverTimingOptions.setEnable(enable);
+        serverTimingOptions.setHeader(header);
+        serverTimingOptions.setTokens(tokens);
+        return serverTimingOptions;
+    }
+}
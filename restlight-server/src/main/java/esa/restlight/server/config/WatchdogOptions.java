@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import java.io.Serializable;
+
+/**
+ * Options of the watchdog which detects the blocking of the io event loops by sending probe tasks to each event loop
+ * periodically, the stack of an event loop thread will be captured if the probe task has not been executed in {@link
+ * #thresholdMillis}.
+ */
+public class WatchdogOptions implements Serializable {
+
+    private static final long serialVersionUID = -1385412371466328931L;
+
+    /**
+     * Whether to detect the blocking of io event loops.
+     */
+    private boolean enable;
+
+    /**
+     * Interval of the probe, default as 100ms.
+     */
+    private long intervalMillis = 100L;
+
+    /**
+     * An event loop is regarded as blocked if it has been busy beyond this value, default as 1000ms.
+     */
+    private long thresholdMillis = 1000L;
+
+    /**
+     * Max count of the recent blocking events to keep, default as 32.
+     */
+    private int maxEvents = 32;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    public void setMaxEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("WatchdogOptions{");
+        sb.append("enable=").append(enable);
+        sb.append(", intervalMillis=").append(intervalMillis);
+        sb.append(", thresholdMillis=").append(thresholdMillis);
+        sb.append(", maxEvents=").append(maxEvents);
+        sb.append('}');
+        return sb.toString();
+    }
+}
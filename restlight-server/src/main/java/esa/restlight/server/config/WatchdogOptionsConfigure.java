@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+public final class WatchdogOptionsConfigure {
+    private boolean enable;
+    private long intervalMillis = 100L;
+    private long thresholdMillis = 1000L;
+    private int maxEvents = 32;
+
+    private WatchdogOptionsConfigure() {
+    }
+
+    public static WatchdogOptionsConfigure newOpts() {
+        return new WatchdogOptionsConfigure();
+    }
+
+    public static WatchdogOptions defaultOpts() {
+        return newOpts().configured();
+    }
+
+    public WatchdogOptionsConfigure enable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public WatchdogOptionsConfigure intervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    public WatchdogOptionsConfigure thresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+        return this;
+    }
+
+    public WatchdogOptionsConfigure maxEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+        return this;
+    }
+
+    public WatchdogOptions configured() {
+        WatchdogOptions watchdogOptions = new WatchdogOptions();
+        watchdogOptions.setEnable(enable);
+        watchdogOptions.setIntervalMillis(intervalMillis);
+        watchdogOptions.setThresholdMillis(thresholdMillis);
+        watchdogOptions.setMaxEvents(maxEvents);
+        return watchdogOptions;
+    }
+}
@@ -53,6 +53,16 @@ public interface Filter extends Ordered {
      */
     CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain);
 
+    /**
+     * Whether this filter should be applied to the warm-up requests, see {@link esa.restlight.server.warmup.WarmUp}.
+     * The filters which keep the states of the clients, such as the rate limiting, should not be applied to them.
+     *
+     * @return {@code true} if this filter should be applied to the warm-up requests.
+     */
+    default boolean applyToWarmUp() {
+        return true;
+    }
+
     /**
      * Shutdown event
      */
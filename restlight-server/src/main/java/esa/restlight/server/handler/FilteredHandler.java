@@ -18,32 +18,67 @@ package esa.restlight.server.handler;
 import esa.commons.Checks;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ServerTimingOptions;
+import esa.restlight.server.jfr.Phase;
+import esa.restlight.server.jfr.RestlightEvents;
+import esa.restlight.server.jfr.Span;
+import esa.restlight.server.metrics.ServerTiming;
 import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.util.Futures;
+import esa.restlight.server.warmup.WarmUp;
 import io.netty.channel.ChannelHandlerContext;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 public class FilteredHandler implements RestlightHandler {
 
+    private static final String FILTER_CHAIN_SPAN = "$restlight.jfr.filter-chain";
+
     private final RestlightHandler delegate;
     private final Filter[] filters;
     private final FilterChain filterChain;
+    /**
+     * Chain of the filters which are applied to the warm-up requests.
+     */
+    private final FilterChain warmUpChain;
+    private final ServerTiming.Trigger timing;
 
     public FilteredHandler(RestlightHandler delegate, List<Filter> filters) {
+        this(delegate, filters, null);
+    }
+
+    public FilteredHandler(RestlightHandler delegate, List<Filter> filters, ServerTimingOptions serverTiming) {
         Checks.checkNotNull(delegate, "delegate");
         Checks.checkNotNull(filters, "filters");
         this.delegate = delegate;
         this.filters = filters.toArray(new Filter[0]);
-        this.filterChain = LinkedFilterChain.immutable(this.filters, ((request, response) -> {
+        this.timing = ServerTiming.trigger(serverTiming);
+        final FilterChain terminal = (request, response) -> {
+            if (RestlightEvents.isRecording()) {
+                finishFilterChain(request);
+            }
+            final ServerTiming t;
+            if (timing != null && (t = ServerTiming.get(response)) != null) {
+                t.end(Phase.FILTER_CHAIN);
+            }
             if (!response.isCommitted()) {
                 return delegate.process(request, response);
             } else {
                 return Futures.completedFuture();
             }
-        }));
+        };
+        this.filterChain = LinkedFilterChain.immutable(this.filters, terminal::doFilter);
+        final Filter[] warmUpFilters = Arrays.stream(this.filters).filter(Filter::applyToWarmUp).toArray(Filter[]::new);
+        if (warmUpFilters.length == this.filters.length) {
+            this.warmUpChain = this.filterChain;
+        } else if (warmUpFilters.length == 0) {
+            this.warmUpChain = terminal;
+        } else {
+            this.warmUpChain = LinkedFilterChain.immutable(warmUpFilters, terminal::doFilter);
+        }
     }
 
     @Override
@@ -63,7 +98,32 @@ public class FilteredHandler implements RestlightHandler {
 
     @Override
     public CompletableFuture<Void> process(AsyncRequest request, AsyncResponse response) {
-        return filterChain.doFilter(request, response);
+        if (timing != null) {
+            // the filters may reject the request, so that the timing is started before them.
+            response = timing.start(request, response);
+            final ServerTiming t = ServerTiming.get(response);
+            if (t != null) {
+                t.begin(Phase.FILTER_CHAIN);
+            }
+        }
+        final FilterChain chain = WarmUp.isWarmUp(request) ? warmUpChain : filterChain;
+        if (!RestlightEvents.isRecording()) {
+            return chain.doFilter(request, response);
+        }
+        request.setAttribute(FILTER_CHAIN_SPAN, RestlightEvents.begin(Phase.FILTER_CHAIN));
+        try {
+            return chain.doFilter(request, response);
+        } finally {
+            // the delegate may not be reached synchronously if the chain is broken or continued asynchronously
+            finishFilterChain(request);
+        }
+    }
+
+    private static void finishFilterChain(AsyncRequest request) {
+        final Object span = request.removeAttribute(FILTER_CHAIN_SPAN);
+        if (span != null) {
+            ((Span) span).finish(request);
+        }
     }
 
     @Override
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.jfr;
+
+import esa.httpserver.core.AsyncRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event types of JDK Flight Recorder. This class must only be loaded when the JDK Flight Recorder is available.
+ */
+final class JfrEvents {
+
+    static void init() {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                refresh();
+            }
+
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    static Span begin(Phase phase) {
+        final RestlightEvent event;
+        switch (phase) {
+            case FILTER_CHAIN:
+                event = new FilterChainEvent();
+                break;
+            case ROUTING:
+                event = new RoutingEvent();
+                break;
+            case QUEUE_WAIT:
+                event = new QueueWaitEvent();
+                break;
+            case ARGUMENT_RESOLUTION:
+                event = new ArgumentResolutionEvent();
+                break;
+            case HANDLER_INVOCATION:
+                event = new HandlerInvocationEvent();
+                break;
+            default:
+                event = new SerializationEvent();
+                break;
+        }
+        if (!event.isEnabled()) {
+            return Span.NOOP;
+        }
+        event.begin();
+        return event;
+    }
+
+    private static void refresh() {
+        boolean running = false;
+        if (FlightRecorder.isInitialized()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running = true;
+                    break;
+                }
+            }
+        }
+        RestlightEvents.setRecording(running);
+    }
+
+    @Category("Restlight")
+    @StackTrace(false)
+    abstract static class RestlightEvent extends Event implements Span {
+
+        @Label("HTTP Method")
+        String method;
+
+        @Label("Path")
+        String path;
+
+        @Label("Route")
+        @Description("Pattern of the matched route")
+        String route;
+
+        @Override
+        public void finish(AsyncRequest request) {
+            end();
+            if (shouldCommit()) {
+                method = request.rawMethod();
+                path = request.path();
+                final Object r = request.getAttribute(RestlightEvents.ROUTE_ATTR);
+                route = r == null ? null : r.toString();
+                commit();
+            }
+        }
+    }
+
+    @Name("esa.restlight.FilterChain")
+    @Label("Filter Chain")
+    static final class FilterChainEvent extends RestlightEvent {
+    }
+
+    @Name("esa.restlight.Routing")
+    @Label("Routing")
+    static final class RoutingEvent extends RestlightEvent {
+    }
+
+    @Name("esa.restlight.QueueWait")
+    @Label("Scheduler Queue Wait")
+    static final class QueueWaitEvent extends RestlightEvent {
+    }
+
+    @Name("esa.restlight.ArgumentResolution")
+    @Label("Argument Resolution")
+    static final class ArgumentResolutionEvent extends RestlightEvent {
+    }
+
+    @Name("esa.restlight.HandlerInvocation")
+    @Label("Handler Invocation")
+    static final class HandlerInvocationEvent extends RestlightEvent {
+    }
+
+    @Name("esa.restlight.Serialization")
+    @Label("Return Value Serialization")
+    static final class SerializationEvent extends RestlightEvent {
+    }
+
+    private JfrEvents() {
+    }
+}
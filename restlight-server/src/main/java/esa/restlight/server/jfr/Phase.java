@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.jfr;
+
+/**
+ * Phases of the request lifecycle which could be recorded as JDK Flight Recorder events.
+ *
+ * @see RestlightEvents
+ */
+public enum Phase {
+
+    /**
+     * Filter chain execution, from entering the first filter to reaching the handler.
+     */
+    FILTER_CHAIN("esa.restlight.FilterChain"),
+
+    /**
+     * Routing a request by the {@link esa.restlight.server.route.ReadOnlyRouteRegistry}.
+     */
+    ROUTING("esa.restlight.Routing"),
+
+    /**
+     * Waiting in the queue of the scheduler.
+     */
+    QUEUE_WAIT("esa.restlight.QueueWait"),
+
+    /**
+     * Resolving the arguments of the handler.
+     */
+    ARGUMENT_RESOLUTION("esa.restlight.ArgumentResolution"),
+
+    /**
+     * Invoking the handler.
+     */
+    HANDLER_INVOCATION("esa.restlight.HandlerInvocation"),
+
+    /**
+     * Serializing the return value of the handler.
+     */
+    SERIALIZATION("esa.restlight.Serialization");
+
+    private final String eventName;
+
+    Phase(String eventName) {
+        this.eventName = eventName;
+    }
+
+    /**
+     * Name of the event type of this phase.
+     *
+     * @return event name
+     */
+    public String eventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.jfr;
+
+import esa.commons.ClassUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.util.LoggerUtils;
+
+/**
+ * Entrance of the JDK Flight Recorder events of the request lifecycle.
+ * <p>
+ * Events are only created when JDK Flight Recorder is available and there's at least one running recording, otherwise
+ * {@link #begin(Phase)} simply returns {@link Span#NOOP}, so that the cost is only a volatile read. The events could
+ * be disabled entirely by the system property {@code -Drestlight.server.jfr.enable=false}.
+ */
+public final class RestlightEvents {
+
+    /**
+     * Key of the request attribute that saves the pattern of the matched route, which is only set when recording.
+     */
+    public static final String ROUTE_ATTR = "$restlight.jfr.route";
+
+    private static final boolean AVAILABLE;
+    private static volatile boolean recording;
+
+    static {
+        boolean available = false;
+        if (Boolean.parseBoolean(System.getProperty("restlight.server.jfr.enable", "true"))
+                && ClassUtils.hasClass("jdk.jfr.FlightRecorder")) {
+            try {
+                JfrEvents.init();
+                available = true;
+            } catch (Throwable t) {
+                LoggerUtils.logger().debug("JDK Flight Recorder is unavailable", t);
+            }
+        }
+        AVAILABLE = available;
+    }
+
+    /**
+     * Whether the JDK Flight Recorder is available.
+     *
+     * @return available
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Whether there's any running recording.
+     *
+     * @return recording
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Begins an event of the given phase.
+     *
+     * @param phase phase
+     *
+     * @return span, which should be finished by {@link Span#finish(AsyncRequest)}
+     */
+    public static Span begin(Phase phase) {
+        return recording ? JfrEvents.begin(phase) : Span.NOOP;
+    }
+
+    /**
+     * Saves the pattern of the matched route into the given request when recording, so that the events committed
+     * later could carry the route.
+     *
+     * @param request request
+     * @param route   route matched
+     */
+    public static void markRoute(AsyncRequest request, Route route) {
+        if (recording) {
+            request.setAttribute(ROUTE_ATTR, String.join(",", route.mapping().path()));
+        }
+    }
+
+    static void setRecording(boolean recording) {
+        RestlightEvents.recording = recording;
+    }
+
+    private RestlightEvents() {
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.jfr;
+
+import esa.httpserver.core.AsyncRequest;
+
+/**
+ * A started event of a {@link Phase}.
+ */
+public interface Span {
+
+    /**
+     * A {@link Span} which does nothing, this is returned when there's no active recording.
+     */
+    Span NOOP = request -> {
+    };
+
+    /**
+     * Ends this span and commits the event if it should be committed.
+     *
+     * @param request current request
+     */
+    void finish(AsyncRequest request);
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.Checks;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.config.WatchdogOptions;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watchdog of the io event loops which sends a probe task to each {@link EventExecutor} periodically and measures the
+ * latency of the probe. If a probe has not been executed beyond the threshold, the event loop is regarded as blocked,
+ * and the stack of the event loop thread will be captured and reported with the route which is being handled by
+ * this event loop.
+ *
+ * @see #enter(Route)
+ * @see #exit()
+ */
+public final class EventLoopWatchdog {
+
+    private static final FastThreadLocal<Probe> CURRENT = new FastThreadLocal<>();
+    private static final StackTraceElement[] EMPTY_STACK = new StackTraceElement[0];
+
+    private final long intervalMillis;
+    private final long thresholdNanos;
+    private final long windowMillis;
+    private final int maxEvents;
+    private final LongAdder blockedCount = new LongAdder();
+    private final Deque<BlockedEvent> events = new ArrayDeque<>();
+    private volatile List<Probe> probes = Collections.emptyList();
+    private ScheduledExecutorService timer;
+
+    public EventLoopWatchdog(WatchdogOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getIntervalMillis() > 0L, "intervalMillis must be over than 0");
+        Checks.checkArg(options.getThresholdMillis() > 0L, "thresholdMillis must be over than 0");
+        Checks.checkArg(options.getMaxEvents() >= 0, "maxEvents must not be less than 0");
+        this.intervalMillis = options.getIntervalMillis();
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(options.getThresholdMillis());
+        this.windowMillis = Math.max(TimeUnit.MINUTES.toMillis(1L), options.getThresholdMillis());
+        this.maxEvents = options.getMaxEvents();
+    }
+
+    /**
+     * Marks that the given route is being handled by current thread, this will take effect only if current thread is
+     * an event loop thread which is being watched.
+     *
+     * @param route route
+     */
+    public static void enter(Route route) {
+        final Probe probe = CURRENT.getIfExists();
+        if (probe != null) {
+            probe.route = route;
+        }
+    }
+
+    /**
+     * Clears the route marked by {@link #enter(Route)}.
+     */
+    public static void exit() {
+        final Probe probe = CURRENT.getIfExists();
+        if (probe != null) {
+            probe.route = null;
+        }
+    }
+
+    /**
+     * Starts to watch every {@link EventExecutor} of given executor. Nothing will happen if the given executor is not
+     * an {@link EventExecutorGroup}.
+     *
+     * @param ioExecutor io executor
+     */
+    public synchronized void start(Executor ioExecutor) {
+        if (timer != null) {
+            return;
+        }
+        if (!(ioExecutor instanceof EventExecutorGroup)) {
+            LoggerUtils.logger().warn("Could not watch io executor({}) which is not an EventExecutorGroup.",
+                    ioExecutor);
+            return;
+        }
+        final List<Probe> ps = new ArrayList<>();
+        for (EventExecutor executor : (EventExecutorGroup) ioExecutor) {
+            ps.add(new Probe(executor, windowMillis));
+        }
+        this.probes = Collections.unmodifiableList(ps);
+        this.timer = Executors.newSingleThreadScheduledExecutor(new RestlightThreadFactory("Restlight-Watchdog"));
+        this.timer.scheduleWithFixedDelay(this::check, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+        LoggerUtils.logger().info("Started to watch {} io event loop(s), threshold: {}ms",
+                ps.size(), TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+    }
+
+    /**
+     * Stops watching, which will also be done automatically when all the event loops have been shutdown.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return timer != null;
+    }
+
+    /**
+     * Returns the probes of all the watched event loops.
+     *
+     * @return probes
+     */
+    public List<Probe> probes() {
+        return probes;
+    }
+
+    /**
+     * Returns the count of all the blocking events.
+     *
+     * @return count
+     */
+    public long blockedCount() {
+        return blockedCount.sum();
+    }
+
+    /**
+     * Returns the recent blocking events, the latest one is at the first.
+     *
+     * @return events
+     */
+    public List<BlockedEvent> recentEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    void check() {
+        final long now = System.nanoTime();
+        boolean alive = false;
+        for (Probe probe : probes) {
+            if (probe.executor.isShuttingDown()) {
+                continue;
+            }
+            alive = true;
+            if (!probe.pending) {
+                probe.submit(now);
+            } else if (!probe.reported && now - probe.submittedAt >= thresholdNanos) {
+                probe.reported = true;
+                report(probe, now - probe.submittedAt);
+            }
+        }
+        if (!alive) {
+            stop();
+        }
+    }
+
+    private void report(Probe probe, long blockedNanos) {
+        final Thread thread = probe.thread;
+        final Route route = probe.route;
+        final StackTraceElement[] stack = thread == null ? EMPTY_STACK : thread.getStackTrace();
+        final BlockedEvent event = new BlockedEvent(System.currentTimeMillis(),
+                thread == null ? null : thread.getName(),
+                TimeUnit.NANOSECONDS.toMillis(blockedNanos),
+                route == null ? null : route.toString(),
+                stack);
+        probe.blockedCount.increment();
+        blockedCount.increment();
+        if (maxEvents > 0) {
+            synchronized (events) {
+                if (events.size() >= maxEvents) {
+                    events.pollLast();
+                }
+                events.offerFirst(event);
+            }
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : stack) {
+            sb.append("\n\tat ").append(element);
+        }
+        LoggerUtils.logger().warn("Event loop thread({}) has been blocked for {}ms while handling {}{}",
+                event.threadName(), event.blockedMillis(), route == null ? "unknown" : route, sb);
+    }
+
+    /**
+     * Probe of an event loop.
+     */
+    public static final class Probe implements Runnable {
+
+        private final EventExecutor executor;
+        private final Histogram latency;
+        private final LongAdder blockedCount = new LongAdder();
+        private volatile Thread thread;
+        private volatile Route route;
+        private volatile boolean pending;
+        private volatile boolean reported;
+        private volatile long submittedAt;
+
+        private Probe(EventExecutor executor, long windowMillis) {
+            this.executor = executor;
+            this.latency = new Histogram(TimeUnit.HOURS.toMicros(1L), windowMillis);
+        }
+
+        private void submit(long now) {
+            submittedAt = now;
+            reported = false;
+            pending = true;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                pending = false;
+            }
+        }
+
+        @Override
+        public void run() {
+            if (thread == null) {
+                thread = Thread.currentThread();
+                CURRENT.set(this);
+            }
+            final long elapsed = System.nanoTime() - submittedAt;
+            latency.record(TimeUnit.NANOSECONDS.toMicros(elapsed));
+            if (reported) {
+                LoggerUtils.logger().warn("Event loop thread({}) resumed after being blocked for {}ms",
+                        thread.getName(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+            pending = false;
+        }
+
+        /**
+         * Name of the event loop thread, or {@code null} if the first probe has not been executed.
+         *
+         * @return thread name
+         */
+        public String threadName() {
+            final Thread t = thread;
+            return t == null ? null : t.getName();
+        }
+
+        /**
+         * Latency of the probe tasks.
+         *
+         * @return histogram in microseconds
+         */
+        public Histogram latency() {
+            return latency;
+        }
+
+        /**
+         * Count of the blocking events of this event loop.
+         *
+         * @return count
+         */
+        public long blockedCount() {
+            return blockedCount.sum();
+        }
+
+        /**
+         * Time that the pending probe has been waiting for.
+         *
+         * @return time in milliseconds, or 0 if there's no pending probe.
+         */
+        public long pendingMillis() {
+            return pending ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt) : 0L;
+        }
+    }
+
+    /**
+     * An event that an event loop has been blocked beyond the threshold.
+     */
+    public static final class BlockedEvent {
+
+        private final long timestamp;
+        private final String threadName;
+        private final long blockedMillis;
+        private final String route;
+        private final StackTraceElement[] stackTrace;
+
+        BlockedEvent(long timestamp,
+                     String threadName,
+                     long blockedMillis,
+                     String route,
+                     StackTraceElement[] stackTrace) {
+            this.timestamp = timestamp;
+            this.threadName = threadName;
+            this.blockedMillis = blockedMillis;
+            this.route = route;
+            this.stackTrace = stackTrace;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public String threadName() {
+            return threadName;
+        }
+
+        public long blockedMillis() {
+            return blockedMillis;
+        }
+
+        /**
+         * Description of the route which was being handled, {@code null} if it is unknown.
+         *
+         * @return route
+         */
+        public String route() {
+            return route;
+        }
+
+        public StackTraceElement[] stackTrace() {
+            return stackTrace;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.Checks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free histogram of non-negative long values which records the values into log-linear buckets(every power of 2
+ * is split into 16 linear buckets, so the relative error of the percentiles is less than 1/16).
+ * <p>
+ * The count, total amount and max are cumulative, and the percentiles are calculated by the values recorded in the
+ * recent window which is rotated lazily when reading, so the percentiles reflect the values recorded in the last one
+ * or two windows as long as the histogram is read at least once per window.
+ * <p>
+ * Buckets are allocated when the first value is recorded, so that a histogram costs nothing if it is never used.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    private final long highestTrackableValue;
+    private final int bucketCount;
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private long rotatedAt;
+
+    public Histogram(long highestTrackableValue, long windowMillis) {
+        this(highestTrackableValue, windowMillis, System::nanoTime);
+    }
+
+    Histogram(long highestTrackableValue, long windowMillis, LongSupplier clock) {
+        Checks.checkArg(highestTrackableValue > 0L, "highestTrackableValue must be over than 0");
+        Checks.checkArg(windowMillis > 0L, "windowMillis must be over than 0");
+        this.highestTrackableValue = highestTrackableValue;
+        this.bucketCount = indexOf(highestTrackableValue) + 1;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Records the given value, negative value will be recorded as 0 and the value which is greater than the highest
+     * trackable value will be recorded as the highest trackable value.
+     *
+     * @param value value
+     */
+    public void record(long value) {
+        if (value < 0L) {
+            value = 0L;
+        } else if (value > highestTrackableValue) {
+            value = highestTrackableValue;
+        }
+        AtomicLongArray buckets = current;
+        if (buckets == null) {
+            buckets = init();
+        }
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the count of all the recorded values.
+     *
+     * @return count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all the recorded values.
+     *
+     * @return total amount
+     */
+    public long totalAmount() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the max value of all the recorded values.
+     *
+     * @return max
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile of the values recorded in recent window.
+     *
+     * @param percentile percentile between 0.0 and 1.0, such as 0.99
+     *
+     * @return value at the given percentile, or 0 if there's no value recorded in recent window.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (current == null) {
+            return 0L;
+        }
+        rotateIfNecessary();
+        final AtomicLongArray cur = current;
+        final AtomicLongArray prev = previous;
+        final long[] counts = new long[bucketCount];
+        long sum = 0L;
+        for (int i = 0; i < bucketCount; i++) {
+            final long c = cur.get(i) + prev.get(i);
+            counts[i] = c;
+            sum += c;
+        }
+        if (sum == 0L) {
+            return 0L;
+        }
+        final double p = Math.min(Math.max(percentile, 0.0D), 1.0D);
+        final long target = Math.max(1L, (long) Math.ceil(p * sum));
+        long acc = 0L;
+        for (int i = 0; i < bucketCount; i++) {
+            acc += counts[i];
+            if (acc >= target) {
+                return Math.min(highestEquivalentValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    private synchronized AtomicLongArray init() {
+        if (current == null) {
+            previous = new AtomicLongArray(bucketCount);
+            rotatedAt = clock.getAsLong();
+            current = new AtomicLongArray(bucketCount);
+        }
+        return current;
+    }
+
+    private synchronized void rotateIfNecessary() {
+        final long now = clock.getAsLong();
+        if (now - rotatedAt < windowNanos) {
+            return;
+        }
+        final AtomicLongArray recycled = previous;
+        for (int i = 0; i < bucketCount; i++) {
+            recycled.set(i, 0L);
+        }
+        previous = current;
+        current = recycled;
+        rotatedAt = now;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exp = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exp - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (exp - SUB_BUCKET_BITS) * SUB_BUCKET_HALF
+                + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int i = index - SUB_BUCKET_COUNT;
+        final int shift = i / SUB_BUCKET_HALF + 1;
+        final long sub = i % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return (sub << shift) + (1L << shift) - 1L;
+    }
+}
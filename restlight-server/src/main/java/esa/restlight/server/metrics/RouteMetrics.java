@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.Checks;
+import esa.restlight.server.config.MetricsOptions;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the {@link RouteRecorder}s of all the routes, which are preallocated when the server is starting. A recorder
+ * is located by the identity of the {@link Mapping} of the route, so that no tag or key should be built for every
+ * request.
+ */
+public final class RouteMetrics {
+
+    private final MetricsOptions options;
+    private volatile List<RouteRecorder> recorders = Collections.emptyList();
+    private volatile Map<Mapping, RouteRecorder> lookup = Collections.emptyMap();
+
+    public RouteMetrics(MetricsOptions options) {
+        Checks.checkNotNull(options, "options");
+        Checks.checkArg(options.getWindowSeconds() > 0, "windowSeconds must be over than 0");
+        Checks.checkArg(options.getMaxLatencyMillis() > 0L, "maxLatencyMillis must be over than 0");
+        this.options = options;
+    }
+
+    /**
+     * Allocates the recorders of given routes.
+     *
+     * @param routes routes
+     */
+    public synchronized void init(List<Route> routes) {
+        final RouteRecorder[] arr = new RouteRecorder[routes.size()];
+        final Map<Mapping, RouteRecorder> map = new IdentityHashMap<>(arr.length);
+        for (int i = 0; i < arr.length; i++) {
+            final Mapping mapping = routes.get(i).mapping();
+            arr[i] = new RouteRecorder(i, mapping, options);
+            map.put(mapping, arr[i]);
+        }
+        this.lookup = map;
+        this.recorders = Collections.unmodifiableList(Arrays.asList(arr));
+    }
+
+    /**
+     * Gets the recorder of given route.
+     *
+     * @param route route
+     *
+     * @return recorder, or {@code null} if the route is unknown.
+     */
+    public RouteRecorder recorder(Route route) {
+        return lookup.get(route.mapping());
+    }
+
+    /**
+     * Returns all the recorders ordered by {@link RouteRecorder#index()}.
+     *
+     * @return recorders
+     */
+    public List<RouteRecorder> recorders() {
+        return recorders;
+    }
+}
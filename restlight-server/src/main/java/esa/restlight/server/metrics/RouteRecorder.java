@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.MetricsOptions;
+import esa.restlight.server.route.Mapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorder of the metrics of a route, the latencies are recorded in microseconds and the sizes are recorded in bytes.
+ */
+public final class RouteRecorder {
+
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private final int index;
+    private final Mapping mapping;
+    private final Histogram queueWait;
+    private final Histogram handle;
+    private final Histogram total;
+    private final Histogram requestSize;
+    private final Histogram responseSize;
+
+    RouteRecorder(int index, Mapping mapping, MetricsOptions options) {
+        this.index = index;
+        this.mapping = mapping;
+        final long maxLatency = TimeUnit.MILLISECONDS.toMicros(options.getMaxLatencyMillis());
+        final long window = TimeUnit.SECONDS.toMillis(options.getWindowSeconds());
+        this.queueWait = new Histogram(maxLatency, window);
+        this.handle = new Histogram(maxLatency, window);
+        this.total = new Histogram(maxLatency, window);
+        this.requestSize = new Histogram(MAX_SIZE, window);
+        this.responseSize = new Histogram(MAX_SIZE, window);
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param request  request
+     * @param response response
+     * @param queuedAt the time in nanoseconds when the request was submitted to the scheduler
+     * @param startAt  the time in nanoseconds when the request was started to be handled
+     * @param endAt    the time in nanoseconds when the request was completed
+     */
+    public void record(AsyncRequest request, AsyncResponse response, long queuedAt, long startAt, long endAt) {
+        queueWait.record(TimeUnit.NANOSECONDS.toMicros(startAt - queuedAt));
+        handle.record(TimeUnit.NANOSECONDS.toMicros(endAt - startAt));
+        total.record(TimeUnit.NANOSECONDS.toMicros(endAt - queuedAt));
+        final int contentLength = request.contentLength();
+        if (contentLength >= 0) {
+            requestSize.record(contentLength);
+        }
+        final long written = response.bodyLength();
+        if (written >= 0L) {
+            responseSize.record(written);
+        }
+    }
+
+    /**
+     * Returns the index of the route in all the routes.
+     *
+     * @return index
+     */
+    public int index() {
+        return index;
+    }
+
+    public Mapping mapping() {
+        return mapping;
+    }
+
+    /**
+     * Time waiting in the queue of the scheduler.
+     *
+     * @return histogram in microseconds
+     */
+    public Histogram queueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Time of handling the request after being scheduled.
+     *
+     * @return histogram in microseconds
+     */
+    public Histogram handle() {
+        return handle;
+    }
+
+    /**
+     * Total time from being submitted to the scheduler to completion.
+     *
+     * @return histogram in microseconds
+     */
+    public Histogram total() {
+        return total;
+    }
+
+    public Histogram requestSize() {
+        return requestSize;
+    }
+
+    public Histogram responseSize() {
+        return responseSize;
+    }
+}
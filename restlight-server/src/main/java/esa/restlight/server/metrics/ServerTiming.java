@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ServerTimingOptions;
+import esa.restlight.server.jfr.Phase;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Collects the durations of each {@link Phase} of a single request and writes them into the {@code Server-Timing}
+ * response header, such as:
+ * <pre>
+ * Server-Timing: filter;dur=0.051, route;dur=0.004, queue;dur=0.031, args;dur=0.012, handler;dur=1.203,
+ * serialize;dur=0.087, total;dur=1.420
+ * </pre>
+ * The durations are in milliseconds, and the phases that have not been passed through are omitted.
+ * <p>
+ * An instance is only created by a {@link Trigger} for the request which carries the configured header with an
+ * allowed token, and is carried by the response of the request, so that the phases could be measured in different
+ * handlers by {@link #get(AsyncResponse)} and the header is written right before the response is committed, whoever
+ * commits it.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String[] NAMES = new String[PHASES.length];
+
+    static {
+        NAMES[Phase.FILTER_CHAIN.ordinal()] = "filter";
+        NAMES[Phase.ROUTING.ordinal()] = "route";
+        NAMES[Phase.QUEUE_WAIT.ordinal()] = "queue";
+        NAMES[Phase.ARGUMENT_RESOLUTION.ordinal()] = "args";
+        NAMES[Phase.HANDLER_INVOCATION.ordinal()] = "handler";
+        NAMES[Phase.SERIALIZATION.ordinal()] = "serialize";
+    }
+
+    private final long startAt;
+    private final long[] begins = new long[PHASES.length];
+    private final long[] durations = new long[PHASES.length];
+
+    ServerTiming(long startAt) {
+        this.startAt = startAt;
+    }
+
+    /**
+     * Gets the {@link ServerTiming} carried by given response.
+     *
+     * @param response response
+     *
+     * @return timing or {@code null} if the request does not ask for the {@code Server-Timing} header.
+     */
+    public static ServerTiming get(AsyncResponse response) {
+        return response instanceof ServerTimingResponse ? ((ServerTimingResponse) response).timing() : null;
+    }
+
+    /**
+     * Creates a {@link Trigger} by given options.
+     *
+     * @param options options
+     *
+     * @return trigger or {@code null} if the {@code Server-Timing} header is disabled.
+     */
+    public static Trigger trigger(ServerTimingOptions options) {
+        if (options == null || !options.isEnable()
+                || StringUtils.isEmpty(options.getHeader())
+                || options.getTokens() == null || options.getTokens().isEmpty()) {
+            return null;
+        }
+        return new Trigger(options.getHeader(), options.getTokens());
+    }
+
+    public void begin(Phase phase) {
+        begins[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void end(Phase phase) {
+        final int i = phase.ordinal();
+        if (begins[i] != 0L) {
+            durations[i] += System.nanoTime() - begins[i];
+            begins[i] = 0L;
+        }
+    }
+
+    /**
+     * Gets the duration of given phase in nanoseconds.
+     */
+    public long duration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Sets the {@code Server-Timing} header to given response if it has not been committed.
+     */
+    public void writeTo(AsyncResponse response) {
+        if (!response.isCommitted()) {
+            response.setHeader(HEADER, format(System.nanoTime()));
+        }
+    }
+
+    String format(long now) {
+        final StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < durations.length; i++) {
+            if (durations[i] > 0L) {
+                append(sb, NAMES[i], durations[i]);
+            }
+        }
+        append(sb, "total", now - startAt);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, long nanos) {
+        if (sb.length() > 0) {
+            sb.append(", ");
+        }
+        final long micros = nanos / 1000L;
+        sb.append(name).append(";dur=").append(micros / 1000L).append('.');
+        final long fraction = micros % 1000L;
+        if (fraction < 100L) {
+            sb.append('0');
+        }
+        if (fraction < 10L) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Creates the {@link ServerTiming} for the requests which carry the configured header with an allowed token.
+     */
+    public static final class Trigger {
+
+        private final String header;
+        private final byte[][] tokens;
+
+        private Trigger(String header, List<String> tokens) {
+            this.header = header;
+            this.tokens = new byte[tokens.size()][];
+            int i = 0;
+            for (String token : tokens) {
+                this.tokens[i++] = token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        /**
+         * Starts a new {@link ServerTiming} if the given request asks for the {@code Server-Timing} header and it has
+         * not been started yet.
+         *
+         * @param request  request
+         * @param response response
+         *
+         * @return the response which carries the timing and should be used to handle the request since then, or the
+         * given response if the request does not ask for it or it has been started.
+         */
+        public AsyncResponse start(AsyncRequest request, AsyncResponse response) {
+            if (response instanceof ServerTimingResponse) {
+                return response;
+            }
+            final String value = request.getHeader(header);
+            if (value == null || !allowed(value)) {
+                return response;
+            }
+            return new ServerTimingResponse(response, new ServerTiming(System.nanoTime()));
+        }
+
+        private boolean allowed(String value) {
+            final byte[] actual = value.getBytes(StandardCharsets.UTF_8);
+            boolean allowed = false;
+            for (byte[] token : tokens) {
+                // compare all the tokens in constant time to avoid leaking them through the timing.
+                allowed |= token.length > 0 && MessageDigest.isEqual(token, actual);
+            }
+            return allowed;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route;
+
+import esa.restlight.server.config.RouteOptions;
+
+import java.util.List;
+
+/**
+ * Statistics of a {@link ReadOnlyRouteRegistry} which caches the routes in the order of their hits, such as {@link
+ * esa.restlight.server.route.impl.CachedRouteRegistry}. This could be used to verify whether the cached routing is
+ * effective, and to tune the {@link RouteOptions#getComputeRate()}.
+ */
+public interface RouteHitStatistics {
+
+    /**
+     * Rate(from 0 to 1000) of recomputing the order of the cached routes when a route is hit.
+     *
+     * @return compute rate
+     */
+    int computeRate();
+
+    /**
+     * Times of recomputing the order of the cached routes.
+     *
+     * @return count
+     */
+    long computeCount();
+
+    /**
+     * Count of the requests which have not matched any route.
+     *
+     * @return count
+     */
+    long notFoundCount();
+
+    /**
+     * Hits of all the routes in the current cache order, the returned list is a snapshot of the order but the values of
+     * each {@link RouteHits} are live.
+     *
+     * @return hits
+     */
+    List<RouteHits> hits();
+}
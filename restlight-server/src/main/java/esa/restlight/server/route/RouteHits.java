@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.route;
+
+/**
+ * Hits of a {@link Route}, values returned by this are always the latest.
+ *
+ * @see RouteHitStatistics
+ */
+public interface RouteHits {
+
+    /**
+     * Gets the route.
+     *
+     * @return route
+     */
+    Route route();
+
+    /**
+     * Index of the route in the cache, a route with a lower index will be tested earlier.
+     *
+     * @return order
+     */
+    int order();
+
+    /**
+     * Cumulative hits of the route.
+     *
+     * @return hits
+     */
+    long totalHits();
+
+    /**
+     * Recent hits of the route which decays by half every time when the cache order is recomputed.
+     *
+     * @return hits
+     */
+    long recentHits();
+}
@@ -19,37 +19,158 @@ import esa.commons.Checks;
 import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HttpMethod;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.RouteRegistry;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 abstract class AbstractRouteRegistry implements RouteRegistry {
 
     private static final Logger logger =
             LoggerFactory.getLogger(AbstractRouteRegistry.class);
 
+    private static final String ANY_METHOD = "*";
+
     /**
      * all mappings
      */
     private final List<RouteWrap> mappingLookup = new ArrayList<>();
 
+    /**
+     * mappings indexed by the literal segments of the path and then bucketed by the http method, which is used to
+     * find out the mappings that may be ambiguous with a new one instead of comparing it with all the mappings.
+     * <p>
+     * A mapping is indexed under the node of its leading literal segments(stops at the first pattern segment), two
+     * mappings may match a same path only if one of the nodes is the ancestor of(or same with) the other.
+     */
+    private final Node ambiguityIndex = new Node();
+
     @Override
     public void registerRoute(Route route) {
         Checks.checkNotNull(route, "route");
         final RouteWrap routeWrap = new RouteWrap(route);
-        mappingLookup.forEach(registered -> {
-            if (registered.predicate.mayAmbiguousWith(routeWrap.predicate)) {
-                logger.warn("Found ambiguous route:\n{}\n{}", registered.route, route);
+        final List<Node> nodes = nodes(route.mapping().path());
+        final String[] methods = methodKeys(route.mapping().method());
+        for (RouteWrap registered : ambiguousWith(routeWrap, nodes, methods)) {
+            logger.warn("Found ambiguous route:\n{}\n{}", registered.route, route);
+        }
+        for (Node node : nodes) {
+            for (String method : methods) {
+                node.routes.computeIfAbsent(method, k -> new LinkedList<>()).add(routeWrap);
             }
-        });
+        }
         mappingLookup.add(routeWrap);
         logger.debug("Registering {}", route);
     }
 
+    /**
+     * Finds out the registered routes which may be ambiguous with given route.
+     */
+    List<RouteWrap> ambiguousWith(Route route) {
+        return ambiguousWith(new RouteWrap(route),
+                nodes(route.mapping().path()),
+                methodKeys(route.mapping().method()));
+    }
+
+    private static List<RouteWrap> ambiguousWith(RouteWrap routeWrap, List<Node> nodes, String[] methods) {
+        final List<RouteWrap> ambiguous = new ArrayList<>(0);
+        for (RouteWrap registered : candidates(nodes, methods)) {
+            if (registered.predicate.mayAmbiguousWith(routeWrap.predicate)) {
+                ambiguous.add(registered);
+            }
+        }
+        return ambiguous;
+    }
+
+    private List<Node> nodes(String[] paths) {
+        if (paths == null || paths.length == 0) {
+            return Collections.singletonList(ambiguityIndex);
+        }
+        final List<Node> nodes = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            Node node = ambiguityIndex;
+            if (path != null) {
+                for (String segment : path.split("/")) {
+                    if (segment.isEmpty()) {
+                        continue;
+                    }
+                    if (isPattern(segment)) {
+                        break;
+                    }
+                    final Node parent = node;
+                    node = parent.children.computeIfAbsent(segment, k -> new Node(parent));
+                }
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private static Set<RouteWrap> candidates(List<Node> nodes, String[] methods) {
+        // RouteWrap is compared by identity
+        final Set<RouteWrap> candidates = new LinkedHashSet<>();
+        final boolean anyMethod = methods.length == 1 && ANY_METHOD.equals(methods[0]);
+        for (Node node : nodes) {
+            // ancestors, itself and descendants
+            for (Node n = node.parent; n != null; n = n.parent) {
+                collect(n, methods, anyMethod, candidates);
+            }
+            collectAll(node, methods, anyMethod, candidates);
+        }
+        return candidates;
+    }
+
+    private static void collectAll(Node node, String[] methods, boolean anyMethod, Set<RouteWrap> candidates) {
+        collect(node, methods, anyMethod, candidates);
+        for (Node child : node.children.values()) {
+            collectAll(child, methods, anyMethod, candidates);
+        }
+    }
+
+    private static void collect(Node node, String[] methods, boolean anyMethod, Set<RouteWrap> candidates) {
+        if (node.routes.isEmpty()) {
+            return;
+        }
+        if (anyMethod) {
+            node.routes.values().forEach(candidates::addAll);
+            return;
+        }
+        final List<RouteWrap> any = node.routes.get(ANY_METHOD);
+        if (any != null) {
+            candidates.addAll(any);
+        }
+        for (String method : methods) {
+            final List<RouteWrap> bucket = node.routes.get(method);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+    }
+
+    private static String[] methodKeys(HttpMethod[] methods) {
+        if (methods == null || methods.length == 0) {
+            return new String[]{ANY_METHOD};
+        }
+        final String[] keys = new String[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            keys[i] = methods[i].name();
+        }
+        return keys;
+    }
+
+    private static boolean isPattern(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
     @Override
     public Route route(AsyncRequest request) {
         return toReadOnly().route(request);
@@ -66,4 +187,19 @@ abstract class AbstractRouteRegistry implements RouteRegistry {
     }
 
     abstract ReadOnlyRouteRegistry toReadOnly(List<RouteWrap> mappingLookup);
+
+    private static final class Node {
+
+        private final Node parent;
+        private final Map<String, Node> children = new HashMap<>();
+        private final Map<String, List<RouteWrap>> routes = new HashMap<>(4);
+
+        private Node() {
+            this(null);
+        }
+
+        private Node(Node parent) {
+            this.parent = parent;
+        }
+    }
 }
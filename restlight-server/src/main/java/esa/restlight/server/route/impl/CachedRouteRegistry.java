@@ -18,8 +18,15 @@ package esa.restlight.server.route.impl;
 import esa.commons.concurrent.UnsafeUtils;
 import esa.httpserver.core.AsyncRequest;
 import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteHitStatistics;
+import esa.restlight.server.route.RouteHits;
+import esa.restlight.server.warmup.WarmUp;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -29,6 +36,9 @@ import java.util.function.Function;
  * routing. The algorithm used in {@link CachedRouteRegistry} is same with the LFU(Least Frequently Used), but we do not
  * update the cache immediately when the element is accessed, instead, we update it in a certain probability(default to
  * 0.1 percent).
+ * <p>
+ * The {@link ReadOnlyRouteRegistry} returned by {@link #toReadOnly()} is also a {@link RouteHitStatistics} which shows
+ * the hits of each route and the effect of the cache.
  */
 
 public class CachedRouteRegistry extends AbstractRouteRegistry {
@@ -44,13 +54,48 @@ public class CachedRouteRegistry extends AbstractRouteRegistry {
         return new Cached(mappingLookup);
     }
 
-    class Cached extends AbstractReadOnlyRouteRegistry<CountedRoute, CachedRoutes> {
+    class Cached extends AbstractReadOnlyRouteRegistry<CountedRoute, CachedRoutes> implements RouteHitStatistics {
+
+        private final LongAdder notFound = new LongAdder();
+
         Cached(List<RouteWrap> mappingLookup) {
             super(mappingLookup);
         }
 
+        @Override
+        public Route route(AsyncRequest request) {
+            final Route route = super.route(request);
+            if (route == null && !WarmUp.isWarmUp(request)) {
+                notFound.increment();
+            }
+            return route;
+        }
+
+        @Override
+        public int computeRate() {
+            return computeRate;
+        }
+
+        @Override
+        public long computeCount() {
+            return routes.computeCount();
+        }
+
+        @Override
+        public long notFoundCount() {
+            return notFound.sum();
+        }
+
+        @Override
+        public List<RouteHits> hits() {
+            return Collections.unmodifiableList(Arrays.asList(routes.lookup()));
+        }
+
         @Override
         CachedRoutes toRoutes(CountedRoute[] routes) {
+            for (int i = 0; i < routes.length; i++) {
+                routes[i].order = i;
+            }
             return UnsafeUtils.hasUnsafe()
                     ? new UnsafeCachedRoutes(routes, computeRate)
                     : new DefaultCachedRoutes(routes, computeRate);
@@ -69,7 +114,8 @@ public class CachedRouteRegistry extends AbstractRouteRegistry {
         @Override
         CountedRoute findFor(CountedRoute[] routes, AsyncRequest request) {
             CountedRoute found = super.findFor(routes, request);
-            if (found != null) {
+            // the warm-up requests should not affect the statistics and the order of the cached routes.
+            if (found != null && !WarmUp.isWarmUp(request)) {
                 this.routes.hit(found);
             }
             return found;
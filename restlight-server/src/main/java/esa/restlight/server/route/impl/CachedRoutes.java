@@ -31,12 +31,20 @@ interface CachedRoutes extends Routes<CountedRoute> {
      */
     void hit(CountedRoute r);
 
+    /**
+     * Times of {@link #compute(CountedRoute[])}.
+     */
+    long computeCount();
+
     static CountedRoute[] compute(CountedRoute[] current) {
         CountedRoute[] tmp = Arrays.copyOf(current, current.length);
         for (CountedRoute hmm : tmp) {
             hmm.markAndReset();
         }
         Arrays.sort(tmp, COMPARATOR);
+        for (int i = 0; i < tmp.length; i++) {
+            tmp[i].order = i;
+        }
         return tmp;
     }
 
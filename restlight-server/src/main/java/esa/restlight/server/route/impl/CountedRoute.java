@@ -16,19 +16,53 @@
 package esa.restlight.server.route.impl;
 
 import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteHits;
 
 import java.util.concurrent.atomic.LongAdder;
 
-class CountedRoute extends RouteWrap {
+class CountedRoute extends RouteWrap implements RouteHits {
 
     static final long MIN_HITS = 4;
     LongAdder hits = new LongAdder();
+    /**
+     * Cumulative hits which never decays.
+     */
+    final LongAdder totalHits = new LongAdder();
     long snapshot;
+    /**
+     * Index in the current lookup of cached routes.
+     */
+    volatile int order;
 
     CountedRoute(Route route) {
         super(route);
     }
 
+    void hit() {
+        hits.increment();
+        totalHits.increment();
+    }
+
+    @Override
+    public Route route() {
+        return route;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public long totalHits() {
+        return totalHits.sum();
+    }
+
+    @Override
+    public long recentHits() {
+        return hits.sum();
+    }
+
     void markAndReset() {
         long s = hits.sum();
         if (s > MIN_HITS) {
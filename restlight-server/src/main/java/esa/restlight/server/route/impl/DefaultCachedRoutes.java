@@ -26,6 +26,8 @@ class DefaultCachedRoutes implements CachedRoutes {
     private final int rate;
     private final AtomicBoolean ctl = new AtomicBoolean(false);
     private final AtomicReference<CountedRoute[]> cache;
+    // only updated by the thread holding the ctl
+    private volatile long computeCount;
 
     DefaultCachedRoutes(CountedRoute[] routes, int computeRate) {
         if (computeRate < 0 || computeRate > 1000) {
@@ -37,15 +39,21 @@ class DefaultCachedRoutes implements CachedRoutes {
 
     @Override
     public void hit(CountedRoute r) {
-        r.hits.increment();
+        r.hit();
         if (InternalThreadLocalMap.get().random().nextInt(1000) < rate) {
             if (ctl.compareAndSet(false, true)) {
                 cache.lazySet(CachedRoutes.compute(cache.get()));
+                computeCount++;
                 ctl.set(false);
             }
         }
     }
 
+    @Override
+    public long computeCount() {
+        return computeCount;
+    }
+
     @Override
     public CountedRoute[] lookup() {
         return cache.get();
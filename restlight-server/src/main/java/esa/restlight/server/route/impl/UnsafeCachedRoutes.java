@@ -22,6 +22,8 @@ import sun.misc.Unsafe;
 class UnsafeCachedRoutes extends RhsPadding implements CachedRoutes {
 
     private final int rate;
+    // only updated by the thread holding the ctl
+    private volatile long computeCount;
 
     private static final Unsafe UNSAFE = UnsafeUtils.getUnsafe();
     private static final long CACHE_OFFSET
@@ -39,11 +41,12 @@ class UnsafeCachedRoutes extends RhsPadding implements CachedRoutes {
 
     @Override
     public void hit(CountedRoute r) {
-        r.hits.increment();
+        r.hit();
         if (InternalThreadLocalMap.get().random().nextInt(1000) < rate) {
             if (UNSAFE.compareAndSwapInt(this, CTL_OFFSET, 0, 1)) {
                 // StoreStore
                 UNSAFE.putOrderedObject(this, CACHE_OFFSET, CachedRoutes.compute(cache));
+                computeCount++;
                 // StoreStore
                 UNSAFE.putIntVolatile(this, CTL_OFFSET, 0);
                 // StoreLoad
@@ -51,6 +54,11 @@ class UnsafeCachedRoutes extends RhsPadding implements CachedRoutes {
         }
     }
 
+    @Override
+    public long computeCount() {
+        return computeCount;
+    }
+
     @Override
     public CountedRoute[] lookup() {
         return cache;
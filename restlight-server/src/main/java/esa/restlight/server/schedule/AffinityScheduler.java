@@ -0,0 +1,340 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.ThreadExecutorMap;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link Scheduler} which binds a dedicated group of workers to each IO event loop that schedules tasks, and the {@link
+ * RequestTask}s of a connection are always dispatched to the same worker of the group. Each worker is fed by a bounded
+ * single-producer queue whose only producer is the event loop it is bound to, so that there's no contention between
+ * the event loops and the workers of the other event loops.
+ * <p>
+ * At most {@code maxLoops} event loops could be bound, tasks scheduled by the other threads(such as the warm-up thread
+ * at startup, or the workers themselves) are dispatched to the existing workers through a bounded multi-producer queue
+ * without binding any group, or to a shared group of workers if there's no event loop bound yet. Tasks are rejected by
+ * the given {@code rejectHandler} if the queue of the target worker is full or this scheduler has been shutdown.
+ */
+final class AffinityScheduler implements Scheduler {
+
+    private static final int SPIN_TRIES = 64;
+
+    private final String name;
+    private final int workersPerLoop;
+    private final int queueCapacity;
+    private final int maxLoops;
+    private final ThreadFactory threadFactory;
+    private final BiConsumer<Runnable, String> rejectHandler;
+    private final FastThreadLocal<Group> groups;
+    private final List<Group> bound = new CopyOnWriteArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Group shared;
+    private volatile boolean shutdown;
+
+    AffinityScheduler(String name,
+                      int workersPerLoop,
+                      int queueCapacity,
+                      int maxLoops,
+                      ThreadFactory threadFactory,
+                      BiConsumer<Runnable, String> rejectHandler) {
+        Checks.checkNotEmptyArg(name, "name");
+        Checks.checkArg(workersPerLoop > 0, "workersPerLoop must be over than 0");
+        Checks.checkArg(queueCapacity > 0, "queueCapacity must be over than 0");
+        Checks.checkArg(maxLoops > 0, "maxLoops must be over than 0");
+        Checks.checkNotNull(threadFactory, "threadFactory");
+        Checks.checkNotNull(rejectHandler, "rejectHandler");
+        this.name = name;
+        this.workersPerLoop = workersPerLoop;
+        this.queueCapacity = queueCapacity;
+        this.maxLoops = maxLoops;
+        this.threadFactory = threadFactory;
+        this.rejectHandler = rejectHandler;
+        this.groups = new FastThreadLocal<Group>() {
+            @Override
+            protected Group initialValue() {
+                // only the IO event loops could be bound.
+                return ThreadExecutorMap.currentExecutor() instanceof EventLoop ? bind() : null;
+            }
+        };
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void schedule(Runnable cmd) {
+        if (shutdown) {
+            rejectHandler.accept(cmd, "Scheduler(" + name + ") has been shutdown");
+            return;
+        }
+        final Group group = groups.get();
+        final boolean offered;
+        if (group != null && group.owner == Thread.currentThread()) {
+            offered = group.select(cmd).offerLocal(cmd);
+        } else {
+            offered = (group == null ? any().select(cmd) : group.select(cmd)).offerForeign(cmd);
+        }
+        if (!offered) {
+            rejectHandler.accept(cmd, "Rejected by scheduler(" + name + "), size of queue: " + queueCapacity);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (Group group : bound) {
+            group.unpark();
+        }
+        final Group s = shared;
+        if (s != null) {
+            s.unpark();
+        }
+    }
+
+    /**
+     * Count of the event loops which have been bound to their own workers.
+     */
+    int boundLoops() {
+        return bound.size();
+    }
+
+    private synchronized Group bind() {
+        if (bound.size() >= maxLoops) {
+            return null;
+        }
+        final Group group = newGroup(Thread.currentThread());
+        bound.add(group);
+        return group;
+    }
+
+    private Group any() {
+        final int n = bound.size();
+        if (n == 0) {
+            return shared();
+        }
+        return bound.get((next.getAndIncrement() & Integer.MAX_VALUE) % n);
+    }
+
+    private Group shared() {
+        Group s = shared;
+        if (s == null) {
+            synchronized (this) {
+                if ((s = shared) == null) {
+                    shared = s = newGroup(null);
+                }
+            }
+        }
+        return s;
+    }
+
+    private Group newGroup(Thread owner) {
+        final Worker[] workers = new Worker[workersPerLoop];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(this);
+        }
+        final Group group = new Group(owner, workers);
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        return group;
+    }
+
+    @Override
+    public String toString() {
+        return "AffinityScheduler{name='" + name + "'}";
+    }
+
+    private static final class Group {
+
+        /**
+         * The only producer of the local queues of the workers, {@code null} if it is the group of a worker itself or
+         * the shared group.
+         */
+        private final Thread owner;
+        private final Worker[] workers;
+
+        private Group(Thread owner, Worker[] workers) {
+            this.owner = owner;
+            this.workers = workers;
+        }
+
+        private Worker select(Runnable cmd) {
+            if (workers.length == 1) {
+                return workers[0];
+            }
+            if (!(cmd instanceof RequestTask)) {
+                return workers[0];
+            }
+            // dispatch the requests of the same connection to the same worker
+            final AsyncRequest request = ((RequestTask) cmd).request();
+            final int hash = 31 * Objects.hashCode(request.remoteAddr()) + request.remotePort();
+            return workers[(hash & Integer.MAX_VALUE) % workers.length];
+        }
+
+        private void unpark() {
+            for (Worker worker : workers) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+    }
+
+    private static final class Worker implements Runnable {
+
+        private static final AtomicIntegerFieldUpdater<Worker> PARKED =
+                AtomicIntegerFieldUpdater.newUpdater(Worker.class, "parked");
+
+        private final AffinityScheduler scheduler;
+        private final Ring local;
+        private final Queue<Runnable> foreign;
+        private final Thread thread;
+        private volatile int parked;
+
+        private Worker(AffinityScheduler scheduler) {
+            this.scheduler = scheduler;
+            this.local = new Ring(scheduler.queueCapacity);
+            this.foreign = PlatformDependent.newFixedMpscQueue(scheduler.queueCapacity);
+            this.thread = scheduler.threadFactory.newThread(this);
+        }
+
+        private boolean offerLocal(Runnable cmd) {
+            if (!local.offer(cmd)) {
+                return false;
+            }
+            wakeup();
+            return true;
+        }
+
+        private boolean offerForeign(Runnable cmd) {
+            if (!foreign.offer(cmd)) {
+                return false;
+            }
+            wakeup();
+            return true;
+        }
+
+        private void wakeup() {
+            // atomic swap works as a full fence between publishing the task and checking the parked state.
+            if (PARKED.getAndSet(this, 0) != 0) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            // tasks scheduled by current worker are sent back to itself.
+            scheduler.groups.set(new Group(null, new Worker[]{this}));
+            for (; ; ) {
+                Runnable task = local.poll();
+                if (task == null && (task = foreign.poll()) == null) {
+                    if (scheduler.shutdown) {
+                        return;
+                    }
+                    idle();
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LoggerUtils.logger().error("Error occurred while running task in scheduler("
+                            + scheduler.name + ")", t);
+                }
+            }
+        }
+
+        private void idle() {
+            for (int i = 0; i < SPIN_TRIES; i++) {
+                if (hasTasks()) {
+                    return;
+                }
+            }
+            PARKED.set(this, 1);
+            if (hasTasks() || scheduler.shutdown) {
+                PARKED.lazySet(this, 0);
+                return;
+            }
+            LockSupport.park(this);
+            PARKED.lazySet(this, 0);
+        }
+
+        private boolean hasTasks() {
+            return !local.isEmpty() || !foreign.isEmpty();
+        }
+    }
+
+    /**
+     * Bounded single-producer single-consumer ring, whose slots are published by ordered stores so that neither of
+     * the producer and the consumer needs to read the index of each other.
+     */
+    static final class Ring {
+
+        private final AtomicReferenceArray<Runnable> buffer;
+        private final int mask;
+        // accessed by producer only
+        private int producerIndex;
+        // accessed by consumer only
+        private int consumerIndex;
+
+        Ring(int capacity) {
+            final int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.buffer = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(Runnable e) {
+            final int i = producerIndex & mask;
+            if (buffer.get(i) != null) {
+                return false;
+            }
+            buffer.lazySet(i, e);
+            producerIndex++;
+            return true;
+        }
+
+        Runnable poll() {
+            final int i = consumerIndex & mask;
+            final Runnable e = buffer.get(i);
+            if (e == null) {
+                return null;
+            }
+            buffer.lazySet(i, null);
+            consumerIndex++;
+            return e;
+        }
+
+        boolean isEmpty() {
+            return buffer.get(consumerIndex & mask) == null;
+        }
+    }
+}
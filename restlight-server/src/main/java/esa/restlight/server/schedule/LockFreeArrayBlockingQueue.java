@@ -0,0 +1,316 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.commons.Checks;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer {@link BlockingQueue} backed by an array, which is designed to be
+ * the work queue of a {@link java.util.concurrent.ThreadPoolExecutor} whose tasks are submitted by many IO threads.
+ * <p>
+ * Producers and consumers only compete on a CAS of the tail or the head index instead of the locks of {@link
+ * java.util.concurrent.LinkedBlockingQueue}. Consumers spin for a while before parking, and the parked consumers are
+ * kept in a LIFO stack so that the most recently active ones are woken first and the others could be reclaimed by
+ * the keep-alive time of the pool.
+ * <p>
+ * !Note: removing an arbitrary element is not supported, {@link #remove(Object)} always returns {@code false}, which
+ * is harmless for a {@link java.util.concurrent.ThreadPoolExecutor} because the remaining tasks will be drained by its
+ * workers.
+ */
+public final class LockFreeArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * Spinning is useless if there's only one processor.
+     */
+    private static final int SPIN_TRIES = Runtime.getRuntime().availableProcessors() < 2 ? 0 : 64;
+    private static final long OFFER_BACKOFF_NANOS = 1000L;
+
+    private final int capacity;
+    private final AtomicReferenceArray<E> buffer;
+    /**
+     * Sequence of each slot, which is {@code 2 * index} if the slot could be written by the producer of the index, or
+     * {@code 2 * index + 1} if it has been written and could be read by the consumer of the index. Doubling the index
+     * keeps the two states distinguishable even if the capacity is 1.
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final ConcurrentLinkedDeque<Waiter> waiters = new ConcurrentLinkedDeque<>();
+
+    public LockFreeArrayBlockingQueue(int capacity) {
+        Checks.checkArg(capacity > 0, "capacity must be over than 0");
+        this.capacity = capacity;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, (long) i << 1);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Checks.checkNotNull(e, "e");
+        long pos = tail.get();
+        for (; ; ) {
+            final int i = index(pos);
+            final long dif = sequences.get(i) - (pos << 1);
+            if (dif == 0L) {
+                if (tail.compareAndSet(pos, pos + 1L)) {
+                    buffer.lazySet(i, e);
+                    // volatile store which must not be reordered with the check of the waiters.
+                    sequences.set(i, (pos << 1) + 1L);
+                    if (head.get() == pos && !waiters.isEmpty()) {
+                        // the queue was empty
+                        signal();
+                    }
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0L) {
+                // the slot has not been consumed in the last round
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        long pos = head.get();
+        for (; ; ) {
+            final int i = index(pos);
+            final long dif = sequences.get(i) - ((pos << 1) + 1L);
+            if (dif == 0L) {
+                if (head.compareAndSet(pos, pos + 1L)) {
+                    final E e = buffer.get(i);
+                    buffer.lazySet(i, null);
+                    sequences.set(i, (pos + capacity) << 1);
+                    return e;
+                }
+                pos = head.get();
+            } else if (dif < 0L) {
+                // the slot has not been produced in this round
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        final long pos = head.get();
+        final int i = index(pos);
+        return sequences.get(i) == (pos << 1) + 1L ? buffer.get(i) : null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, OFFER_BACKOFF_NANOS);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long nanos = deadline - System.nanoTime();
+            if (nanos <= 0L) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(nanos, OFFER_BACKOFF_NANOS));
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return await(false, 0L);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(true, unit.toNanos(timeout));
+    }
+
+    private E await(boolean timed, long nanos) throws InterruptedException {
+        E e;
+        for (int i = 0; i <= SPIN_TRIES; i++) {
+            if ((e = poll()) != null) {
+                return propagate(e);
+            }
+        }
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        for (; ; ) {
+            final Waiter waiter = new Waiter(Thread.currentThread());
+            // register before checking the queue again, so that either the producer sees the waiter or the waiter
+            // sees the element.
+            waiters.addFirst(waiter);
+            if ((e = poll()) != null) {
+                cancel(waiter);
+                return propagate(e);
+            }
+            if (timed) {
+                nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    cancel(waiter);
+                    // the signal may have been consumed by current thread, so check again before giving up.
+                    e = poll();
+                    return e == null ? null : propagate(e);
+                }
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+            cancel(waiter);
+            if (Thread.interrupted()) {
+                if (!isEmpty()) {
+                    // pass the signal to others
+                    signal();
+                }
+                throw new InterruptedException();
+            }
+            if ((e = poll()) != null) {
+                return propagate(e);
+            }
+        }
+    }
+
+    /**
+     * Producers only signal a waiter when the queue was empty, and the others are woken one by one by the consumers
+     * which found there are still some elements after taking one, which is the same as {@link
+     * java.util.concurrent.LinkedBlockingQueue}.
+     */
+    private E propagate(E e) {
+        if (!waiters.isEmpty() && !isEmpty()) {
+            signal();
+        }
+        return e;
+    }
+
+    private void signal() {
+        final Waiter waiter = waiters.pollFirst();
+        if (waiter != null) {
+            waiter.signaled = true;
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        if (!waiter.signaled) {
+            waiters.removeFirstOccurrence(waiter);
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Checks.checkNotNull(c, "c");
+        Checks.checkArg(c != this, "Could not drain to itself");
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        // read head first, so that the size would never be negative
+        final long h = head.get();
+        final long size = tail.get() - h;
+        return (int) Math.max(0L, Math.min(capacity, size));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the snapshot of the elements, which does not support {@link
+     * Iterator#remove()}.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final long h = head.get();
+        final long t = Math.min(tail.get(), h + capacity);
+        if (t <= h) {
+            return Collections.emptyIterator();
+        }
+        final List<E> snapshot = new ArrayList<>((int) (t - h));
+        for (long pos = h; pos < t; pos++) {
+            final int i = index(pos);
+            final E e = buffer.get(i);
+            if (e != null && sequences.get(i) == (pos << 1) + 1L) {
+                snapshot.add(e);
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private int index(long pos) {
+        return (int) (pos % capacity);
+    }
+
+    private static final class Waiter {
+
+        private final Thread thread;
+        private volatile boolean signaled;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
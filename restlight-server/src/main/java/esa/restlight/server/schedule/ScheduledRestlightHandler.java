@@ -23,13 +23,22 @@ import esa.httpserver.core.AsyncResponse;
 import esa.restlight.core.util.MediaType;
 import esa.restlight.core.util.OrderedComparator;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.cache.ResponseCache;
 import esa.restlight.server.config.ServerOptions;
 import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.jfr.Phase;
+import esa.restlight.server.jfr.RestlightEvents;
+import esa.restlight.server.jfr.Span;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteRecorder;
+import esa.restlight.server.metrics.ServerTiming;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.route.predicate.RoutePredicate;
 import esa.restlight.server.util.ErrorDetail;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import esa.restlight.server.warmup.WarmUp;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -53,6 +62,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
     private final DispatcherHandler dispatcher;
     private final List<Scheduler> schedulers = new LinkedList<>();
     private final RequestTaskHook hook;
+    private final RouteMetrics metrics;
+    private final boolean trackRoute;
+    private final ServerTiming.Trigger timing;
+    private final ResponseCache cache;
     private Consumer3<AsyncRequest, AsyncResponse, CompletableFuture<Void>> processor;
     private volatile long terminationTimeoutSeconds;
 
@@ -64,11 +77,30 @@ public class ScheduledRestlightHandler implements RestlightHandler {
     public ScheduledRestlightHandler(ServerOptions options,
                                      DispatcherHandler dispatcher,
                                      List<RequestTaskHook> hooks) {
+        this(options, dispatcher, hooks, null);
+    }
+
+    public ScheduledRestlightHandler(ServerOptions options,
+                                     DispatcherHandler dispatcher,
+                                     List<RequestTaskHook> hooks,
+                                     RouteMetrics metrics) {
+        this(options, dispatcher, hooks, metrics, null);
+    }
+
+    public ScheduledRestlightHandler(ServerOptions options,
+                                     DispatcherHandler dispatcher,
+                                     List<RequestTaskHook> hooks,
+                                     RouteMetrics metrics,
+                                     ResponseCache cache) {
         Checks.checkNotNull(options, "RestlightOptions must not be null!");
         Checks.checkNotNull(dispatcher, "DispatcherHandler must not be null!");
         this.dispatcher = dispatcher;
         this.hook = hooks == null || hooks.isEmpty() ? t -> t : toRequestTaskHook(hooks);
         this.terminationTimeoutSeconds = options.getBizTerminationTimeoutSeconds();
+        this.metrics = metrics;
+        this.trackRoute = options.getWatchdog() != null && options.getWatchdog().isEnable();
+        this.timing = ServerTiming.trigger(options.getServerTiming());
+        this.cache = cache;
     }
 
     @Override
@@ -82,8 +114,14 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                 this.schedulers.add(scheduler);
             }
         }
+        if (metrics != null) {
+            metrics.init(routes);
+        }
+        // the cached responses should be served on the io threads, which needs the request to be routed before
+        // scheduling.
+        final boolean cacheable = cache != null && cache.init(routes);
 
-        if (this.schedulers.size() == 1) {
+        if (this.schedulers.size() == 1 && !cacheable) {
             this.processor = (req, res, promise) ->
                     processByFixedScheduler(req, res, promise, this.schedulers.get(0));
         } else {
@@ -99,13 +137,20 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                                          AsyncResponse res,
                                          CompletableFuture<Void> promise,
                                          Scheduler scheduler) {
+        final long queuedAt = metrics == null ? 0L : System.nanoTime();
+        final Span queueWait = RestlightEvents.begin(Phase.QUEUE_WAIT);
+        final ServerTiming t = beginQueueWait(res);
         final RequestTask task = hook.onRequest(newRequestTask(req,
                 res,
                 promise,
                 () -> {
+                    queueWait.finish(req);
+                    if (t != null) {
+                        t.end(Phase.QUEUE_WAIT);
+                    }
                     final Route route = routeOrNotFound(req, res, promise);
                     if (route != null) {
-                        dispatcher.service(req, res, promise, route);
+                        service(req, res, promise, route, queuedAt);
                     }
                 }));
         if (task != null) {
@@ -116,12 +161,25 @@ public class ScheduledRestlightHandler implements RestlightHandler {
     private void processBySpecifiedScheduler(AsyncRequest req,
                                              AsyncResponse res,
                                              CompletableFuture<Void> promise) {
+        final long queuedAt = metrics == null ? 0L : System.nanoTime();
         final Route route = routeOrNotFound(req, res, promise);
         if (route != null) {
+            if (cache != null && !WarmUp.isWarmUp(req) && cache.serve(req, res, route)) {
+                PromiseUtils.setSuccess(promise);
+                return;
+            }
+            final Span queueWait = RestlightEvents.begin(Phase.QUEUE_WAIT);
+            final ServerTiming t = beginQueueWait(res);
             final RequestTask task = hook.onRequest(newRequestTask(req,
                     res,
                     promise,
-                    () -> dispatcher.service(req, res, promise, route)));
+                    () -> {
+                        queueWait.finish(req);
+                        if (t != null) {
+                            t.end(Phase.QUEUE_WAIT);
+                        }
+                        service(req, res, promise, route, queuedAt);
+                    }));
 
             if (task != null) {
                 route.scheduler().schedule(task);
@@ -129,14 +187,48 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         }
     }
 
+    private void service(AsyncRequest req,
+                         AsyncResponse res,
+                         CompletableFuture<Void> promise,
+                         Route route,
+                         long queuedAt) {
+        final RouteRecorder recorder;
+        if (metrics != null && !WarmUp.isWarmUp(req) && (recorder = metrics.recorder(route)) != null) {
+            final long startAt = System.nanoTime();
+            promise.whenComplete((r, t) -> recorder.record(req, res, queuedAt, startAt, System.nanoTime()));
+        }
+        if (trackRoute) {
+            // let the watchdog know which route is being handled if current thread is an io event loop.
+            EventLoopWatchdog.enter(route);
+            try {
+                dispatcher.service(req, res, promise, route);
+            } finally {
+                EventLoopWatchdog.exit();
+            }
+        } else {
+            dispatcher.service(req, res, promise, route);
+        }
+    }
+
     private Route routeOrNotFound(AsyncRequest req,
                                   AsyncResponse res,
                                   CompletableFuture<Void> promise) {
+        final Span routing = RestlightEvents.begin(Phase.ROUTING);
+        final ServerTiming t = ServerTiming.get(res);
+        if (t != null) {
+            t.begin(Phase.ROUTING);
+        }
         final Route route = dispatcher.route(req, res);
+        if (t != null) {
+            t.end(Phase.ROUTING);
+        }
         if (route == null) {
+            routing.finish(req);
             notFound(req, res, promise);
             return null;
         }
+        RestlightEvents.markRoute(req, route);
+        routing.finish(req);
 
         LoggerUtils.logger().debug("Mapping request(url={}, method={}) to {}",
                 req.path(),
@@ -145,6 +237,14 @@ public class ScheduledRestlightHandler implements RestlightHandler {
         return route;
     }
 
+    private static ServerTiming beginQueueWait(AsyncResponse res) {
+        final ServerTiming t = ServerTiming.get(res);
+        if (t != null) {
+            t.begin(Phase.QUEUE_WAIT);
+        }
+        return t;
+    }
+
     @Override
     public List<Scheduler> schedulers() {
         return this.schedulers;
@@ -156,6 +256,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
             LoggerUtils.logger().debug("Received request(url={}, method={})",
                     request.path(), request.method());
         }
+        if (timing != null) {
+            // it may have been started by the FilteredHandler
+            response = timing.start(request, response);
+        }
         final CompletableFuture<Void> promise = new CompletableFuture<>();
         this.processor.accept(request, response, promise);
         return promise;
@@ -209,6 +313,10 @@ public class ScheduledRestlightHandler implements RestlightHandler {
                         .error("Error occurred during waiting submitted biz task to finish.", e);
             }
         }
+        if (cache != null) {
+            // release the cached buffers
+            cache.invalidateAll();
+        }
     }
 
     private void doShutdown(Scheduler scheduler) {
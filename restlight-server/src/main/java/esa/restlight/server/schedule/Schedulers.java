@@ -15,10 +15,14 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.commons.Checks;
 import esa.commons.concurrent.DirectExecutor;
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.server.config.AffinityOptions;
 import esa.restlight.server.config.TimeoutOptions;
 
 import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 public final class Schedulers {
 
@@ -30,10 +34,16 @@ public final class Schedulers {
      * Reserved word. Please do not use it as your own {@link Scheduler#name()}
      */
     public static final String BIZ = "BIZ";
+    /**
+     * Reserved word. Please do not use it as your own {@link Scheduler#name()}
+     */
+    public static final String AFFINITY = "AFFINITY";
 
     private static final Scheduler IO_SCHEDULER = fromExecutor(IO, DirectExecutor.INSTANCE);
     private static final Scheduler BIZ_SCHEDULER = fromExecutor(BIZ, r -> {
     });
+    private static final Scheduler AFFINITY_SCHEDULER = fromExecutor(AFFINITY, r -> {
+    });
 
     /**
      * IO {@link Scheduler}
@@ -80,6 +90,51 @@ public final class Schedulers {
         return new ExecutorSchedulerImpl(name, executor);
     }
 
+    /**
+     * AFFINITY {@link Scheduler}, this is just a marker instance of affinity {@link Scheduler}, the real affinity
+     * {@link Scheduler} will be instantiated and registered only if there's any route uses it.
+     *
+     * @return affinity scheduler
+     */
+    public static Scheduler affinity() {
+        return AFFINITY_SCHEDULER;
+    }
+
+    /**
+     * Whether the given {@link Scheduler} is a instance of affinity {@link Scheduler}.
+     *
+     * @param scheduler scheduler
+     *
+     * @return {@code true} if the name of given scheduler is {@link Schedulers#AFFINITY}, otherwise {@code false}.
+     */
+    public static boolean isAffinity(Scheduler scheduler) {
+        return AFFINITY.equals(scheduler.name());
+    }
+
+    /**
+     * Creates an instance of {@link Scheduler} named {@link #AFFINITY} which executes the tasks on the workers bound to
+     * the IO event loop that schedules them, the workers will not be started until the first task is scheduled by each
+     * event loop.
+     *
+     * @param options       affinity options
+     * @param maxLoops      max count of the event loops that could be bound to their own workers, which is supposed to
+     *                      be the count of the IO threads.
+     * @param rejectHandler handler to handle the rejected task with the reason
+     *
+     * @return affinity scheduler
+     */
+    public static Scheduler affinity(AffinityOptions options,
+                                     int maxLoops,
+                                     BiConsumer<Runnable, String> rejectHandler) {
+        Checks.checkNotNull(options, "options");
+        return new AffinityScheduler(AFFINITY,
+                options.getWorkersPerLoop(),
+                options.getQueueCapacity(),
+                maxLoops,
+                new RestlightThreadFactory("Restlight-Affinity"),
+                rejectHandler);
+    }
+
     /**
      * Wraps the given {@code scheduler} by {@code timeoutOptions}.
      *
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+
+import java.util.Date;
+
+/**
+ * Utils for evaluating the validators of the conditional {@code GET} requests.
+ */
+public final class ConditionalGetUtils {
+
+    private ConditionalGetUtils() {
+    }
+
+    /**
+     * Evaluates the {@code If-None-Match} or the {@code If-Modified-Since}(only if the former is absent) of the
+     * request with the validators of the response.
+     *
+     * @param request  request
+     * @param response response whose {@code ETag} and {@code Last-Modified} headers have been set
+     *
+     * @return {@code true} if a {@code 304} response should be sent.
+     */
+    public static boolean notModified(AsyncRequest request, AsyncResponse response) {
+        final String ifNoneMatch = request.getHeader(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, response.getHeader(HttpHeaderNames.ETAG));
+        }
+        final String ifModifiedSince = request.getHeader(HttpHeaderNames.IF_MODIFIED_SINCE);
+        final String lastModified;
+        if (ifModifiedSince == null
+                || (lastModified = response.getHeader(HttpHeaderNames.LAST_MODIFIED)) == null) {
+            return false;
+        }
+        final Date since = DateFormatter.parseHttpDate(ifModifiedSince);
+        final Date modified = DateFormatter.parseHttpDate(lastModified);
+        return since != null && modified != null && modified.getTime() <= since.getTime();
+    }
+
+    /**
+     * Whether any of the entity tags in the {@code If-None-Match} matches the given {@code ETag} by the weak
+     * comparison.
+     *
+     * @param ifNoneMatch value of the {@code If-None-Match} header
+     * @param etag        value of the {@code ETag} header
+     *
+     * @return {@code true} if matched
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        final int etagStart = etag.startsWith("W/") ? 2 : 0;
+        final int etagLen = etag.length() - etagStart;
+        final int len = ifNoneMatch.length();
+        int i = 0;
+        while (i < len) {
+            // skip the leading whitespaces and commas
+            char c = ifNoneMatch.charAt(i);
+            if (c == ' ' || c == '\t' || c == ',') {
+                i++;
+                continue;
+            }
+            int end = ifNoneMatch.indexOf(',', i);
+            if (end < 0) {
+                end = len;
+            }
+            int tagEnd = end;
+            while (tagEnd > i && (ifNoneMatch.charAt(tagEnd - 1) == ' ' || ifNoneMatch.charAt(tagEnd - 1) == '\t')) {
+                tagEnd--;
+            }
+            if (tagEnd - i == 1 && c == '*') {
+                return true;
+            }
+            final int tagStart = ifNoneMatch.startsWith("W/", i) ? i + 2 : i;
+            if (tagEnd - tagStart == etagLen && ifNoneMatch.regionMatches(tagStart, etag, etagStart, etagLen)) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+}
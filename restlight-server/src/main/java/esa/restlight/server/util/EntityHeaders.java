@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.AsciiString;
+
+/**
+ * Headers which describe the representation itself rather than a single exchange, so that they could be shared by
+ * the responses of the same representation, such as a cached response. The others, such as the CORS headers, the
+ * request id or the tracing headers populated by filters, are specific to a request and must not be shared.
+ */
+public final class EntityHeaders {
+
+    private static final AsciiString[] NAMES = {
+            HttpHeaderNames.CONTENT_TYPE,
+            HttpHeaderNames.CONTENT_ENCODING,
+            HttpHeaderNames.CONTENT_LANGUAGE,
+            HttpHeaderNames.ETAG,
+            HttpHeaderNames.LAST_MODIFIED,
+            HttpHeaderNames.CACHE_CONTROL,
+            HttpHeaderNames.EXPIRES
+    };
+
+    private EntityHeaders() {
+    }
+
+    /**
+     * Whether the given header is an entity header which could be shared.
+     *
+     * @param name header name
+     *
+     * @return {@code true} if it is an entity header
+     */
+    public static boolean isEntityHeader(CharSequence name) {
+        for (AsciiString n : NAMES) {
+            if (n.contentEqualsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates the elapsed time of the named phases, such as the phases of deploying the server at startup.
+ * <p>
+ * !Note: This class is not thread-safe.
+ */
+public final class PhaseTimer {
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public void time(String phase, Runnable runnable) {
+        final long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public <T> T time(String phase, Supplier<T> supplier) {
+        final long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Gets the elapsed time of given phase in milliseconds.
+     *
+     * @param phase phase
+     *
+     * @return elapsed time or {@code -1} if the phase has not been recorded.
+     */
+    public long millis(String phase) {
+        final Long nanos = phases.get(phase);
+        return nanos == null ? -1L : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public boolean isEmpty() {
+        return phases.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        phases.forEach((phase, nanos) -> {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(phase).append('=').append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms");
+        });
+        return sb.toString();
+    }
+}
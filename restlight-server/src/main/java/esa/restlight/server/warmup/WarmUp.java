@@ -0,0 +1,290 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.warmup;
+
+import esa.commons.Checks;
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.handler.codec.http.HttpHeaderNames;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up the JIT by replaying the {@link WarmUpSample}s through the whole {@link RestlightHandler} with in-memory
+ * requests and responses before the server is bound to the port.
+ * <p>
+ * The samples are replayed round by round until the given iterations have been finished, or the average latency of
+ * a round has reached the target, or the timeout has elapsed. Every warm-up request carries the {@link #ATTR}
+ * attribute, so that the application could tell it from the real ones by {@link #isWarmUp(AsyncRequest)}.
+ * <p>
+ * Notice that the warm-up requests are handled as the real ones except that they are skipped by the route metrics,
+ * the route hit statistics, the response cache and the filters which are not applied to them(see {@link
+ * esa.restlight.server.handler.Filter#applyToWarmUp()}), and they may have side effects, so only the idempotent
+ * requests should be used.
+ */
+public final class WarmUp {
+
+    /**
+     * Attribute name which is present in every warm-up request.
+     */
+    public static final String ATTR = "$restlight.warm-up";
+
+    /**
+     * Count of the warm-ups which are running, which is used to skip the attribute lookup of all the requests when
+     * there's no warm-up running.
+     */
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    private final List<WarmUpSample> samples;
+    private final boolean autoGenerate;
+    private final int iterations;
+    private final long latencyTargetMicros;
+    private final long timeoutMillis;
+
+    /**
+     * @param samples             samples to replay
+     * @param autoGenerate        whether to generate samples from the {@code GET} routes that don't need any path
+     *                            variable, parameter or header
+     * @param iterations          max rounds of replaying all the samples
+     * @param latencyTargetMicros stop as soon as the average latency of a round is not over than this value, {@code
+     *                            0} means disabled
+     * @param timeoutMillis       max time of the whole warm-up
+     */
+    public WarmUp(List<WarmUpSample> samples,
+                  boolean autoGenerate,
+                  int iterations,
+                  long latencyTargetMicros,
+                  long timeoutMillis) {
+        Checks.checkArg(iterations > 0, "iterations must be over than 0");
+        Checks.checkArg(latencyTargetMicros >= 0L, "latencyTargetMicros must not be negative");
+        Checks.checkArg(timeoutMillis > 0L, "timeoutMillis must be over than 0");
+        this.samples = samples == null ? Collections.emptyList() : new ArrayList<>(samples);
+        this.autoGenerate = autoGenerate;
+        this.iterations = iterations;
+        this.latencyTargetMicros = latencyTargetMicros;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public List<WarmUpSample> samples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Gets a {@link WarmUp} whose samples include the ones generated from given routes if {@link #autoGenerate} is
+     * {@code true}.
+     *
+     * @param routes registered routes
+     *
+     * @return warm-up
+     */
+    public WarmUp withRoutes(List<Route> routes) {
+        if (!autoGenerate || routes == null || routes.isEmpty()) {
+            return this;
+        }
+        final List<WarmUpSample> all = new ArrayList<>(samples);
+        all.addAll(generate(routes));
+        return new WarmUp(all, false, iterations, latencyTargetMicros, timeoutMillis);
+    }
+
+    /**
+     * Replays the samples through given handler, which should have been started by {@link RestlightHandler#onStart()}.
+     *
+     * @param handler handler
+     *
+     * @return result
+     */
+    public Result run(RestlightHandler handler) {
+        Checks.checkNotNull(handler, "handler");
+        if (samples.isEmpty()) {
+            return new Result(0, 0L, 0L, false);
+        }
+        final long startAt = System.nanoTime();
+        final long deadline = startAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int rounds = 0;
+        long requests = 0L;
+        long latencyMicros = 0L;
+        boolean reached = false;
+        RUNNING.incrementAndGet();
+        try {
+            loop:
+            while (rounds < iterations) {
+                final long roundStartAt = System.nanoTime();
+                for (WarmUpSample sample : samples) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L || !replay(handler, sample, remaining)) {
+                        break loop;
+                    }
+                    requests++;
+                }
+                rounds++;
+                latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - roundStartAt) / samples.size();
+                if (latencyTargetMicros > 0L && latencyMicros <= latencyTargetMicros) {
+                    reached = true;
+                    break;
+                }
+            }
+        } finally {
+            RUNNING.decrementAndGet();
+        }
+        final Result result = new Result(rounds, requests, latencyMicros, reached);
+        LoggerUtils.logger().info("Warmed up with {} sample(s) in {} millis: {}",
+                samples.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt), result);
+        return result;
+    }
+
+    /**
+     * @return {@code false} if the warm-up should be stopped.
+     */
+    private static boolean replay(RestlightHandler handler, WarmUpSample sample, long timeoutNanos) {
+        final WarmUpRequest request;
+        try {
+            request = new WarmUpRequest(sample);
+        } catch (IllegalArgumentException e) {
+            LoggerUtils.logger().warn("Illegal warm-up sample: {}, stopping warm-up...", sample, e);
+            return false;
+        }
+        request.setAttribute(ATTR, Boolean.TRUE);
+        try {
+            handler.process(request, new WarmUpResponse()).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            LoggerUtils.logger().warn("Timeout while warming up with {}, stopping warm-up...", sample);
+            return false;
+        } catch (ExecutionException e) {
+            LoggerUtils.logger().debug("Error while warming up with {}", sample, e.getCause());
+        } catch (Throwable t) {
+            LoggerUtils.logger().debug("Error while warming up with {}", sample, t);
+        }
+        return true;
+    }
+
+    static List<WarmUpSample> generate(List<Route> routes) {
+        final Set<String> uris = new LinkedHashSet<>();
+        final List<WarmUpSample> generated = new ArrayList<>();
+        for (Route route : routes) {
+            final Mapping mapping = route.mapping();
+            if (!isSafe(mapping)) {
+                continue;
+            }
+            for (String path : mapping.path()) {
+                if (isLiteral(path) && uris.add(path)) {
+                    final WarmUpSample sample = new WarmUpSample(HttpMethod.GET.name(), path);
+                    if (mapping.produces().length > 0 && isLiteral(mapping.produces()[0])) {
+                        sample.getHeaders().put(HttpHeaderNames.ACCEPT.toString(), mapping.produces()[0]);
+                    }
+                    generated.add(sample);
+                }
+            }
+        }
+        return generated;
+    }
+
+    private static boolean isSafe(Mapping mapping) {
+        boolean get = false;
+        for (HttpMethod method : mapping.method()) {
+            if (method == HttpMethod.GET) {
+                get = true;
+                break;
+            }
+        }
+        return get
+                && mapping.params().length == 0
+                && mapping.headers().length == 0
+                && mapping.consumes().length == 0;
+    }
+
+    private static boolean isLiteral(String path) {
+        return path != null && !path.isEmpty()
+                && path.indexOf('{') < 0 && path.indexOf('*') < 0 && path.indexOf('?') < 0;
+    }
+
+    /**
+     * Checks whether given request is a warm-up request, which is always {@code false} if there's no warm-up running.
+     */
+    public static boolean isWarmUp(AsyncRequest request) {
+        return RUNNING.get() > 0 && request.getAttribute(ATTR) != null;
+    }
+
+    public static final class Result {
+
+        private final int rounds;
+        private final long requests;
+        private final long latencyMicros;
+        private final boolean reached;
+
+        private Result(int rounds, long requests, long latencyMicros, boolean reached) {
+            this.rounds = rounds;
+            this.requests = requests;
+            this.latencyMicros = latencyMicros;
+            this.reached = reached;
+        }
+
+        /**
+         * Count of the rounds that all the samples have been replayed.
+         */
+        public int rounds() {
+            return rounds;
+        }
+
+        /**
+         * Count of the replayed requests.
+         */
+        public long requests() {
+            return requests;
+        }
+
+        /**
+         * Average latency of the last round in microseconds.
+         */
+        public long latencyMicros() {
+            return latencyMicros;
+        }
+
+        /**
+         * Whether the latency target has been reached.
+         */
+        public boolean isReached() {
+            return reached;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{rounds=" + rounds +
+                    ", requests=" + requests +
+                    ", latencyMicros=" + latencyMicros +
+                    ", reached=" + reached +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.warmup;
+
+import esa.commons.StringUtils;
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.HttpInputStream;
+import esa.httpserver.impl.ByteBufHttpInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpScheme;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link AsyncRequest} of a {@link WarmUpSample} which comes from the loopback address.
+ */
+final class WarmUpRequest implements AsyncRequest {
+
+    private static final String LOOPBACK = "127.0.0.1";
+
+    private final HttpMethod method;
+    private final String uri;
+    private final String path;
+    private final String query;
+    private final Map<String, List<String>> parameters;
+    private final HttpHeaders headers;
+    private final ByteBuf body;
+    private final HttpInputStream in;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>(8);
+    private Set<Cookie> cookies;
+
+    WarmUpRequest(WarmUpSample sample) {
+        this.method = HttpMethod.valueOf(StringUtils.nonEmptyOrElse(sample.getMethod(), "GET").toUpperCase());
+        this.uri = StringUtils.nonEmptyOrElse(sample.getUri(), "/");
+        final QueryStringDecoder decoder = new QueryStringDecoder(uri);
+        this.path = decoder.path();
+        this.query = decoder.rawQuery();
+        this.parameters = decoder.parameters();
+        this.headers = new DefaultHttpHeaders();
+        if (sample.getHeaders() != null) {
+            sample.getHeaders().forEach(headers::add);
+        }
+        this.body = sample.getBody() == null
+                ? Unpooled.EMPTY_BUFFER
+                : Unpooled.wrappedBuffer(sample.getBody().getBytes(StandardCharsets.UTF_8));
+        if (body.isReadable() && !headers.contains(HttpHeaderNames.CONTENT_LENGTH)) {
+            headers.setInt(HttpHeaderNames.CONTENT_LENGTH, body.readableBytes());
+        }
+        this.in = new ByteBufHttpInputStream(body, false);
+    }
+
+    @Override
+    public HttpVersion httpVersion() {
+        return HttpVersion.HTTP_1_1;
+    }
+
+    @Override
+    public String scheme() {
+        return HttpScheme.HTTP.toString().toUpperCase();
+    }
+
+    @Override
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+
+    @Override
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public HttpInputStream inputStream() {
+        return in;
+    }
+
+    @Override
+    public ByteBuf byteBufBody() {
+        return body;
+    }
+
+    @Override
+    public String remoteAddr() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public String tcpSourceAddr() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public int remotePort() {
+        return 0;
+    }
+
+    @Override
+    public String localAddr() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public int localPort() {
+        return 0;
+    }
+
+    @Override
+    public Map<String, List<String>> parameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public HttpHeaders trailers() {
+        return EmptyHttpHeaders.INSTANCE;
+    }
+
+    @Override
+    public Set<Cookie> cookies() {
+        if (cookies == null) {
+            final String value = headers.get(HttpHeaderNames.COOKIE);
+            cookies = value == null ? Collections.emptySet() : ServerCookieDecoder.STRICT.decode(value);
+        }
+        return cookies;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        return attributes.remove(name);
+    }
+
+    @Override
+    public String[] attributeNames() {
+        return attributes.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return ByteBufAllocator.DEFAULT;
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.warmup;
+
+import esa.httpserver.core.AsyncResponse;
+import esa.httpserver.core.HttpOutputStream;
+import esa.restlight.server.util.LoggerUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link AsyncResponse} which only counts and discards the body.
+ */
+final class WarmUpResponse implements AsyncResponse {
+
+    private final HttpHeaders headers = new DefaultHttpHeaders();
+    private final HttpHeaders trailers = new DefaultHttpHeaders();
+    private final AtomicBoolean committed = new AtomicBoolean();
+    private final List<Consumer<AsyncResponse>> endListeners = new LinkedList<>();
+    private volatile int status = HttpResponseStatus.OK.code();
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private DiscardHttpOutputStream out;
+    private volatile long bodyLength;
+
+    @Override
+    public void setStatus(int code) {
+        if (!isCommitted()) {
+            this.status = code;
+        }
+    }
+
+    @Override
+    public int status() {
+        return status;
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return true;
+    }
+
+    @Override
+    public HttpOutputStream outputStream() {
+        if (out == null) {
+            out = new DiscardHttpOutputStream(this);
+        }
+        return out;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        this.bufferSize = size;
+    }
+
+    @Override
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed.get();
+    }
+
+    @Override
+    public long bodyLength() {
+        return bodyLength;
+    }
+
+    @Override
+    public void reset() {
+        if (isCommitted()) {
+            throw new IllegalStateException("Already committed.");
+        }
+        status = HttpResponseStatus.OK.code();
+        headers.clear();
+        trailers.clear();
+        out = null;
+    }
+
+    @Override
+    public void sendResult(byte[] body, int off, int len) {
+        commit();
+        end(body == null ? 0L : len);
+    }
+
+    @Override
+    public void sendResult(ByteBuf body, int off, int len, boolean autoRelease) {
+        try {
+            commit();
+            end(body == null ? 0L : len);
+        } finally {
+            if (autoRelease && body != null) {
+                body.release();
+            }
+        }
+    }
+
+    @Override
+    public void sendFile(File file, long offset, long length) {
+        commit();
+        end(-1L);
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return ByteBufAllocator.DEFAULT;
+    }
+
+    @Override
+    public String getHeader(CharSequence name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Collection<String> headerNames() {
+        return headers.names();
+    }
+
+    @Override
+    public Collection<String> getHeaders(CharSequence name) {
+        return headers.getAll(name);
+    }
+
+    @Override
+    public boolean containsHeader(CharSequence name) {
+        return headers.contains(name);
+    }
+
+    @Override
+    public void addHeader(CharSequence name, String value) {
+        if (!isCommitted() && value != null) {
+            headers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setHeader(CharSequence name, String value) {
+        if (!isCommitted() && value != null) {
+            headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void setHeaders(CharSequence name, List<String> values) {
+        if (!isCommitted() && values != null) {
+            headers.set(name, values);
+        }
+    }
+
+    @Override
+    public void setIntHeader(CharSequence name, int value) {
+        if (!isCommitted()) {
+            headers.setInt(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(CharSequence name, int value) {
+        if (!isCommitted()) {
+            headers.addInt(name, value);
+        }
+    }
+
+    @Override
+    public void setShortHeader(CharSequence name, short value) {
+        if (!isCommitted()) {
+            headers.setShort(name, value);
+        }
+    }
+
+    @Override
+    public void addShortHeader(CharSequence name, short value) {
+        if (!isCommitted()) {
+            headers.addShort(name, value);
+        }
+    }
+
+    @Override
+    public void addTrailer(CharSequence name, String value) {
+        if (!isCommitted() && value != null) {
+            trailers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setTrailer(CharSequence name, String value) {
+        if (!isCommitted() && value != null) {
+            trailers.set(name, value);
+        }
+    }
+
+    @Override
+    public void setTrailers(CharSequence name, List<String> values) {
+        if (!isCommitted() && values != null) {
+            trailers.set(name, values);
+        }
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        addHeader(HttpHeaderNames.SET_COOKIE, ServerCookieEncoder.STRICT.encode(cookie));
+    }
+
+    @Override
+    public void addCookie(String name, String value) {
+        addCookie(new DefaultCookie(name, value));
+    }
+
+    @Override
+    public void onEnd(Consumer<AsyncResponse> listener) {
+        if (!isCommitted()) {
+            endListeners.add(listener);
+        }
+    }
+
+    private void commit() {
+        if (!committed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already committed.");
+        }
+    }
+
+    void end(long bodyLength) {
+        this.bodyLength = bodyLength;
+        for (Consumer<AsyncResponse> listener : endListeners) {
+            try {
+                listener.accept(this);
+            } catch (Throwable t) {
+                LoggerUtils.logger().error("Error while calling end listener: " + listener, t);
+            }
+        }
+    }
+
+    private static final class DiscardHttpOutputStream extends HttpOutputStream {
+
+        private final WarmUpResponse response;
+        private long written;
+        private boolean closed;
+
+        private DiscardHttpOutputStream(WarmUpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureOpen();
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureOpen();
+            written += len;
+        }
+
+        @Override
+        public void writeBoolean(boolean v) {
+            write(1);
+        }
+
+        @Override
+        public void writeByte(int v) {
+            write(v);
+        }
+
+        @Override
+        public void writeShort(int v) {
+            skip(2);
+        }
+
+        @Override
+        public void writeChar(int v) {
+            skip(2);
+        }
+
+        @Override
+        public void writeInt(int v) {
+            skip(4);
+        }
+
+        @Override
+        public void writeLong(long v) {
+            skip(8);
+        }
+
+        @Override
+        public void writeFloat(float v) {
+            skip(4);
+        }
+
+        @Override
+        public void writeDouble(double v) {
+            skip(8);
+        }
+
+        @Override
+        public void writeBytes(String s) {
+            skip(s.length());
+        }
+
+        @Override
+        public void writeChars(String s) {
+            skip(s.length() << 1);
+        }
+
+        @Override
+        public void writeUTF(String s) {
+            // an approximate length is enough for warming up.
+            skip(s.length() + 2);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                if (response.committed.compareAndSet(false, true)) {
+                    response.end(written);
+                }
+            }
+        }
+
+        private void skip(int len) {
+            ensureOpen();
+            written += len;
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new IllegalStateException("Output stream has already closed.");
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.warmup;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A sample request which will be replayed by {@link WarmUp}.
+ */
+public class WarmUpSample implements Serializable {
+
+    private static final long serialVersionUID = -2748830216716624315L;
+
+    /**
+     * Http method of the request.
+     */
+    private String method = "GET";
+
+    /**
+     * Request uri including the query string, such as {@code /foo?bar=baz}.
+     */
+    private String uri;
+
+    /**
+     * Headers of the request.
+     */
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Body of the request in UTF-8.
+     */
+    private String body;
+
+    public WarmUpSample() {
+    }
+
+    public WarmUpSample(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uri;
+    }
+}
@@ -16,6 +16,7 @@
 package esa.restlight.server;
 
 import esa.restlight.server.bootstrap.RestlightServer;
+import esa.restlight.server.config.BizThreadsOptionsConfigure;
 import esa.restlight.server.config.RouteOptionsConfigure;
 import esa.restlight.server.config.SchedulingOptionsConfigure;
 import esa.restlight.server.config.ServerOptions;
@@ -23,6 +24,7 @@ import esa.restlight.server.config.ServerOptionsConfigure;
 import esa.restlight.server.handler.RestlightHandler;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.schedule.ExecutorScheduler;
+import esa.restlight.server.schedule.LockFreeArrayBlockingQueue;
 import esa.restlight.server.schedule.RequestTaskHook;
 import esa.restlight.server.schedule.Scheduler;
 import esa.restlight.server.schedule.Schedulers;
@@ -43,6 +45,9 @@ import static esa.restlight.server.route.Mapping.get;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,6 +69,45 @@ class RestliteTest {
         assertThrows(IllegalStateException.class, restlite::checkImmutable);
     }
 
+    @Test
+    void testLockFreeBizQueue() {
+        final ServerOptions ops = ServerOptionsConfigure.newOpts()
+                .bizThreads(BizThreadsOptionsConfigure.newOpts().lockFreeQueue(true).configured())
+                .configured();
+        final Restlite restlite = Restlite0.forServer(ops);
+        final Scheduler biz = restlite.deployments().deployContext().schedulers().get(Schedulers.BIZ);
+        final ThreadPoolExecutor bizPool = (ThreadPoolExecutor) ((ExecutorScheduler) biz).executor();
+        assertTrue(bizPool.getQueue() instanceof LockFreeArrayBlockingQueue);
+        assertEquals(ops.getBizThreads().getBlockingQueueLength(), bizPool.getQueue().remainingCapacity());
+        assertTrue(bizPool.getRejectedExecutionHandler() instanceof BaseDeployments.BizRejectedHandler);
+        bizPool.shutdown();
+    }
+
+    @Test
+    void testAffinitySchedulerIsRegisteredOnDemand() {
+        final Restlite restlite = Restlite0.forServer();
+        final ServerDeployContext<ServerOptions> ctx = restlite.deployments().deployContext();
+        assertNull(ctx.schedulers().get(Schedulers.AFFINITY));
+        restlite.deployments().addRoute(Route.route(get("/foo")).schedule(Schedulers.affinity()));
+        final Scheduler affinity = ctx.schedulers().get(Schedulers.AFFINITY);
+        assertNotNull(affinity);
+        assertNotSame(Schedulers.affinity(), affinity);
+        restlite.deployments().addRoute(Route.route(get("/bar")).schedule(Schedulers.affinity()));
+        assertSame(affinity, ctx.schedulers().get(Schedulers.AFFINITY));
+        affinity.shutdown();
+
+        final Restlite byDefault = Restlite0.forServer(ServerOptionsConfigure.newOpts()
+                .scheduling(SchedulingOptionsConfigure.newOpts()
+                        .defaultScheduler(Schedulers.AFFINITY)
+                        .configured())
+                .configured());
+        byDefault.deployments().addRoute(Route.route(get("/foo")));
+        final Scheduler byDefaultAffinity = byDefault.deployments().deployContext().schedulers()
+                .get(Schedulers.AFFINITY);
+        assertNotNull(byDefaultAffinity);
+        byDefaultAffinity.shutdown();
+    }
+
     @Test
     void testDeployments() {
         final ServerOptions ops =
@@ -101,6 +145,8 @@ class RestliteTest {
         assertEquals(3, ctx.routeRegistry().get().routes().size());
         assertEquals(4, ctx.schedulers().size());
         assertEquals(Schedulers.io(), ctx.schedulers().get(Schedulers.IO));
+        // affinity scheduler is not registered unless there's any route uses it
+        assertNull(ctx.schedulers().get(Schedulers.AFFINITY));
         final Scheduler biz = ctx.schedulers().get(Schedulers.BIZ);
         assertTrue(biz instanceof ExecutorScheduler);
         assertTrue(((ExecutorScheduler) biz).executor() instanceof ThreadPoolExecutor);
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.core.util.MediaType;
+import esa.restlight.server.config.BatchOptions;
+import esa.restlight.server.config.BatchOptionsConfigure;
+import esa.restlight.server.handler.Filter;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.schedule.Scheduler;
+import esa.restlight.server.schedule.Schedulers;
+import esa.restlight.server.util.Futures;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRestlightHandlerTest {
+
+    private static final BatchOptions OPTIONS = BatchOptionsConfigure.newOpts()
+            .enable(true)
+            .maxRequests(4)
+            .configured();
+
+    @Test
+    void testIllegalArguments() {
+        final Echo echo = new Echo(null);
+        assertThrows(IllegalArgumentException.class, () -> new BatchRestlightHandler(BatchOptionsConfigure.newOpts()
+                .path("")
+                .configured(), echo, Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRestlightHandler(BatchOptionsConfigure.newOpts()
+                .maxRequests(0)
+                .configured(), echo, Collections.emptyList()));
+    }
+
+    @Test
+    void testDelegateNonBatchRequests() {
+        final Echo echo = new Echo(null);
+        final BatchRestlightHandler handler =
+                new BatchRestlightHandler(OPTIONS, echo, Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(MockAsyncRequest.aMockRequest().withUri("/batch").build(), response).join();
+        assertEquals("GET /batch", response.getSentData().toString(StandardCharsets.UTF_8));
+        assertSame(echo.schedulers(), handler.schedulers());
+    }
+
+    @Test
+    void testBatch() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                    new Echo(executor),
+                    Collections.singletonList(new LineCodec()));
+            final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+            final CompletableFuture<Void> promise = handler.process(batch("a GET /foo?x=1\n"
+                    + "b POST /bar\n"
+                    + "GET /baz\n"
+                    + "d GET /error\n"), response);
+            promise.get(3L, TimeUnit.SECONDS);
+            assertEquals(HttpResponseStatus.OK.code(), response.status());
+            assertEquals("text/plain", response.getHeader(HttpHeaderNames.CONTENT_TYPE));
+            assertEquals("a 200 GET /foo?x=1\n"
+                            + "b 200 POST /bar\n"
+                            + "2 200 GET /baz\n"
+                            + "d 500 error\n",
+                    response.getSentData().toString(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFilteredPerSubRequest() {
+        final List<String> filtered = new CopyOnWriteArrayList<>();
+        final Filter filter = (request, response, chain) -> {
+            filtered.add(request.path());
+            if ("/rejected".equals(request.path())) {
+                response.sendResult(HttpResponseStatus.TOO_MANY_REQUESTS.code());
+                return Futures.completedFuture();
+            }
+            return chain.doFilter(request, response);
+        };
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec())).filtered(Collections.singletonList(filter), null);
+
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(batch("a GET /foo\nb GET /rejected\n"), response).join();
+        assertEquals(HttpResponseStatus.OK.code(), response.status());
+        assertEquals("a 200 GET /foo\nb 429 \n", response.getSentData().toString(StandardCharsets.UTF_8));
+        // the batch request itself is not filtered
+        assertEquals(Arrays.asList("/foo", "/rejected"), filtered);
+
+        final MockAsyncResponse single = MockAsyncResponse.aMockResponse().build();
+        handler.process(MockAsyncRequest.aMockRequest().withUri("/bar").build(), single).join();
+        assertEquals("GET /bar", single.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals("/bar", filtered.get(2));
+    }
+
+    @Test
+    void testIllegalSubRequest() {
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(batch("a GET foo\nb GET /bar\n"), response).join();
+        final String result = response.getSentData().toString(StandardCharsets.UTF_8);
+        assertTrue(result.startsWith("a 400 "));
+        assertTrue(result.endsWith("b 200 GET /bar\n"));
+    }
+
+    @Test
+    void testEmptyBatch() {
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(batch(""), response).join();
+        assertEquals(HttpResponseStatus.OK.code(), response.status());
+        assertEquals(0, response.getSentData().readableBytes());
+    }
+
+    @Test
+    void testTooManySubRequests() {
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(batch("GET /1\nGET /2\nGET /3\nGET /4\nGET /5\n"), response).join();
+        assertEquals(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code(), response.status());
+    }
+
+    @Test
+    void testDecodeError() {
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(batch("illegal\n"), response).join();
+        assertEquals(HttpResponseStatus.BAD_REQUEST.code(), response.status());
+    }
+
+    @Test
+    void testUnsupportedContentType() {
+        final BatchRestlightHandler handler = new BatchRestlightHandler(OPTIONS,
+                new Echo(null),
+                Collections.singletonList(new LineCodec()));
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/batch")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+                .withBody("GET /foo".getBytes(StandardCharsets.UTF_8))
+                .build(), response).join();
+        assertEquals(HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE.code(), response.status());
+        assertFalse(response.getSentData().toString(StandardCharsets.UTF_8).contains("GET /foo"));
+    }
+
+    private static AsyncRequest batch(String body) {
+        return MockAsyncRequest.aMockRequest()
+                .withMethod("POST")
+                .withUri("/batch")
+                .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "text/plain")
+                .withBody(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    /**
+     * Echoes the method and uri, and handles the requests on the given executor if present.
+     */
+    private static final class Echo implements RestlightHandler {
+
+        private final ExecutorService executor;
+        private final List<Scheduler> schedulers = Collections.singletonList(Schedulers.io());
+
+        private Echo(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public CompletableFuture<Void> process(AsyncRequest request, AsyncResponse response) {
+            if (executor == null) {
+                handle(request, response);
+                return Futures.completedFuture();
+            }
+            return CompletableFuture.runAsync(() -> handle(request, response), executor);
+        }
+
+        private static void handle(AsyncRequest request, AsyncResponse response) {
+            if ("/error".equals(request.path())) {
+                throw new IllegalStateException("error");
+            }
+            response.sendResult((request.method().name() + " " + request.uri()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public List<Scheduler> schedulers() {
+            return schedulers;
+        }
+    }
+
+    /**
+     * Codec which decodes each line of '[id] METHOD URI' as a sub-request, and encodes each response as a line of 'id
+     * status body'.
+     */
+    private static final class LineCodec implements BatchCodec {
+
+        @Override
+        public boolean supports(MediaType contentType) {
+            return MediaType.TEXT_PLAIN.isCompatibleWith(contentType);
+        }
+
+        @Override
+        public MediaType mediaType() {
+            return MediaType.TEXT_PLAIN;
+        }
+
+        @Override
+        public List<SubRequest> decode(ByteBuf body) {
+            final List<SubRequest> subs = new ArrayList<>();
+            for (String line : body.toString(StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final String[] parts = line.split(" ");
+                final HttpHeaders headers = new DefaultHttpHeaders();
+                if (parts.length == 3) {
+                    subs.add(new SubRequest(parts[0], parts[1], parts[2], headers, null));
+                } else if (parts.length == 2) {
+                    subs.add(new SubRequest(null, parts[0], parts[1], headers, null));
+                } else {
+                    throw new IllegalArgumentException("Illegal line: " + line);
+                }
+            }
+            return subs;
+        }
+
+        @Override
+        public byte[] encode(List<SubResponse> responses) {
+            final StringBuilder sb = new StringBuilder();
+            for (SubResponse response : responses) {
+                String body = new String(response.body(), StandardCharsets.UTF_8);
+                if (response.status() == HttpResponseStatus.INTERNAL_SERVER_ERROR.code()) {
+                    body = "error";
+                }
+                sb.append(response.id()).append(' ').append(response.status()).append(' ').append(body).append('\n');
+            }
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
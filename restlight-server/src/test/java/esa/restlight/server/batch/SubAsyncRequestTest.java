@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubAsyncRequestTest {
+
+    private static final AsyncRequest PARENT = MockAsyncRequest.aMockRequest()
+            .withMethod("POST")
+            .withUri("/batch")
+            .withHeader(HttpHeaderNames.AUTHORIZATION.toString(), "Bearer foo")
+            .withHeader(HttpHeaderNames.COOKIE.toString(), "a=1")
+            .withHeader(HttpHeaderNames.ACCEPT.toString(), "*/*")
+            .withHeader(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json")
+            .withHeader(HttpHeaderNames.CONTENT_LENGTH.toString(), "100")
+            .withRemoteAddr("10.0.0.1")
+            .withRemotePort(8888)
+            .withBody("batch".getBytes(StandardCharsets.UTF_8))
+            .build();
+
+    @Test
+    void testRequestLine() {
+        final SubAsyncRequest request = new SubAsyncRequest(PARENT,
+                new SubRequest("1", "DELETE", "/users/1?force=true&force=false", null, null));
+        assertEquals(HttpMethod.DELETE, request.method());
+        assertEquals("/users/1?force=true&force=false", request.uri());
+        assertEquals("/users/1", request.path());
+        assertEquals("force=true&force=false", request.query());
+        assertEquals(Arrays.asList("true", "false"), request.getParameters("force"));
+        assertEquals(PARENT.httpVersion(), request.httpVersion());
+        assertEquals(PARENT.scheme(), request.scheme());
+        assertEquals("10.0.0.1", request.remoteAddr());
+        assertEquals(8888, request.remotePort());
+        assertEquals(0, request.contentLength());
+        assertFalse(request.trailers().iteratorCharSequence().hasNext());
+
+        final SubAsyncRequest noQuery = new SubAsyncRequest(PARENT, new SubRequest(null, null, "/users", null, null));
+        assertEquals(HttpMethod.GET, noQuery.method());
+        assertEquals("/users", noQuery.path());
+        assertEquals("", noQuery.query());
+        assertTrue(noQuery.parameterMap().isEmpty());
+    }
+
+    @Test
+    void testIllegalRequestLine() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SubAsyncRequest(PARENT, new SubRequest("1", "GET", null, null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SubAsyncRequest(PARENT, new SubRequest("1", "GET", "users", null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SubAsyncRequest(PARENT, new SubRequest("1", "G E T", "/users", null, null)));
+    }
+
+    @Test
+    void testHeaders() {
+        final HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaderNames.ACCEPT, "application/json");
+        headers.add(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+        headers.add("X-Multi", Arrays.asList("a", "b"));
+        final SubAsyncRequest request = new SubAsyncRequest(PARENT,
+                new SubRequest("1", "POST", "/users", headers, "foo".getBytes(StandardCharsets.UTF_8)));
+        // inherited
+        assertEquals("Bearer foo", request.getHeader(HttpHeaderNames.AUTHORIZATION));
+        assertEquals(1, request.cookies().size());
+        assertEquals("1", request.getCookie("a").value());
+        // overridden
+        assertEquals(Collections.singletonList("application/json"), request.headers().getAll(HttpHeaderNames.ACCEPT));
+        assertEquals("text/plain", request.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals(Arrays.asList("a", "b"), request.headers().getAll("X-Multi"));
+        // the body of the batch request should not be described
+        assertEquals("3", request.getHeader(HttpHeaderNames.CONTENT_LENGTH));
+
+        final SubAsyncRequest noBody = new SubAsyncRequest(PARENT, new SubRequest("1", "GET", "/users", null, null));
+        assertNull(noBody.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertNull(noBody.getHeader(HttpHeaderNames.CONTENT_LENGTH));
+    }
+
+    @Test
+    void testBody() throws Exception {
+        final HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaderNames.CONTENT_TYPE, "application/x-www-form-urlencoded");
+        final SubAsyncRequest request = new SubAsyncRequest(PARENT,
+                new SubRequest("1", "POST", "/users?a=1", headers, "b=2&a=3".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("2", request.getParameter("b"));
+        assertEquals(Collections.singletonList("1"), request.getParameters("a"));
+        assertArrayEquals("b=2&a=3".getBytes(StandardCharsets.UTF_8), request.body());
+        assertEquals(7, request.contentLength());
+        final byte[] read = new byte[7];
+        assertEquals(7, request.inputStream().read(read));
+        assertArrayEquals("b=2&a=3".getBytes(StandardCharsets.UTF_8), read);
+    }
+
+    @Test
+    void testAttributes() {
+        PARENT.setAttribute("parent", "foo");
+        final SubAsyncRequest request = new SubAsyncRequest(PARENT, new SubRequest("1", "GET", "/", null, null));
+        assertNull(request.getAttribute("parent"));
+        request.setAttribute("a", 1);
+        assertEquals(1, request.getAttribute("a"));
+        assertArrayEquals(new String[]{"a"}, request.attributeNames());
+        assertEquals(1, request.removeAttribute("a"));
+        assertFalse(request.hasAttribute("a"));
+    }
+}
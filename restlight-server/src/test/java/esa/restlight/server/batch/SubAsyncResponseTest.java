@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.batch;
+
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubAsyncResponseTest {
+
+    @Test
+    void testSendResult() {
+        final SubAsyncResponse response = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+        final AtomicInteger ended = new AtomicInteger();
+        response.onEnd(r -> ended.incrementAndGet());
+        response.setHeader(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+        response.addHeader("X-Multi", "a");
+        response.addHeader("X-Multi", "b");
+        response.addCookie("c", "1");
+        assertFalse(response.isCommitted());
+        response.sendResult(HttpResponseStatus.CREATED.code(), "foobar".getBytes(StandardCharsets.UTF_8), 3, 3);
+        assertTrue(response.isCommitted());
+        assertEquals(1, ended.get());
+        assertEquals(3L, response.bodyLength());
+        assertThrows(IllegalStateException.class, () -> response.sendResult(new byte[1]));
+        assertThrows(IllegalStateException.class, response::reset);
+
+        final SubResponse sub = response.toSubResponse("1", new IllegalStateException("ignored"));
+        assertEquals("1", sub.id());
+        assertEquals(HttpResponseStatus.CREATED.code(), sub.status());
+        assertArrayEquals("bar".getBytes(StandardCharsets.UTF_8), sub.body());
+        assertEquals("text/plain", sub.headers().get(HttpHeaderNames.CONTENT_TYPE));
+        assertEquals(Arrays.asList("a", "b"), sub.headers().getAll("X-Multi"));
+        assertEquals("c=1", sub.headers().get(HttpHeaderNames.SET_COOKIE));
+    }
+
+    @Test
+    void testSendByteBuf() {
+        final SubAsyncResponse response = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+        final ByteBuf buf = Unpooled.copiedBuffer("foo", StandardCharsets.UTF_8);
+        response.sendResult(buf, true);
+        assertEquals(0, buf.refCnt());
+        assertArrayEquals("foo".getBytes(StandardCharsets.UTF_8), response.toSubResponse("1", null).body());
+    }
+
+    @Test
+    void testOutputStream() throws Exception {
+        final SubAsyncResponse response = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+        response.outputStream().write("foo".getBytes(StandardCharsets.UTF_8));
+        response.outputStream().writeByte('!');
+        assertFalse(response.isCommitted());
+        assertThrows(IllegalStateException.class, () -> response.sendResult(new byte[1]));
+        response.outputStream().close();
+        assertTrue(response.isCommitted());
+        assertTrue(response.outputStream().isClosed());
+        assertArrayEquals("foo!".getBytes(StandardCharsets.UTF_8), response.toSubResponse("1", null).body());
+    }
+
+    @Test
+    void testSendFile() throws Exception {
+        final File file = File.createTempFile("batch", ".txt");
+        try {
+            Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+            final SubAsyncResponse response = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+            response.sendFile(file, 2L, 3L);
+            assertArrayEquals("234".getBytes(StandardCharsets.UTF_8), response.toSubResponse("1", null).body());
+
+            final SubAsyncResponse all = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+            all.sendFile(file, 5L);
+            assertArrayEquals("56789".getBytes(StandardCharsets.UTF_8), all.toSubResponse("1", null).body());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    void testUncommitted() {
+        final SubAsyncResponse response = new SubAsyncResponse(MockAsyncResponse.aMockResponse().build());
+        response.setStatus(HttpResponseStatus.NO_CONTENT.code());
+        assertEquals(HttpResponseStatus.NO_CONTENT.code(), response.toSubResponse("1", null).status());
+        final SubResponse error = response.toSubResponse("1", new IllegalStateException("foo"));
+        assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR.code(), error.status());
+        assertArrayEquals("foo".getBytes(StandardCharsets.UTF_8), error.body());
+
+        response.setHeader("X-A", "a");
+        response.reset();
+        assertEquals(HttpResponseStatus.OK.code(), response.status());
+        assertFalse(response.containsHeader("X-A"));
+    }
+}
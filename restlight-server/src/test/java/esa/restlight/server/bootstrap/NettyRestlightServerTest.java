@@ -107,4 +107,12 @@ class NettyRestlightServerTest {
         }
     }
 
+    @Test
+    void testIsMultipart() {
+        assertTrue(NettyRestlightServer.isMultipart("multipart/form-data; boundary=---1234"));
+        assertTrue(NettyRestlightServer.isMultipart("Multipart/Form-Data;Boundary=---1234"));
+        assertFalse(NettyRestlightServer.isMultipart("multipart/form-data"));
+        assertFalse(NettyRestlightServer.isMultipart("application/json"));
+        assertFalse(NettyRestlightServer.isMultipart(null));
+    }
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.cache;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.config.ResponseCacheOptionsConfigure;
+import esa.restlight.server.metrics.ServerTiming;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    private static final Route FOO = Route.route(Mapping.get("/foo"));
+    private static final Route BAR = Route.route(Mapping.get("/bar"));
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(NullPointerException.class, () -> new ResponseCache(null, r -> null));
+        assertThrows(NullPointerException.class,
+                () -> new ResponseCache(ResponseCacheOptionsConfigure.defaultOpts(), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResponseCache(ResponseCacheOptionsConfigure.newOpts().maxBytes(0L).configured(),
+                        r -> null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResponseCache(ResponseCacheOptionsConfigure.newOpts().maxEntryBytes(0).configured(),
+                        r -> null));
+        final ResponseCache cache = new ResponseCache(ResponseCacheOptionsConfigure.defaultOpts(),
+                r -> policy(0L));
+        assertThrows(IllegalArgumentException.class, () -> cache.init(Collections.singletonList(FOO)));
+    }
+
+    @Test
+    void testInit() {
+        final CachePolicy policy = policy(1000L);
+        final ResponseCache cache = new ResponseCache(ResponseCacheOptionsConfigure.defaultOpts(),
+                r -> r == FOO ? policy : null);
+        assertFalse(cache.init(Collections.singletonList(BAR)));
+        assertNull(cache.policy(FOO));
+
+        assertTrue(cache.init(Arrays.asList(FOO, BAR)));
+        assertSame(policy, cache.policy(FOO));
+        assertSame(policy, cache.policy(Route.route(FOO)));
+        assertNull(cache.policy(BAR));
+    }
+
+    @Test
+    void testMissAndHit() {
+        final ResponseCache cache = newCache(ResponseCacheOptionsConfigure.defaultOpts().getMaxBytes(),
+                ResponseCacheOptionsConfigure.defaultOpts().getMaxEntryBytes(), 60_000L);
+
+        final AsyncRequest req = request("/foo?a=1");
+        final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        assertEquals(1L, cache.misses());
+        res.setHeader(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+        res.setHeader(ServerTiming.HEADER, "total;dur=1");
+        res.setHeader(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, "http://a.com");
+        res.setHeader("X-Request-Id", "1");
+        send(req, res, "hello");
+        assertEquals(1, cache.size());
+        assertTrue(cache.weight() > 5L);
+
+        final MockAsyncResponse hit = MockAsyncResponse.aMockResponse().build();
+        assertTrue(cache.serve(request("/foo?a=1"), hit, FOO));
+        assertEquals(1L, cache.hits());
+        assertEquals(200, hit.status());
+        assertEquals("text/plain", hit.getHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertNull(hit.getHeader(ServerTiming.HEADER));
+        assertNull(hit.getHeader(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertNull(hit.getHeader("X-Request-Id"));
+        assertEquals("hello", hit.getSentData().toString(StandardCharsets.UTF_8));
+
+        // another key
+        assertFalse(cache.serve(request("/foo?a=2"), MockAsyncResponse.aMockResponse().build(), FOO));
+        assertEquals(2L, cache.misses());
+
+        // served repeatedly
+        for (int i = 0; i < 3; i++) {
+            final MockAsyncResponse r = MockAsyncResponse.aMockResponse().build();
+            assertTrue(cache.serve(request("/foo?a=1"), r, FOO));
+            assertEquals("hello", r.getSentData().toString(StandardCharsets.UTF_8));
+        }
+        assertEquals(4L, cache.hits());
+
+        cache.invalidate("/foo?a=1");
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+        assertFalse(cache.serve(request("/foo?a=1"), MockAsyncResponse.aMockResponse().build(), FOO));
+    }
+
+    @Test
+    void testConditionalHit() {
+        final ResponseCache cache = newCache(ResponseCacheOptionsConfigure.defaultOpts().getMaxBytes(),
+                ResponseCacheOptionsConfigure.defaultOpts().getMaxEntryBytes(), 60_000L);
+
+        final AsyncRequest req = request("/foo");
+        final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        res.setHeader(HttpHeaderNames.ETAG, "W/\"abc\"");
+        send(req, res, "hello");
+
+        final MockAsyncResponse notModified = MockAsyncResponse.aMockResponse().build();
+        assertTrue(cache.serve(MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "W/\"abc\"")
+                .build(), notModified, FOO));
+        assertEquals(304, notModified.status());
+        assertEquals("W/\"abc\"", notModified.getHeader(HttpHeaderNames.ETAG));
+        assertEquals(0, notModified.getSentData().readableBytes());
+
+        final MockAsyncResponse modified = MockAsyncResponse.aMockResponse().build();
+        assertTrue(cache.serve(MockAsyncRequest.aMockRequest()
+                .withUri("/foo")
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "W/\"foo\"")
+                .build(), modified, FOO));
+        assertEquals(200, modified.status());
+        assertEquals("hello", modified.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(2L, cache.hits());
+
+        // the retained body of the 304 response has been released.
+        cache.invalidateAll();
+        assertEquals(0L, cache.weight());
+    }
+
+    @Test
+    void testNotCacheable() {
+        final ResponseCache cache = newCache(1024L * 1024L, 8, 60_000L);
+
+        // not a cacheable route
+        assertFalse(cache.serve(request("/bar"), MockAsyncResponse.aMockResponse().build(), BAR));
+        // not a GET request
+        final AsyncRequest post = MockAsyncRequest.aMockRequest().withMethod(HttpMethod.POST.name())
+                .withUri("/foo").build();
+        assertFalse(cache.serve(post, MockAsyncResponse.aMockResponse().build(), FOO));
+        // null key
+        assertFalse(cache.serve(request("/foo?skip"), MockAsyncResponse.aMockResponse().build(), FOO));
+        assertEquals(0L, cache.misses());
+
+        // not 200
+        AsyncRequest req = request("/foo");
+        MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        res.setStatus(201);
+        send(req, res, "");
+        assertEquals(0, cache.size());
+
+        // Set-Cookie
+        req = request("/foo");
+        res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        res.setHeader(HttpHeaderNames.SET_COOKIE, "a=b");
+        send(req, res, "");
+        assertEquals(0, cache.size());
+
+        // varies by the request headers
+        req = request("/foo");
+        res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        res.setHeader(HttpHeaderNames.VARY, "Accept");
+        send(req, res, "");
+        assertEquals(0, cache.size());
+
+        // too large
+        req = request("/foo");
+        res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        send(req, res, "123456789");
+        assertEquals(0, cache.size());
+
+        // result of a request which has not been served by the cache
+        req = request("/foo");
+        send(req, MockAsyncResponse.aMockResponse().build(), "");
+        assertEquals(0, cache.size());
+
+        req = request("/foo");
+        res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        send(req, res, "12345678");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testExpired() throws InterruptedException {
+        final ResponseCache cache = newCache(1024L * 1024L, 1024, 1L);
+        final AsyncRequest req = request("/foo");
+        final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        send(req, res, "hello");
+        assertEquals(1, cache.size());
+
+        Thread.sleep(10L);
+        assertFalse(cache.serve(request("/foo"), MockAsyncResponse.aMockResponse().build(), FOO));
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+
+    @Test
+    void testSegmentedLruEviction() {
+        // a single segment which could hold about 3 entries.
+        final ResponseCache cache = newCache(1024L, 1024, 60_000L);
+        fill(cache, "/foo?hot");
+        final long weight = cache.weight();
+        assertTrue(weight > 256L && weight < 341L);
+        // promote the hot one to the protected segment.
+        assertTrue(cache.serve(request("/foo?hot"), MockAsyncResponse.aMockResponse().build(), FOO));
+
+        // scan by the keys which are used only once.
+        for (int i = 0; i < 10; i++) {
+            fill(cache, "/foo?cold" + i);
+        }
+        assertTrue(cache.evictions() >= 8L);
+        assertTrue(cache.weight() <= 1024L);
+        assertTrue(cache.serve(request("/foo?hot"), MockAsyncResponse.aMockResponse().build(), FOO));
+        assertTrue(cache.serve(request("/foo?cold9"), MockAsyncResponse.aMockResponse().build(), FOO));
+        assertFalse(cache.serve(request("/foo?cold0"), MockAsyncResponse.aMockResponse().build(), FOO));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.weight());
+    }
+
+    private static void fill(ResponseCache cache, String uri) {
+        final AsyncRequest req = request(uri);
+        final MockAsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        assertFalse(cache.serve(req, res, FOO));
+        final byte[] body = new byte[128];
+        Arrays.fill(body, (byte) 'a');
+        ResponseCache.onResult(req, res, body);
+        res.sendResult(body);
+    }
+
+    private static void send(AsyncRequest req, MockAsyncResponse res, String body) {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ResponseCache.onResult(req, res, bytes);
+        res.sendResult(bytes);
+    }
+
+    private static AsyncRequest request(String uri) {
+        return MockAsyncRequest.aMockRequest().withUri(uri).build();
+    }
+
+    private static ResponseCache newCache(long maxBytes, int maxEntryBytes, long ttlMillis) {
+        final ResponseCache cache = new ResponseCache(ResponseCacheOptionsConfigure.newOpts()
+                .enable(true)
+                .maxBytes(maxBytes)
+                .maxEntryBytes(maxEntryBytes)
+                .configured(), r -> r == FOO ? policy(ttlMillis) : null);
+        assertTrue(cache.init(Arrays.asList(FOO, BAR)));
+        return cache;
+    }
+
+    private static CachePolicy policy(long ttlMillis) {
+        return new CachePolicy() {
+            @Override
+            public String key(AsyncRequest request) {
+                return request.uri().endsWith("skip") ? null : request.uri();
+            }
+
+            @Override
+            public long ttlMillis() {
+                return ttlMillis;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AffinityOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final AffinityOptions options = AffinityOptionsConfigure.newOpts()
+                .workersPerLoop(2)
+                .queueCapacity(64)
+                .configured();
+
+        assertEquals(2, options.getWorkersPerLoop());
+        assertEquals(64, options.getQueueCapacity());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final AffinityOptions options = AffinityOptionsConfigure.defaultOpts();
+        final AffinityOptions def = new AffinityOptions();
+        assertEquals(def.getWorkersPerLoop(), options.getWorkersPerLoop());
+        assertEquals(def.getQueueCapacity(), options.getQueueCapacity());
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final BatchOptions options = BatchOptionsConfigure.newOpts()
+                .enable(true)
+                .path("/multi")
+                .maxRequests(8)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals("/multi", options.getPath());
+        assertEquals(8, options.getMaxRequests());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final BatchOptions options = BatchOptionsConfigure.defaultOpts();
+        final BatchOptions def = new BatchOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getPath(), options.getPath());
+        assertEquals(def.getMaxRequests(), options.getMaxRequests());
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final MetricsOptions options = MetricsOptionsConfigure.newOpts()
+                .enable(true)
+                .windowSeconds(10)
+                .maxLatencyMillis(1000L)
+                .percentiles(0.5D, 0.999D)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals(10, options.getWindowSeconds());
+        assertEquals(1000L, options.getMaxLatencyMillis());
+        assertArrayEquals(new double[]{0.5D, 0.999D}, options.getPercentiles());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final MetricsOptions options = MetricsOptionsConfigure.defaultOpts();
+        final MetricsOptions def = new MetricsOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getWindowSeconds(), options.getWindowSeconds());
+        assertEquals(def.getMaxLatencyMillis(), options.getMaxLatencyMillis());
+        assertArrayEquals(def.getPercentiles(), options.getPercentiles());
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final MultipartOptions options = MultipartOptionsConfigure.newOpts()
+                .enable(true)
+                .useDisk(true)
+                .memoryThreshold(1L)
+                .maxSize(2L)
+                .charset("GBK")
+                .tempDir("/tmp")
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertTrue(options.isUseDisk());
+        assertEquals(1L, options.getMemoryThreshold());
+        assertEquals(2L, options.getMaxSize());
+        assertEquals("GBK", options.getCharset());
+        assertEquals("/tmp", options.getTempDir());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final MultipartOptions options = MultipartOptionsConfigure.defaultOpts();
+        final MultipartOptions def = new MultipartOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.isUseDisk(), options.isUseDisk());
+        assertEquals(def.getMemoryThreshold(), options.getMemoryThreshold());
+        assertEquals(def.getMaxSize(), options.getMaxSize());
+        assertEquals(def.getCharset(), options.getCharset());
+        assertEquals(def.getTempDir(), options.getTempDir());
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final ResponseCacheOptions options = ResponseCacheOptionsConfigure.newOpts()
+                .enable(true)
+                .maxBytes(1024L)
+                .maxEntryBytes(128)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals(1024L, options.getMaxBytes());
+        assertEquals(128, options.getMaxEntryBytes());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final ResponseCacheOptions options = ResponseCacheOptionsConfigure.defaultOpts();
+        final ResponseCacheOptions def = new ResponseCacheOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getMaxBytes(), options.getMaxBytes());
+        assertEquals(def.getMaxEntryBytes(), options.getMaxEntryBytes());
+    }
+
+}
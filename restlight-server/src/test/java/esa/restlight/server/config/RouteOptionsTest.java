@@ -28,11 +28,13 @@ class RouteOptionsTest {
                 .cacheRatio(100)
                 .computeRate(100)
                 .useCachedRouting(false)
+                .extractParallelism(4)
                 .configured();
 
         assertEquals(100, options.getCacheRatio());
         assertEquals(100, options.getComputeRate());
         assertFalse(options.isUseCachedRouting());
+        assertEquals(4, options.getExtractParallelism());
     }
 
     @Test
@@ -42,6 +44,7 @@ class RouteOptionsTest {
         assertEquals(def.getComputeRate(), options.getComputeRate());
         assertEquals(def.getCacheRatio(), options.getCacheRatio());
         assertEquals(def.isUseCachedRouting(), options.isUseCachedRouting());
+        assertEquals(def.getExtractParallelism(), options.getExtractParallelism());
     }
 
 }
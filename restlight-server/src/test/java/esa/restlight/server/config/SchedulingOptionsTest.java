@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SchedulingOptionsTest {
@@ -33,10 +34,12 @@ class SchedulingOptionsTest {
         final SchedulingOptions options = SchedulingOptionsConfigure.newOpts()
                 .defaultScheduler("foo")
                 .timeout(timeoutOptions)
+                .affinity(AffinityOptionsConfigure.newOpts().workersPerLoop(2).configured())
                 .configured();
 
         assertEquals("foo", options.getDefaultScheduler());
         assertEquals(1, options.getTimeout().size());
+        assertEquals(2, options.getAffinity().getWorkersPerLoop());
     }
 
     @Test
@@ -44,6 +47,7 @@ class SchedulingOptionsTest {
         assertEquals(new SchedulingOptions().getDefaultScheduler(),
                 SchedulingOptionsConfigure.defaultOpts().getDefaultScheduler());
         assertTrue(new SchedulingOptions().getTimeout().isEmpty());
+        assertNotNull(SchedulingOptionsConfigure.defaultOpts().getAffinity());
     }
 
 }
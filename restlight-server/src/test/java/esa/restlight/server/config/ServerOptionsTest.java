@@ -50,6 +50,12 @@ class ServerOptionsTest {
                 .logging(LogLevel.DEBUG)
                 .scheduling(null)
                 .route(null)
+                .multipart(null)
+                .metrics(null)
+                .watchdog(null)
+                .serverTiming(null)
+                .responseCache(null)
+                .batch(null)
                 .ssl(null)
                 .https(null)
                 .bizThreads(bizThreads)
@@ -78,6 +84,12 @@ class ServerOptionsTest {
         assertEquals(LogLevel.DEBUG, options.getLogging());
         assertNull(options.getScheduling());
         assertNull(options.getRoute());
+        assertNull(options.getMultipart());
+        assertNull(options.getMetrics());
+        assertNull(options.getWatchdog());
+        assertNull(options.getServerTiming());
+        assertNull(options.getResponseCache());
+        assertNull(options.getBatch());
         assertNull(options.getSsl());
 
         options.setCoreBizThreads(10);
@@ -113,6 +125,12 @@ class ServerOptionsTest {
         assertEquals(def.getLogging(), options.getLogging());
         assertNotNull(def.getScheduling());
         assertNotNull(def.getRoute());
+        assertNotNull(def.getMultipart());
+        assertNotNull(def.getMetrics());
+        assertNotNull(def.getWatchdog());
+        assertNotNull(def.getServerTiming());
+        assertNotNull(def.getResponseCache());
+        assertNotNull(def.getBatch());
         assertNotNull(def.getSsl());
         assertNotNull(def.getBizThreads());
         assertEquals(def.getCoreBizThreads(), options.getCoreBizThreads());
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final ServerTimingOptions options = ServerTimingOptionsConfigure.newOpts()
+                .enable(true)
+                .header("X-Timing")
+                .tokens(Collections.singletonList("foo"))
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals("X-Timing", options.getHeader());
+        assertEquals(Collections.singletonList("foo"), options.getTokens());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final ServerTimingOptions options = ServerTimingOptionsConfigure.defaultOpts();
+        final ServerTimingOptions def = new ServerTimingOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getHeader(), options.getHeader());
+        assertEquals(def.getTokens(), options.getTokens());
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchdogOptionsTest {
+
+    @Test
+    void testConfigure() {
+        final WatchdogOptions options = WatchdogOptionsConfigure.newOpts()
+                .enable(true)
+                .intervalMillis(10L)
+                .thresholdMillis(200L)
+                .maxEvents(8)
+                .configured();
+
+        assertTrue(options.isEnable());
+        assertEquals(10L, options.getIntervalMillis());
+        assertEquals(200L, options.getThresholdMillis());
+        assertEquals(8, options.getMaxEvents());
+    }
+
+    @Test
+    void testDefaultOpts() {
+        final WatchdogOptions options = WatchdogOptionsConfigure.defaultOpts();
+        final WatchdogOptions def = new WatchdogOptions();
+        assertEquals(def.isEnable(), options.isEnable());
+        assertEquals(def.getIntervalMillis(), options.getIntervalMillis());
+        assertEquals(def.getThresholdMillis(), options.getThresholdMillis());
+        assertEquals(def.getMaxEvents(), options.getMaxEvents());
+    }
+
+}
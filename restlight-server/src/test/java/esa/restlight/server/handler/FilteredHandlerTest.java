@@ -17,7 +17,12 @@ package esa.restlight.server.handler;
 
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ServerTimingOptionsConfigure;
+import esa.restlight.server.jfr.Phase;
+import esa.restlight.server.metrics.ServerTiming;
 import esa.restlight.server.util.Futures;
+import esa.restlight.server.warmup.WarmUp;
+import esa.restlight.server.warmup.WarmUpSample;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
 import io.netty.channel.ChannelHandlerContext;
@@ -25,6 +30,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -139,4 +146,84 @@ class FilteredHandlerTest {
         verify(delegate, never()).process(same(request), same(response));
     }
 
+    @Test
+    void testServerTiming() {
+        final RestlightHandler delegate = mock(RestlightHandler.class);
+        final AtomicReference<AsyncResponse> processed = new AtomicReference<>();
+        when(delegate.process(any(), any())).then(mock -> {
+            processed.set(mock.getArgument(1));
+            return Futures.completedFuture();
+        });
+        final Filter filter = mock(Filter.class);
+        when(filter.doFilter(any(), any(), any()))
+                .then(mock -> mock.getArgument(2, FilterChain.class)
+                        .doFilter(mock.getArgument(0), mock.getArgument(1)));
+
+        final FilteredHandler handler = new FilteredHandler(delegate, Collections.singletonList(filter),
+                ServerTimingOptionsConfigure.newOpts()
+                        .enable(true)
+                        .tokens(Collections.singletonList("foo"))
+                        .configured());
+
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader("X-Restlight-Server-Timing", "foo")
+                .build();
+        assertTrue(handler.process(request, MockAsyncResponse.aMockResponse().build()).isDone());
+        final ServerTiming timing = ServerTiming.get(processed.get());
+        assertNotNull(timing);
+        assertTrue(timing.duration(Phase.FILTER_CHAIN) > 0L);
+
+        final AsyncRequest other = MockAsyncRequest.aMockRequest().build();
+        assertTrue(handler.process(other, MockAsyncResponse.aMockResponse().build()).isDone());
+        assertNull(ServerTiming.get(processed.get()));
+
+        // rejected by the filter
+        final Filter rejection = mock(Filter.class);
+        when(rejection.doFilter(any(), any(), any())).then(mock -> {
+            mock.getArgument(1, AsyncResponse.class).sendResult(429);
+            return Futures.completedFuture();
+        });
+        final MockAsyncResponse rejected = MockAsyncResponse.aMockResponse().build();
+        assertTrue(new FilteredHandler(delegate, Collections.singletonList(rejection),
+                ServerTimingOptionsConfigure.newOpts()
+                        .enable(true)
+                        .tokens(Collections.singletonList("foo"))
+                        .configured())
+                .process(request, rejected).isDone());
+        assertEquals(429, rejected.status());
+        assertTrue(rejected.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+    }
+
+    @Test
+    void testWarmUpSkipsFiltersNotAppliedToIt() {
+        final RestlightHandler delegate = mock(RestlightHandler.class);
+        when(delegate.process(any(), any())).then(mock -> {
+            mock.getArgument(1, AsyncResponse.class).sendResult(200);
+            return Futures.completedFuture();
+        });
+        final Filter rejecting = new Filter() {
+            @Override
+            public CompletableFuture<Void> doFilter(AsyncRequest request, AsyncResponse response, FilterChain chain) {
+                response.sendResult(429);
+                return Futures.completedFuture();
+            }
+
+            @Override
+            public boolean applyToWarmUp() {
+                return false;
+            }
+        };
+        final FilteredHandler handler = new FilteredHandler(delegate, Collections.singletonList(rejecting));
+
+        final WarmUp.Result result = new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/foo")),
+                false, 1, 0L, 10_000L).run(handler);
+        assertEquals(1L, result.requests());
+        verify(delegate, times(1)).process(any(), any());
+
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        handler.process(MockAsyncRequest.aMockRequest().build(), response);
+        assertEquals(429, response.status());
+        verify(delegate, times(1)).process(any(), any());
+    }
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.jfr;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestlightEventsTest {
+
+    @Test
+    void testNoRecording() {
+        assertTrue(RestlightEvents.isAvailable());
+        assertFalse(RestlightEvents.isRecording());
+        for (Phase phase : Phase.values()) {
+            assertSame(Span.NOOP, RestlightEvents.begin(phase));
+        }
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().build();
+        RestlightEvents.markRoute(request, Route.route(Mapping.get("/foo")));
+        assertNull(request.getAttribute(RestlightEvents.ROUTE_ATTR));
+    }
+
+    @Test
+    void testRecording() throws Exception {
+        final Path file = Files.createTempFile("restlight", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                for (Phase phase : Phase.values()) {
+                    recording.enable(phase.eventName()).withoutThreshold();
+                }
+                // disabled event types should not be created
+                recording.disable(Phase.SERIALIZATION.eventName());
+                recording.start();
+                assertTrue(RestlightEvents.isRecording());
+
+                final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                        .withMethod(HttpMethod.POST.name())
+                        .withUri("/foo/1")
+                        .build();
+                final Span routing = RestlightEvents.begin(Phase.ROUTING);
+                RestlightEvents.markRoute(request, Route.route(Mapping.post("/foo/{id}")));
+                routing.finish(request);
+                RestlightEvents.begin(Phase.HANDLER_INVOCATION).finish(request);
+                assertSame(Span.NOOP, RestlightEvents.begin(Phase.SERIALIZATION));
+
+                recording.stop();
+                assertFalse(RestlightEvents.isRecording());
+                recording.dump(file);
+            }
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("esa.restlight."))
+                    .collect(Collectors.toList());
+            assertEquals(2, events.size());
+            assertEquals(Phase.ROUTING.eventName(), events.get(0).getEventType().getName());
+            assertEquals(Phase.HANDLER_INVOCATION.eventName(), events.get(1).getEventType().getName());
+            for (RecordedEvent event : events) {
+                assertEquals("POST", event.getString("method"));
+                assertEquals("/foo/1", event.getString("path"));
+                assertEquals("/foo/{id}", event.getString("route"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
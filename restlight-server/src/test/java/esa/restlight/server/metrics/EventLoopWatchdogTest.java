@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.restlight.server.config.WatchdogOptions;
+import esa.restlight.server.config.WatchdogOptionsConfigure;
+import esa.restlight.server.route.Route;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class EventLoopWatchdogTest {
+
+    @Test
+    void testIllegalOptions() {
+        assertThrows(NullPointerException.class, () -> new EventLoopWatchdog(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventLoopWatchdog(WatchdogOptionsConfigure.newOpts().intervalMillis(0L).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventLoopWatchdog(WatchdogOptionsConfigure.newOpts().thresholdMillis(0L).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventLoopWatchdog(WatchdogOptionsConfigure.newOpts().maxEvents(-1).configured()));
+    }
+
+    @Test
+    void testStartWithNonEventLoop() {
+        final EventLoopWatchdog watchdog = new EventLoopWatchdog(new WatchdogOptions());
+        watchdog.start(Executors.newSingleThreadExecutor());
+        assertFalse(watchdog.isRunning());
+        assertTrue(watchdog.probes().isEmpty());
+    }
+
+    @Test
+    void testEnterAndExitOutsideEventLoop() {
+        // nothing happens on the non-watched thread.
+        EventLoopWatchdog.enter(mock(Route.class));
+        EventLoopWatchdog.exit();
+    }
+
+    @Test
+    void testDetectBlocking() throws Exception {
+        final WatchdogOptions options = WatchdogOptionsConfigure.newOpts()
+                .enable(true)
+                .intervalMillis(5L)
+                .thresholdMillis(50L)
+                .maxEvents(1)
+                .configured();
+        final EventLoopWatchdog watchdog = new EventLoopWatchdog(options);
+        final DefaultEventLoopGroup group = new DefaultEventLoopGroup(2);
+        try {
+            watchdog.start(group);
+            assertTrue(watchdog.isRunning());
+            assertEquals(2, watchdog.probes().size());
+            final EventLoopWatchdog.Probe probe = watchdog.probes().get(0);
+            waitUntil(() -> probe.threadName() != null);
+            assertEquals(0L, watchdog.blockedCount());
+
+            final Route route = mock(Route.class);
+            for (int i = 0; i < 2; i++) {
+                // block the first event loop while handling the route.
+                group.iterator().next().submit(() -> {
+                    EventLoopWatchdog.enter(route);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(300L);
+                    } finally {
+                        EventLoopWatchdog.exit();
+                    }
+                    return null;
+                }).get();
+            }
+
+            waitUntil(() -> watchdog.blockedCount() >= 2L);
+            assertEquals(2L, probe.blockedCount());
+            assertEquals(0L, watchdog.probes().get(1).blockedCount());
+            assertTrue(probe.latency().max() >= TimeUnit.MILLISECONDS.toMicros(50L));
+
+            final List<EventLoopWatchdog.BlockedEvent> events = watchdog.recentEvents();
+            // limited by max events
+            assertEquals(1, events.size());
+            final EventLoopWatchdog.BlockedEvent event = events.get(0);
+            assertEquals(probe.threadName(), event.threadName());
+            assertEquals(route.toString(), event.route());
+            assertTrue(event.blockedMillis() >= 50L);
+            assertTrue(Arrays.stream(event.stackTrace()).anyMatch(e -> "sleep".equals(e.getMethodName())));
+
+            // not attributed to any route after exit.
+            group.iterator().next().submit(() -> {
+                TimeUnit.MILLISECONDS.sleep(300L);
+                return null;
+            }).get();
+            waitUntil(() -> watchdog.blockedCount() >= 3L);
+            assertNull(watchdog.recentEvents().get(0).route());
+        } finally {
+            group.shutdownGracefully(0L, 0L, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+        // stops automatically after the event loops have been shutdown
+        waitUntil(() -> !watchdog.isRunning());
+        watchdog.stop();
+        assertFalse(watchdog.isRunning());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timeout");
+            TimeUnit.MILLISECONDS.sleep(5L);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(0L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(1L, 0L));
+    }
+
+    @Test
+    void testIndex() {
+        for (long v = 0L; v < 32L; v++) {
+            assertEquals(v, Histogram.indexOf(v));
+            assertEquals(v, Histogram.highestEquivalentValue((int) v));
+        }
+        long last = -1L;
+        for (long v = 0L; v < 1_000_000L; v++) {
+            final int index = Histogram.indexOf(v);
+            final long highest = Histogram.highestEquivalentValue(index);
+            assertTrue(highest >= v);
+            // relative error
+            assertTrue(highest - v <= v / 16L);
+            if (index > 0) {
+                assertTrue(Histogram.highestEquivalentValue(index - 1) < v);
+            }
+            assertTrue(highest >= last);
+            last = highest;
+        }
+        final int index = Histogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, Histogram.highestEquivalentValue(index));
+    }
+
+    @Test
+    void testRecord() {
+        final Histogram histogram = new Histogram(10_000L, 1000L);
+        assertEquals(0L, histogram.valueAtPercentile(0.99D));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1L);
+        histogram.record(20_000L);
+
+        assertEquals(102L, histogram.count());
+        assertEquals(5050L + 10_000L, histogram.totalAmount());
+        assertEquals(10_000L, histogram.max());
+        assertEquals(0L, histogram.valueAtPercentile(0D));
+        assertEquals(10_000L, histogram.valueAtPercentile(1D));
+        final long p50 = histogram.valueAtPercentile(0.5D);
+        assertTrue(p50 >= 50L && p50 <= 53L);
+        final long p90 = histogram.valueAtPercentile(0.9D);
+        assertTrue(p90 >= 90L && p90 <= 95L);
+    }
+
+    @Test
+    void testWindow() {
+        final AtomicLong now = new AtomicLong();
+        final Histogram histogram = new Histogram(10_000L, 1000L, now::get);
+        histogram.record(100L);
+        assertEquals(100L, histogram.valueAtPercentile(0.5D), 100L / 16L);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000L));
+        // rotated when reading
+        assertEquals(100L, histogram.valueAtPercentile(0.5D), 100L / 16L);
+        histogram.record(10L);
+        histogram.record(10L);
+        histogram.record(10L);
+        // values in last window are still counted.
+        assertEquals(10L, histogram.valueAtPercentile(0.5D));
+        assertEquals(100L, histogram.valueAtPercentile(1D), 100L / 16L);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000L));
+        // values recorded before the last window are dropped.
+        assertEquals(10L, histogram.valueAtPercentile(1D));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000L));
+        assertEquals(0L, histogram.valueAtPercentile(1D));
+        // cumulative values
+        assertEquals(4L, histogram.count());
+        assertEquals(130L, histogram.totalAmount());
+        assertEquals(100L, histogram.max());
+    }
+}
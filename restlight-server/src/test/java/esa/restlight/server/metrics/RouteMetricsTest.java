@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.MetricsOptionsConfigure;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteMetricsTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(NullPointerException.class, () -> new RouteMetrics(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteMetrics(MetricsOptionsConfigure.newOpts().windowSeconds(0).configured()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteMetrics(MetricsOptionsConfigure.newOpts().maxLatencyMillis(0L).configured()));
+    }
+
+    @Test
+    void testInitAndRecord() {
+        final RouteMetrics metrics = new RouteMetrics(MetricsOptionsConfigure.defaultOpts());
+        final Route foo = Route.route(Mapping.get("/foo"));
+        final Route bar = Route.route(Mapping.post("/bar"));
+        assertTrue(metrics.recorders().isEmpty());
+        assertNull(metrics.recorder(foo));
+
+        metrics.init(Arrays.asList(foo, bar));
+        assertEquals(2, metrics.recorders().size());
+        final RouteRecorder fooRecorder = metrics.recorder(foo);
+        assertSame(metrics.recorders().get(0), fooRecorder);
+        assertEquals(0, fooRecorder.index());
+        assertSame(foo.mapping(), fooRecorder.mapping());
+        assertEquals(1, metrics.recorder(bar).index());
+        // located by the identity of mapping
+        assertSame(fooRecorder, metrics.recorder(Route.route(foo)));
+        assertNull(metrics.recorder(Route.route(Mapping.get("/foo"))));
+
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().withBody(new byte[10]).build();
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        response.sendResult(new byte[20]);
+        final long queuedAt = 0L;
+        final long startAt = TimeUnit.MILLISECONDS.toNanos(1L);
+        final long endAt = TimeUnit.MILLISECONDS.toNanos(3L);
+        fooRecorder.record(request, response, queuedAt, startAt, endAt);
+
+        assertEquals(1L, fooRecorder.queueWait().count());
+        assertEquals(1000L, fooRecorder.queueWait().totalAmount());
+        assertEquals(2000L, fooRecorder.handle().totalAmount());
+        assertEquals(3000L, fooRecorder.total().totalAmount());
+        assertEquals(10L, fooRecorder.requestSize().totalAmount());
+        assertEquals(20L, fooRecorder.responseSize().totalAmount());
+        assertEquals(0L, metrics.recorder(bar).total().count());
+    }
+
+    @Test
+    void testUnknownSizeIsNotRecorded() {
+        final RouteMetrics metrics = new RouteMetrics(MetricsOptionsConfigure.defaultOpts());
+        final Route foo = Route.route(Mapping.get("/foo"));
+        metrics.init(Collections.singletonList(foo));
+        final RouteRecorder recorder = metrics.recorder(foo);
+
+        final AsyncRequest request = mock(AsyncRequest.class);
+        when(request.contentLength()).thenReturn(-1);
+        final AsyncResponse response = mock(AsyncResponse.class);
+        when(response.bodyLength()).thenReturn(-1L);
+        recorder.record(request, response, 0L, 1L, 2L);
+
+        assertEquals(1L, recorder.total().count());
+        assertEquals(0L, recorder.requestSize().count());
+        assertEquals(0L, recorder.responseSize().count());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.metrics;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.config.ServerTimingOptions;
+import esa.restlight.server.config.ServerTimingOptionsConfigure;
+import esa.restlight.server.jfr.Phase;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingTest {
+
+    @Test
+    void testTriggerDisabled() {
+        assertNull(ServerTiming.trigger(null));
+        assertNull(ServerTiming.trigger(ServerTimingOptionsConfigure.defaultOpts()));
+        assertNull(ServerTiming.trigger(ServerTimingOptionsConfigure.newOpts()
+                .enable(true)
+                .configured()));
+        assertNull(ServerTiming.trigger(ServerTimingOptionsConfigure.newOpts()
+                .enable(true)
+                .header(null)
+                .tokens(Collections.singletonList("foo"))
+                .configured()));
+    }
+
+    @Test
+    void testStart() {
+        final ServerTimingOptions options = ServerTimingOptionsConfigure.newOpts()
+                .enable(true)
+                .header("X-Timing")
+                .tokens(Arrays.asList("foo", "bar"))
+                .configured();
+        final ServerTiming.Trigger trigger = ServerTiming.trigger(options);
+        assertNotNull(trigger);
+
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        final AsyncRequest absent = MockAsyncRequest.aMockRequest().build();
+        assertSame(response, trigger.start(absent, response));
+        assertNull(ServerTiming.get(response));
+
+        final AsyncRequest illegal = MockAsyncRequest.aMockRequest().withHeader("X-Timing", "baz").build();
+        assertSame(response, trigger.start(illegal, response));
+
+        final AsyncRequest request = MockAsyncRequest.aMockRequest().withHeader("X-Timing", "bar").build();
+        final AsyncResponse timed = trigger.start(request, response);
+        assertNotSame(response, timed);
+        assertNotNull(ServerTiming.get(timed));
+        // started only once
+        assertSame(timed, trigger.start(request, timed));
+    }
+
+    @Test
+    void testWrittenBeforeCommit() {
+        final ServerTiming.Trigger trigger = ServerTiming.trigger(ServerTimingOptionsConfigure.newOpts()
+                .enable(true)
+                .tokens(Collections.singletonList("foo"))
+                .configured());
+        assertNotNull(trigger);
+        final AsyncRequest request = MockAsyncRequest.aMockRequest()
+                .withHeader("X-Restlight-Server-Timing", "foo")
+                .build();
+
+        // such as the response of the exception handler
+        final MockAsyncResponse error = MockAsyncResponse.aMockResponse().build();
+        trigger.start(request, error).sendResult(500, "error".getBytes(StandardCharsets.UTF_8));
+        assertTrue(error.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+
+        // such as a 304 or 404 response
+        final MockAsyncResponse empty = MockAsyncResponse.aMockResponse().build();
+        trigger.start(request, empty).sendResult(304);
+        assertTrue(empty.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+
+        // such as the result written by the serializer
+        final MockAsyncResponse stream = MockAsyncResponse.aMockResponse().build();
+        final AsyncResponse timed = trigger.start(request, stream);
+        timed.outputStream();
+        assertTrue(stream.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+        assertEquals(stream.status(), timed.status());
+        timed.setHeader("foo", "bar");
+        assertEquals("bar", stream.getHeader("foo"));
+    }
+
+    @Test
+    void testPhases() throws InterruptedException {
+        final ServerTiming timing = new ServerTiming(System.nanoTime());
+        timing.begin(Phase.ROUTING);
+        Thread.sleep(2L);
+        timing.end(Phase.ROUTING);
+        assertTrue(timing.duration(Phase.ROUTING) >= 2_000_000L);
+
+        // end without begin is ignored
+        timing.end(Phase.SERIALIZATION);
+        assertEquals(0L, timing.duration(Phase.SERIALIZATION));
+
+        // accumulated
+        final long routing = timing.duration(Phase.ROUTING);
+        timing.begin(Phase.ROUTING);
+        timing.end(Phase.ROUTING);
+        assertTrue(timing.duration(Phase.ROUTING) >= routing);
+    }
+
+    @Test
+    void testFormat() {
+        final ServerTiming timing = new ServerTiming(0L);
+        assertEquals("total;dur=1.002", timing.format(1_002_345L));
+
+        timing.begin(Phase.HANDLER_INVOCATION);
+        timing.end(Phase.HANDLER_INVOCATION);
+        final String value = timing.format(25_050_000L);
+        assertTrue(value.startsWith("handler;dur="));
+        assertTrue(value.endsWith(", total;dur=25.050"));
+    }
+
+    @Test
+    void testWriteTo() {
+        final ServerTiming timing = new ServerTiming(System.nanoTime());
+        final AsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        timing.writeTo(response);
+        assertTrue(response.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+
+        final AsyncResponse committed = MockAsyncResponse.aMockResponse().build();
+        committed.sendResult();
+        timing.writeTo(committed);
+        assertNull(committed.getHeader(ServerTiming.HEADER));
+    }
+
+}
@@ -15,7 +15,34 @@
  */
 package esa.restlight.server.route.impl;
 
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteHitStatistics;
+import esa.restlight.server.route.RouteHits;
 import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.util.Futures;
+import esa.restlight.server.warmup.WarmUp;
+import esa.restlight.server.warmup.WarmUpSample;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class CachedRouteRegistryTest extends DefaultRouteRegistryTest {
 
@@ -24,4 +51,61 @@ public class CachedRouteRegistryTest extends DefaultRouteRegistryTest {
         return new CachedRouteRegistry(1000);
     }
 
+    @Test
+    void testHitStatistics() {
+        final RouteRegistry registry = buildMapperRegistry();
+        registry.registerRoute(route(get("/foo")));
+        registry.registerRoute(route(get("/bar/{bar}")));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        assertTrue(readOnly instanceof RouteHitStatistics);
+        final RouteHitStatistics statistics = (RouteHitStatistics) readOnly;
+        assertEquals(1000, statistics.computeRate());
+        assertEquals(0L, statistics.computeCount());
+        assertEquals(0L, statistics.notFoundCount());
+        List<RouteHits> hits = statistics.hits();
+        assertEquals(2, hits.size());
+        assertEquals("/foo", hits.get(0).route().mapping().path()[0]);
+        assertEquals(0, hits.get(0).order());
+        assertEquals(1, hits.get(1).order());
+
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/bar/1").build());
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/bar/2").build());
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/baz").build());
+
+        assertEquals(2L, statistics.computeCount());
+        assertEquals(1L, statistics.notFoundCount());
+        hits = statistics.hits();
+        final RouteHits bar = hits.get(0);
+        assertEquals("/bar/{bar}", bar.route().mapping().path()[0]);
+        assertEquals(0, bar.order());
+        assertEquals(2L, bar.totalHits());
+        final RouteHits foo = hits.get(1);
+        assertEquals(1, foo.order());
+        assertEquals(0L, foo.totalHits());
+
+        // values are live
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/foo").build());
+        assertEquals(3L, statistics.computeCount());
+        assertEquals(0, foo.order());
+        assertEquals(1, bar.order());
+        assertEquals(1L, foo.totalHits());
+        assertSame(foo, statistics.hits().get(0));
+
+        // warm-up requests are not counted
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        final List<Route> warmUpRoutes = new ArrayList<>();
+        when(handler.process(any(), any())).then(mock -> {
+            warmUpRoutes.add(readOnly.route(mock.getArgument(0)));
+            mock.getArgument(1, AsyncResponse.class).sendResult(200);
+            return Futures.completedFuture();
+        });
+        new WarmUp(Arrays.asList(new WarmUpSample("GET", "/bar/3"), new WarmUpSample("GET", "/baz")),
+                false, 1, 0L, 10_000L).run(handler);
+        assertEquals(2, warmUpRoutes.size());
+        assertNotNull(warmUpRoutes.get(0));
+        assertNull(warmUpRoutes.get(1));
+        assertEquals(2L, bar.totalHits());
+        assertEquals(1L, statistics.notFoundCount());
+    }
+
 }
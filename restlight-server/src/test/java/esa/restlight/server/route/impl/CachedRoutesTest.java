@@ -49,6 +49,13 @@ class CachedRoutesTest {
         routes.hit(r1);
         assertEquals(r1, routes.lookup()[0]);
         assertEquals(r2, routes.lookup()[1]);
+        assertEquals(0, r1.order());
+        assertEquals(1, r2.order());
+        assertEquals(2, r0.order());
+        assertEquals(3L, routes.computeCount());
+        assertEquals(2L, r1.totalHits());
+        assertEquals(1L, r2.totalHits());
+        assertEquals(0L, r0.totalHits());
     }
 
 }
@@ -22,7 +22,9 @@ import esa.restlight.test.mock.MockAsyncRequest;
 import org.junit.jupiter.api.Test;
 
 import static esa.restlight.server.route.Mapping.get;
+import static esa.restlight.server.route.Mapping.post;
 import static esa.restlight.server.route.Route.route;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -59,4 +61,20 @@ public class DefaultRouteRegistryTest {
         assertNotNull(route1);
     }
 
+    @Test
+    void testAmbiguousWith() {
+        final AbstractRouteRegistry registry = (AbstractRouteRegistry) buildMapperRegistry();
+        registry.registerRoute(route(get("/foo")));
+        registry.registerRoute(route(get("/foo/{id}")));
+        registry.registerRoute(route(get("/api/a")));
+
+        assertEquals(1, registry.ambiguousWith(route(get("/foo"))).size());
+        assertEquals(0, registry.ambiguousWith(route(post("/foo"))).size());
+        assertEquals(1, registry.ambiguousWith(route(get("/foo/bar"))).size());
+        assertEquals(0, registry.ambiguousWith(route(get("/api/b"))).size());
+        assertEquals(0, registry.ambiguousWith(route(get("/bar"))).size());
+        assertEquals(1, registry.ambiguousWith(route(get("/api/**"))).size());
+        assertEquals(3, registry.ambiguousWith(route(get("/**"))).size());
+    }
+
 }
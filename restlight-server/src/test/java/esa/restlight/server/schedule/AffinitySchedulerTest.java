@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import esa.restlight.server.bootstrap.RestlightThreadFactory;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AffinitySchedulerTest {
+
+    private static final BiConsumer<Runnable, String> NOOP = (r, reason) -> {
+    };
+
+    @Test
+    void testIllegalArguments() {
+        final RestlightThreadFactory factory = new RestlightThreadFactory("test");
+        assertThrows(IllegalArgumentException.class,
+                () -> new AffinityScheduler("", 1, 1, 1, factory, NOOP));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AffinityScheduler("foo", 0, 1, 1, factory, NOOP));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AffinityScheduler("foo", 1, 0, 1, factory, NOOP));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AffinityScheduler("foo", 1, 1, 0, factory, NOOP));
+    }
+
+    @Test
+    void testTasksOfALoopAreExecutedBySameWorker() throws InterruptedException {
+        final AffinityScheduler scheduler = newScheduler(1, 16, 2, NOOP);
+        try {
+            final List<Thread> loop0 = scheduleFrom(scheduler, 8);
+            final List<Thread> loop1 = scheduleFrom(scheduler, 8);
+
+            assertEquals(1, loop0.stream().distinct().count());
+            assertEquals(1, loop1.stream().distinct().count());
+            assertNotSame(loop0.get(0), loop1.get(0));
+            assertEquals(2, scheduler.boundLoops());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testThreadsBeyondMaxLoopsAreDispatchedToBoundWorkers() throws InterruptedException {
+        final AffinityScheduler scheduler = newScheduler(1, 16, 1, NOOP);
+        try {
+            final List<Thread> loop0 = scheduleFrom(scheduler, 4);
+            final List<Thread> loop1 = scheduleFrom(scheduler, 4);
+
+            assertEquals(1, scheduler.boundLoops());
+            assertEquals(1, loop1.stream().distinct().count());
+            assertSame(loop0.get(0), loop1.get(0));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testForeignThreadsAreNotBound() throws Exception {
+        final AffinityScheduler scheduler = newScheduler(1, 16, 2, NOOP);
+        final EventLoop loop0 = new DefaultEventLoop();
+        final EventLoop loop1 = new DefaultEventLoop();
+        try {
+            // such as the warm-up thread which schedules before any IO event loop.
+            final List<Thread> foreign = scheduleFrom(scheduler, 4, r -> new Thread(r).start());
+            assertEquals(1, foreign.stream().distinct().count());
+            assertEquals(0, scheduler.boundLoops());
+
+            final List<Thread> workers0 = scheduleFrom(scheduler, 4, loop0);
+            final List<Thread> workers1 = scheduleFrom(scheduler, 4, loop1);
+            assertEquals(2, scheduler.boundLoops());
+            assertEquals(1, workers0.stream().distinct().count());
+            assertEquals(1, workers1.stream().distinct().count());
+            assertNotSame(workers0.get(0), workers1.get(0));
+            assertNotSame(foreign.get(0), workers0.get(0));
+            assertNotSame(foreign.get(0), workers1.get(0));
+
+            // foreign threads are dispatched to the bound workers since then.
+            final List<Thread> dispatched = scheduleFrom(scheduler, 4, r -> new Thread(r).start());
+            assertEquals(2, scheduler.boundLoops());
+            assertTrue(dispatched.stream().allMatch(t -> t == workers0.get(0) || t == workers1.get(0)));
+        } finally {
+            scheduler.shutdown();
+            loop0.shutdownGracefully();
+            loop1.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void testRequestsOfAConnectionAreExecutedBySameWorker() throws InterruptedException {
+        final AffinityScheduler scheduler = newScheduler(4, 16, 1, NOOP);
+        try {
+            final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+            final CountDownLatch latch = new CountDownLatch(8);
+            for (int i = 0; i < 8; i++) {
+                scheduler.schedule(newTask("127.0.0.1", 8080, () -> {
+                    workers.add(Thread.currentThread());
+                    latch.countDown();
+                }));
+            }
+            assertTrue(latch.await(5L, TimeUnit.SECONDS));
+            assertEquals(1, workers.size());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testTasksScheduledByWorkerAreSentBackToItself() throws InterruptedException {
+        final AffinityScheduler scheduler = newScheduler(1, 16, 1, NOOP);
+        try {
+            final AtomicReference<Thread> parent = new AtomicReference<>();
+            final AtomicReference<Thread> child = new AtomicReference<>();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Thread loop = new Thread(() -> scheduler.schedule(() -> {
+                parent.set(Thread.currentThread());
+                scheduler.schedule(() -> {
+                    child.set(Thread.currentThread());
+                    latch.countDown();
+                });
+            }));
+            loop.start();
+            loop.join();
+            assertTrue(latch.await(5L, TimeUnit.SECONDS));
+            assertSame(parent.get(), child.get());
+            assertEquals(0, scheduler.boundLoops());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testRejectWhenQueueIsFull() throws InterruptedException {
+        final AtomicReference<String> rejected = new AtomicReference<>();
+        final AffinityScheduler scheduler = newScheduler(1, 2, 1, (r, reason) -> rejected.set(reason));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        try {
+            scheduler.schedule(() -> {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(5L, TimeUnit.SECONDS));
+            scheduler.schedule(() -> {
+            });
+            scheduler.schedule(() -> {
+            });
+            assertNull(rejected.get());
+            scheduler.schedule(() -> {
+            });
+            assertEquals("Rejected by scheduler(foo), size of queue: 2", rejected.get());
+        } finally {
+            blocker.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void testShutdown() throws InterruptedException {
+        final AtomicReference<String> rejected = new AtomicReference<>();
+        final AffinityScheduler scheduler = newScheduler(1, 16, 1, (r, reason) -> rejected.set(reason));
+        final Thread worker = scheduleFrom(scheduler, 1).get(0);
+        scheduler.shutdown();
+        worker.join(5000L);
+        assertFalse(worker.isAlive());
+
+        scheduler.schedule(() -> {
+        });
+        assertEquals("Scheduler(foo) has been shutdown", rejected.get());
+    }
+
+    @Test
+    void testRing() {
+        final AffinityScheduler.Ring ring = new AffinityScheduler.Ring(3);
+        assertTrue(ring.isEmpty());
+        assertNull(ring.poll());
+        final Runnable r = () -> {
+        };
+        for (int round = 0; round < 3; round++) {
+            // capacity is rounded up to 4
+            for (int i = 0; i < 4; i++) {
+                assertTrue(ring.offer(r));
+            }
+            assertFalse(ring.offer(r));
+            assertFalse(ring.isEmpty());
+            for (int i = 0; i < 4; i++) {
+                assertSame(r, ring.poll());
+            }
+            assertTrue(ring.isEmpty());
+            assertNull(ring.poll());
+        }
+    }
+
+    private static AffinityScheduler newScheduler(int workersPerLoop,
+                                                  int queueCapacity,
+                                                  int maxLoops,
+                                                  BiConsumer<Runnable, String> rejectHandler) {
+        return new AffinityScheduler("foo",
+                workersPerLoop,
+                queueCapacity,
+                maxLoops,
+                new RestlightThreadFactory("test"),
+                rejectHandler);
+    }
+
+    /**
+     * Schedules the given count of tasks from a new event loop and returns the threads which executed them.
+     */
+    private static List<Thread> scheduleFrom(Scheduler scheduler, int count) throws InterruptedException {
+        final EventLoop loop = new DefaultEventLoop();
+        try {
+            return scheduleFrom(scheduler, count, loop);
+        } finally {
+            loop.shutdownGracefully();
+        }
+    }
+
+    /**
+     * Schedules the given count of tasks by the given executor and returns the threads which executed them.
+     */
+    private static List<Thread> scheduleFrom(Scheduler scheduler,
+                                             int count,
+                                             Executor executor) throws InterruptedException {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(count);
+        final CountDownLatch scheduled = new CountDownLatch(1);
+        executor.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                scheduler.schedule(() -> {
+                    threads.add(Thread.currentThread());
+                    latch.countDown();
+                });
+            }
+            scheduled.countDown();
+        });
+        assertTrue(scheduled.await(5L, TimeUnit.SECONDS));
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        return threads;
+    }
+
+    private static RequestTask newTask(String remoteAddr, int remotePort, Runnable runnable) {
+        return RequestTaskImpl.newRequestTask(MockAsyncRequest.aMockRequest()
+                        .withRemoteAddr(remoteAddr)
+                        .withRemotePort(remotePort)
+                        .build(),
+                MockAsyncResponse.aMockResponse().build(),
+                new CompletableFuture<>(),
+                runnable);
+    }
+}
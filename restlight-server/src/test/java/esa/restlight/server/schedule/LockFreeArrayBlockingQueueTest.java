@@ -0,0 +1,232 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockFreeArrayBlockingQueueTest {
+
+    @Test
+    void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new LockFreeArrayBlockingQueue<>(0));
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(1);
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(queue));
+    }
+
+    @Test
+    void testOfferAndPoll() {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(3);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+        for (int round = 0; round < 4; round++) {
+            assertEquals(3, queue.remainingCapacity());
+            assertTrue(queue.offer(1));
+            assertTrue(queue.offer(2));
+            assertTrue(queue.offer(3));
+            // capacity is exactly the given one
+            assertFalse(queue.offer(4));
+            assertEquals(3, queue.size());
+            assertEquals(0, queue.remainingCapacity());
+            assertEquals(1, queue.peek());
+            assertEquals(1, queue.poll());
+            assertEquals(2, queue.poll());
+            assertEquals(3, queue.poll());
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    void testIteratorAndDrain() {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(4);
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+        assertFalse(queue.remove(2));
+
+        final Iterator<Integer> it = queue.iterator();
+        assertEquals(1, it.next());
+        assertThrows(UnsupportedOperationException.class, it::remove);
+        assertEquals(3, queue.toArray().length);
+        assertTrue(queue.contains(3));
+
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(1, queue.drainTo(drained));
+        assertEquals(3, drained.size());
+        assertEquals(3, drained.get(2));
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.iterator().hasNext());
+    }
+
+    @Test
+    void testTimedOfferAndPoll() throws InterruptedException {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(1);
+        assertNull(queue.poll(10L, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer(1, 10L, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer(2, 10L, TimeUnit.MILLISECONDS));
+        assertEquals(1, queue.poll(10L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testTakeIsWokenByOffer() throws InterruptedException {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(1);
+        final AtomicReference<Integer> taken = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(50L);
+        queue.put(1);
+        consumer.join(5000L);
+        assertEquals(1, taken.get());
+    }
+
+    @Test
+    void testPutIsBlockedUntilNotFull() throws InterruptedException {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(1);
+        queue.put(1);
+        final Thread producer = new Thread(() -> {
+            try {
+                queue.put(2);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(50L);
+        assertTrue(producer.isAlive());
+        assertEquals(1, queue.take());
+        producer.join(5000L);
+        assertEquals(2, queue.take());
+    }
+
+    @Test
+    void testTakeIsInterrupted() throws InterruptedException {
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<>(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        consumer.start();
+        Thread.sleep(50L);
+        consumer.interrupt();
+        consumer.join(5000L);
+        assertTrue(error.get() instanceof InterruptedException);
+    }
+
+    @Test
+    void testMultiProducersAndConsumers() throws InterruptedException {
+        final int producers = 4;
+        final int consumers = 4;
+        final int perProducer = 20_000;
+        final LockFreeArrayBlockingQueue<Long> queue = new LockFreeArrayBlockingQueue<>(64);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(producers * perProducer);
+        final List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            final Thread consumer = new Thread(() -> {
+                try {
+                    for (; ; ) {
+                        final Long v = queue.take();
+                        sum.addAndGet(v);
+                        count.incrementAndGet();
+                        done.countDown();
+                    }
+                } catch (InterruptedException ignored) {
+                    // exit
+                }
+            });
+            consumer.start();
+            threads.add(consumer);
+        }
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (long i = 1; i <= perProducer; i++) {
+                    while (!queue.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }).start();
+        }
+        assertTrue(done.await(30L, TimeUnit.SECONDS));
+        threads.forEach(Thread::interrupt);
+        assertEquals(producers * perProducer, count.get());
+        assertEquals((long) producers * perProducer * (perProducer + 1) / 2, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testAsWorkQueueOfThreadPoolExecutor() throws InterruptedException {
+        final AtomicInteger rejected = new AtomicInteger();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 2, 1L, TimeUnit.SECONDS,
+                new LockFreeArrayBlockingQueue<>(2), (r, e) -> rejected.incrementAndGet());
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(4);
+        final Runnable blocked = () -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        };
+        // core thread
+        pool.execute(blocked);
+        // queued
+        pool.execute(blocked);
+        pool.execute(blocked);
+        // max thread
+        pool.execute(blocked);
+        assertEquals(2, pool.getPoolSize());
+        // rejected because both of the queue and the pool are full
+        pool.execute(blocked);
+        assertEquals(1, rejected.get());
+
+        blocker.countDown();
+        assertTrue(finished.await(5L, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5L, TimeUnit.SECONDS));
+    }
+}
@@ -18,16 +18,27 @@ package esa.restlight.server.schedule;
 import esa.httpserver.core.AsyncRequest;
 import esa.httpserver.core.AsyncResponse;
 import esa.restlight.server.bootstrap.DispatcherHandler;
+import esa.restlight.server.cache.CachePolicy;
+import esa.restlight.server.cache.ResponseCache;
+import esa.restlight.server.config.MetricsOptionsConfigure;
+import esa.restlight.server.config.ResponseCacheOptionsConfigure;
 import esa.restlight.server.config.ServerOptionsConfigure;
+import esa.restlight.server.config.ServerTimingOptionsConfigure;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteRecorder;
+import esa.restlight.server.metrics.ServerTiming;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.route.Route;
 import esa.restlight.server.util.LoggerUtils;
 import esa.restlight.server.util.PromiseUtils;
+import esa.restlight.server.warmup.WarmUp;
+import esa.restlight.server.warmup.WarmUpSample;
 import esa.restlight.test.mock.MockAsyncRequest;
 import esa.restlight.test.mock.MockAsyncResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -39,10 +50,13 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static esa.restlight.server.route.Mapping.get;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ScheduledRestlightHandlerTest {
@@ -144,6 +158,118 @@ class ScheduledRestlightHandlerTest {
         assertEquals(HttpResponseStatus.NO_CONTENT.code(), res2.status());
     }
 
+    @Test
+    void testServerTimingOfNotFound() {
+        final ForRouteAssertion handler = new ForRouteAssertion();
+        handler.found = false;
+        final ScheduledRestlightHandler scheduled = new ScheduledRestlightHandler(ServerOptionsConfigure.newOpts()
+                .serverTiming(ServerTimingOptionsConfigure.newOpts()
+                        .enable(true)
+                        .tokens(Collections.singletonList("foo"))
+                        .configured())
+                .configured(), handler);
+        scheduled.onStart();
+        final AsyncRequest req = MockAsyncRequest.aMockRequest()
+                .withHeader("X-Restlight-Server-Timing", "foo")
+                .build();
+        final AsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        scheduled.process(req, res).join();
+        assertEquals(HttpResponseStatus.NOT_FOUND.code(), res.status());
+        assertTrue(res.getHeader(ServerTiming.HEADER).contains("total;dur="));
+
+        final AsyncResponse absent = MockAsyncResponse.aMockResponse().build();
+        scheduled.process(MockAsyncRequest.aMockRequest().build(), absent).join();
+        assertNull(absent.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    void testRouteMetrics() {
+        final ForRouteAssertion handler = new ForRouteAssertion();
+        final RouteMetrics metrics = new RouteMetrics(MetricsOptionsConfigure.newOpts().enable(true).configured());
+        final ScheduledRestlightHandler scheduled =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), handler, null, metrics);
+        scheduled.onStart();
+        assertEquals(1, metrics.recorders().size());
+
+        final AsyncRequest req = MockAsyncRequest.aMockRequest().withBody(new byte[8]).build();
+        final AsyncResponse res = MockAsyncResponse.aMockResponse().build();
+        scheduled.process(req, res).join();
+        final RouteRecorder recorder = metrics.recorders().get(0);
+        assertEquals(1L, recorder.total().count());
+        assertEquals(1L, recorder.queueWait().count());
+        assertEquals(1L, recorder.handle().count());
+        assertEquals(8L, recorder.requestSize().totalAmount());
+        assertEquals(0L, recorder.responseSize().totalAmount());
+
+        // warm-up
+        assertEquals(1L, new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/")),
+                false, 1, 0L, 10_000L).run(scheduled).requests());
+        assertEquals(1L, recorder.total().count());
+
+        handler.found = false;
+        scheduled.process(MockAsyncRequest.aMockRequest().build(), MockAsyncResponse.aMockResponse().build()).join();
+        // not found
+        assertEquals(1L, recorder.total().count());
+    }
+
+    @Test
+    void testResponseCache() {
+        final AtomicInteger serviced = new AtomicInteger();
+        final ForRouteAssertion handler = new ForRouteAssertion() {
+            @Override
+            public void service(AsyncRequest request, AsyncResponse response, CompletableFuture<Void> promise,
+                                Route route) {
+                serviced.incrementAndGet();
+                final byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+                ResponseCache.onResult(request, response, body);
+                response.sendResult(body);
+                promise.complete(null);
+            }
+        };
+        final CachePolicy policy = new CachePolicy() {
+            @Override
+            public String key(AsyncRequest request) {
+                return request.uri();
+            }
+
+            @Override
+            public long ttlMillis() {
+                return 60_000L;
+            }
+        };
+        final ResponseCache cache = new ResponseCache(ResponseCacheOptionsConfigure.newOpts()
+                .enable(true).configured(), r -> policy);
+        final ScheduledRestlightHandler scheduled =
+                new ScheduledRestlightHandler(ServerOptionsConfigure.defaultOpts(), handler, null, null, cache);
+        scheduled.onStart();
+
+        // warm-up requests neither hit nor populate the cache
+        assertEquals(1L, new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/foo")),
+                false, 1, 0L, 10_000L).run(scheduled).requests());
+        assertEquals(1, serviced.get());
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.misses());
+
+        final MockAsyncResponse res1 = MockAsyncResponse.aMockResponse().build();
+        scheduled.process(MockAsyncRequest.aMockRequest().withUri("/foo").build(), res1).join();
+        assertEquals(2, serviced.get());
+        assertEquals("hello", res1.getSentData().toString(StandardCharsets.UTF_8));
+
+        final MockAsyncResponse res2 = MockAsyncResponse.aMockResponse().build();
+        final CompletableFuture<Void> cf = scheduled.process(MockAsyncRequest.aMockRequest().withUri("/foo").build(),
+                res2);
+        assertTrue(cf.isDone());
+        assertEquals(2, serviced.get());
+        assertEquals(HttpResponseStatus.OK.code(), res2.status());
+        assertEquals("hello", res2.getSentData().toString(StandardCharsets.UTF_8));
+        assertEquals(1L, cache.hits());
+
+        scheduled.shutdown();
+        assertEquals(0, cache.size());
+        assertFalse(cache.serve(MockAsyncRequest.aMockRequest().withUri("/foo").build(),
+                MockAsyncResponse.aMockResponse().build(), handler.r));
+    }
+
     @Test
     void testRequestTaskHookWithFixedScheduler() {
         final AsyncRequest req1 = MockAsyncRequest.aMockRequest().build();
@@ -15,6 +15,7 @@
  */
 package esa.restlight.server.schedule;
 
+import esa.restlight.server.config.AffinityOptionsConfigure;
 import esa.restlight.server.config.TimeoutOptions;
 import esa.restlight.server.config.TimeoutOptionsConfigure;
 import org.junit.jupiter.api.Test;
@@ -80,6 +81,19 @@ class SchedulersTest {
         assertNotEquals(scheduler, scheduler1);
     }
 
+    @Test
+    void testAffinity() {
+        final Scheduler scheduler = Schedulers.affinity(AffinityOptionsConfigure.defaultOpts(), 1, (r, reason) -> {
+        });
+        assertEquals(Schedulers.AFFINITY, scheduler.name());
+        assertTrue(scheduler instanceof AffinityScheduler);
+        assertFalse(Schedulers.isBiz(scheduler));
+        assertTrue(Schedulers.isAffinity(scheduler));
+        assertTrue(Schedulers.isAffinity(Schedulers.affinity()));
+        assertFalse(Schedulers.isAffinity(Schedulers.biz()));
+        scheduler.shutdown();
+    }
+
     @Test
     void testWrapped() {
         final String name = "foo";
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetUtilsTest {
+
+    @Test
+    void testMatches() {
+        assertTrue(ConditionalGetUtils.matches("\"abc\"", "\"abc\""));
+        assertTrue(ConditionalGetUtils.matches("W/\"abc\"", "\"abc\""));
+        assertTrue(ConditionalGetUtils.matches("\"abc\"", "W/\"abc\""));
+        assertTrue(ConditionalGetUtils.matches("*", "W/\"abc\""));
+        assertTrue(ConditionalGetUtils.matches("\"foo\", W/\"abc\" ", "W/\"abc\""));
+        assertTrue(ConditionalGetUtils.matches(" \"foo\",\"abc\"", "\"abc\""));
+        assertFalse(ConditionalGetUtils.matches("\"abcd\"", "\"abc\""));
+        assertFalse(ConditionalGetUtils.matches("\"foo\", \"bar\"", "\"abc\""));
+        assertFalse(ConditionalGetUtils.matches("\"abc\"", null));
+        assertFalse(ConditionalGetUtils.matches("", "\"abc\""));
+    }
+
+    @Test
+    void testNotModifiedByIfModifiedSince() {
+        final long now = System.currentTimeMillis();
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        response.setHeader(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(now - 60_000L)));
+        assertTrue(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), DateFormatter.format(new Date(now)))
+                .build(), response));
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(),
+                        DateFormatter.format(new Date(now - 120_000L)))
+                .build(), response));
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), "illegal")
+                .build(), response));
+        // If-None-Match takes precedence over If-Modified-Since
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"foo\"")
+                .withHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), DateFormatter.format(new Date(now)))
+                .build(), response));
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest().build(), response));
+    }
+
+    @Test
+    void testNotModifiedByIfNoneMatch() {
+        final MockAsyncResponse response = MockAsyncResponse.aMockResponse().build();
+        response.setHeader(HttpHeaderNames.ETAG, "W/\"abc\"");
+        assertTrue(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"abc\"")
+                .build(), response));
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"foo\"")
+                .build(), response));
+        assertFalse(ConditionalGetUtils.notModified(MockAsyncRequest.aMockRequest()
+                .withHeader(HttpHeaderNames.IF_NONE_MATCH.toString(), "\"abc\"")
+                .build(), MockAsyncResponse.aMockResponse().build()));
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityHeadersTest {
+
+    @Test
+    void testIsEntityHeader() {
+        assertTrue(EntityHeaders.isEntityHeader(HttpHeaderNames.CONTENT_TYPE));
+        assertTrue(EntityHeaders.isEntityHeader("Content-Encoding"));
+        assertTrue(EntityHeaders.isEntityHeader("etag"));
+        assertTrue(EntityHeaders.isEntityHeader("LAST-MODIFIED"));
+        assertTrue(EntityHeaders.isEntityHeader("Cache-Control"));
+        assertFalse(EntityHeaders.isEntityHeader(HttpHeaderNames.SET_COOKIE));
+        assertFalse(EntityHeaders.isEntityHeader(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertFalse(EntityHeaders.isEntityHeader("Server-Timing"));
+        assertFalse(EntityHeaders.isEntityHeader("X-Request-Id"));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhaseTimerTest {
+
+    @Test
+    void testTime() {
+        final PhaseTimer timer = new PhaseTimer();
+        assertTrue(timer.isEmpty());
+        assertEquals(-1L, timer.millis("foo"));
+        assertEquals("", timer.toString());
+
+        timer.time("foo", () -> {
+        });
+        assertEquals("bar", timer.time("bar", () -> "bar"));
+        assertFalse(timer.isEmpty());
+        assertTrue(timer.millis("foo") >= 0L);
+        assertTrue(timer.millis("bar") >= 0L);
+        assertThrows(IllegalStateException.class, () -> timer.time("baz", (Runnable) () -> {
+            throw new IllegalStateException();
+        }));
+        assertTrue(timer.millis("baz") >= 0L);
+    }
+
+    @Test
+    void testRecord() {
+        final PhaseTimer timer = new PhaseTimer();
+        timer.record("foo", 2_000_000L);
+        timer.record("bar", 1_000_000L);
+        timer.record("foo", 3_000_000L);
+        assertEquals(5L, timer.millis("foo"));
+        assertEquals(1L, timer.millis("bar"));
+        assertEquals("foo=5ms, bar=1ms", timer.toString());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.server.warmup;
+
+import esa.httpserver.core.AsyncRequest;
+import esa.httpserver.core.AsyncResponse;
+import esa.restlight.server.handler.RestlightHandler;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.util.Futures;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmUpTest {
+
+    @Test
+    void testIllegalArgs() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WarmUp(null, false, 0, 0L, 1000L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WarmUp(null, false, 1, -1L, 1000L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WarmUp(null, false, 1, 0L, 0L));
+    }
+
+    @Test
+    void testRunWithoutSamples() {
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        final WarmUp.Result result = new WarmUp(null, false, 10, 0L, 1000L).run(handler);
+        assertEquals(0, result.rounds());
+        assertEquals(0L, result.requests());
+        verify(handler, never()).process(any(), any());
+    }
+
+    @Test
+    void testRunIterations() {
+        final List<AsyncRequest> requests = new CopyOnWriteArrayList<>();
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        when(handler.process(any(), any())).then(mock -> {
+            final AsyncRequest request = mock.getArgument(0);
+            assertTrue(WarmUp.isWarmUp(request));
+            requests.add(request);
+            mock.getArgument(1, AsyncResponse.class).sendResult(request.byteBufBody().toString(StandardCharsets.UTF_8)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Futures.completedFuture();
+        });
+        final WarmUpSample foo = new WarmUpSample("GET", "/foo?a=1");
+        foo.getHeaders().put("X-Foo", "foo");
+        final WarmUpSample bar = new WarmUpSample("post", "/bar");
+        bar.setBody("bar");
+
+        final WarmUp.Result result = new WarmUp(Arrays.asList(foo, bar), false, 3, 0L, 10_000L).run(handler);
+        assertEquals(3, result.rounds());
+        assertEquals(6L, result.requests());
+        assertFalse(result.isReached());
+        assertEquals(6, requests.size());
+
+        final AsyncRequest first = requests.get(0);
+        // not a warm-up request any more after the warm-up finished
+        assertFalse(WarmUp.isWarmUp(first));
+        assertEquals("/foo", first.path());
+        assertEquals("a=1", first.query());
+        assertEquals("1", first.getParameter("a"));
+        assertEquals("foo", first.getHeader("X-Foo"));
+        assertEquals("GET", first.rawMethod());
+
+        final AsyncRequest second = requests.get(1);
+        assertEquals("POST", second.rawMethod());
+        assertEquals("bar", second.byteBufBody().toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRunUntilLatencyTargetReached() {
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        when(handler.process(any(), any())).thenReturn(Futures.completedFuture());
+        final WarmUp.Result result = new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/")),
+                false, 1_000_000, Long.MAX_VALUE, 10_000L).run(handler);
+        assertEquals(1, result.rounds());
+        assertTrue(result.isReached());
+    }
+
+    @Test
+    void testStopOnTimeout() {
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        when(handler.process(any(), any())).thenReturn(new CompletableFuture<>());
+        final WarmUp.Result result = new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/")),
+                false, 10, 0L, 50L).run(handler);
+        assertEquals(0, result.rounds());
+        assertEquals(0L, result.requests());
+    }
+
+    @Test
+    void testContinueOnError() {
+        final RestlightHandler handler = mock(RestlightHandler.class);
+        when(handler.process(any(), any())).thenThrow(new IllegalStateException());
+        final WarmUp.Result result = new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/")),
+                false, 2, 0L, 10_000L).run(handler);
+        assertEquals(2, result.rounds());
+    }
+
+    @Test
+    void testResponse() throws IOException {
+        final WarmUpResponse response = new WarmUpResponse();
+        final List<AsyncResponse> ended = new CopyOnWriteArrayList<>();
+        response.onEnd(ended::add);
+        response.setHeader("a", "1");
+        response.setStatus(201);
+        response.sendResult(new byte[8]);
+        assertTrue(response.isCommitted());
+        assertEquals(8L, response.bodyLength());
+        assertEquals(201, response.status());
+        assertEquals("1", response.getHeader("a"));
+        assertEquals(1, ended.size());
+        assertThrows(IllegalStateException.class, response::sendResult);
+
+        final WarmUpResponse streaming = new WarmUpResponse();
+        streaming.outputStream().writeInt(1);
+        streaming.outputStream().writeBytes("ab");
+        streaming.outputStream().close();
+        assertTrue(streaming.isCommitted());
+        assertEquals(6L, streaming.bodyLength());
+    }
+
+    @Test
+    void testWithRoutes() {
+        final WarmUp warmUp = new WarmUp(null, false, 1, 0L, 1000L);
+        final List<Route> routes = Collections.singletonList(Route.route(Mapping.get("/foo")));
+        assertSame(warmUp, warmUp.withRoutes(routes));
+
+        final WarmUp auto = new WarmUp(Collections.singletonList(new WarmUpSample("GET", "/")),
+                true, 1, 0L, 1000L);
+        final WarmUp withRoutes = auto.withRoutes(routes);
+        assertEquals(2, withRoutes.samples().size());
+        assertEquals("/foo", withRoutes.samples().get(1).getUri());
+    }
+
+    @Test
+    void testGenerate() {
+        final List<WarmUpSample> samples = WarmUp.generate(Arrays.asList(
+                Route.route(Mapping.get("/foo").produces("application/json")),
+                Route.route(Mapping.get("/foo")),
+                Route.route(Mapping.get("/foo/{id}")),
+                Route.route(Mapping.get("/bar").hasParam("a")),
+                Route.route(Mapping.get("/baz").hasHeader("a")),
+                Route.route(Mapping.post("/qux")),
+                Route.route(Mapping.mapping("/any"))));
+
+        assertEquals(1, samples.size());
+        assertEquals("GET", samples.get(0).getMethod());
+        assertEquals("/foo", samples.get(0).getUri());
+        assertEquals("application/json", samples.get(0).getHeaders().get("accept"));
+    }
+
+}
@@ -78,7 +78,7 @@ public class Deployments4Spring<R extends AbstractRestlight4Spring<R, D, O>, D e
 
     protected Deployments4Spring(R restlight, ApplicationContext context, O options) {
         super(restlight, options);
-        autoConfigureFromSpringContext(context);
+        startupPhases().time("configure", () -> autoConfigureFromSpringContext(context));
     }
 
     void autoConfigureFromSpringContext(ApplicationContext context) {
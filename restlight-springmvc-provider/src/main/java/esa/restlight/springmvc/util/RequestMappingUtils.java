@@ -20,6 +20,7 @@ import esa.commons.UrlUtils;
 import esa.commons.reflect.AnnotationUtils;
 import esa.restlight.core.method.HttpMethod;
 import esa.restlight.core.util.ConverterUtils;
+import esa.restlight.core.util.RouteIndex;
 import esa.restlight.server.route.Mapping;
 import esa.restlight.server.util.MappingUtils;
 import esa.restlight.springmvc.annotation.shaded.RequestMapping0;
@@ -78,6 +79,11 @@ public final class RequestMappingUtils {
             return Optional.empty();
         }
         contextPath = ConverterUtils.standardContextPath(contextPath);
+        // use the route index generated at compile time if possible
+        final RouteIndex index = RouteIndex.of(userType);
+        if (index != null && index.covers(method)) {
+            return buildRouteMappingInfo(fromIndex(index.entry(method)), fromIndex(index.typeEntry()), contextPath);
+        }
         //resolve the parent @RequestMapping
         RequestMapping0 parentRequestMapping = findRequestMapping(userType);
         //resolve the method @RequestMapping
@@ -97,6 +103,19 @@ public final class RequestMappingUtils {
         return RequestMapping0.fromShade(ann);
     }
 
+    private static RequestMapping0 fromIndex(RouteIndex.Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        return new RequestMapping0(entry.name(),
+                entry.path(),
+                entry.method(),
+                entry.params(),
+                entry.headers(),
+                entry.consumes(),
+                entry.produces());
+    }
+
     private static Optional<Mapping> buildRouteMappingInfo(RequestMapping0 requestMapping,
                                                            RequestMapping0 parentRequestMapping,
                                                            String contextPath) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.springmvc.util;
+
+import esa.restlight.core.method.HttpMethod;
+import esa.restlight.server.route.Mapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestMappingUtilsIndexTest {
+
+    @Test
+    void testExtractMappingFromIndex() throws NoSuchMethodException {
+        final Optional<Mapping> mapping =
+                RequestMappingUtils.extractMapping(Indexed.class,
+                        Indexed.class.getDeclaredMethod("index"),
+                        "/foo");
+        assertTrue(mapping.isPresent());
+        assertEquals("index", mapping.get().name());
+        assertArrayEquals(new String[]{"/foo/parent/child"}, mapping.get().path());
+        assertArrayEquals(new HttpMethod[]{HttpMethod.GET}, mapping.get().method());
+        assertArrayEquals(new String[]{"b/1"}, mapping.get().produces());
+
+        assertFalse(RequestMappingUtils.extractMapping(Indexed.class,
+                Indexed.class.getDeclaredMethod("other")).isPresent());
+    }
+
+    /**
+     * Mappings are declared in the route index instead of annotations.
+     */
+    private static class Indexed {
+
+        public void index() {
+        }
+
+        public void other() {
+        }
+    }
+}
@@ -17,7 +17,10 @@ package esa.restlight.starter.actuator.autoconfigurer;
 
 import esa.restlight.starter.ServerStarter;
 import esa.restlight.starter.actuator.meter.RestlightBizThreadPoolBinder;
+import esa.restlight.starter.actuator.meter.RestlightCoalescingBinder;
 import esa.restlight.starter.actuator.meter.RestlightIoExecutorBinder;
+import esa.restlight.starter.actuator.meter.RestlightRouteHitsBinder;
+import esa.restlight.starter.actuator.meter.RestlightRouteMetricsBinder;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -47,4 +50,25 @@ public class MeterAutoConfiguration {
     public RestlightIoExecutorBinder restlightIoExecutorMeter(MeterRegistry registry) {
         return new RestlightIoExecutorBinder(registry);
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public RestlightRouteMetricsBinder restlightRouteMetricsMeter(MeterRegistry registry) {
+        return new RestlightRouteMetricsBinder(registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public RestlightRouteHitsBinder restlightRouteHitsMeter(MeterRegistry registry) {
+        return new RestlightRouteHitsBinder(registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public RestlightCoalescingBinder restlightCoalescingMeter(MeterRegistry registry) {
+        return new RestlightCoalescingBinder(registry);
+    }
 }
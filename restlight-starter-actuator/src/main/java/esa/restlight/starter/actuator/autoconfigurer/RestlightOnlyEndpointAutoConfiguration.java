@@ -20,7 +20,10 @@ import esa.restlight.starter.actuator.adapt.RestlightMappingDescriptionProvider;
 import esa.restlight.starter.actuator.endpoint.ForceFullGcEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightBizThreadPoolEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightConfigEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightIoBlockingEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightIoExecutorEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightJfrEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightRouteHitsEndpoint;
 import esa.restlight.starter.actuator.endpoint.TerminationEndpoint;
 import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint;
@@ -81,6 +84,20 @@ public class RestlightOnlyEndpointAutoConfiguration extends WebEndpointAutoConfi
         return new RestlightIoExecutorEndpoint();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnEnabledEndpoint
+    public RestlightIoBlockingEndpoint restlightIoBlockingEndpoint() {
+        return new RestlightIoBlockingEndpoint();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnEnabledEndpoint
+    public RestlightRouteHitsEndpoint restlightRouteHitsEndpoint() {
+        return new RestlightRouteHitsEndpoint();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnEnabledEndpoint
@@ -92,4 +109,16 @@ public class RestlightOnlyEndpointAutoConfiguration extends WebEndpointAutoConfi
     public MappingDescriptionProvider restlightMappingDescriptionProvider() {
         return new RestlightMappingDescriptionProvider();
     }
+
+    @Configuration
+    @ConditionalOnClass(name = "jdk.jfr.Recording")
+    static class JfrEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnEnabledEndpoint
+        public RestlightJfrEndpoint restlightJfrEndpoint() {
+            return new RestlightJfrEndpoint();
+        }
+    }
 }
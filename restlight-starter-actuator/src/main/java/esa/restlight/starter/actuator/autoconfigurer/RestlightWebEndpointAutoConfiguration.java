@@ -20,7 +20,10 @@ import esa.restlight.starter.actuator.adapt.RestlightMappingDescriptionProvider;
 import esa.restlight.starter.actuator.endpoint.ForceFullGcEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightBizThreadPoolEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightConfigEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightIoBlockingEndpoint;
 import esa.restlight.starter.actuator.endpoint.RestlightIoExecutorEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightJfrEndpoint;
+import esa.restlight.starter.actuator.endpoint.RestlightRouteHitsEndpoint;
 import esa.restlight.starter.actuator.endpoint.TerminationEndpoint;
 import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnEnabledEndpoint;
@@ -28,6 +31,7 @@ import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointPr
 import org.springframework.boot.actuate.web.mappings.MappingDescriptionProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -74,6 +78,20 @@ public class RestlightWebEndpointAutoConfiguration {
         return new RestlightIoExecutorEndpoint();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnEnabledEndpoint
+    public RestlightIoBlockingEndpoint restlightIoBlockingEndpoint() {
+        return new RestlightIoBlockingEndpoint();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnEnabledEndpoint
+    public RestlightRouteHitsEndpoint restlightRouteHitsEndpoint() {
+        return new RestlightRouteHitsEndpoint();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnEnabledEndpoint
@@ -85,4 +103,16 @@ public class RestlightWebEndpointAutoConfiguration {
     public MappingDescriptionProvider restlightMappingDescriptionProvider() {
         return new RestlightMappingDescriptionProvider();
     }
+
+    @Configuration
+    @ConditionalOnClass(name = "jdk.jfr.Recording")
+    static class JfrEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnEnabledEndpoint
+        public RestlightJfrEndpoint restlightJfrEndpoint() {
+            return new RestlightJfrEndpoint();
+        }
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import esa.restlight.server.metrics.Histogram;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows the blocking events of the io event loops detected by {@link EventLoopWatchdog}, which is only available when
+ * the watchdog is enabled by 'restlight.server.watchdog.enable=true'.
+ */
+@Endpoint(id = "ioblocking")
+public class RestlightIoBlockingEndpoint implements RestlightDeployContextAware {
+
+    private volatile EventLoopWatchdog watchdog;
+
+    @ReadOperation
+    public IoBlockingMetrics ioBlockingMetrics() {
+        return getMetrics(watchdog);
+    }
+
+    static IoBlockingMetrics getMetrics(EventLoopWatchdog watchdog) {
+        final IoBlockingMetrics metrics = new IoBlockingMetrics();
+        if (watchdog == null) {
+            return metrics;
+        }
+        metrics.setEnabled(true);
+        metrics.setRunning(watchdog.isRunning());
+        metrics.setBlockedCount(watchdog.blockedCount());
+        for (EventLoopWatchdog.Probe probe : watchdog.probes()) {
+            final EventLoopStats stats = new EventLoopStats();
+            final Histogram latency = probe.latency();
+            stats.setThreadName(probe.threadName());
+            stats.setBlockedCount(probe.blockedCount());
+            stats.setPendingMillis(probe.pendingMillis());
+            stats.setP99LatencyMicros(latency.valueAtPercentile(0.99D));
+            stats.setMaxLatencyMicros(latency.max());
+            metrics.getEventLoops().add(stats);
+        }
+        for (EventLoopWatchdog.BlockedEvent event : watchdog.recentEvents()) {
+            final BlockedEventInfo info = new BlockedEventInfo();
+            info.setTimestamp(event.timestamp());
+            info.setThreadName(event.threadName());
+            info.setBlockedMillis(event.blockedMillis());
+            info.setRoute(event.route());
+            final List<String> stack = new ArrayList<>(event.stackTrace().length);
+            for (StackTraceElement element : event.stackTrace()) {
+                stack.add(element.toString());
+            }
+            info.setStackTrace(stack);
+            metrics.getRecentEvents().add(info);
+        }
+        return metrics;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        this.watchdog = ctx.eventLoopWatchdog().orElse(null);
+    }
+
+    public static class IoBlockingMetrics implements Serializable {
+
+        private static final long serialVersionUID = 5817604379367466592L;
+
+        private final List<EventLoopStats> eventLoops = new ArrayList<>();
+        private final List<BlockedEventInfo> recentEvents = new ArrayList<>();
+        private boolean enabled;
+        private boolean running;
+        private long blockedCount;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public void setRunning(boolean running) {
+            this.running = running;
+        }
+
+        public long getBlockedCount() {
+            return blockedCount;
+        }
+
+        public void setBlockedCount(long blockedCount) {
+            this.blockedCount = blockedCount;
+        }
+
+        public List<EventLoopStats> getEventLoops() {
+            return eventLoops;
+        }
+
+        public List<BlockedEventInfo> getRecentEvents() {
+            return recentEvents;
+        }
+    }
+
+    public static class EventLoopStats implements Serializable {
+
+        private static final long serialVersionUID = -2236307263929370167L;
+
+        private String threadName;
+        private long blockedCount;
+        private long pendingMillis;
+        private long p99LatencyMicros;
+        private long maxLatencyMicros;
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public void setThreadName(String threadName) {
+            this.threadName = threadName;
+        }
+
+        public long getBlockedCount() {
+            return blockedCount;
+        }
+
+        public void setBlockedCount(long blockedCount) {
+            this.blockedCount = blockedCount;
+        }
+
+        public long getPendingMillis() {
+            return pendingMillis;
+        }
+
+        public void setPendingMillis(long pendingMillis) {
+            this.pendingMillis = pendingMillis;
+        }
+
+        public long getP99LatencyMicros() {
+            return p99LatencyMicros;
+        }
+
+        public void setP99LatencyMicros(long p99LatencyMicros) {
+            this.p99LatencyMicros = p99LatencyMicros;
+        }
+
+        public long getMaxLatencyMicros() {
+            return maxLatencyMicros;
+        }
+
+        public void setMaxLatencyMicros(long maxLatencyMicros) {
+            this.maxLatencyMicros = maxLatencyMicros;
+        }
+    }
+
+    public static class BlockedEventInfo implements Serializable {
+
+        private static final long serialVersionUID = 1470541207426359218L;
+
+        private long timestamp;
+        private String threadName;
+        private long blockedMillis;
+        private String route;
+        private List<String> stackTrace;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public void setThreadName(String threadName) {
+            this.threadName = threadName;
+        }
+
+        public long getBlockedMillis() {
+            return blockedMillis;
+        }
+
+        public void setBlockedMillis(long blockedMillis) {
+            this.blockedMillis = blockedMillis;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public List<String> getStackTrace() {
+            return stackTrace;
+        }
+
+        public void setStackTrace(List<String> stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+    }
+}
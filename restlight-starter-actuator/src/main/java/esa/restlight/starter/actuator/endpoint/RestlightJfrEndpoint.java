@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.commons.logging.Logger;
+import esa.commons.logging.LoggerFactory;
+import esa.restlight.server.jfr.Phase;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts, stops and dumps a JDK Flight Recorder recording which has enabled all the events of the request lifecycle
+ * of Restlight(see {@link Phase}).
+ * <p>
+ * Usage:
+ * <ul>
+ *     <li>{@code POST /jfr/start} with optional {@code settings}(name of the configuration, such as 'default' or
+ *     'profile') and {@code maxAgeSeconds}</li>
+ *     <li>{@code POST /jfr/dump} with optional {@code file}</li>
+ *     <li>{@code POST /jfr/stop} with optional {@code file} to dump the recording before closing</li>
+ * </ul>
+ */
+@Endpoint(id = "jfr")
+public class RestlightJfrEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestlightJfrEndpoint.class);
+
+    static final String RECORDING_NAME = "restlight";
+    private static final String DEFAULT_SETTINGS = "default";
+
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized List<RecordingInfo> recordings() {
+        final List<RecordingInfo> infos = new ArrayList<>();
+        if (FlightRecorder.isInitialized()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                infos.add(RecordingInfo.of(r, null));
+            }
+        }
+        return infos;
+    }
+
+    @WriteOperation
+    public synchronized RecordingInfo operate(@Selector String action,
+                                              @Nullable String settings,
+                                              @Nullable Long maxAgeSeconds,
+                                              @Nullable String file) throws IOException, ParseException {
+        switch (action) {
+            case "start":
+                return start(settings, maxAgeSeconds);
+            case "dump":
+                return dump(file);
+            case "stop":
+                return stop(file);
+            default:
+                throw new IllegalArgumentException("Unsupported action: " + action
+                        + ", expected one of 'start', 'dump' and 'stop'");
+        }
+    }
+
+    private RecordingInfo start(String settings, Long maxAgeSeconds) throws IOException, ParseException {
+        if (recording != null) {
+            return RecordingInfo.of(recording, null);
+        }
+        final Recording r = new Recording(Configuration.getConfiguration(
+                settings == null ? DEFAULT_SETTINGS : settings));
+        r.setName(RECORDING_NAME);
+        for (Phase phase : Phase.values()) {
+            r.enable(phase.eventName()).withoutThreshold();
+        }
+        if (maxAgeSeconds != null && maxAgeSeconds > 0L) {
+            r.setMaxAge(Duration.ofSeconds(maxAgeSeconds));
+        }
+        r.start();
+        this.recording = r;
+        logger.info("Started JFR recording({}) of Restlight", r.getId());
+        return RecordingInfo.of(r, null);
+    }
+
+    private RecordingInfo dump(String file) throws IOException {
+        checkStarted();
+        final Path path = resolve(file);
+        recording.dump(path);
+        logger.info("Dumped JFR recording({}) of Restlight to {}", recording.getId(), path);
+        return RecordingInfo.of(recording, path);
+    }
+
+    private RecordingInfo stop(String file) throws IOException {
+        checkStarted();
+        final Recording r = this.recording;
+        this.recording = null;
+        try {
+            r.stop();
+            Path path = null;
+            if (file != null) {
+                path = resolve(file);
+                r.dump(path);
+            }
+            logger.info("Stopped JFR recording({}) of Restlight", r.getId());
+            return RecordingInfo.of(r, path);
+        } finally {
+            r.close();
+        }
+    }
+
+    private void checkStarted() {
+        if (recording == null) {
+            throw new IllegalStateException("JFR recording of Restlight has not been started");
+        }
+    }
+
+    private static Path resolve(String file) {
+        if (file == null) {
+            return Paths.get(System.getProperty("java.io.tmpdir"),
+                    RECORDING_NAME + "-" + System.currentTimeMillis() + ".jfr");
+        }
+        return Paths.get(file);
+    }
+
+    public static class RecordingInfo implements Serializable {
+
+        private static final long serialVersionUID = 4205011396306434876L;
+
+        private long id;
+        private String name;
+        private String state;
+        private long startTime;
+        private long size;
+        private String file;
+
+        static RecordingInfo of(Recording r, Path dumped) {
+            final RecordingInfo info = new RecordingInfo();
+            info.setId(r.getId());
+            info.setName(r.getName());
+            info.setState(r.getState().name());
+            info.setStartTime(r.getStartTime() == null ? 0L : r.getStartTime().toEpochMilli());
+            info.setSize(r.getSize());
+            info.setFile(dumped == null ? null : dumped.toString());
+            return info;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public void setState(String state) {
+            this.state = state;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(long startTime) {
+            this.startTime = startTime;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+}
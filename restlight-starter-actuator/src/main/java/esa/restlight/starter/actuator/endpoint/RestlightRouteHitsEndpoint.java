@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.RouteHitStatistics;
+import esa.restlight.server.route.RouteHits;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Shows the hits of each route in the current cache order and the statistics of the cached routing, which is only
+ * available when the cached routing is being used.
+ *
+ * @see RouteHitStatistics
+ */
+@Endpoint(id = "routehits")
+public class RestlightRouteHitsEndpoint implements RestlightDeployContextAware {
+
+    private volatile RouteHitStatistics statistics;
+
+    @ReadOperation
+    public RouteHitsMetrics routeHitsMetrics() {
+        return getMetrics(statistics);
+    }
+
+    static RouteHitsMetrics getMetrics(RouteHitStatistics statistics) {
+        final RouteHitsMetrics metrics = new RouteHitsMetrics();
+        if (statistics == null) {
+            return metrics;
+        }
+        metrics.setCached(true);
+        metrics.setComputeRate(statistics.computeRate());
+        metrics.setComputeCount(statistics.computeCount());
+        metrics.setNotFoundCount(statistics.notFoundCount());
+        long totalHits = 0L;
+        for (RouteHits hits : statistics.hits()) {
+            final Mapping mapping = hits.route().mapping();
+            final RouteHitsInfo info = new RouteHitsInfo();
+            info.setPath(Arrays.asList(mapping.path()));
+            info.setMethod(mapping.method() == null
+                    ? new ArrayList<>()
+                    : Arrays.stream(mapping.method()).map(Enum::name).collect(Collectors.toList()));
+            info.setOrder(hits.order());
+            info.setTotalHits(hits.totalHits());
+            info.setRecentHits(hits.recentHits());
+            totalHits += info.getTotalHits();
+            metrics.getRoutes().add(info);
+        }
+        metrics.setTotalHits(totalHits);
+        return metrics;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        this.statistics = ctx.routeRegistry()
+                .filter(r -> r instanceof RouteHitStatistics)
+                .map(r -> (RouteHitStatistics) r)
+                .orElse(null);
+    }
+
+    public static class RouteHitsMetrics implements Serializable {
+
+        private static final long serialVersionUID = -6624806254372542180L;
+
+        private final List<RouteHitsInfo> routes = new ArrayList<>();
+        private boolean cached;
+        private int computeRate;
+        private long computeCount;
+        private long notFoundCount;
+        private long totalHits;
+
+        public boolean isCached() {
+            return cached;
+        }
+
+        public void setCached(boolean cached) {
+            this.cached = cached;
+        }
+
+        public int getComputeRate() {
+            return computeRate;
+        }
+
+        public void setComputeRate(int computeRate) {
+            this.computeRate = computeRate;
+        }
+
+        public long getComputeCount() {
+            return computeCount;
+        }
+
+        public void setComputeCount(long computeCount) {
+            this.computeCount = computeCount;
+        }
+
+        public long getNotFoundCount() {
+            return notFoundCount;
+        }
+
+        public void setNotFoundCount(long notFoundCount) {
+            this.notFoundCount = notFoundCount;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+
+        public void setTotalHits(long totalHits) {
+            this.totalHits = totalHits;
+        }
+
+        public List<RouteHitsInfo> getRoutes() {
+            return routes;
+        }
+    }
+
+    public static class RouteHitsInfo implements Serializable {
+
+        private static final long serialVersionUID = 2793218760317446021L;
+
+        private List<String> path;
+        private List<String> method;
+        private int order;
+        private long totalHits;
+        private long recentHits;
+
+        public List<String> getPath() {
+            return path;
+        }
+
+        public void setPath(List<String> path) {
+            this.path = path;
+        }
+
+        public List<String> getMethod() {
+            return method;
+        }
+
+        public void setMethod(List<String> method) {
+            this.method = method;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+
+        public void setOrder(int order) {
+            this.order = order;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+
+        public void setTotalHits(long totalHits) {
+            this.totalHits = totalHits;
+        }
+
+        public long getRecentHits() {
+            return recentHits;
+        }
+
+        public void setRecentHits(long recentHits) {
+            this.recentHits = recentHits;
+        }
+    }
+}
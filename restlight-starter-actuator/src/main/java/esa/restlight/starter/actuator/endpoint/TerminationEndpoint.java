@@ -18,6 +18,7 @@ package esa.restlight.starter.actuator.endpoint;
 import esa.commons.logging.Logger;
 import esa.commons.logging.LoggerFactory;
 import esa.restlight.core.util.Constants;
+import esa.restlight.server.batch.BatchRestlightHandler;
 import esa.restlight.server.bootstrap.NettyRestlightServer;
 import esa.restlight.server.bootstrap.RestlightServer;
 import esa.restlight.server.handler.FilteredHandler;
@@ -53,19 +54,15 @@ public class TerminationEndpoint {
                 RestlightHandler handler =
                         findField(theServer, "handler", RestlightHandler.class)
                                 .orElse(null);
+                // unwrap the decorators
+                while (handler instanceof FilteredHandler || handler instanceof BatchRestlightHandler) {
+                    handler = findField(handler, "delegate", RestlightHandler.class).orElse(null);
+                }
                 if (handler instanceof ScheduledRestlightHandler) {
                     ScheduledRestlightHandler dispatcherHandler = (ScheduledRestlightHandler) handler;
                     dispatcherHandler.setTerminationTimeoutSeconds(timeout);
                     logger.info("Change termination timeout of dispatcher handler to {}s", timeout);
                     return "Success";
-                } else if (handler instanceof FilteredHandler) {
-                    handler = findField(handler, "delegate", RestlightHandler.class).orElse(null);
-                    if (handler instanceof ScheduledRestlightHandler) {
-                        ScheduledRestlightHandler dispatcherHandler = (ScheduledRestlightHandler) handler;
-                        dispatcherHandler.setTerminationTimeoutSeconds(timeout);
-                        logger.info("Change termination timeout of dispatcher handler to {}s", timeout);
-                        return "Success";
-                    }
                 }
             }
         }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.commons.Checks;
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.handler.impl.Coalescer;
+import esa.restlight.core.handler.impl.Coalescers;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Map;
+
+/**
+ * Publishes the statistics of the {@link Coalescer} of each coalesced route, which is only available when there's any
+ * route annotated by {@link esa.restlight.core.annotation.Coalesced}.
+ *
+ * @see Coalescers
+ */
+public class RestlightCoalescingBinder implements RestlightDeployContextAware {
+
+    private static final String PREFIX = "restlight.route.coalescing";
+
+    private final MeterRegistry registry;
+
+    public RestlightCoalescingBinder(MeterRegistry registry) {
+        Checks.checkNotNull(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        Coalescers.of(ctx).ifPresent(coalescers -> {
+            for (Map.Entry<Mapping, Coalescer> e : coalescers.coalescers().entrySet()) {
+                bind(RestlightRouteMetricsBinder.tags(e.getKey()), e.getValue());
+            }
+        });
+    }
+
+    private void bind(Tags tags, Coalescer coalescer) {
+        FunctionCounter.builder(PREFIX + ".invocations", coalescer, Coalescer::invocations)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".coalesced", coalescer, Coalescer::coalesced)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".overflowed", coalescer, Coalescer::overflowed)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".fallbacks", coalescer, Coalescer::fallbacks)
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREFIX + ".in.flight", coalescer, Coalescer::inFlight)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.commons.Checks;
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.route.RouteHitStatistics;
+import esa.restlight.server.route.RouteHits;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Publishes the hits of each route and the statistics of the cached routing, which is only available when the cached
+ * routing is being used.
+ *
+ * @see RouteHitStatistics
+ */
+public class RestlightRouteHitsBinder implements RestlightDeployContextAware {
+
+    private static final String PREFIX = "restlight.route";
+
+    private final MeterRegistry registry;
+
+    public RestlightRouteHitsBinder(MeterRegistry registry) {
+        Checks.checkNotNull(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        ctx.routeRegistry()
+                .filter(r -> r instanceof RouteHitStatistics)
+                .map(r -> (RouteHitStatistics) r)
+                .ifPresent(this::bind);
+    }
+
+    private void bind(RouteHitStatistics statistics) {
+        FunctionCounter.builder(PREFIX + ".not.found", statistics, RouteHitStatistics::notFoundCount)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + ".cache.compute", statistics, RouteHitStatistics::computeCount)
+                .register(registry);
+        Gauge.builder(PREFIX + ".cache.compute.rate", statistics, RouteHitStatistics::computeRate)
+                .register(registry);
+        for (RouteHits hits : statistics.hits()) {
+            final Tags tags = RestlightRouteMetricsBinder.tags(hits.route().mapping());
+            FunctionCounter.builder(PREFIX + ".hits", hits, RouteHits::totalHits)
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder(PREFIX + ".cache.order", hits, RouteHits::order)
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
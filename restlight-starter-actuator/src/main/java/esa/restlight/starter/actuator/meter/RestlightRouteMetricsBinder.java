@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.commons.Checks;
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.metrics.Histogram;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteRecorder;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.spring.util.RestlightDeployContextAware;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the metrics recorded by {@link RouteMetrics} of each route, which is only available when the route metrics
+ * is enabled by 'restlight.server.metrics.enable=true'.
+ */
+public class RestlightRouteMetricsBinder implements RestlightDeployContextAware {
+
+    private static final String PREFIX = "restlight.route";
+    private static final String BYTES = "bytes";
+
+    private final MeterRegistry registry;
+
+    public RestlightRouteMetricsBinder(MeterRegistry registry) {
+        Checks.checkNotNull(registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public void setDeployContext(DeployContext<? extends RestlightOptions> ctx) {
+        ctx.routeMetrics().ifPresent(metrics -> {
+            final double[] percentiles = ctx.options().getMetrics().getPercentiles();
+            for (RouteRecorder recorder : metrics.recorders()) {
+                bind(recorder, percentiles);
+            }
+        });
+    }
+
+    private void bind(RouteRecorder recorder, double[] percentiles) {
+        final Tags tags = tags(recorder.mapping());
+        bindLatency(PREFIX + ".queue.wait", recorder.queueWait(), tags, percentiles);
+        bindLatency(PREFIX + ".handle", recorder.handle(), tags, percentiles);
+        bindLatency(PREFIX + ".total", recorder.total(), tags, percentiles);
+        bindSize(PREFIX + ".request.size", recorder.requestSize(), tags, percentiles);
+        bindSize(PREFIX + ".response.size", recorder.responseSize(), tags, percentiles);
+    }
+
+    private void bindLatency(String name, Histogram histogram, Tags tags, double[] percentiles) {
+        FunctionTimer.builder(name, histogram, Histogram::count, Histogram::totalAmount, TimeUnit.MICROSECONDS)
+                .tags(tags)
+                .register(registry);
+        TimeGauge.builder(name + ".max", histogram, TimeUnit.MICROSECONDS, Histogram::max)
+                .tags(tags)
+                .register(registry);
+        if (percentiles != null) {
+            for (double percentile : percentiles) {
+                TimeGauge.builder(name + ".percentile", histogram, TimeUnit.MICROSECONDS,
+                        h -> h.valueAtPercentile(percentile))
+                        .tags(tags)
+                        .tag("phi", String.valueOf(percentile))
+                        .register(registry);
+            }
+        }
+    }
+
+    private void bindSize(String name, Histogram histogram, Tags tags, double[] percentiles) {
+        FunctionCounter.builder(name, histogram, Histogram::totalAmount)
+                .baseUnit(BYTES)
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(name + ".max", histogram, Histogram::max)
+                .baseUnit(BYTES)
+                .tags(tags)
+                .register(registry);
+        if (percentiles != null) {
+            for (double percentile : percentiles) {
+                Gauge.builder(name + ".percentile", histogram, h -> h.valueAtPercentile(percentile))
+                        .baseUnit(BYTES)
+                        .tags(tags)
+                        .tag("phi", String.valueOf(percentile))
+                        .register(registry);
+            }
+        }
+    }
+
+    static Tags tags(Mapping mapping) {
+        final String method = mapping.method() == null || mapping.method().length == 0
+                ? "*"
+                : Arrays.stream(mapping.method()).map(Enum::name).collect(Collectors.joining(","));
+        return Tags.of(Tag.of("method", method),
+                Tag.of("uri", String.join(",", mapping.path())));
+    }
+}
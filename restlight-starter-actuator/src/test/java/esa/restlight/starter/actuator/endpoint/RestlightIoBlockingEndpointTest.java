@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.config.WatchdogOptionsConfigure;
+import esa.restlight.server.metrics.EventLoopWatchdog;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestlightIoBlockingEndpointTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDisabled() {
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.eventLoopWatchdog()).thenReturn(Optional.empty());
+        final RestlightIoBlockingEndpoint endpoint = new RestlightIoBlockingEndpoint();
+        endpoint.setDeployContext(ctx);
+
+        final RestlightIoBlockingEndpoint.IoBlockingMetrics metrics = endpoint.ioBlockingMetrics();
+        assertFalse(metrics.isEnabled());
+        assertFalse(metrics.isRunning());
+        assertTrue(metrics.getEventLoops().isEmpty());
+        assertTrue(metrics.getRecentEvents().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBlockingMetrics() throws Exception {
+        final EventLoopWatchdog watchdog = new EventLoopWatchdog(WatchdogOptionsConfigure.newOpts()
+                .enable(true)
+                .intervalMillis(5L)
+                .thresholdMillis(20L)
+                .configured());
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.eventLoopWatchdog()).thenReturn(Optional.of(watchdog));
+        final RestlightIoBlockingEndpoint endpoint = new RestlightIoBlockingEndpoint();
+        endpoint.setDeployContext(ctx);
+
+        final DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+        try {
+            watchdog.start(group);
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (watchdog.probes().get(0).threadName() == null && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            }
+            group.submit(() -> {
+                TimeUnit.MILLISECONDS.sleep(200L);
+                return null;
+            }).get();
+            deadline = System.currentTimeMillis() + 5000L;
+            while (watchdog.blockedCount() == 0L && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            }
+
+            final RestlightIoBlockingEndpoint.IoBlockingMetrics metrics = endpoint.ioBlockingMetrics();
+            assertTrue(metrics.isEnabled());
+            assertTrue(metrics.isRunning());
+            assertEquals(1L, metrics.getBlockedCount());
+            assertEquals(1, metrics.getEventLoops().size());
+            assertEquals(1L, metrics.getEventLoops().get(0).getBlockedCount());
+            assertEquals(1, metrics.getRecentEvents().size());
+            final RestlightIoBlockingEndpoint.BlockedEventInfo event = metrics.getRecentEvents().get(0);
+            assertEquals(metrics.getEventLoops().get(0).getThreadName(), event.getThreadName());
+            assertNull(event.getRoute());
+            assertTrue(event.getBlockedMillis() >= 20L);
+            assertFalse(event.getStackTrace().isEmpty());
+        } finally {
+            watchdog.stop();
+            group.shutdownGracefully(0L, 0L, TimeUnit.MILLISECONDS);
+        }
+    }
+}
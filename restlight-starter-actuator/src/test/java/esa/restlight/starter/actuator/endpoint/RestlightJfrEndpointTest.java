@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.restlight.server.jfr.RestlightEvents;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestlightJfrEndpointTest {
+
+    @Test
+    void testIllegalAction() {
+        final RestlightJfrEndpoint endpoint = new RestlightJfrEndpoint();
+        assertThrows(IllegalArgumentException.class, () -> endpoint.operate("foo", null, null, null));
+        assertThrows(IllegalStateException.class, () -> endpoint.operate("dump", null, null, null));
+        assertThrows(IllegalStateException.class, () -> endpoint.operate("stop", null, null, null));
+    }
+
+    @Test
+    void testStartDumpAndStop() throws Exception {
+        final RestlightJfrEndpoint endpoint = new RestlightJfrEndpoint();
+        final RestlightJfrEndpoint.RecordingInfo started = endpoint.operate("start", null, 60L, null);
+        Path dumped = null;
+        try {
+            assertEquals(RestlightJfrEndpoint.RECORDING_NAME, started.getName());
+            assertEquals("RUNNING", started.getState());
+            assertTrue(RestlightEvents.isRecording());
+            // start again returns the current recording
+            assertEquals(started.getId(), endpoint.operate("start", null, null, null).getId());
+            assertTrue(endpoint.recordings().stream().anyMatch(r -> r.getId() == started.getId()));
+
+            final RestlightJfrEndpoint.RecordingInfo dump = endpoint.operate("dump", null, null, null);
+            assertNotNull(dump.getFile());
+            dumped = Paths.get(dump.getFile());
+            assertTrue(Files.exists(dumped));
+        } finally {
+            final RestlightJfrEndpoint.RecordingInfo stopped = endpoint.operate("stop", null, null, null);
+            assertEquals("STOPPED", stopped.getState());
+            assertNull(stopped.getFile());
+            if (dumped != null) {
+                Files.deleteIfExists(dumped);
+            }
+        }
+        assertFalse(RestlightEvents.isRecording());
+        assertFalse(endpoint.recordings().stream().anyMatch(r -> r.getId() == started.getId()));
+    }
+}
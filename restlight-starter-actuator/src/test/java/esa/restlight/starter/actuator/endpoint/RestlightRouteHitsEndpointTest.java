@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.endpoint;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.impl.CachedRouteRegistry;
+import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestlightRouteHitsEndpointTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNotCached() {
+        final RouteRegistry registry = new SimpleRouteRegistry();
+        registry.registerRoute(Route.route(Mapping.get("/foo")));
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeRegistry()).thenReturn(Optional.of(registry.toReadOnly()));
+        final RestlightRouteHitsEndpoint endpoint = new RestlightRouteHitsEndpoint();
+        endpoint.setDeployContext(ctx);
+
+        final RestlightRouteHitsEndpoint.RouteHitsMetrics metrics = endpoint.routeHitsMetrics();
+        assertFalse(metrics.isCached());
+        assertTrue(metrics.getRoutes().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRouteHits() {
+        final RouteRegistry registry = new CachedRouteRegistry(1000);
+        registry.registerRoute(Route.route(Mapping.get("/foo")));
+        registry.registerRoute(Route.route(Mapping.mapping("/bar")));
+        final ReadOnlyRouteRegistry readOnly = registry.toReadOnly();
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeRegistry()).thenReturn(Optional.of(readOnly));
+        final RestlightRouteHitsEndpoint endpoint = new RestlightRouteHitsEndpoint();
+        endpoint.setDeployContext(ctx);
+
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/bar").build());
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/baz").build());
+
+        final RestlightRouteHitsEndpoint.RouteHitsMetrics metrics = endpoint.routeHitsMetrics();
+        assertTrue(metrics.isCached());
+        assertEquals(1000, metrics.getComputeRate());
+        assertEquals(1L, metrics.getComputeCount());
+        assertEquals(1L, metrics.getNotFoundCount());
+        assertEquals(1L, metrics.getTotalHits());
+        assertEquals(2, metrics.getRoutes().size());
+
+        final RestlightRouteHitsEndpoint.RouteHitsInfo bar = metrics.getRoutes().get(0);
+        assertEquals(Collections.singletonList("/bar"), bar.getPath());
+        assertTrue(bar.getMethod().isEmpty());
+        assertEquals(0, bar.getOrder());
+        assertEquals(1L, bar.getTotalHits());
+        final RestlightRouteHitsEndpoint.RouteHitsInfo foo = metrics.getRoutes().get(1);
+        assertEquals(Collections.singletonList("GET"), foo.getMethod());
+        assertEquals(1, foo.getOrder());
+        assertEquals(0L, foo.getTotalHits());
+    }
+}
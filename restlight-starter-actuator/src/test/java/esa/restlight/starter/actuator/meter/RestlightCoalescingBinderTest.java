@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.DeployContextImpl;
+import esa.restlight.core.annotation.Coalesced;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.core.handler.RouteHandler;
+import esa.restlight.core.handler.impl.Coalescers;
+import esa.restlight.core.handler.impl.RouteHandlerAdapter;
+import esa.restlight.core.method.HandlerMethod;
+import esa.restlight.core.resolver.HandlerResolverFactory;
+import esa.restlight.server.route.Mapping;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestlightCoalescingBinderTest {
+
+    @Test
+    void testNotCoalesced() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        new RestlightCoalescingBinder(registry).setDeployContext(newContext());
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    void testBind() throws NoSuchMethodException {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final DeployContext<RestlightOptions> ctx = newContext();
+        Coalescers.register(ctx, Mapping.get("/foo"), adapter());
+        Coalescers.register(ctx, Mapping.get("/bar"), adapter());
+
+        new RestlightCoalescingBinder(registry).setDeployContext(ctx);
+
+        for (String uri : new String[]{"/foo", "/bar"}) {
+            for (String name : new String[]{"invocations", "coalesced", "overflowed", "fallbacks"}) {
+                assertEquals(0.0D, registry.get("restlight.route.coalescing." + name)
+                        .tags("method", "GET", "uri", uri).functionCounter().count());
+            }
+            assertEquals(0.0D, registry.get("restlight.route.coalescing.in.flight")
+                    .tags("method", "GET", "uri", uri).gauge().value());
+        }
+    }
+
+    private static DeployContext<RestlightOptions> newContext() {
+        return new DeployContextImpl<RestlightOptions>("test", RestlightOptionsConfigure.defaultOpts()) {
+        };
+    }
+
+    private static RouteHandlerAdapter adapter() throws NoSuchMethodException {
+        final RouteHandler handler = mock(RouteHandler.class);
+        when(handler.handler())
+                .thenReturn(HandlerMethod.of(Controller.class.getDeclaredMethod("catalog"), new Controller()));
+        return new RouteHandlerAdapter(handler, mock(HandlerResolverFactory.class), null, null);
+    }
+
+    private static class Controller {
+
+        @Coalesced
+        private String catalog() {
+            return "catalog";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.ReadOnlyRouteRegistry;
+import esa.restlight.server.route.Route;
+import esa.restlight.server.route.RouteRegistry;
+import esa.restlight.server.route.impl.CachedRouteRegistry;
+import esa.restlight.server.route.impl.SimpleRouteRegistry;
+import esa.restlight.test.mock.MockAsyncRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestlightRouteHitsBinderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testNotCached() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeRegistry()).thenReturn(Optional.of(new SimpleRouteRegistry().toReadOnly()));
+        new RestlightRouteHitsBinder(registry).setDeployContext(ctx);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBind() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final RouteRegistry routeRegistry = new CachedRouteRegistry(1000);
+        routeRegistry.registerRoute(Route.route(Mapping.get("/foo")));
+        routeRegistry.registerRoute(Route.route(Mapping.get("/bar")));
+        final ReadOnlyRouteRegistry readOnly = routeRegistry.toReadOnly();
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeRegistry()).thenReturn(Optional.of(readOnly));
+
+        new RestlightRouteHitsBinder(registry).setDeployContext(ctx);
+
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/bar").build());
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/bar").build());
+        readOnly.route(MockAsyncRequest.aMockRequest().withUri("/baz").build());
+
+        assertEquals(2.0D, registry.get("restlight.route.hits")
+                .tags("method", "GET", "uri", "/bar").functionCounter().count());
+        assertEquals(0.0D, registry.get("restlight.route.hits")
+                .tags("method", "GET", "uri", "/foo").functionCounter().count());
+        assertEquals(0.0D, registry.get("restlight.route.cache.order")
+                .tags("method", "GET", "uri", "/bar").gauge().value());
+        assertEquals(1.0D, registry.get("restlight.route.cache.order")
+                .tags("method", "GET", "uri", "/foo").gauge().value());
+        assertEquals(1.0D, registry.get("restlight.route.not.found").functionCounter().count());
+        assertEquals(2.0D, registry.get("restlight.route.cache.compute").functionCounter().count());
+        assertEquals(1000.0D, registry.get("restlight.route.cache.compute.rate").gauge().value());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 OPPO ESA Stack Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package esa.restlight.starter.actuator.meter;
+
+import esa.restlight.core.DeployContext;
+import esa.restlight.core.config.RestlightOptions;
+import esa.restlight.core.config.RestlightOptionsConfigure;
+import esa.restlight.server.config.MetricsOptionsConfigure;
+import esa.restlight.server.metrics.RouteMetrics;
+import esa.restlight.server.metrics.RouteRecorder;
+import esa.restlight.server.route.Mapping;
+import esa.restlight.server.route.Route;
+import esa.restlight.test.mock.MockAsyncRequest;
+import esa.restlight.test.mock.MockAsyncResponse;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestlightRouteMetricsBinderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDisabled() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeMetrics()).thenReturn(Optional.empty());
+        new RestlightRouteMetricsBinder(registry).setDeployContext(ctx);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBind() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final RestlightOptions options = RestlightOptionsConfigure.newOpts()
+                .metrics(MetricsOptionsConfigure.newOpts().enable(true).percentiles(0.5D).configured())
+                .configured();
+        final RouteMetrics metrics = new RouteMetrics(options.getMetrics());
+        metrics.init(Arrays.asList(Route.route(Mapping.get("/foo")), Route.route(Mapping.mapping("/bar"))));
+        final DeployContext<RestlightOptions> ctx = mock(DeployContext.class);
+        when(ctx.routeMetrics()).thenReturn(Optional.of(metrics));
+        when(ctx.options()).thenReturn(options);
+
+        new RestlightRouteMetricsBinder(registry).setDeployContext(ctx);
+
+        final RouteRecorder recorder = metrics.recorders().get(0);
+        recorder.record(MockAsyncRequest.aMockRequest().withBody(new byte[4]).build(),
+                MockAsyncResponse.aMockResponse().build(),
+                0L,
+                TimeUnit.MILLISECONDS.toNanos(1L),
+                TimeUnit.MILLISECONDS.toNanos(2L));
+
+        final FunctionTimer total = registry.find("restlight.route.total")
+                .tags("method", "GET", "uri", "/foo")
+                .functionTimer();
+        assertNotNull(total);
+        assertEquals(1.0D, total.count());
+        assertEquals(2.0D, total.totalTime(TimeUnit.MILLISECONDS));
+
+        final TimeGauge p50 = registry.find("restlight.route.queue.wait.percentile")
+                .tags("method", "GET", "uri", "/foo", "phi", "0.5")
+                .timeGauge();
+        assertNotNull(p50);
+        assertEquals(1.0D, p50.value(TimeUnit.MILLISECONDS), 1.0D / 16.0D);
+
+        final Gauge requestSize = registry.find("restlight.route.request.size.max")
+                .tags("method", "GET", "uri", "/foo")
+                .gauge();
+        assertNotNull(requestSize);
+        assertEquals(4.0D, requestSize.value());
+
+        assertNotNull(registry.find("restlight.route.handle").tags("method", "*", "uri", "/bar").functionTimer());
+    }
+}
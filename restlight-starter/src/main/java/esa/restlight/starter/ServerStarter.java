@@ -25,6 +25,7 @@ import esa.restlight.server.bootstrap.AbstractDelegatedRestlightServer;
 import esa.restlight.server.bootstrap.RestlightServer;
 import esa.restlight.server.bootstrap.RestlightThread;
 import esa.restlight.server.util.LoggerUtils;
+import esa.restlight.server.warmup.WarmUp;
 import esa.restlight.spring.Restlight4Spring;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
 import esa.restlight.starter.autoconfigure.RestlightConfigure;
@@ -61,7 +62,7 @@ public class ServerStarter extends AbstractDelegatedRestlightServer
         final long wamUp;
         WarmUpOptions warmUpOptions = options.getWarmUp();
         if (warmUpOptions != null && warmUpOptions.isEnable()) {
-            wamUp = warmUpOptions.getDelay();
+            wamUp = warmUpOptions.getDelay() + (isReplayable(warmUpOptions) ? warmUpOptions.getTimeoutMillis() : 0L);
         } else {
             wamUp = 0L;
         }
@@ -75,7 +76,7 @@ public class ServerStarter extends AbstractDelegatedRestlightServer
                 }
                 logger.info("Starting Restlight server...\n{}", options.toString());
 
-                if (wamUp > 0) {
+                if (wamUp > 0 && warmUpOptions.getDelay() > 0) {
                     logger.info("Warm-up delay for {} mills.", warmUpOptions.getDelay());
                     try {
                         Thread.sleep(warmUpOptions.getDelay());
@@ -125,9 +126,21 @@ public class ServerStarter extends AbstractDelegatedRestlightServer
         } else {
             server.address(configured.address);
         }
+        final WarmUpOptions warmUp = options.getWarmUp();
+        if (warmUp != null && warmUp.isEnable() && isReplayable(warmUp)) {
+            server.warmUp(new WarmUp(warmUp.getSamples(),
+                    warmUp.isAutoGenerate(),
+                    warmUp.getIterations(),
+                    warmUp.getLatencyTargetMicros(),
+                    warmUp.getTimeoutMillis()));
+        }
         setServer(server);
     }
 
+    private static boolean isReplayable(WarmUpOptions warmUp) {
+        return warmUp.isAutoGenerate() || (warmUp.getSamples() != null && !warmUp.getSamples().isEmpty());
+    }
+
     private void printBanner(String version) {
         logger.info("\n" +
                 "______             _    _  _         _      _   \n" +
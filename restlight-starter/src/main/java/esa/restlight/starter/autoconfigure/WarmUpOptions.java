@@ -15,7 +15,11 @@
  */
 package esa.restlight.starter.autoconfigure;
 
+import esa.restlight.server.warmup.WarmUpSample;
+
 import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.List;
 
 public class WarmUpOptions implements Serializable {
 
@@ -31,6 +35,33 @@ public class WarmUpOptions implements Serializable {
      */
     private long delay;
 
+    /**
+     * Sample requests to replay before the server is bound to the port.
+     */
+    private List<WarmUpSample> samples = new LinkedList<>();
+
+    /**
+     * Whether to generate sample requests from the GET routes which don't need any path variable, parameter or
+     * header.
+     */
+    private boolean autoGenerate;
+
+    /**
+     * Max rounds of replaying all the samples.
+     */
+    private int iterations = 1000;
+
+    /**
+     * Stop replaying as soon as the average latency of a round is not over than this value in microseconds, 0 means
+     * disabled.
+     */
+    private long latencyTargetMicros;
+
+    /**
+     * Max time of replaying in milliseconds.
+     */
+    private long timeoutMillis = 10_000L;
+
     public boolean isEnable() {
         return enable;
     }
@@ -50,10 +81,55 @@ public class WarmUpOptions implements Serializable {
         this.delay = delay;
     }
 
+    public List<WarmUpSample> getSamples() {
+        return samples;
+    }
+
+    public void setSamples(List<WarmUpSample> samples) {
+        this.samples = samples;
+    }
+
+    public boolean isAutoGenerate() {
+        return autoGenerate;
+    }
+
+    public void setAutoGenerate(boolean autoGenerate) {
+        this.autoGenerate = autoGenerate;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public long getLatencyTargetMicros() {
+        return latencyTargetMicros;
+    }
+
+    public void setLatencyTargetMicros(long latencyTargetMicros) {
+        this.latencyTargetMicros = latencyTargetMicros;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
     @Override
     public String toString() {
         return "WarmUpOptions{" + "enable=" + enable +
                 ", delay=" + delay +
+                ", samples=" + (samples == null ? 0 : samples.size()) +
+                ", autoGenerate=" + autoGenerate +
+                ", iterations=" + iterations +
+                ", latencyTargetMicros=" + latencyTargetMicros +
+                ", timeoutMillis=" + timeoutMillis +
                 '}';
     }
 }
@@ -16,12 +16,16 @@
 package esa.restlight.starter;
 
 import esa.commons.NetworkUtils;
+import esa.restlight.server.warmup.WarmUpSample;
 import esa.restlight.starter.autoconfigure.AutoRestlightServerOptions;
+import esa.restlight.starter.autoconfigure.WarmUpOptions;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ContextClosedEvent;
 
+import java.util.Collections;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Configuration
@@ -45,5 +49,28 @@ class ServerStarterTest {
         starter.onApplicationEvent(new ContextClosedEvent(ctx));
     }
 
-}
+    @Test
+    void testWarmUpBeforeStarting() {
+        AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+        ctx.refresh();
 
+        final AutoRestlightServerOptions options = new AutoRestlightServerOptions();
+        final int port = NetworkUtils.selectRandomPort();
+        options.setPort(port);
+        options.setHost("127.0.0.1");
+        final WarmUpOptions warmUp = new WarmUpOptions();
+        warmUp.setEnable(true);
+        warmUp.setAutoGenerate(true);
+        warmUp.setIterations(10);
+        warmUp.setSamples(Collections.singletonList(new WarmUpSample("GET", "/foo")));
+        options.setWarmUp(warmUp);
+        final ServerStarter starter = new ServerStarter(options);
+        starter.setApplicationContext(ctx);
+        starter.afterSingletonsInstantiated();
+
+        assertTrue(NetworkUtils.checkPortStatus(options.getHost(), options.getPort()));
+        ctx.close();
+        starter.onApplicationEvent(new ContextClosedEvent(ctx));
+    }
+
+}
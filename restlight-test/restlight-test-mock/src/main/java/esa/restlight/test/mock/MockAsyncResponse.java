@@ -220,6 +220,11 @@ public class MockAsyncResponse implements AsyncResponse {
         return committed == 1;
     }
 
+    @Override
+    public long bodyLength() {
+        return result.readableBytes();
+    }
+
     @Override
     public void reset() {
         checkCommitted();